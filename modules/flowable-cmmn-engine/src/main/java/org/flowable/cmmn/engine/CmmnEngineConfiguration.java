@@ -154,6 +154,13 @@ public class CmmnEngineConfiguration extends AbstractEngineConfiguration {
     protected int caseDefinitionCacheLimit = -1;
     protected DeploymentCache<CaseDefinitionCacheEntry> caseDefinitionCache;
 
+    /**
+     * When enabled, an index from plan item lifecycle transitions to the sentries referencing them is kept with each cached case definition.
+     * The criteria evaluation after a plan item lifecycle transition then only visits the plan item instances whose sentries can be affected by it.
+     * Default false.
+     */
+    protected boolean enableSentryDependencyIndex;
+
     protected ProcessInstanceService processInstanceService;
     protected Map<String, List<RuntimeInstanceStateChangeCallback>> caseInstanceStateChangeCallbacks;
     
@@ -813,6 +820,15 @@ public class CmmnEngineConfiguration extends AbstractEngineConfiguration {
         this.caseDefinitionCache = caseDefinitionCache;
         return this;
     }
+
+    public boolean isEnableSentryDependencyIndex() {
+        return enableSentryDependencyIndex;
+    }
+
+    public CmmnEngineConfiguration setEnableSentryDependencyIndex(boolean enableSentryDependencyIndex) {
+        this.enableSentryDependencyIndex = enableSentryDependencyIndex;
+        return this;
+    }
     
     public ProcessInstanceService getProcessInstanceService() {
         return processInstanceService;
@@ -17,11 +17,14 @@ import java.util.List;
 import java.util.Set;
 
 import org.flowable.cmmn.engine.impl.criteria.PlanItemLifeCycleEvent;
+import org.flowable.cmmn.engine.impl.criteria.SentryDependencyIndex;
+import org.flowable.cmmn.engine.impl.criteria.SentryDependencyIndex.AffectedPlanItems;
 import org.flowable.cmmn.engine.impl.persistence.entity.CaseInstanceEntity;
 import org.flowable.cmmn.engine.impl.persistence.entity.EntityWithSentryOnPartInstances;
 import org.flowable.cmmn.engine.impl.persistence.entity.PlanItemInstanceEntity;
 import org.flowable.cmmn.engine.impl.persistence.entity.SentryOnPartInstanceEntity;
 import org.flowable.cmmn.engine.impl.persistence.entity.SentryOnPartInstanceEntityManager;
+import org.flowable.cmmn.engine.impl.repository.CaseDefinitionUtil;
 import org.flowable.cmmn.engine.impl.util.CommandContextUtil;
 import org.flowable.cmmn.engine.runtime.PlanItemInstanceState;
 import org.flowable.cmmn.model.Criterion;
@@ -42,6 +45,7 @@ public class EvaluateCriteriaOperation extends AbstractCaseInstanceOperation {
     private static final Logger LOGGER = LoggerFactory.getLogger(EvaluateCriteriaOperation.class);
     
     protected PlanItemLifeCycleEvent planItemLifeCycleEvent;
+    protected AffectedPlanItems affectedPlanItems;
     
     private enum CriteriaEvaluationResult { ALL, SOME , NONE };
     
@@ -58,13 +62,24 @@ public class EvaluateCriteriaOperation extends AbstractCaseInstanceOperation {
     public void run() {
         super.run();
         
-        CriteriaEvaluationResult planModelExitCriteriaEvaluationResult = evaluateExitCriteria(caseInstanceEntity, getPlanModel(caseInstanceEntity));
+        if (planItemLifeCycleEvent != null) {
+            SentryDependencyIndex sentryDependencyIndex = CaseDefinitionUtil.getSentryDependencyIndex(caseInstanceEntity.getCaseDefinitionId());
+            if (sentryDependencyIndex != null) {
+                affectedPlanItems = sentryDependencyIndex.getAffectedPlanItems(planItemLifeCycleEvent);
+            }
+        }
+        
+        Stage planModel = getPlanModel(caseInstanceEntity);
+        CriteriaEvaluationResult planModelExitCriteriaEvaluationResult = CriteriaEvaluationResult.NONE;
+        if (affectedPlanItems == null || affectedPlanItems.isPlanModelExitCriteria()) {
+            planModelExitCriteriaEvaluationResult = evaluateExitCriteria(caseInstanceEntity, planModel);
+        }
         if (CriteriaEvaluationResult.ALL.equals(planModelExitCriteriaEvaluationResult)) {
             CommandContextUtil.getAgenda(commandContext).planTerminateCase(caseInstanceEntity, false);
             
         } else {
             boolean criteriaChangeOrActiveChildren = evaluatePlanItemsCriteria(caseInstanceEntity.getChildPlanItemInstances());
-            if (!criteriaChangeOrActiveChildren) {
+            if (!criteriaChangeOrActiveChildren && canComplete(null)) {
                 if (LOGGER.isDebugEnabled()) {
                     LOGGER.debug("No active plan items found for plan model, completing case instance");
                 }
@@ -92,19 +107,22 @@ public class EvaluateCriteriaOperation extends AbstractCaseInstanceOperation {
             PlanItem planItem = planItemInstanceEntity.getPlanItem();
             CriteriaEvaluationResult evaluationResult = null;
             if (PlanItemInstanceState.AVAILABLE.equals(planItemInstanceEntity.getState())) {
+                if (!isEntryCriteriaAffected(planItem)) {
+                    continue;
+                }
                 evaluationResult = evaluateEntryCriteria(planItemInstanceEntity, planItem);
                 if (evaluationResult.equals(CriteriaEvaluationResult.ALL)) {
                     CommandContextUtil.getAgenda(commandContext).planActivatePlanItem(planItemInstanceEntity);  
                 }
                 
             } else if (PlanItemInstanceState.ACTIVE.equals(planItemInstanceEntity.getState()) ) {
-                evaluationResult = evaluateExitCriteria(planItemInstanceEntity, planItem);
+                evaluationResult = isExitCriteriaAffected(planItem) ? evaluateExitCriteria(planItemInstanceEntity, planItem) : CriteriaEvaluationResult.NONE;
                 if (evaluationResult.equals(CriteriaEvaluationResult.ALL)) {
                     CommandContextUtil.getAgenda(commandContext).planExitPlanItem(planItemInstanceEntity);
                     
-                } else if (planItem.getPlanItemDefinition() instanceof Stage) {
+                } else if (planItem.getPlanItemDefinition() instanceof Stage && isStageAffected(planItem)) {
                     boolean criteriaChangeOrActiveChildrenForStage = evaluateStagePlanItemInstance(planItemInstanceEntity);
-                    if (criteriaChangeOrActiveChildrenForStage) {
+                    if (criteriaChangeOrActiveChildrenForStage || !canComplete(planItem)) {
                         activeChildren++;
                     } else {
                         CommandContextUtil.getAgenda(commandContext).planCompletePlanItem(planItemInstanceEntity);
@@ -141,6 +159,34 @@ public class EvaluateCriteriaOperation extends AbstractCaseInstanceOperation {
         return false;
     }
 
+    /**
+     * Without {@link AffectedPlanItems} (no lifecycle event or no sentry dependency index) all plan items are evaluated. 
+     */
+    protected boolean isEntryCriteriaAffected(PlanItem planItem) {
+        return affectedPlanItems == null || affectedPlanItems.getEntryCriteriaPlanItemIds().contains(planItem.getId());
+    }
+    
+    protected boolean isExitCriteriaAffected(PlanItem planItem) {
+        return affectedPlanItems == null || affectedPlanItems.getExitCriteriaPlanItemIds().contains(planItem.getId());
+    }
+    
+    protected boolean isStageAffected(PlanItem stagePlanItem) {
+        return affectedPlanItems == null || affectedPlanItems.getStagePlanItemIds().contains(stagePlanItem.getId());
+    }
+    
+    /**
+     * Only the stage the source of the lifecycle event is part of can complete through that event:
+     * any other stage completes through the event of its own last active child.
+     * A null stage plan item stands for the plan model.
+     */
+    protected boolean canComplete(PlanItem stagePlanItem) {
+        if (affectedPlanItems == null) {
+            return true;
+        }
+        String sourceStagePlanItemId = affectedPlanItems.getSourceStagePlanItemId();
+        return stagePlanItem != null ? stagePlanItem.getId().equals(sourceStagePlanItemId) : sourceStagePlanItemId == null;
+    }
+
     protected CriteriaEvaluationResult evaluateEntryCriteria(PlanItemInstanceEntity planItemInstanceEntity, PlanItem planItem) {
         List<Criterion> criteria = planItem.getEntryCriteria();
         if (criteria == null || criteria.isEmpty()) {
@@ -0,0 +1,234 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.cmmn.engine.impl.criteria;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.flowable.cmmn.model.Case;
+import org.flowable.cmmn.model.Criterion;
+import org.flowable.cmmn.model.PlanItem;
+import org.flowable.cmmn.model.Sentry;
+import org.flowable.cmmn.model.SentryOnPart;
+import org.flowable.cmmn.model.Stage;
+
+/**
+ * Index from plan item lifecycle transitions to the plan items (and the plan model) having criteria with a sentry on part for that transition.
+ *
+ * Built once per case definition: for every plan item and transition, the {@link AffectedPlanItems} are calculated at parse time,
+ * so that the evaluation of the criteria after a {@link PlanItemLifeCycleEvent} only needs to visit the plan item instances
+ * whose sentries can be affected by that event.
+ *
+ * Criteria with a sentry that doesn't have exactly one on part are always evaluated: with more than one on part
+ * their outcome also depends on the on parts that were satisfied before, and without on parts (e.g. a sentry with only an if part)
+ * they don't depend on any lifecycle transition at all.
+ */
+public class SentryDependencyIndex {
+
+    protected String planModelId;
+
+    /** plan item id to the id of the stage plan item it is part of (null for the plan model) */
+    protected Map<String, String> parentStagePlanItemIds = new HashMap<>();
+
+    protected Map<String, Map<String, Set<String>>> entryCriteriaDependents = new HashMap<>();
+    protected Map<String, Map<String, Set<String>>> exitCriteriaDependents = new HashMap<>();
+    protected Set<String> entryCriteriaAlwaysEvaluated = new HashSet<>();
+    protected Set<String> exitCriteriaAlwaysEvaluated = new HashSet<>();
+
+    /** source plan item id to transition to the affected plan items */
+    protected Map<String, Map<String, AffectedPlanItems>> affectedPlanItems = new HashMap<>();
+
+    /** source plan item id to the affected plan items for a transition no sentry on part listens to */
+    protected Map<String, AffectedPlanItems> defaultAffectedPlanItems = new HashMap<>();
+
+    public SentryDependencyIndex(Case caze) {
+        Stage planModel = caze.getPlanModel();
+        if (planModel != null) {
+            planModelId = planModel.getId();
+            addCriteria(planModel.getId(), planModel.getExitCriteria(), exitCriteriaDependents, exitCriteriaAlwaysEvaluated);
+            addStage(planModel, null);
+            createAffectedPlanItems();
+        }
+    }
+
+    protected void addStage(Stage stage, String stagePlanItemId) {
+        for (PlanItem planItem : stage.getPlanItems()) {
+            parentStagePlanItemIds.put(planItem.getId(), stagePlanItemId);
+
+            addCriteria(planItem.getId(), planItem.getEntryCriteria(), entryCriteriaDependents, entryCriteriaAlwaysEvaluated);
+            addCriteria(planItem.getId(), planItem.getExitCriteria(), exitCriteriaDependents, exitCriteriaAlwaysEvaluated);
+
+            if (planItem.getPlanItemDefinition() instanceof Stage) {
+                addStage((Stage) planItem.getPlanItemDefinition(), planItem.getId());
+            }
+        }
+    }
+
+    protected void addCriteria(String elementId, List<Criterion> criteria, Map<String, Map<String, Set<String>>> dependents, Set<String> elementsAlwaysEvaluated) {
+        if (criteria == null) {
+            return;
+        }
+
+        for (Criterion criterion : criteria) {
+            Sentry sentry = criterion.getSentry();
+            if (sentry == null) {
+                continue;
+            }
+
+            if (sentry.getOnParts().size() != 1) {
+                elementsAlwaysEvaluated.add(elementId);
+            }
+
+            for (SentryOnPart sentryOnPart : sentry.getOnParts()) {
+                if (sentryOnPart.getSourceRef() != null && sentryOnPart.getStandardEvent() != null) {
+                    Map<String, Set<String>> dependentsByTransition = dependents.get(sentryOnPart.getSourceRef());
+                    if (dependentsByTransition == null) {
+                        dependentsByTransition = new HashMap<>();
+                        dependents.put(sentryOnPart.getSourceRef(), dependentsByTransition);
+                    }
+                    Set<String> elementIds = dependentsByTransition.get(sentryOnPart.getStandardEvent());
+                    if (elementIds == null) {
+                        elementIds = new HashSet<>();
+                        dependentsByTransition.put(sentryOnPart.getStandardEvent(), elementIds);
+                    }
+                    elementIds.add(elementId);
+
+                } else {
+                    elementsAlwaysEvaluated.add(elementId);
+                }
+            }
+        }
+    }
+
+    protected void createAffectedPlanItems() {
+        for (String sourcePlanItemId : parentStagePlanItemIds.keySet()) {
+            defaultAffectedPlanItems.put(sourcePlanItemId, createAffectedPlanItems(sourcePlanItemId, null));
+
+            Set<String> transitions = new HashSet<>();
+            if (entryCriteriaDependents.containsKey(sourcePlanItemId)) {
+                transitions.addAll(entryCriteriaDependents.get(sourcePlanItemId).keySet());
+            }
+            if (exitCriteriaDependents.containsKey(sourcePlanItemId)) {
+                transitions.addAll(exitCriteriaDependents.get(sourcePlanItemId).keySet());
+            }
+
+            if (!transitions.isEmpty()) {
+                Map<String, AffectedPlanItems> affectedPlanItemsByTransition = new HashMap<>();
+                for (String transition : transitions) {
+                    affectedPlanItemsByTransition.put(transition, createAffectedPlanItems(sourcePlanItemId, transition));
+                }
+                affectedPlanItems.put(sourcePlanItemId, affectedPlanItemsByTransition);
+            }
+        }
+    }
+
+    protected AffectedPlanItems createAffectedPlanItems(String sourcePlanItemId, String transition) {
+        AffectedPlanItems affected = new AffectedPlanItems(parentStagePlanItemIds.get(sourcePlanItemId));
+
+        affected.entryCriteriaPlanItemIds.addAll(entryCriteriaAlwaysEvaluated);
+        affected.exitCriteriaPlanItemIds.addAll(exitCriteriaAlwaysEvaluated);
+        if (transition != null) {
+            addDependents(sourcePlanItemId, transition, entryCriteriaDependents, affected.entryCriteriaPlanItemIds);
+            addDependents(sourcePlanItemId, transition, exitCriteriaDependents, affected.exitCriteriaPlanItemIds);
+        }
+
+        // The plan model isn't a plan item, its exit criteria are evaluated separately
+        affected.planModelExitCriteria = affected.exitCriteriaPlanItemIds.remove(planModelId);
+
+        // The stages to descend into to reach the affected plan items and the stage that can complete through the transition of the source
+        addStagePlanItemIds(sourcePlanItemId, affected.stagePlanItemIds);
+        for (String planItemId : affected.entryCriteriaPlanItemIds) {
+            addStagePlanItemIds(planItemId, affected.stagePlanItemIds);
+        }
+        for (String planItemId : affected.exitCriteriaPlanItemIds) {
+            addStagePlanItemIds(planItemId, affected.stagePlanItemIds);
+        }
+
+        return affected;
+    }
+
+    protected void addDependents(String sourcePlanItemId, String transition, Map<String, Map<String, Set<String>>> dependents, Set<String> elementIds) {
+        Map<String, Set<String>> dependentsByTransition = dependents.get(sourcePlanItemId);
+        if (dependentsByTransition != null && dependentsByTransition.containsKey(transition)) {
+            elementIds.addAll(dependentsByTransition.get(transition));
+        }
+    }
+
+    protected void addStagePlanItemIds(String planItemId, Set<String> stagePlanItemIds) {
+        String stagePlanItemId = parentStagePlanItemIds.get(planItemId);
+        while (stagePlanItemId != null && stagePlanItemIds.add(stagePlanItemId)) {
+            stagePlanItemId = parentStagePlanItemIds.get(stagePlanItemId);
+        }
+    }
+
+    /**
+     * @return the plan items whose criteria need to be evaluated for the given event,
+     *         or null when the plan item of the event isn't part of the indexed case definition
+     */
+    public AffectedPlanItems getAffectedPlanItems(PlanItemLifeCycleEvent planItemLifeCycleEvent) {
+        String sourcePlanItemId = planItemLifeCycleEvent.getPlanItem().getId();
+        Map<String, AffectedPlanItems> affectedPlanItemsByTransition = affectedPlanItems.get(sourcePlanItemId);
+        if (affectedPlanItemsByTransition != null) {
+            AffectedPlanItems affected = affectedPlanItemsByTransition.get(planItemLifeCycleEvent.getTransition());
+            if (affected != null) {
+                return affected;
+            }
+        }
+        return defaultAffectedPlanItems.get(sourcePlanItemId);
+    }
+
+    public static class AffectedPlanItems {
+
+        protected String sourceStagePlanItemId;
+        protected boolean planModelExitCriteria;
+        protected Set<String> entryCriteriaPlanItemIds = new HashSet<>();
+        protected Set<String> exitCriteriaPlanItemIds = new HashSet<>();
+        protected Set<String> stagePlanItemIds = new HashSet<>();
+
+        public AffectedPlanItems(String sourceStagePlanItemId) {
+            this.sourceStagePlanItemId = sourceStagePlanItemId;
+        }
+
+        /**
+         * @return the id of the stage plan item the source of the event is part of, or null when it's a child of the plan model.
+         *         Only this stage (or the case instance) can complete through the event.
+         */
+        public String getSourceStagePlanItemId() {
+            return sourceStagePlanItemId;
+        }
+
+        public boolean isPlanModelExitCriteria() {
+            return planModelExitCriteria;
+        }
+
+        public Set<String> getEntryCriteriaPlanItemIds() {
+            return entryCriteriaPlanItemIds;
+        }
+
+        public Set<String> getExitCriteriaPlanItemIds() {
+            return exitCriteriaPlanItemIds;
+        }
+
+        /**
+         * @return the ids of the stage plan items that contain an affected plan item or the source of the event
+         */
+        public Set<String> getStagePlanItemIds() {
+            return stagePlanItemIds;
+        }
+
+    }
+
+}
@@ -169,4 +169,35 @@ public class ExitCriteriaTest extends FlowableCmmnTestCase {
         cmmnRepositoryService.deleteDeploymentAndRelatedData(oneTaskCaseDeploymentId);
     }
     
+    
+    @Test
+    @CmmnDeployment
+    public void testExitCriteriaWithDifferentNumberOfOnParts() {
+        CaseInstance caseInstance = cmmnRuntimeService.startCaseInstanceByKey("myCase");
+        List<PlanItemInstance> planItems = getActivePlanItemInstances(caseInstance.getId());
+        assertEquals(5, planItems.size());
+        
+        // Completing C satisfies the single on part of the exit criterion of B and one of the two on parts of the exit criterion of D.
+        // The exit criterion of A has a sentry without on parts (only an if part), which is satisfied whenever the criteria are evaluated.
+        cmmnRuntimeService.triggerPlanItemInstance(planItems.get(2).getId());
+        planItems = getActivePlanItemInstances(caseInstance.getId());
+        assertEquals(2, planItems.size());
+        assertEquals("D", planItems.get(0).getName());
+        assertEquals("E", planItems.get(1).getName());
+        
+        // Completing E satisfies the second on part of the exit criterion of D
+        cmmnRuntimeService.triggerPlanItemInstance(planItems.get(1).getId());
+        assertEquals(0, cmmnRuntimeService.createPlanItemQuery().count());
+        assertEquals(0, cmmnRuntimeService.createCaseInstanceQuery().count());
+        assertEquals(1, cmmnHistoryService.createHistoricCaseInstanceQuery().finished().count());
+    }
+    
+    protected List<PlanItemInstance> getActivePlanItemInstances(String caseInstanceId) {
+        return cmmnRuntimeService.createPlanItemQuery()
+                .caseInstanceId(caseInstanceId)
+                .planItemInstanceState(PlanItemInstanceState.ACTIVE)
+                .orderByName().asc()
+                .list();
+    }
+    
 }
@@ -0,0 +1,36 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.cmmn.test.runtime;
+
+import org.flowable.cmmn.engine.impl.CmmnEngineImpl;
+import org.flowable.cmmn.engine.test.impl.CmmnTestRunner;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+
+/**
+ * Runs the tests of {@link ExitCriteriaTest} with the sentry dependency index enabled,
+ * so that the criteria are evaluated only for the plan items affected by a lifecycle event.
+ */
+public class ExitCriteriaWithSentryDependencyIndexTest extends ExitCriteriaTest {
+    
+    @BeforeClass
+    public static void enableSentryDependencyIndex() {
+        ((CmmnEngineImpl) CmmnTestRunner.getCmmnEngine()).getCmmnEngineConfiguration().setEnableSentryDependencyIndex(true);
+    }
+    
+    @AfterClass
+    public static void disableSentryDependencyIndex() {
+        ((CmmnEngineImpl) CmmnTestRunner.getCmmnEngine()).getCmmnEngineConfiguration().setEnableSentryDependencyIndex(false);
+    }
+    
+}
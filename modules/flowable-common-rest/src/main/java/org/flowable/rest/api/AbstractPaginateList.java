@@ -27,6 +27,8 @@ public abstract class AbstractPaginateList {
 
     /**
      * Uses the pagination parameters form the request and makes sure to order the result and set all pagination attributes for the response to render.
+     * When the request has a continuation token, the page after that token is returned together with the token of the next page.
+     * When the request doesn't include the total, the results are not counted and the total is a lower bound.
      *
      * @param requestParams
      *            The request containing the pagination parameters
@@ -61,6 +63,14 @@ public abstract class AbstractPaginateList {
             paginateRequest.setSort(requestParams.get("sort"));
         }
 
+        if (paginateRequest.getContinuationToken() == null) {
+            paginateRequest.setContinuationToken(requestParams.get("continuationToken"));
+        }
+
+        if (paginateRequest.getIncludeTotal() == null) {
+            paginateRequest.setIncludeTotal(RequestUtil.getBoolean(requestParams, "includeTotal", true));
+        }
+
         // Use defaults for paging, if not set in the PaginationRequest, nor in the URL
         Integer start = paginateRequest.getStart();
         if (start == null || start < 0) {
@@ -81,6 +91,9 @@ public abstract class AbstractPaginateList {
             order = "asc";
         }
 
+        String continuationToken = paginateRequest.getContinuationToken();
+        boolean includeTotal = paginateRequest.getIncludeTotal() == null || paginateRequest.getIncludeTotal();
+
         // Sort order
         if (sort != null && !properties.isEmpty()) {
             Object qp = properties.get(sort);
@@ -110,9 +123,36 @@ public abstract class AbstractPaginateList {
         Query queryObject = (Query) query;
 
         // Get result and set pagination parameters
-        List list = processList(queryObject.listPage(start, size));
-        if (start == 0 && list.size() < size) {
-            response.setTotal(list.size());
+        List resultList;
+        boolean hasMoreResults;
+        if (continuationToken != null) {
+            // The page after the token instead of the page at the start index, an empty token selects the first page
+            resultList = queryObject.listPageAfter(continuationToken.isEmpty() ? null : continuationToken, size);
+            response.setContinuationToken(queryObject.getContinuationToken());
+            hasMoreResults = response.getContinuationToken() != null;
+
+        } else if (!includeTotal && size < Integer.MAX_VALUE) {
+            // One more result than the page size tells whether there are more results, without counting them
+            resultList = queryObject.listPage(start, size + 1);
+            hasMoreResults = resultList.size() > size;
+            if (hasMoreResults) {
+                resultList = resultList.subList(0, size);
+            }
+
+        } else {
+            resultList = queryObject.listPage(start, size);
+            hasMoreResults = resultList.size() >= size;
+        }
+
+        List list = processList(resultList);
+        if (!includeTotal) {
+            // Not counted, so the total is the lowest possible total. The start isn't known for a page after a token, so there's no total then.
+            if (continuationToken == null) {
+                response.setTotal((long) start + list.size() + (hasMoreResults ? 1 : 0));
+            }
+        } else if (continuationToken == null && list.size() < size && (start == 0 || !list.isEmpty())) {
+            // The last page, so the total follows from the start
+            response.setTotal((long) start + list.size());
         } else {
             response.setTotal(queryObject.count());
         }
@@ -13,17 +13,21 @@
 
 package org.flowable.rest.api;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
 /**
  * @author Tijs Rademakers
  */
 public class DataResponse {
 
     Object data;
-    long total;
+    Long total;
     int start;
     String sort;
     String order;
     int size;
+    String continuationToken;
 
     public Object getData() {
         return data;
@@ -34,11 +38,12 @@ public class DataResponse {
         return this;
     }
 
-    public long getTotal() {
+    @JsonInclude(Include.NON_NULL)
+    public Long getTotal() {
         return total;
     }
 
-    public void setTotal(long total) {
+    public void setTotal(Long total) {
         this.total = total;
     }
 
@@ -73,4 +78,13 @@ public class DataResponse {
     public void setSize(int size) {
         this.size = size;
     }
+
+    @JsonInclude(Include.NON_NULL)
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    public void setContinuationToken(String continuationToken) {
+        this.continuationToken = continuationToken;
+    }
 }
@@ -0,0 +1,84 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.dmn.api;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Helper for executing a decision for many sets of input variables.
+ *
+ * An instance can be obtained through {@link org.flowable.dmn.api.DmnRuleService#createExecuteDecisionBatchBuilder()}.
+ *
+ * The decision is resolved once, and the executions are done in batches of {@link #batchSize(int)} executions per transaction.
+ * The input variables are read and the results are produced while iterating over the results returned by {@link #execute()},
+ * so only the batches in progress are kept in memory.
+ */
+public interface ExecuteDecisionBatchBuilder {
+
+    /**
+     * Set the key of the decision
+     **/
+    ExecuteDecisionBatchBuilder decisionKey(String decisionKey);
+
+    /**
+     * Set the parent deployment id
+     **/
+    ExecuteDecisionBatchBuilder parentDeploymentId(String parentDeploymentId);
+
+    /**
+     * Set the tenant id
+     **/
+    ExecuteDecisionBatchBuilder tenantId(String tenantId);
+
+    /**
+     * Sets the input variables, one map per execution. The maps are read while iterating over the results.
+     */
+    ExecuteDecisionBatchBuilder variables(Iterable<Map<String, Object>> variables);
+
+    /**
+     * Sets the input variables, one map per execution. The maps are read while iterating over the results.
+     */
+    ExecuteDecisionBatchBuilder variables(Iterator<Map<String, Object>> variables);
+
+    /**
+     * Sets the number of executions that are done in one transaction, 100 by default.
+     */
+    ExecuteDecisionBatchBuilder batchSize(int batchSize);
+
+    /**
+     * Executes the batches with the given executor service instead of the thread that iterates over the results.
+     * The executor service is not shut down after the executions.
+     */
+    ExecuteDecisionBatchBuilder executorService(ExecutorService executorService);
+
+    /**
+     * Sets the maximum number of batches that are executed or waiting to be read at the same time when an executor service is used, 4 by default.
+     */
+    ExecuteDecisionBatchBuilder maxBatchesInProgress(int maxBatchesInProgress);
+
+    /**
+     * Only writes history for one out of the given number of executions, when history is enabled.
+     * 1 (the default) writes history for every execution, 0 doesn't write history for any execution.
+     */
+    ExecuteDecisionBatchBuilder historySamplingInterval(int historySamplingInterval);
+
+    /**
+     * Executes the decision for every map of input variables. The results are returned in the order of the input variables,
+     * every element contains the output results of one execution.
+     **/
+    Iterator<List<Map<String, Object>>> execute();
+
+}
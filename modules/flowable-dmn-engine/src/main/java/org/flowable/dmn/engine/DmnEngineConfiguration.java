@@ -70,6 +70,7 @@ import org.flowable.dmn.engine.impl.persistence.entity.DmnDeploymentEntityManage
 import org.flowable.dmn.engine.impl.persistence.entity.DmnResourceEntityManager;
 import org.flowable.dmn.engine.impl.persistence.entity.DmnResourceEntityManagerImpl;
 import org.flowable.dmn.engine.impl.persistence.entity.HistoricDecisionExecutionEntityManager;
+import org.flowable.dmn.engine.impl.persistence.entity.HistoricDecisionExecutionEntityImpl;
 import org.flowable.dmn.engine.impl.persistence.entity.HistoricDecisionExecutionEntityManagerImpl;
 import org.flowable.dmn.engine.impl.persistence.entity.TableDataManager;
 import org.flowable.dmn.engine.impl.persistence.entity.TableDataManagerImpl;
@@ -179,6 +180,20 @@ public class DmnEngineConfiguration extends AbstractEngineConfiguration implemen
      */
     protected boolean strictMode = true;
 
+    /**
+     * Set this to true to index the input entries of decision tables when they are deployed. Input entries that compare the input variable with a literal
+     * are then evaluated with a lookup in the index instead of evaluating their expressions, which speeds up the execution of decision tables with many rules.
+     *
+     * The results and audit trail of an execution are the same as without the index.
+     */
+    protected boolean decisionTableIndexingEnabled;
+
+    /**
+     * If set to true, enables bulk insert of the historic decision executions, which are inserted together when decisions are executed in batches.
+     * Default false. Not used on Oracle, of which the bulk insert doesn't support the large execution json.
+     */
+    protected boolean isBulkInsertEnabled;
+
     public static DmnEngineConfiguration createDmnEngineConfigurationFromResourceDefault() {
         return createDmnEngineConfigurationFromResource("flowable.dmn.cfg.xml", "dmnEngineConfiguration");
     }
@@ -364,6 +379,10 @@ public class DmnEngineConfiguration extends AbstractEngineConfiguration implemen
         for (Class<? extends Entity> clazz : EntityDependencyOrder.INSERT_ORDER) {
             dbSqlSessionFactory.getInsertionOrder().add(clazz);
         }
+
+        if (isBulkInsertEnabled && !"oracle".equals(databaseType)) {
+            dbSqlSessionFactory.getBulkInserteableEntityClasses().add(HistoricDecisionExecutionEntityImpl.class);
+        }
         
         for (Class<? extends Entity> clazz : EntityDependencyOrder.DELETE_ORDER) {
             dbSqlSessionFactory.getDeletionOrder().add(clazz);
@@ -942,6 +961,24 @@ public class DmnEngineConfiguration extends AbstractEngineConfiguration implemen
         return this;
     }
 
+    public boolean isDecisionTableIndexingEnabled() {
+        return decisionTableIndexingEnabled;
+    }
+
+    public DmnEngineConfiguration setDecisionTableIndexingEnabled(boolean decisionTableIndexingEnabled) {
+        this.decisionTableIndexingEnabled = decisionTableIndexingEnabled;
+        return this;
+    }
+
+    public boolean isBulkInsertEnabled() {
+        return isBulkInsertEnabled;
+    }
+
+    public DmnEngineConfiguration setBulkInsertEnabled(boolean isBulkInsertEnabled) {
+        this.isBulkInsertEnabled = isBulkInsertEnabled;
+        return this;
+    }
+
     @Override
     public DmnEngineConfiguration setClock(Clock clock) {
         this.clock = clock;
@@ -0,0 +1,206 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.dmn.engine.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.flowable.dmn.engine.impl.el.ELExpressionExecutor;
+import org.flowable.dmn.engine.impl.el.Expression;
+import org.flowable.dmn.engine.impl.el.ExpressionManager;
+import org.flowable.dmn.model.DecisionRule;
+import org.flowable.dmn.model.DecisionTable;
+import org.flowable.dmn.model.InputClause;
+import org.flowable.dmn.model.RuleInputClauseContainer;
+import org.flowable.dmn.model.RuleOutputClauseContainer;
+
+/**
+ * A {@link DecisionTable} of which the input and output entries are parsed into {@link Expression}s once,
+ * so executing the decision table only evaluates the expressions.
+ *
+ * An entry that can't be parsed keeps the exception, which is thrown when the entry is evaluated,
+ * so the execution fails at the same point as when the entry would have been parsed during the execution.
+ *
+ * Optionally the input entries are indexed with a {@link DecisionTableIndex}, so the input entries that compare
+ * the input variable with a literal don't have to be evaluated as expressions.
+ */
+public class CompiledDecisionTable {
+
+    protected DecisionTable decisionTable;
+    protected List<CompiledDecisionRule> rules;
+    protected DecisionTableIndex index;
+
+    public CompiledDecisionTable(DecisionTable decisionTable, ExpressionManager expressionManager) {
+        this(decisionTable, expressionManager, false);
+    }
+
+    public CompiledDecisionTable(DecisionTable decisionTable, ExpressionManager expressionManager, boolean indexingEnabled) {
+        this.decisionTable = decisionTable;
+        this.rules = new ArrayList<>(decisionTable.getRules().size());
+        for (DecisionRule rule : decisionTable.getRules()) {
+            rules.add(new CompiledDecisionRule(rules.size(), rule, decisionTable.getInputs(), expressionManager));
+        }
+
+        if (indexingEnabled) {
+            this.index = new DecisionTableIndex(this);
+        }
+    }
+
+    public DecisionTable getDecisionTable() {
+        return decisionTable;
+    }
+
+    public List<CompiledDecisionRule> getRules() {
+        return rules;
+    }
+
+    public DecisionTableIndex getIndex() {
+        return index;
+    }
+
+    public static class CompiledDecisionRule {
+
+        protected int ruleIndex;
+        protected DecisionRule rule;
+        protected List<CompiledInputEntry> inputEntries;
+        protected List<CompiledOutputEntry> outputEntries;
+
+        public CompiledDecisionRule(int ruleIndex, DecisionRule rule, List<InputClause> inputClauses, ExpressionManager expressionManager) {
+            this.ruleIndex = ruleIndex;
+            this.rule = rule;
+            this.inputEntries = new ArrayList<>(rule.getInputEntries().size());
+            for (RuleInputClauseContainer inputEntry : rule.getInputEntries()) {
+                inputEntries.add(new CompiledInputEntry(indexOf(inputClauses, inputEntry.getInputClause()), inputEntry, expressionManager));
+            }
+            this.outputEntries = new ArrayList<>(rule.getOutputEntries().size());
+            for (RuleOutputClauseContainer outputEntry : rule.getOutputEntries()) {
+                outputEntries.add(new CompiledOutputEntry(outputEntry, expressionManager));
+            }
+        }
+
+        protected int indexOf(List<InputClause> inputClauses, InputClause inputClause) {
+            for (int i = 0; i < inputClauses.size(); i++) {
+                if (inputClauses.get(i) == inputClause) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return the position of the rule in the decision table
+         */
+        public int getRuleIndex() {
+            return ruleIndex;
+        }
+
+        public DecisionRule getRule() {
+            return rule;
+        }
+
+        public int getRuleNumber() {
+            return rule.getRuleNumber();
+        }
+
+        public List<CompiledInputEntry> getInputEntries() {
+            return inputEntries;
+        }
+
+        public List<CompiledOutputEntry> getOutputEntries() {
+            return outputEntries;
+        }
+    }
+
+    public static class CompiledInputEntry {
+
+        protected int inputIndex;
+        protected RuleInputClauseContainer inputEntry;
+        protected boolean matchingAll;
+        protected Expression expression;
+        protected RuntimeException parseException;
+
+        public CompiledInputEntry(int inputIndex, RuleInputClauseContainer inputEntry, ExpressionManager expressionManager) {
+            this.inputIndex = inputIndex;
+            this.inputEntry = inputEntry;
+
+            // an empty condition or a dash always matches
+            String inputEntryText = inputEntry.getInputEntry().getText();
+            this.matchingAll = StringUtils.isEmpty(inputEntryText) || "-".equals(inputEntryText);
+
+            if (!matchingAll) {
+                try {
+                    this.expression = ELExpressionExecutor.createInputExpression(inputEntry.getInputClause(), inputEntry.getInputEntry(), expressionManager);
+                } catch (RuntimeException e) {
+                    this.parseException = e;
+                }
+            }
+        }
+
+        /**
+         * @return the position of the input clause of the entry in the decision table, or -1 when it's not one of the inputs of the decision table
+         */
+        public int getInputIndex() {
+            return inputIndex;
+        }
+
+        public RuleInputClauseContainer getInputEntry() {
+            return inputEntry;
+        }
+
+        public boolean isMatchingAll() {
+            return matchingAll;
+        }
+
+        public boolean isParsed() {
+            return parseException == null;
+        }
+
+        public Expression getExpression() {
+            if (parseException != null) {
+                throw parseException;
+            }
+            return expression;
+        }
+    }
+
+    public static class CompiledOutputEntry {
+
+        protected RuleOutputClauseContainer outputEntry;
+        protected Expression expression;
+        protected RuntimeException parseException;
+
+        public CompiledOutputEntry(RuleOutputClauseContainer outputEntry, ExpressionManager expressionManager) {
+            this.outputEntry = outputEntry;
+
+            if (StringUtils.isNotEmpty(outputEntry.getOutputEntry().getText())) {
+                try {
+                    this.expression = ELExpressionExecutor.createOutputExpression(outputEntry.getOutputEntry(), expressionManager);
+                } catch (RuntimeException e) {
+                    this.parseException = e;
+                }
+            }
+        }
+
+        public RuleOutputClauseContainer getOutputEntry() {
+            return outputEntry;
+        }
+
+        public Expression getExpression() {
+            if (parseException != null) {
+                throw parseException;
+            }
+            return expression;
+        }
+    }
+}
@@ -0,0 +1,488 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.dmn.engine.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.flowable.dmn.engine.impl.CompiledDecisionTable.CompiledDecisionRule;
+import org.flowable.dmn.engine.impl.CompiledDecisionTable.CompiledInputEntry;
+import org.flowable.dmn.model.DecisionTable;
+import org.flowable.dmn.model.InputClause;
+
+/**
+ * Per input column indexes of the input entries of a {@link CompiledDecisionTable}, used to evaluate the input entries that compare the input
+ * variable with a literal without evaluating their expressions.
+ *
+ * The supported input entries are equality and inequality tests with number or string literals and the range operators with number literals,
+ * for input columns of type number or string of which the input expression is a variable name. Equality tests are indexed in hash maps and
+ * range tests in sorted arrays, so the rules of which the input entry matches are found with a lookup or a binary search per column.
+ *
+ * The results follow the EL comparison rules, so they are the same as evaluating the expressions. When the value of an input variable is not
+ * available or has a type that's not supported, the input entries of that column are evaluated as expressions.
+ */
+public class DecisionTableIndex {
+
+    protected static final Pattern VARIABLE_NAME_PATTERN = Pattern.compile("[a-zA-Z_$][a-zA-Z0-9_$]*");
+    protected static final Pattern LONG_LITERAL_PATTERN = Pattern.compile("-?[0-9]+");
+    protected static final Pattern DOUBLE_LITERAL_PATTERN = Pattern.compile("-?([0-9]+\\.[0-9]*|\\.[0-9]+|[0-9]+)([eE][+-]?[0-9]+)?");
+    protected static final Pattern STRING_LITERAL_PATTERN = Pattern.compile("\"[^\"\\\\]*\"|'[^'\\\\]*'");
+
+    protected static final Set<String> RESERVED_WORDS = new HashSet<>(Arrays.asList("and", "or", "not", "eq", "ne", "lt", "gt", "le", "ge",
+            "true", "false", "null", "empty", "div", "mod", "instanceof"));
+
+    // the operators of the condition expression pre parser, longest first
+    protected static final String[] OPERATORS = new String[] { "==", "!=", ">=", "<=", "<", ">" };
+
+    protected InputColumnIndex[] columns;
+
+    public DecisionTableIndex(CompiledDecisionTable compiledDecisionTable) {
+        DecisionTable decisionTable = compiledDecisionTable.getDecisionTable();
+        List<CompiledDecisionRule> rules = compiledDecisionTable.getRules();
+        this.columns = new InputColumnIndex[decisionTable.getInputs().size()];
+
+        for (int inputIndex = 0; inputIndex < columns.length; inputIndex++) {
+            InputClause inputClause = decisionTable.getInputs().get(inputIndex);
+            String inputVariable = inputClause.getInputExpression() != null ? inputClause.getInputExpression().getText() : null;
+            String typeRef = inputClause.getInputExpression() != null ? inputClause.getInputExpression().getTypeRef() : null;
+            if (inputVariable == null || !VARIABLE_NAME_PATTERN.matcher(inputVariable).matches() || RESERVED_WORDS.contains(inputVariable)) {
+                continue;
+            }
+
+            InputColumnIndex column;
+            if ("number".equals(typeRef)) {
+                column = new NumberInputColumnIndex(inputVariable);
+            } else if ("string".equals(typeRef)) {
+                column = new StringInputColumnIndex(inputVariable);
+            } else {
+                continue;
+            }
+
+            for (int ruleIndex = 0; ruleIndex < rules.size(); ruleIndex++) {
+                for (CompiledInputEntry inputEntry : rules.get(ruleIndex).getInputEntries()) {
+                    if (inputEntry.getInputIndex() == inputIndex && !inputEntry.isMatchingAll() && inputEntry.isParsed()) {
+                        column.addInputEntry(ruleIndex, inputEntry.getInputEntry().getInputEntry().getText());
+                    }
+                }
+            }
+
+            if (!column.getIndexedRules().isEmpty()) {
+                column.sort();
+                columns[inputIndex] = column;
+            }
+        }
+    }
+
+    /**
+     * Looks up the rules of which the indexed input entries match the given variables.
+     */
+    public IndexMatches match(Map<String, Object> variables) {
+        BitSet[] matchingRules = new BitSet[columns.length];
+        for (int inputIndex = 0; inputIndex < columns.length; inputIndex++) {
+            InputColumnIndex column = columns[inputIndex];
+            if (column != null && variables != null && variables.containsKey(column.getInputVariable())) {
+                matchingRules[inputIndex] = column.match(variables.get(column.getInputVariable()));
+            }
+        }
+        return new IndexMatches(matchingRules);
+    }
+
+    public int getNrOfIndexedInputEntries() {
+        int nrOfIndexedInputEntries = 0;
+        for (InputColumnIndex column : columns) {
+            if (column != null) {
+                nrOfIndexedInputEntries += column.getIndexedRules().cardinality();
+            }
+        }
+        return nrOfIndexedInputEntries;
+    }
+
+    /**
+     * Splits an input entry in its operator and the rest of the text, the same way as the condition expression pre parser.
+     *
+     * @return the operator and the operand, or null when the input entry is not a comparison with an operand
+     */
+    protected static String[] splitOperator(String inputEntryText) {
+        if (inputEntryText.contains("fn_") || inputEntryText.startsWith("#{") || inputEntryText.startsWith("${") || inputEntryText.startsWith(".")) {
+            return null;
+        }
+
+        if (inputEntryText.length() >= 2) {
+            for (String operator : OPERATORS) {
+                if (inputEntryText.startsWith(operator)) {
+                    return new String[] { operator, inputEntryText.substring(operator.length()).trim() };
+                }
+            }
+        }
+        return new String[] { "==", inputEntryText.trim() };
+    }
+
+    /**
+     * The matching rules of one execution.
+     */
+    public class IndexMatches {
+
+        protected BitSet[] matchingRules;
+
+        public IndexMatches(BitSet[] matchingRules) {
+            this.matchingRules = matchingRules;
+        }
+
+        /**
+         * @return the result of the input entry of the given column and rule, or null when it isn't indexed and has to be evaluated as an expression
+         */
+        public Boolean getInputEntryResult(int inputIndex, int ruleIndex) {
+            if (inputIndex < 0 || inputIndex >= matchingRules.length || matchingRules[inputIndex] == null
+                    || !columns[inputIndex].getIndexedRules().get(ruleIndex)) {
+                return null;
+            }
+            return matchingRules[inputIndex].get(ruleIndex);
+        }
+    }
+
+    protected abstract static class InputColumnIndex {
+
+        protected String inputVariable;
+        protected BitSet indexedRules = new BitSet();
+
+        public InputColumnIndex(String inputVariable) {
+            this.inputVariable = inputVariable;
+        }
+
+        public String getInputVariable() {
+            return inputVariable;
+        }
+
+        public BitSet getIndexedRules() {
+            return indexedRules;
+        }
+
+        /**
+         * Adds the input entry to the index when it is supported.
+         */
+        public abstract void addInputEntry(int ruleIndex, String inputEntryText);
+
+        public void sort() {
+        }
+
+        /**
+         * @return the indexed rules of which the input entry matches the value, or null when the value isn't supported
+         */
+        public abstract BitSet match(Object value);
+    }
+
+    protected static class StringInputColumnIndex extends InputColumnIndex {
+
+        protected Map<String, BitSet> equalRules = new HashMap<>();
+        protected Map<String, BitSet> notEqualRules = new HashMap<>();
+        protected BitSet allNotEqualRules = new BitSet();
+
+        public StringInputColumnIndex(String inputVariable) {
+            super(inputVariable);
+        }
+
+        @Override
+        public void addInputEntry(int ruleIndex, String inputEntryText) {
+            String[] operatorAndOperand = splitOperator(inputEntryText);
+            if (operatorAndOperand == null || !STRING_LITERAL_PATTERN.matcher(operatorAndOperand[1]).matches()) {
+                return;
+            }
+
+            String literal = operatorAndOperand[1].substring(1, operatorAndOperand[1].length() - 1);
+            if ("==".equals(operatorAndOperand[0])) {
+                addRule(equalRules, literal, ruleIndex);
+            } else if ("!=".equals(operatorAndOperand[0])) {
+                addRule(notEqualRules, literal, ruleIndex);
+                allNotEqualRules.set(ruleIndex);
+            } else {
+                return;
+            }
+            indexedRules.set(ruleIndex);
+        }
+
+        @Override
+        public BitSet match(Object value) {
+            if (!(value instanceof String)) {
+                return null;
+            }
+
+            BitSet matchingRules = new BitSet();
+            or(matchingRules, equalRules.get(value));
+            matchingRules.or(allNotEqualRules);
+            andNot(matchingRules, notEqualRules.get(value));
+            return matchingRules;
+        }
+    }
+
+    /**
+     * Compares like the EL: as longs when both the value and the literal are integral numbers, otherwise as doubles.
+     */
+    protected static class NumberInputColumnIndex extends InputColumnIndex {
+
+        protected Map<Long, BitSet> equalLongRules = new HashMap<>();
+        protected Map<Double, BitSet> equalLongAsDoubleRules = new HashMap<>();
+        protected Map<Double, BitSet> equalDoubleRules = new HashMap<>();
+
+        protected Map<Long, BitSet> notEqualLongRules = new HashMap<>();
+        protected Map<Double, BitSet> notEqualLongAsDoubleRules = new HashMap<>();
+        protected Map<Double, BitSet> notEqualDoubleRules = new HashMap<>();
+        protected BitSet allNotEqualRules = new BitSet();
+
+        protected Map<String, RangeEntries> rangeEntries = new HashMap<>();
+
+        public NumberInputColumnIndex(String inputVariable) {
+            super(inputVariable);
+            for (String operator : new String[] { "<", "<=", ">", ">=" }) {
+                rangeEntries.put(operator, new RangeEntries());
+            }
+        }
+
+        @Override
+        public void addInputEntry(int ruleIndex, String inputEntryText) {
+            String[] operatorAndOperand = splitOperator(inputEntryText);
+            if (operatorAndOperand == null) {
+                return;
+            }
+
+            String operator = operatorAndOperand[0];
+            Number literal = parseNumberLiteral(operatorAndOperand[1]);
+            if (literal == null) {
+                return;
+            }
+
+            if ("==".equals(operator)) {
+                addNumber(equalLongRules, equalLongAsDoubleRules, equalDoubleRules, literal, ruleIndex);
+            } else if ("!=".equals(operator)) {
+                addNumber(notEqualLongRules, notEqualLongAsDoubleRules, notEqualDoubleRules, literal, ruleIndex);
+                allNotEqualRules.set(ruleIndex);
+            } else {
+                rangeEntries.get(operator).add(literal, ruleIndex);
+            }
+            indexedRules.set(ruleIndex);
+        }
+
+        @Override
+        public void sort() {
+            for (RangeEntries entries : rangeEntries.values()) {
+                entries.sort();
+            }
+        }
+
+        @Override
+        public BitSet match(Object value) {
+            BitSet matchingRules = new BitSet();
+            if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                long longValue = ((Number) value).longValue();
+                or(matchingRules, equalLongRules.get(longValue));
+                or(matchingRules, equalDoubleRules.get((double) longValue));
+                matchingRules.or(allNotEqualRules);
+                andNot(matchingRules, notEqualLongRules.get(longValue));
+                andNot(matchingRules, notEqualDoubleRules.get((double) longValue));
+
+            } else if (value instanceof Double || value instanceof Float) {
+                double doubleValue = ((Number) value).doubleValue();
+                if (Double.isNaN(doubleValue)) {
+                    return null;
+                }
+                or(matchingRules, equalDoubleRules.get(doubleValue));
+                or(matchingRules, equalLongAsDoubleRules.get(doubleValue));
+                matchingRules.or(allNotEqualRules);
+                andNot(matchingRules, notEqualDoubleRules.get(doubleValue));
+                andNot(matchingRules, notEqualLongAsDoubleRules.get(doubleValue));
+
+            } else {
+                return null;
+            }
+
+            Number number = (Number) value;
+            // value < literal
+            rangeEntries.get("<").addGreaterThan(matchingRules, number, false);
+            // value <= literal
+            rangeEntries.get("<=").addGreaterThan(matchingRules, number, true);
+            // value > literal
+            rangeEntries.get(">").addLessThan(matchingRules, number, false);
+            // value >= literal
+            rangeEntries.get(">=").addLessThan(matchingRules, number, true);
+            return matchingRules;
+        }
+
+        protected void addNumber(Map<Long, BitSet> longRules, Map<Double, BitSet> longAsDoubleRules, Map<Double, BitSet> doubleRules, Number literal, int ruleIndex) {
+            if (literal instanceof Long) {
+                addRule(longRules, literal.longValue(), ruleIndex);
+                addRule(longAsDoubleRules, literal.doubleValue(), ruleIndex);
+            } else {
+                addRule(doubleRules, literal.doubleValue(), ruleIndex);
+            }
+        }
+
+        protected Number parseNumberLiteral(String text) {
+            try {
+                if (LONG_LITERAL_PATTERN.matcher(text).matches()) {
+                    // the minus is an operator in the EL, so the number without it has to be a valid long
+                    return text.startsWith("-") ? -Long.parseLong(text.substring(1)) : Long.parseLong(text);
+                } else if (DOUBLE_LITERAL_PATTERN.matcher(text).matches()) {
+                    Double literal = Double.valueOf(text);
+                    return literal.isInfinite() ? null : literal;
+                }
+            } catch (NumberFormatException e) {
+                // not a literal that can be indexed
+            }
+            return null;
+        }
+    }
+
+    /**
+     * The literals of the input entries with one range operator, sorted so that the matching rules are a prefix or a suffix.
+     */
+    protected static class RangeEntries {
+
+        protected List<long[]> longEntries = new ArrayList<>();
+        protected List<double[]> doubleEntries = new ArrayList<>();
+
+        protected long[] longLiterals;
+        protected int[] longRules;
+        protected double[] doubleLiterals;
+        protected int[] doubleRules;
+
+        public void add(Number literal, int ruleIndex) {
+            if (literal instanceof Long) {
+                longEntries.add(new long[] { literal.longValue(), ruleIndex });
+            } else {
+                doubleEntries.add(new double[] { literal.doubleValue(), ruleIndex });
+            }
+        }
+
+        public void sort() {
+            Collections.sort(longEntries, new Comparator<long[]>() {
+
+                @Override
+                public int compare(long[] entry1, long[] entry2) {
+                    return Long.compare(entry1[0], entry2[0]);
+                }
+            });
+            Collections.sort(doubleEntries, new Comparator<double[]>() {
+
+                @Override
+                public int compare(double[] entry1, double[] entry2) {
+                    return Double.compare(entry1[0], entry2[0]);
+                }
+            });
+
+            longLiterals = new long[longEntries.size()];
+            longRules = new int[longEntries.size()];
+            for (int i = 0; i < longLiterals.length; i++) {
+                longLiterals[i] = longEntries.get(i)[0];
+                longRules[i] = (int) longEntries.get(i)[1];
+            }
+            doubleLiterals = new double[doubleEntries.size()];
+            doubleRules = new int[doubleEntries.size()];
+            for (int i = 0; i < doubleLiterals.length; i++) {
+                doubleLiterals[i] = doubleEntries.get(i)[0];
+                doubleRules[i] = (int) doubleEntries.get(i)[1];
+            }
+            longEntries = null;
+            doubleEntries = null;
+        }
+
+        /**
+         * Adds the rules of which the literal is less than (or equal to) the value.
+         */
+        public void addLessThan(BitSet matchingRules, Number value, boolean orEqual) {
+            int longCount = countLongLiteralsBelow(value, orEqual);
+            for (int i = 0; i < longCount; i++) {
+                matchingRules.set(longRules[i]);
+            }
+            int doubleCount = countDoubleLiteralsBelow(value.doubleValue(), orEqual);
+            for (int i = 0; i < doubleCount; i++) {
+                matchingRules.set(doubleRules[i]);
+            }
+        }
+
+        /**
+         * Adds the rules of which the literal is greater than (or equal to) the value.
+         */
+        public void addGreaterThan(BitSet matchingRules, Number value, boolean orEqual) {
+            for (int i = countLongLiteralsBelow(value, !orEqual); i < longLiterals.length; i++) {
+                matchingRules.set(longRules[i]);
+            }
+            for (int i = countDoubleLiteralsBelow(value.doubleValue(), !orEqual); i < doubleLiterals.length; i++) {
+                matchingRules.set(doubleRules[i]);
+            }
+        }
+
+        protected int countLongLiteralsBelow(Number value, boolean orEqual) {
+            boolean integralValue = !(value instanceof Double || value instanceof Float);
+            int low = 0;
+            int high = longLiterals.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                boolean below;
+                if (integralValue) {
+                    below = orEqual ? longLiterals[middle] <= value.longValue() : longLiterals[middle] < value.longValue();
+                } else {
+                    below = orEqual ? (double) longLiterals[middle] <= value.doubleValue() : (double) longLiterals[middle] < value.doubleValue();
+                }
+                if (below) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        protected int countDoubleLiteralsBelow(double value, boolean orEqual) {
+            int low = 0;
+            int high = doubleLiterals.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (orEqual ? doubleLiterals[middle] <= value : doubleLiterals[middle] < value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    protected static <K> void addRule(Map<K, BitSet> rules, K key, int ruleIndex) {
+        BitSet keyRules = rules.get(key);
+        if (keyRules == null) {
+            keyRules = new BitSet();
+            rules.put(key, keyRules);
+        }
+        keyRules.set(ruleIndex);
+    }
+
+    protected static void or(BitSet result, BitSet rules) {
+        if (rules != null) {
+            result.or(rules);
+        }
+    }
+
+    protected static void andNot(BitSet result, BitSet rules) {
+        if (rules != null) {
+            result.andNot(rules);
+        }
+    }
+}
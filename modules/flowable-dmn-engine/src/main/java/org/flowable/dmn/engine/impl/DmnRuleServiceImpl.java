@@ -12,11 +12,13 @@
  */
 package org.flowable.dmn.engine.impl;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import org.flowable.dmn.api.DecisionExecutionAuditContainer;
 import org.flowable.dmn.api.DmnRuleService;
+import org.flowable.dmn.api.ExecuteDecisionBatchBuilder;
 import org.flowable.dmn.api.ExecuteDecisionBuilder;
 import org.flowable.dmn.engine.impl.cmd.ExecuteDecisionCmd;
 import org.flowable.dmn.engine.impl.cmd.ExecuteDecisionSingleResultCmd;
@@ -31,6 +33,11 @@ public class DmnRuleServiceImpl extends ServiceImpl implements DmnRuleService {
     public ExecuteDecisionBuilder createExecuteDecisionBuilder() {
         return new ExecuteDecisionBuilderImpl(this);
     }
+
+    @Override
+    public ExecuteDecisionBatchBuilder createExecuteDecisionBatchBuilder() {
+        return new ExecuteDecisionBatchBuilderImpl(this);
+    }
     
     @Override
     @Deprecated
@@ -107,6 +114,10 @@ public class DmnRuleServiceImpl extends ServiceImpl implements DmnRuleService {
     public List<Map<String, Object>> executeDecision(ExecuteDecisionBuilderImpl executeDecisionBuilder) {
         return commandExecutor.execute(new ExecuteDecisionCmd(executeDecisionBuilder));
     }
+
+    public Iterator<List<Map<String, Object>>> executeDecisionBatch(ExecuteDecisionBatchBuilderImpl executeDecisionBatchBuilder) {
+        return new ExecuteDecisionBatchIterator(commandExecutor, executeDecisionBatchBuilder);
+    }
     
     public Map<String, Object> executeDecisionWithSingleResult(ExecuteDecisionBuilderImpl executeDecisionBuilder) {
         return commandExecutor.execute(new ExecuteDecisionSingleResultCmd(executeDecisionBuilder));
@@ -0,0 +1,151 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.dmn.engine.impl;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import org.flowable.dmn.api.ExecuteDecisionBatchBuilder;
+import org.flowable.engine.common.api.FlowableIllegalArgumentException;
+
+public class ExecuteDecisionBatchBuilderImpl implements ExecuteDecisionBatchBuilder {
+
+    protected DmnRuleServiceImpl ruleService;
+
+    protected String decisionKey;
+    protected String parentDeploymentId;
+    protected String tenantId;
+    protected Iterator<Map<String, Object>> variables;
+    protected int batchSize = 100;
+    protected ExecutorService executorService;
+    protected int maxBatchesInProgress = 4;
+    protected int historySamplingInterval = 1;
+
+    public ExecuteDecisionBatchBuilderImpl(DmnRuleServiceImpl ruleService) {
+        this.ruleService = ruleService;
+    }
+
+    @Override
+    public ExecuteDecisionBatchBuilder decisionKey(String decisionKey) {
+        this.decisionKey = decisionKey;
+        return this;
+    }
+
+    @Override
+    public ExecuteDecisionBatchBuilder parentDeploymentId(String parentDeploymentId) {
+        this.parentDeploymentId = parentDeploymentId;
+        return this;
+    }
+
+    @Override
+    public ExecuteDecisionBatchBuilder tenantId(String tenantId) {
+        this.tenantId = tenantId;
+        return this;
+    }
+
+    @Override
+    public ExecuteDecisionBatchBuilder variables(Iterable<Map<String, Object>> variables) {
+        if (variables == null) {
+            throw new FlowableIllegalArgumentException("variables is null");
+        }
+        this.variables = variables.iterator();
+        return this;
+    }
+
+    @Override
+    public ExecuteDecisionBatchBuilder variables(Iterator<Map<String, Object>> variables) {
+        if (variables == null) {
+            throw new FlowableIllegalArgumentException("variables is null");
+        }
+        this.variables = variables;
+        return this;
+    }
+
+    @Override
+    public ExecuteDecisionBatchBuilder batchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new FlowableIllegalArgumentException("batchSize must be at least 1");
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    @Override
+    public ExecuteDecisionBatchBuilder executorService(ExecutorService executorService) {
+        this.executorService = executorService;
+        return this;
+    }
+
+    @Override
+    public ExecuteDecisionBatchBuilder maxBatchesInProgress(int maxBatchesInProgress) {
+        if (maxBatchesInProgress < 1) {
+            throw new FlowableIllegalArgumentException("maxBatchesInProgress must be at least 1");
+        }
+        this.maxBatchesInProgress = maxBatchesInProgress;
+        return this;
+    }
+
+    @Override
+    public ExecuteDecisionBatchBuilder historySamplingInterval(int historySamplingInterval) {
+        if (historySamplingInterval < 0) {
+            throw new FlowableIllegalArgumentException("historySamplingInterval cannot be negative");
+        }
+        this.historySamplingInterval = historySamplingInterval;
+        return this;
+    }
+
+    @Override
+    public Iterator<List<Map<String, Object>>> execute() {
+        if (decisionKey == null) {
+            throw new FlowableIllegalArgumentException("decisionKey is null");
+        }
+        if (variables == null) {
+            throw new FlowableIllegalArgumentException("variables is null");
+        }
+        return ruleService.executeDecisionBatch(this);
+    }
+
+    public String getDecisionKey() {
+        return decisionKey;
+    }
+
+    public String getParentDeploymentId() {
+        return parentDeploymentId;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public Iterator<Map<String, Object>> getVariables() {
+        return variables;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    public int getMaxBatchesInProgress() {
+        return maxBatchesInProgress;
+    }
+
+    public int getHistorySamplingInterval() {
+        return historySamplingInterval;
+    }
+}
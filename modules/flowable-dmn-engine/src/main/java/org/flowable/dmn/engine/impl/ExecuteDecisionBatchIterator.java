@@ -0,0 +1,150 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.dmn.engine.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.flowable.dmn.engine.impl.cmd.ExecuteDecisionBatchCmd;
+import org.flowable.engine.common.api.FlowableException;
+import org.flowable.engine.common.impl.interceptor.CommandExecutor;
+
+/**
+ * Iterates over the results of executing a decision for many sets of input variables, executing the next batch when the results of the
+ * previous batch have been read.
+ *
+ * The first batch is executed by the iterating thread and resolves the decision. When an executor service is set, the next batches are
+ * executed with it, with at most the maximum number of batches in progress. The results are returned in the order of the input variables.
+ */
+public class ExecuteDecisionBatchIterator implements Iterator<List<Map<String, Object>>> {
+
+    protected CommandExecutor commandExecutor;
+    protected ExecuteDecisionBatchBuilderImpl decisionBatchBuilder;
+
+    protected String decisionDefinitionId;
+    protected long nrOfSubmittedExecutions;
+    protected Deque<Future<List<List<Map<String, Object>>>>> batchesInProgress = new ArrayDeque<>();
+    protected Iterator<List<Map<String, Object>>> currentBatchResults;
+
+    public ExecuteDecisionBatchIterator(CommandExecutor commandExecutor, ExecuteDecisionBatchBuilderImpl decisionBatchBuilder) {
+        this.commandExecutor = commandExecutor;
+        this.decisionBatchBuilder = decisionBatchBuilder;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (currentBatchResults == null || !currentBatchResults.hasNext()) {
+            List<List<Map<String, Object>>> batchResults = executeNextBatch();
+            if (batchResults == null) {
+                return false;
+            }
+            currentBatchResults = batchResults.iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public List<Map<String, Object>> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return currentBatchResults.next();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @return the results of the next batch, or null when all input variables have been executed
+     */
+    protected List<List<Map<String, Object>>> executeNextBatch() {
+        if (decisionDefinitionId == null || decisionBatchBuilder.getExecutorService() == null) {
+            ExecuteDecisionBatchCmd batchCmd = createNextBatchCmd();
+            if (batchCmd == null) {
+                return null;
+            }
+            List<List<Map<String, Object>>> batchResults = commandExecutor.execute(batchCmd);
+            decisionDefinitionId = batchCmd.getDecisionDefinitionId();
+            return batchResults;
+        }
+
+        while (batchesInProgress.size() < decisionBatchBuilder.getMaxBatchesInProgress()) {
+            final ExecuteDecisionBatchCmd batchCmd = createNextBatchCmd();
+            if (batchCmd == null) {
+                break;
+            }
+            batchesInProgress.add(decisionBatchBuilder.getExecutorService().submit(new Callable<List<List<Map<String, Object>>>>() {
+
+                @Override
+                public List<List<Map<String, Object>>> call() throws Exception {
+                    return commandExecutor.execute(batchCmd);
+                }
+            }));
+        }
+
+        Future<List<List<Map<String, Object>>>> nextBatch = batchesInProgress.poll();
+        if (nextBatch == null) {
+            return null;
+        }
+
+        try {
+            return nextBatch.get();
+
+        } catch (InterruptedException e) {
+            cancelBatchesInProgress();
+            Thread.currentThread().interrupt();
+            throw new FlowableException("Interrupted while waiting for the execution of a decision batch", e);
+
+        } catch (ExecutionException e) {
+            cancelBatchesInProgress();
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new FlowableException("Error while executing a decision batch", e.getCause());
+        }
+    }
+
+    protected ExecuteDecisionBatchCmd createNextBatchCmd() {
+        Iterator<Map<String, Object>> variables = decisionBatchBuilder.getVariables();
+        List<Map<String, Object>> variablesBatch = new ArrayList<>();
+        while (variablesBatch.size() < decisionBatchBuilder.getBatchSize() && variables.hasNext()) {
+            variablesBatch.add(variables.next());
+        }
+
+        if (variablesBatch.isEmpty()) {
+            return null;
+        }
+
+        ExecuteDecisionBatchCmd batchCmd = new ExecuteDecisionBatchCmd(decisionBatchBuilder, decisionDefinitionId, variablesBatch, nrOfSubmittedExecutions);
+        nrOfSubmittedExecutions += variablesBatch.size();
+        return batchCmd;
+    }
+
+    protected void cancelBatchesInProgress() {
+        for (Future<List<List<Map<String, Object>>>> batch : batchesInProgress) {
+            batch.cancel(false);
+        }
+        batchesInProgress.clear();
+    }
+
+}
@@ -25,6 +25,7 @@ public class ExecuteDecisionInfo {
     protected String activityId;
     protected Map<String, Object> variables;
     protected String tenantId;
+    protected boolean historyEnabled = true;
     
     public String getDecisionKey() {
         return decisionKey;
@@ -80,4 +81,10 @@ public class ExecuteDecisionInfo {
     public void setTenantId(String tenantId) {
         this.tenantId = tenantId;
     }
+    public boolean isHistoryEnabled() {
+        return historyEnabled;
+    }
+    public void setHistoryEnabled(boolean historyEnabled) {
+        this.historyEnabled = historyEnabled;
+    }
 }
@@ -22,6 +22,10 @@ import org.apache.commons.lang3.StringUtils;
 import org.flowable.dmn.api.DecisionExecutionAuditContainer;
 import org.flowable.dmn.engine.DmnEngineConfiguration;
 import org.flowable.dmn.engine.RuleEngineExecutor;
+import org.flowable.dmn.engine.impl.CompiledDecisionTable.CompiledDecisionRule;
+import org.flowable.dmn.engine.impl.CompiledDecisionTable.CompiledInputEntry;
+import org.flowable.dmn.engine.impl.CompiledDecisionTable.CompiledOutputEntry;
+import org.flowable.dmn.engine.impl.DecisionTableIndex.IndexMatches;
 import org.flowable.dmn.engine.impl.el.ELExecutionContext;
 import org.flowable.dmn.engine.impl.el.ELExecutionContextBuilder;
 import org.flowable.dmn.engine.impl.el.ELExpressionExecutor;
@@ -32,6 +36,7 @@ import org.flowable.dmn.engine.impl.hitpolicy.ComposeDecisionResultBehavior;
 import org.flowable.dmn.engine.impl.hitpolicy.ComposeRuleResultBehavior;
 import org.flowable.dmn.engine.impl.hitpolicy.ContinueEvaluatingBehavior;
 import org.flowable.dmn.engine.impl.hitpolicy.EvaluateRuleValidityBehavior;
+import org.flowable.dmn.engine.impl.persistence.deploy.DecisionTableCacheEntry;
 import org.flowable.dmn.engine.impl.persistence.entity.HistoricDecisionExecutionEntity;
 import org.flowable.dmn.engine.impl.persistence.entity.HistoricDecisionExecutionEntityManager;
 import org.flowable.dmn.engine.impl.util.CommandContextUtil;
@@ -90,7 +95,7 @@ public class RuleEngineExecutorImpl implements RuleEngineExecutor {
             sanityCheckDecisionTable(currentDecisionTable);
 
             // evaluate decision table
-            evaluateDecisionTable(currentDecisionTable, executionContext);
+            evaluateDecisionTable(getCompiledDecisionTable(decision, currentDecisionTable, executeDecisionInfo), executionContext);
 
         } catch (FlowableException fe) {
             LOGGER.error("decision table execution sanity check failed", fe);
@@ -102,7 +107,7 @@ public class RuleEngineExecutorImpl implements RuleEngineExecutor {
             executionContext.getAuditContainer().stopAudit();
 
             DmnEngineConfiguration dmnEngineConfiguration = CommandContextUtil.getDmnEngineConfiguration();
-            if (dmnEngineConfiguration.isHistoryEnabled()) {
+            if (dmnEngineConfiguration.isHistoryEnabled() && executeDecisionInfo.isHistoryEnabled()) {
                 HistoricDecisionExecutionEntityManager historicDecisionExecutionEntityManager = dmnEngineConfiguration.getHistoricDecisionExecutionEntityManager();
                 HistoricDecisionExecutionEntity decisionExecutionEntity = historicDecisionExecutionEntityManager.create();
                 decisionExecutionEntity.setDecisionDefinitionId(executeDecisionInfo.getDecisionDefinitionId());
@@ -132,7 +137,33 @@ public class RuleEngineExecutorImpl implements RuleEngineExecutor {
         return executionContext.getAuditContainer();
     }
 
-    protected void evaluateDecisionTable(DecisionTable decisionTable, ELExecutionContext executionContext) {
+    /**
+     * Returns the compiled form of the decision table that is cached with the decision, compiling it when it's not available.
+     */
+    protected CompiledDecisionTable getCompiledDecisionTable(Decision decision, DecisionTable decisionTable, ExecuteDecisionInfo executeDecisionInfo) {
+        DecisionTableCacheEntry cacheEntry = null;
+        if (executeDecisionInfo.getDecisionDefinitionId() != null) {
+            cacheEntry = CommandContextUtil.getDmnEngineConfiguration().getDecisionCache().get(executeDecisionInfo.getDecisionDefinitionId());
+        }
+
+        if (cacheEntry == null || cacheEntry.getDecision() != decision) {
+            return createCompiledDecisionTable(decisionTable);
+        }
+
+        CompiledDecisionTable compiledDecisionTable = cacheEntry.getCompiledDecisionTable();
+        if (compiledDecisionTable == null || compiledDecisionTable.getDecisionTable() != decisionTable) {
+            compiledDecisionTable = createCompiledDecisionTable(decisionTable);
+            cacheEntry.setCompiledDecisionTable(compiledDecisionTable);
+        }
+        return compiledDecisionTable;
+    }
+
+    protected CompiledDecisionTable createCompiledDecisionTable(DecisionTable decisionTable) {
+        return new CompiledDecisionTable(decisionTable, expressionManager, CommandContextUtil.getDmnEngineConfiguration().isDecisionTableIndexingEnabled());
+    }
+
+    protected void evaluateDecisionTable(CompiledDecisionTable compiledDecisionTable, ELExecutionContext executionContext) {
+        DecisionTable decisionTable = compiledDecisionTable.getDecisionTable();
         LOGGER.debug("Start table evaluation: {}", decisionTable.getId());
 
 
@@ -145,16 +176,24 @@ public class RuleEngineExecutorImpl implements RuleEngineExecutor {
         }
 
         try {
+            AbstractHitPolicy hitPolicyBehavior = getHitPolicyBehavior(decisionTable.getHitPolicy());
+
+            // look up the indexed input entries that match
+            IndexMatches indexMatches = null;
+            if (compiledDecisionTable.getIndex() != null) {
+                indexMatches = compiledDecisionTable.getIndex().match(executionContext.getStackVariables());
+            }
+
             // evaluate rule conditions
-            Map<Integer, List<RuleOutputClauseContainer>> validRuleOutputEntries = new HashMap<>();
+            Map<Integer, List<CompiledOutputEntry>> validRuleOutputEntries = new HashMap<>();
 
-            for (DecisionRule rule : decisionTable.getRules()) {
-                boolean ruleResult = executeRule(rule, executionContext);
+            for (CompiledDecisionRule rule : compiledDecisionTable.getRules()) {
+                boolean ruleResult = executeRule(rule, indexMatches, executionContext);
 
                 if (ruleResult) {
                     // evaluate decision table hit policy validity
-                    if (getHitPolicyBehavior(decisionTable.getHitPolicy()) instanceof EvaluateRuleValidityBehavior) {
-                        ((EvaluateRuleValidityBehavior) getHitPolicyBehavior(decisionTable.getHitPolicy())).evaluateRuleValidity(rule.getRuleNumber(), executionContext);
+                    if (hitPolicyBehavior instanceof EvaluateRuleValidityBehavior) {
+                        ((EvaluateRuleValidityBehavior) hitPolicyBehavior).evaluateRuleValidity(rule.getRuleNumber(), executionContext);
                     }
 
                     // add valid rule output(s)
@@ -162,8 +201,8 @@ public class RuleEngineExecutorImpl implements RuleEngineExecutor {
                 }
 
                 // should continue evaluating
-                if (getHitPolicyBehavior(decisionTable.getHitPolicy()) instanceof ContinueEvaluatingBehavior) {
-                    if (((ContinueEvaluatingBehavior) getHitPolicyBehavior(decisionTable.getHitPolicy())).shouldContinueEvaluating(ruleResult) == false) {
+                if (hitPolicyBehavior instanceof ContinueEvaluatingBehavior) {
+                    if (((ContinueEvaluatingBehavior) hitPolicyBehavior).shouldContinueEvaluating(ruleResult) == false) {
                         LOGGER.debug("Stopping execution; hit policy {} specific behaviour", decisionTable.getHitPolicy());
                         break;
                     }
@@ -171,13 +210,13 @@ public class RuleEngineExecutorImpl implements RuleEngineExecutor {
             }
 
             // compose rule conclusions
-            for (Map.Entry<Integer, List<RuleOutputClauseContainer>> entry : validRuleOutputEntries.entrySet()) {
-                executeOutputEntryAction(entry.getKey(), entry.getValue(), decisionTable.getHitPolicy(), executionContext);
+            for (Map.Entry<Integer, List<CompiledOutputEntry>> entry : validRuleOutputEntries.entrySet()) {
+                executeOutputEntryAction(entry.getKey(), entry.getValue(), hitPolicyBehavior, executionContext);
             }
 
             // post rule conclusion actions
-            if (getHitPolicyBehavior(decisionTable.getHitPolicy()) instanceof ComposeDecisionResultBehavior) {
-                ((ComposeDecisionResultBehavior) getHitPolicyBehavior(decisionTable.getHitPolicy())).composeDecisionResults(executionContext);
+            if (hitPolicyBehavior instanceof ComposeDecisionResultBehavior) {
+                ((ComposeDecisionResultBehavior) hitPolicyBehavior).composeDecisionResults(executionContext);
             }
 
         } catch (FlowableException ade) {
@@ -190,11 +229,12 @@ public class RuleEngineExecutorImpl implements RuleEngineExecutor {
         LOGGER.debug("End table evaluation: {}", decisionTable.getId());
     }
 
-    protected boolean executeRule(DecisionRule rule, ELExecutionContext executionContext) {
-        if (rule == null) {
+    protected boolean executeRule(CompiledDecisionRule compiledRule, IndexMatches indexMatches, ELExecutionContext executionContext) {
+        if (compiledRule == null) {
             throw new FlowableException("rule cannot be null");
         }
 
+        DecisionRule rule = compiledRule.getRule();
         LOGGER.debug("Start rule {} evaluation", rule.getRuleNumber());
 
         // add audit entry
@@ -203,7 +243,8 @@ public class RuleEngineExecutorImpl implements RuleEngineExecutor {
         boolean conditionResult = false;
 
         // go through conditions
-        for (RuleInputClauseContainer conditionContainer : rule.getInputEntries()) {
+        for (CompiledInputEntry compiledInputEntry : compiledRule.getInputEntries()) {
+            RuleInputClauseContainer conditionContainer = compiledInputEntry.getInputEntry();
 
             // resetting value
             String inputEntryId = conditionContainer.getInputEntry().getId();
@@ -211,11 +252,18 @@ public class RuleEngineExecutorImpl implements RuleEngineExecutor {
 
             try {
                 // if condition is empty condition or has dash symbol result is TRUE
-                String inputEntryText = conditionContainer.getInputEntry().getText();
-                if (StringUtils.isEmpty(inputEntryText) || "-".equals(inputEntryText)) {
+                if (compiledInputEntry.isMatchingAll()) {
                     conditionResult = true;
                 } else {
-                    conditionResult = executeInputExpressionEvaluation(conditionContainer, executionContext);
+                    Boolean indexedResult = null;
+                    if (indexMatches != null) {
+                        indexedResult = indexMatches.getInputEntryResult(compiledInputEntry.getInputIndex(), compiledRule.getRuleIndex());
+                    }
+                    if (indexedResult != null) {
+                        conditionResult = indexedResult;
+                    } else {
+                        conditionResult = executeInputExpressionEvaluation(compiledInputEntry, executionContext);
+                    }
                 }
 
                 // add audit entry
@@ -223,7 +271,7 @@ public class RuleEngineExecutorImpl implements RuleEngineExecutor {
 
                 LOGGER.debug("input entry {} ( {} {} ): {} ", inputEntryId,
                         conditionContainer.getInputClause().getInputExpression().getText(),
-                        inputEntryText, conditionResult);
+                        conditionContainer.getInputEntry().getText(), conditionResult);
 
             } catch (FlowableException ade) {
                 // add failed audit entry and rethrow
@@ -252,21 +300,22 @@ public class RuleEngineExecutorImpl implements RuleEngineExecutor {
         return conditionResult;
     }
 
-    protected Boolean executeInputExpressionEvaluation(RuleInputClauseContainer ruleContainer, ELExecutionContext executionContext) {
-        return ELExpressionExecutor.executeInputExpression(ruleContainer.getInputClause(), ruleContainer.getInputEntry(), expressionManager, executionContext);
+    protected Boolean executeInputExpressionEvaluation(CompiledInputEntry compiledInputEntry, ELExecutionContext executionContext) {
+        return ELExpressionExecutor.executeInputExpression(compiledInputEntry.getInputEntry().getInputClause(), compiledInputEntry.getExpression(), executionContext);
     }
 
-    protected void executeOutputEntryAction(int ruleNumber, List<RuleOutputClauseContainer> ruleOutputContainers, HitPolicy hitPolicy, ELExecutionContext executionContext) {
+    protected void executeOutputEntryAction(int ruleNumber, List<CompiledOutputEntry> compiledOutputEntries, AbstractHitPolicy hitPolicyBehavior, ELExecutionContext executionContext) {
         LOGGER.debug("Start conclusion processing");
 
-        for (RuleOutputClauseContainer clauseContainer : ruleOutputContainers) {
-            composeOutputEntryResult(ruleNumber, clauseContainer, hitPolicy, executionContext);
+        for (CompiledOutputEntry compiledOutputEntry : compiledOutputEntries) {
+            composeOutputEntryResult(ruleNumber, compiledOutputEntry, hitPolicyBehavior, executionContext);
         }
 
         LOGGER.debug("End conclusion processing");
     }
 
-    protected void composeOutputEntryResult(int ruleNumber, RuleOutputClauseContainer ruleClauseContainer, HitPolicy hitPolicy, ELExecutionContext executionContext) {
+    protected void composeOutputEntryResult(int ruleNumber, CompiledOutputEntry compiledOutputEntry, AbstractHitPolicy hitPolicyBehavior, ELExecutionContext executionContext) {
+        RuleOutputClauseContainer ruleClauseContainer = compiledOutputEntry.getOutputEntry();
         LOGGER.debug("Start evaluation conclusion {} of valid rule {}", ruleClauseContainer.getOutputClause().getOutputNumber(), ruleNumber);
 
         String outputVariableId = ruleClauseContainer.getOutputClause().getName();
@@ -277,12 +326,12 @@ public class RuleEngineExecutorImpl implements RuleEngineExecutor {
         if (StringUtils.isNotEmpty(outputEntryExpression.getText())) {
             Object executionVariable = null;
             try {
-                Object resultValue = ELExpressionExecutor.executeOutputExpression(ruleClauseContainer.getOutputClause(), outputEntryExpression, expressionManager, executionContext);
+                Object resultValue = ELExpressionExecutor.executeOutputExpression(ruleClauseContainer.getOutputClause(), outputEntryExpression, compiledOutputEntry.getExpression(), executionContext);
                 executionVariable = ExecutionVariableFactory.getExecutionVariable(outputVariableType, resultValue);
 
                 // create result
-                if (getHitPolicyBehavior(hitPolicy) instanceof ComposeRuleResultBehavior) {
-                    ((ComposeRuleResultBehavior) getHitPolicyBehavior(hitPolicy)).composeRuleResult(ruleNumber, outputVariableId, executionVariable, executionContext);
+                if (hitPolicyBehavior instanceof ComposeRuleResultBehavior) {
+                    ((ComposeRuleResultBehavior) hitPolicyBehavior).composeRuleResult(ruleNumber, outputVariableId, executionVariable, executionContext);
                 }
 
                 // add audit entry
@@ -0,0 +1,105 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.dmn.engine.impl.cmd;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.flowable.dmn.api.DecisionExecutionAuditContainer;
+import org.flowable.dmn.api.DmnDecisionTable;
+import org.flowable.dmn.engine.DmnEngineConfiguration;
+import org.flowable.dmn.engine.impl.ExecuteDecisionBatchBuilderImpl;
+import org.flowable.dmn.engine.impl.ExecuteDecisionInfo;
+import org.flowable.dmn.engine.impl.persistence.deploy.DeploymentManager;
+import org.flowable.dmn.engine.impl.util.CommandContextUtil;
+import org.flowable.dmn.model.Decision;
+import org.flowable.engine.common.api.FlowableIllegalArgumentException;
+import org.flowable.engine.common.api.FlowableObjectNotFoundException;
+import org.flowable.engine.common.impl.interceptor.Command;
+import org.flowable.engine.common.impl.interceptor.CommandContext;
+
+/**
+ * Executes a decision for a batch of input variables in one transaction.
+ *
+ * The decision is resolved by its key, unless the id of the decision table that was resolved for an earlier batch is set.
+ */
+public class ExecuteDecisionBatchCmd extends AbstractExecuteDecisionCmd implements Command<List<List<Map<String, Object>>>> {
+
+    private static final long serialVersionUID = 1L;
+
+    protected List<Map<String, Object>> variablesBatch;
+    protected long firstExecutionNumber;
+    protected int historySamplingInterval;
+
+    public ExecuteDecisionBatchCmd(ExecuteDecisionBatchBuilderImpl decisionBatchBuilder, String decisionDefinitionId,
+            List<Map<String, Object>> variablesBatch, long firstExecutionNumber) {
+        super(decisionBatchBuilder.getDecisionKey(), null);
+        executeDecisionInfo.setParentDeploymentId(decisionBatchBuilder.getParentDeploymentId());
+        executeDecisionInfo.setTenantId(decisionBatchBuilder.getTenantId());
+        executeDecisionInfo.setDecisionDefinitionId(decisionDefinitionId);
+        this.variablesBatch = variablesBatch;
+        this.firstExecutionNumber = firstExecutionNumber;
+        this.historySamplingInterval = decisionBatchBuilder.getHistorySamplingInterval();
+    }
+
+    @Override
+    public List<List<Map<String, Object>>> execute(CommandContext commandContext) {
+        if (getDecisionKey() == null) {
+            throw new FlowableIllegalArgumentException("decisionKey is null");
+        }
+
+        DmnEngineConfiguration dmnEngineConfiguration = CommandContextUtil.getDmnEngineConfiguration();
+        DeploymentManager deploymentManager = dmnEngineConfiguration.getDeploymentManager();
+
+        DmnDecisionTable decisionTable;
+        if (getDecisionDefinitionId() != null) {
+            decisionTable = deploymentManager.findDeployedDecisionById(getDecisionDefinitionId());
+            if (decisionTable == null) {
+                throw new FlowableObjectNotFoundException("No decision found for id: " + getDecisionDefinitionId());
+            }
+            executeDecisionInfo.setDeploymentId(decisionTable.getDeploymentId());
+        } else {
+            decisionTable = resolveDecisionTable(deploymentManager);
+        }
+        Decision decision = resolveDecision(deploymentManager, decisionTable);
+
+        List<List<Map<String, Object>>> results = new ArrayList<>(variablesBatch.size());
+        for (int i = 0; i < variablesBatch.size(); i++) {
+            ExecuteDecisionInfo batchExecuteDecisionInfo = createExecuteDecisionInfo(variablesBatch.get(i), firstExecutionNumber + i);
+            DecisionExecutionAuditContainer executionResult = dmnEngineConfiguration.getRuleEngineExecutor().execute(decision, batchExecuteDecisionInfo);
+            results.add(executionResult != null ? executionResult.getDecisionResult() : null);
+        }
+        return results;
+    }
+
+    protected ExecuteDecisionInfo createExecuteDecisionInfo(Map<String, Object> variables, long executionNumber) {
+        ExecuteDecisionInfo batchExecuteDecisionInfo = new ExecuteDecisionInfo();
+        batchExecuteDecisionInfo.setDecisionKey(executeDecisionInfo.getDecisionKey());
+        batchExecuteDecisionInfo.setDecisionDefinitionId(executeDecisionInfo.getDecisionDefinitionId());
+        batchExecuteDecisionInfo.setDeploymentId(executeDecisionInfo.getDeploymentId());
+        batchExecuteDecisionInfo.setParentDeploymentId(executeDecisionInfo.getParentDeploymentId());
+        batchExecuteDecisionInfo.setTenantId(executeDecisionInfo.getTenantId());
+
+        // the execution adds default values of the outputs to the variables, so the given map is not changed
+        batchExecuteDecisionInfo.setVariables(variables != null ? new HashMap<>(variables) : new HashMap<String, Object>());
+        batchExecuteDecisionInfo.setHistoryEnabled(historySamplingInterval > 0 && executionNumber % historySamplingInterval == 0);
+        return batchExecuteDecisionInfo;
+    }
+
+    public String getDecisionDefinitionId() {
+        return executeDecisionInfo.getDecisionDefinitionId();
+    }
+
+}
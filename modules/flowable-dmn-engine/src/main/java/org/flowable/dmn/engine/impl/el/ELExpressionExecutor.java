@@ -28,6 +28,13 @@ public class ELExpressionExecutor {
     private static final Logger LOGGER = LoggerFactory.getLogger(ELExpressionExecutor.class);
 
     public static Boolean executeInputExpression(InputClause inputClause, UnaryTests inputEntry, ExpressionManager expressionManager, ELExecutionContext executionContext) {
+        return executeInputExpression(inputClause, createInputExpression(inputClause, inputEntry, expressionManager), executionContext);
+    }
+
+    /**
+     * Parses the input entry into an expression, which can be evaluated for many executions with {@link #executeInputExpression(InputClause, Expression, ELExecutionContext)}.
+     */
+    public static Expression createInputExpression(InputClause inputClause, UnaryTests inputEntry, ExpressionManager expressionManager) {
         if (inputClause == null) {
             throw new IllegalArgumentException("input clause is required");
         }
@@ -37,6 +44,14 @@ public class ELExpressionExecutor {
         if (inputEntry == null) {
             throw new IllegalArgumentException("input entry is required");
         }
+
+        // pre parse expression
+        String parsedExpression = ELConditionExpressionPreParser.parse(inputEntry.getText(), inputClause.getInputExpression().getText(), inputClause.getInputExpression().getTypeRef());
+
+        return expressionManager.createExpression(parsedExpression);
+    }
+
+    public static Boolean executeInputExpression(InputClause inputClause, Expression expression, ELExecutionContext executionContext) {
         if (executionContext == null) {
             throw new IllegalArgumentException("execution context is required");
         }
@@ -44,34 +59,42 @@ public class ELExpressionExecutor {
         String inputExpression = inputClause.getInputExpression().getText();
         executionContext.checkExecutionContext(inputExpression);
         
-        // pre parse expression
-        String parsedExpression = ELConditionExpressionPreParser.parse(inputEntry.getText(), inputExpression, inputClause.getInputExpression().getTypeRef());
-
-        Expression expression = expressionManager.createExpression(parsedExpression);
         RuleExpressionCondition condition = new RuleExpressionCondition(expression);
         
         try {
             return condition.evaluate(executionContext.getStackVariables());
         } catch (Exception ex) {
-            LOGGER.warn("Error while executing input entry: {}", parsedExpression, ex);
-            throw new FlowableDmnExpressionException("error while executing input entry", parsedExpression, ex);
+            LOGGER.warn("Error while executing input entry: {}", expression.getExpressionText(), ex);
+            throw new FlowableDmnExpressionException("error while executing input entry", expression.getExpressionText(), ex);
         }
     }
 
     public static Object executeOutputExpression(OutputClause outputClause, LiteralExpression outputEntry, ExpressionManager expressionManager, ELExecutionContext executionContext) {
-        if (outputClause == null) {
-            throw new IllegalArgumentException("output clause is required");
-        }
+        return executeOutputExpression(outputClause, outputEntry, createOutputExpression(outputEntry, expressionManager), executionContext);
+    }
+
+    /**
+     * Parses the output entry into an expression, which can be evaluated for many executions with
+     * {@link #executeOutputExpression(OutputClause, LiteralExpression, Expression, ELExecutionContext)}.
+     */
+    public static Expression createOutputExpression(LiteralExpression outputEntry, ExpressionManager expressionManager) {
         if (outputEntry == null) {
             throw new IllegalArgumentException("output entry is required");
         }
+
+        String parsedExpression = ELOutputExpressionPreParser.parse(outputEntry.getText());
+
+        return expressionManager.createExpression(parsedExpression);
+    }
+
+    public static Object executeOutputExpression(OutputClause outputClause, LiteralExpression outputEntry, Expression expression, ELExecutionContext executionContext) {
+        if (outputClause == null) {
+            throw new IllegalArgumentException("output clause is required");
+        }
         if (executionContext == null) {
             throw new IllegalArgumentException("execution context is required");
         }
         
-        String parsedExpression = ELOutputExpressionPreParser.parse(outputEntry.getText());
-        
-        Expression expression = expressionManager.createExpression(parsedExpression);
         RuleExpressionOutput outputExpression = new RuleExpressionOutput(expression);
 
         try {
@@ -0,0 +1,156 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.dmn.engine.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Map;
+
+import org.flowable.dmn.api.DmnDecisionTable;
+import org.flowable.dmn.engine.DmnEngine;
+import org.flowable.dmn.engine.DmnEngineConfiguration;
+import org.flowable.dmn.engine.RuleEngineExecutor;
+import org.flowable.dmn.engine.impl.CompiledDecisionTable;
+import org.flowable.dmn.engine.impl.ExecuteDecisionInfo;
+import org.flowable.dmn.engine.impl.RuleEngineExecutorImpl;
+import org.flowable.dmn.engine.impl.cfg.StandaloneInMemDmnEngineConfiguration;
+import org.flowable.dmn.engine.impl.persistence.deploy.DecisionTableCacheEntry;
+import org.flowable.dmn.model.Decision;
+import org.flowable.dmn.model.DecisionTable;
+import org.flowable.engine.common.AbstractEngineConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests the decision tables that are compiled at deployment, and compares them with parsing the expressions for every execution.
+ */
+public class CompiledDecisionTableTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompiledDecisionTableTest.class);
+
+    protected DmnEngineConfiguration dmnEngineConfiguration;
+    protected DmnEngine dmnEngine;
+
+    @Before
+    public void setupDmnEngine() {
+        dmnEngineConfiguration = new StandaloneInMemDmnEngineConfiguration();
+        dmnEngineConfiguration.setJdbcUrl("jdbc:h2:mem:compiledDecisionTableTest");
+        dmnEngineConfiguration.setDatabaseSchemaUpdate(AbstractEngineConfiguration.DB_SCHEMA_UPDATE_DROP_CREATE);
+        dmnEngine = dmnEngineConfiguration.buildDmnEngine();
+    }
+
+    @After
+    public void shutdownDmnEngine() {
+        dmnEngine.close();
+    }
+
+    @Test
+    public void testDecisionTableIsCompiledAtDeployment() {
+        deployDecisionTable(10);
+
+        DmnDecisionTable decisionTable = dmnEngine.getDmnRepositoryService().createDecisionTableQuery().decisionTableKey("decision").singleResult();
+        DecisionTableCacheEntry cacheEntry = dmnEngineConfiguration.getDecisionCache().get(decisionTable.getId());
+        CompiledDecisionTable compiledDecisionTable = cacheEntry.getCompiledDecisionTable();
+        assertNotNull(compiledDecisionTable);
+        assertSame(cacheEntry.getDecision().getExpression(), compiledDecisionTable.getDecisionTable());
+        assertEquals(10, compiledDecisionTable.getRules().size());
+
+        assertEquals("result 7", executeDecision(7).get("outputVariable1"));
+        assertSame(compiledDecisionTable, cacheEntry.getCompiledDecisionTable());
+    }
+
+    @Test
+    public void testCompareWithParsingPerExecution() {
+        for (int nrOfRules : new int[] { 10, 100, 1000 }) {
+            deployDecisionTable(nrOfRules);
+            int nrOfExecutions = 100000 / nrOfRules;
+
+            long compiledDuration = executeDecision(nrOfRules, nrOfExecutions);
+
+            RuleEngineExecutor ruleEngineExecutor = dmnEngineConfiguration.getRuleEngineExecutor();
+            dmnEngineConfiguration.setRuleEngineExecutor(new ParsingPerExecutionRuleEngineExecutor(dmnEngineConfiguration));
+            long parsingDuration;
+            try {
+                parsingDuration = executeDecision(nrOfRules, nrOfExecutions);
+            } finally {
+                dmnEngineConfiguration.setRuleEngineExecutor(ruleEngineExecutor);
+            }
+
+            LOGGER.info("{} executions of a decision table with {} rules took {} ms with the compiled decision table and {} ms parsing the expressions per execution",
+                    nrOfExecutions, nrOfRules, compiledDuration, parsingDuration);
+        }
+    }
+
+    protected long executeDecision(int nrOfRules, int nrOfExecutions) {
+        // warm up
+        executeDecision(nrOfRules - 1);
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < nrOfExecutions; i++) {
+            // the last rule matches, so all rules are evaluated
+            assertEquals("result " + (nrOfRules - 1), executeDecision(nrOfRules - 1).get("outputVariable1"));
+        }
+        return System.currentTimeMillis() - start;
+    }
+
+    protected Map<String, Object> executeDecision(int inputValue) {
+        return dmnEngine.getDmnRuleService().createExecuteDecisionBuilder()
+                .decisionKey("decision")
+                .variable("inputVariable1", inputValue)
+                .executeWithSingleResult();
+    }
+
+    protected void deployDecisionTable(int nrOfRules) {
+        dmnEngine.getDmnRepositoryService().createDeployment()
+                .addString("decision.dmn", createDecisionTableXml(nrOfRules))
+                .deploy();
+    }
+
+    protected String createDecisionTableXml(int nrOfRules) {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<definitions xmlns=\"http://www.omg.org/spec/DMN/20151101\" id=\"definitions\" name=\"Definitions\" namespace=\"http://www.flowable.org/dmn\">");
+        xml.append("<decision id=\"decision\" name=\"Decision\">");
+        xml.append("<decisionTable id=\"decisionTable\" hitPolicy=\"FIRST\">");
+        xml.append("<input><inputExpression id=\"inputExpression1\" typeRef=\"number\"><text>inputVariable1</text></inputExpression></input>");
+        xml.append("<output id=\"output1\" label=\"Output 1\" name=\"outputVariable1\" typeRef=\"string\"/>");
+        for (int i = 0; i < nrOfRules; i++) {
+            xml.append("<rule>");
+            xml.append("<inputEntry id=\"inputEntry").append(i).append("\"><text>== ").append(i).append("</text></inputEntry>");
+            xml.append("<outputEntry id=\"outputEntry").append(i).append("\"><text>'result ").append(i).append("'</text></outputEntry>");
+            xml.append("</rule>");
+        }
+        xml.append("</decisionTable></decision></definitions>");
+        return xml.toString();
+    }
+
+    /**
+     * Compiles the decision table for every execution, which parses the expressions like before decision tables were compiled at deployment.
+     */
+    protected static class ParsingPerExecutionRuleEngineExecutor extends RuleEngineExecutorImpl {
+
+        public ParsingPerExecutionRuleEngineExecutor(DmnEngineConfiguration dmnEngineConfiguration) {
+            super(dmnEngineConfiguration.getHitPolicyBehaviors(), dmnEngineConfiguration.getExpressionManager(), dmnEngineConfiguration.getObjectMapper());
+        }
+
+        @Override
+        protected CompiledDecisionTable getCompiledDecisionTable(Decision decision, DecisionTable decisionTable, ExecuteDecisionInfo executeDecisionInfo) {
+            return new CompiledDecisionTable(decisionTable, expressionManager);
+        }
+    }
+
+}
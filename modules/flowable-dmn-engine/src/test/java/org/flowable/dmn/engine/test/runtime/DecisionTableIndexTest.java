@@ -0,0 +1,225 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.dmn.engine.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.flowable.dmn.api.DecisionExecutionAuditContainer;
+import org.flowable.dmn.api.DmnDecisionTable;
+import org.flowable.dmn.engine.DmnEngine;
+import org.flowable.dmn.engine.DmnEngineConfiguration;
+import org.flowable.dmn.engine.RuleEngineExecutor;
+import org.flowable.dmn.engine.impl.CompiledDecisionTable;
+import org.flowable.dmn.engine.impl.ExecuteDecisionInfo;
+import org.flowable.dmn.engine.impl.RuleEngineExecutorImpl;
+import org.flowable.dmn.engine.impl.cfg.StandaloneInMemDmnEngineConfiguration;
+import org.flowable.dmn.model.Decision;
+import org.flowable.dmn.model.DecisionTable;
+import org.flowable.engine.common.AbstractEngineConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Tests that decision tables evaluated with the index of their input entries have the same results and audit trail as evaluating all input entries.
+ */
+public class DecisionTableIndexTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DecisionTableIndexTest.class);
+
+    protected static final String[] AMOUNT_ENTRIES = new String[] { "== 5", "5", "!= 5", "< 10", "<= 10", "> 5.5", ">= 0", "== 5.0", "!= 5.5", "-", "", "> -1",
+            "== 100", "< 10.5" };
+
+    protected static final String[] CATEGORY_ENTRIES = new String[] { "\"a\"", "== 'b'", "!= \"a\"", "-", ".startsWith('a')" };
+
+    protected DmnEngineConfiguration dmnEngineConfiguration;
+    protected DmnEngine dmnEngine;
+    protected ObjectMapper objectMapper = new ObjectMapper();
+
+    @Before
+    public void setupDmnEngine() {
+        dmnEngineConfiguration = new StandaloneInMemDmnEngineConfiguration();
+        dmnEngineConfiguration.setJdbcUrl("jdbc:h2:mem:decisionTableIndexTest");
+        dmnEngineConfiguration.setDatabaseSchemaUpdate(AbstractEngineConfiguration.DB_SCHEMA_UPDATE_DROP_CREATE);
+        dmnEngineConfiguration.setDecisionTableIndexingEnabled(true);
+        dmnEngine = dmnEngineConfiguration.buildDmnEngine();
+    }
+
+    @After
+    public void shutdownDmnEngine() {
+        dmnEngine.close();
+    }
+
+    @Test
+    public void testDecisionTableIsIndexedAtDeployment() {
+        deployDecisionTable("COLLECT", AMOUNT_ENTRIES.length * CATEGORY_ENTRIES.length);
+
+        DmnDecisionTable decisionTable = dmnEngine.getDmnRepositoryService().createDecisionTableQuery().decisionTableKey("decision").singleResult();
+        CompiledDecisionTable compiledDecisionTable = dmnEngineConfiguration.getDecisionCache().get(decisionTable.getId()).getCompiledDecisionTable();
+        assertNotNull(compiledDecisionTable.getIndex());
+
+        // all amount entries except the dash and the empty entry, and the category entries except the dash and the method call
+        assertEquals(5 * 12 + 14 * 3, compiledDecisionTable.getIndex().getNrOfIndexedInputEntries());
+    }
+
+    @Test
+    public void testSameResultsAndAuditAsSequentialEvaluation() throws Exception {
+        List<Object> amounts = Arrays.<Object> asList(-1, 0, 5, 5L, 5.0, 5.5, 10, 10.0f, 10.5, 100L, -0.0, new BigDecimal("5"), "5");
+        List<Object> categories = Arrays.<Object> asList("a", "b", "abc", "");
+
+        for (String hitPolicy : new String[] { "COLLECT", "FIRST", "RULE ORDER" }) {
+            dmnEngine.getDmnRepositoryService().createDeployment()
+                    .addString("decision.dmn", createDecisionTableXml(hitPolicy, AMOUNT_ENTRIES.length * CATEGORY_ENTRIES.length))
+                    .deploy();
+
+            for (Object amount : amounts) {
+                for (Object category : categories) {
+                    Map<String, Object> variables = new HashMap<>();
+                    variables.put("amount", amount);
+                    variables.put("category", category);
+                    assertSameExecution(hitPolicy + " " + variables, variables);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSameAuditWhenInputVariableIsMissing() throws Exception {
+        deployDecisionTable("COLLECT", AMOUNT_ENTRIES.length * CATEGORY_ENTRIES.length);
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("amount", 5);
+        assertSameExecution("missing category", variables);
+    }
+
+    @Test
+    public void testCompareWithSequentialEvaluation() {
+        int nrOfRules = 1000;
+        deployDecisionTable("FIRST", nrOfRules);
+
+        long indexedDuration = executeDecision(nrOfRules);
+
+        RuleEngineExecutor ruleEngineExecutor = dmnEngineConfiguration.getRuleEngineExecutor();
+        dmnEngineConfiguration.setRuleEngineExecutor(new SequentialRuleEngineExecutor(dmnEngineConfiguration));
+        long sequentialDuration;
+        try {
+            sequentialDuration = executeDecision(nrOfRules);
+        } finally {
+            dmnEngineConfiguration.setRuleEngineExecutor(ruleEngineExecutor);
+        }
+
+        LOGGER.info("100 executions of a decision table with {} rules took {} ms with the index and {} ms evaluating all input entries",
+                nrOfRules, indexedDuration, sequentialDuration);
+    }
+
+    protected long executeDecision(int nrOfRules) {
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 100; i++) {
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("amount", 100);
+            variables.put("category", "abc");
+            assertNotNull(dmnEngine.getDmnRuleService().executeDecisionByKey("decision", variables));
+        }
+        return System.currentTimeMillis() - start;
+    }
+
+    protected void assertSameExecution(String message, Map<String, Object> variables) throws Exception {
+        DecisionExecutionAuditContainer indexedAuditContainer = dmnEngine.getDmnRuleService()
+                .executeDecisionByKeyWithAuditTrail("decision", new HashMap<>(variables));
+
+        RuleEngineExecutor ruleEngineExecutor = dmnEngineConfiguration.getRuleEngineExecutor();
+        dmnEngineConfiguration.setRuleEngineExecutor(new SequentialRuleEngineExecutor(dmnEngineConfiguration));
+        DecisionExecutionAuditContainer sequentialAuditContainer;
+        try {
+            sequentialAuditContainer = dmnEngine.getDmnRuleService().executeDecisionByKeyWithAuditTrail("decision", new HashMap<>(variables));
+        } finally {
+            dmnEngineConfiguration.setRuleEngineExecutor(ruleEngineExecutor);
+        }
+
+        assertTrue(message, !sequentialAuditContainer.getRuleExecutions().isEmpty());
+        assertEquals(message, toJsonWithoutTimes(sequentialAuditContainer), toJsonWithoutTimes(indexedAuditContainer));
+    }
+
+    protected JsonNode toJsonWithoutTimes(DecisionExecutionAuditContainer auditContainer) {
+        JsonNode jsonNode = objectMapper.valueToTree(auditContainer);
+        removeTimes(jsonNode);
+        return jsonNode;
+    }
+
+    protected void removeTimes(JsonNode jsonNode) {
+        if (jsonNode instanceof ObjectNode) {
+            ((ObjectNode) jsonNode).remove("startTime");
+            ((ObjectNode) jsonNode).remove("endTime");
+        }
+        Iterator<JsonNode> children = jsonNode.elements();
+        while (children.hasNext()) {
+            removeTimes(children.next());
+        }
+    }
+
+    protected void deployDecisionTable(String hitPolicy, int nrOfRules) {
+        dmnEngine.getDmnRepositoryService().createDeployment()
+                .addString("decision.dmn", createDecisionTableXml(hitPolicy, nrOfRules))
+                .deploy();
+    }
+
+    protected String createDecisionTableXml(String hitPolicy, int nrOfRules) {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<definitions xmlns=\"http://www.omg.org/spec/DMN/20151101\" id=\"definitions\" name=\"Definitions\" namespace=\"http://www.flowable.org/dmn\">");
+        xml.append("<decision id=\"decision\" name=\"Decision\">");
+        xml.append("<decisionTable id=\"decisionTable\" hitPolicy=\"").append(hitPolicy).append("\">");
+        xml.append("<input><inputExpression id=\"inputExpression1\" typeRef=\"number\"><text>amount</text></inputExpression></input>");
+        xml.append("<input><inputExpression id=\"inputExpression2\" typeRef=\"string\"><text>category</text></inputExpression></input>");
+        xml.append("<output id=\"output1\" label=\"Output 1\" name=\"outputVariable1\" typeRef=\"string\"/>");
+        for (int i = 0; i < nrOfRules; i++) {
+            xml.append("<rule>");
+            xml.append("<inputEntry id=\"inputEntry").append(i).append("_1\"><text><![CDATA[").append(AMOUNT_ENTRIES[i % AMOUNT_ENTRIES.length]).append("]]></text></inputEntry>");
+            xml.append("<inputEntry id=\"inputEntry").append(i).append("_2\"><text><![CDATA[").append(CATEGORY_ENTRIES[i % CATEGORY_ENTRIES.length]).append("]]></text></inputEntry>");
+            xml.append("<outputEntry id=\"outputEntry").append(i).append("\"><text>'result ").append(i).append("'</text></outputEntry>");
+            xml.append("</rule>");
+        }
+        xml.append("</decisionTable></decision></definitions>");
+        return xml.toString();
+    }
+
+    /**
+     * Evaluates all input entries as expressions, like when indexing is disabled.
+     */
+    protected static class SequentialRuleEngineExecutor extends RuleEngineExecutorImpl {
+
+        public SequentialRuleEngineExecutor(DmnEngineConfiguration dmnEngineConfiguration) {
+            super(dmnEngineConfiguration.getHitPolicyBehaviors(), dmnEngineConfiguration.getExpressionManager(), dmnEngineConfiguration.getObjectMapper());
+        }
+
+        @Override
+        protected CompiledDecisionTable getCompiledDecisionTable(Decision decision, DecisionTable decisionTable, ExecuteDecisionInfo executeDecisionInfo) {
+            return new CompiledDecisionTable(decisionTable, expressionManager);
+        }
+    }
+
+}
@@ -0,0 +1,219 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.dmn.engine.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.flowable.dmn.engine.DmnEngine;
+import org.flowable.dmn.engine.DmnEngineConfiguration;
+import org.flowable.dmn.engine.impl.cfg.StandaloneInMemDmnEngineConfiguration;
+import org.flowable.engine.common.AbstractEngineConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests executing a decision for many sets of input variables with the {@link org.flowable.dmn.api.ExecuteDecisionBatchBuilder}.
+ */
+public class ExecuteDecisionBatchTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecuteDecisionBatchTest.class);
+
+    protected DmnEngineConfiguration dmnEngineConfiguration;
+    protected DmnEngine dmnEngine;
+
+    @Before
+    public void setupDmnEngine() {
+        dmnEngineConfiguration = new StandaloneInMemDmnEngineConfiguration();
+        dmnEngineConfiguration.setJdbcUrl("jdbc:h2:mem:executeDecisionBatchTest");
+        dmnEngineConfiguration.setDatabaseSchemaUpdate(AbstractEngineConfiguration.DB_SCHEMA_UPDATE_DROP_CREATE);
+        dmnEngineConfiguration.setHistoryEnabled(true);
+        dmnEngineConfiguration.setBulkInsertEnabled(true);
+        dmnEngine = dmnEngineConfiguration.buildDmnEngine();
+
+        dmnEngine.getDmnRepositoryService().createDeployment()
+                .addString("decision.dmn", createDecisionTableXml())
+                .deploy();
+    }
+
+    @After
+    public void shutdownDmnEngine() {
+        dmnEngine.close();
+    }
+
+    @Test
+    public void testResultsInOrderOfInputVariables() {
+        Iterator<List<Map<String, Object>>> results = dmnEngine.getDmnRuleService().createExecuteDecisionBatchBuilder()
+                .decisionKey("decision")
+                .variables(new InputVariablesIterator(1050))
+                .batchSize(100)
+                .execute();
+
+        assertResults(results, 1050);
+        assertEquals(1050, dmnEngine.getDmnHistoryService().createHistoricDecisionExecutionQuery().count());
+    }
+
+    @Test
+    public void testResultsWithExecutorService() {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            Iterator<List<Map<String, Object>>> results = dmnEngine.getDmnRuleService().createExecuteDecisionBatchBuilder()
+                    .decisionKey("decision")
+                    .variables(new InputVariablesIterator(1050))
+                    .batchSize(50)
+                    .executorService(executorService)
+                    .maxBatchesInProgress(8)
+                    .execute();
+
+            assertResults(results, 1050);
+            assertEquals(1050, dmnEngine.getDmnHistoryService().createHistoricDecisionExecutionQuery().count());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testInputVariablesAreReadPerBatch() {
+        InputVariablesIterator inputVariables = new InputVariablesIterator(1000);
+        Iterator<List<Map<String, Object>>> results = dmnEngine.getDmnRuleService().createExecuteDecisionBatchBuilder()
+                .decisionKey("decision")
+                .variables(inputVariables)
+                .batchSize(100)
+                .execute();
+
+        assertEquals(0, inputVariables.nrOfReadVariables.get());
+        results.next();
+        assertEquals(100, inputVariables.nrOfReadVariables.get());
+        for (int i = 1; i < 100; i++) {
+            results.next();
+        }
+        assertEquals(100, inputVariables.nrOfReadVariables.get());
+        results.next();
+        assertEquals(200, inputVariables.nrOfReadVariables.get());
+    }
+
+    @Test
+    public void testHistorySampling() {
+        assertResults(dmnEngine.getDmnRuleService().createExecuteDecisionBatchBuilder()
+                .decisionKey("decision")
+                .variables(new InputVariablesIterator(1000))
+                .historySamplingInterval(10)
+                .execute(), 1000);
+        assertEquals(100, dmnEngine.getDmnHistoryService().createHistoricDecisionExecutionQuery().count());
+
+        assertResults(dmnEngine.getDmnRuleService().createExecuteDecisionBatchBuilder()
+                .decisionKey("decision")
+                .variables(new InputVariablesIterator(1000))
+                .historySamplingInterval(0)
+                .execute(), 1000);
+        assertEquals(100, dmnEngine.getDmnHistoryService().createHistoricDecisionExecutionQuery().count());
+    }
+
+    @Test
+    public void testNoInputVariables() {
+        Iterator<List<Map<String, Object>>> results = dmnEngine.getDmnRuleService().createExecuteDecisionBatchBuilder()
+                .decisionKey("decision")
+                .variables(Collections.<Map<String, Object>> emptyList())
+                .execute();
+        assertFalse(results.hasNext());
+    }
+
+    @Test
+    public void testCompareWithSingleExecutions() {
+        int nrOfExecutions = 5000;
+
+        long start = System.currentTimeMillis();
+        InputVariablesIterator inputVariables = new InputVariablesIterator(nrOfExecutions);
+        while (inputVariables.hasNext()) {
+            dmnEngine.getDmnRuleService().createExecuteDecisionBuilder()
+                    .decisionKey("decision")
+                    .variables(inputVariables.next())
+                    .execute();
+        }
+        long singleDuration = System.currentTimeMillis() - start;
+
+        start = System.currentTimeMillis();
+        assertResults(dmnEngine.getDmnRuleService().createExecuteDecisionBatchBuilder()
+                .decisionKey("decision")
+                .variables(new InputVariablesIterator(nrOfExecutions))
+                .batchSize(500)
+                .execute(), nrOfExecutions);
+        long batchDuration = System.currentTimeMillis() - start;
+
+        LOGGER.info("{} decision executions with history took {} ms executing them one by one and {} ms executing them in batches",
+                nrOfExecutions, singleDuration, batchDuration);
+    }
+
+    protected void assertResults(Iterator<List<Map<String, Object>>> results, int nrOfExecutions) {
+        for (int i = 0; i < nrOfExecutions; i++) {
+            List<Map<String, Object>> result = results.next();
+            assertEquals(1, result.size());
+            assertEquals(i % 2 == 0 ? "even" : "odd", result.get(0).get("outputVariable1"));
+        }
+        assertFalse(results.hasNext());
+    }
+
+    protected String createDecisionTableXml() {
+        return "<definitions xmlns=\"http://www.omg.org/spec/DMN/20151101\" id=\"definitions\" name=\"Definitions\" namespace=\"http://www.flowable.org/dmn\">"
+                + "<decision id=\"decision\" name=\"Decision\">"
+                + "<decisionTable id=\"decisionTable\" hitPolicy=\"FIRST\">"
+                + "<input><inputExpression id=\"inputExpression1\" typeRef=\"number\"><text>inputVariable1</text></inputExpression></input>"
+                + "<output id=\"output1\" label=\"Output 1\" name=\"outputVariable1\" typeRef=\"string\"/>"
+                + "<rule><inputEntry id=\"inputEntry1\"><text>#{inputVariable1 % 2 == 0}</text></inputEntry>"
+                + "<outputEntry id=\"outputEntry1\"><text>'even'</text></outputEntry></rule>"
+                + "<rule><inputEntry id=\"inputEntry2\"><text>-</text></inputEntry>"
+                + "<outputEntry id=\"outputEntry2\"><text>'odd'</text></outputEntry></rule>"
+                + "</decisionTable></decision></definitions>";
+    }
+
+    protected static class InputVariablesIterator implements Iterator<Map<String, Object>> {
+
+        protected int nrOfVariables;
+        protected AtomicInteger nrOfReadVariables = new AtomicInteger();
+
+        public InputVariablesIterator(int nrOfVariables) {
+            this.nrOfVariables = nrOfVariables;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nrOfReadVariables.get() < nrOfVariables;
+        }
+
+        @Override
+        public Map<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return Collections.<String, Object> singletonMap("inputVariable1", nrOfReadVariables.getAndIncrement());
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+}
@@ -53,6 +53,14 @@ public interface FlowableEventDispatcher {
      */
     void dispatchEvent(FlowableEvent event);
 
+    /**
+     * Returns whether an event of the given type would be delivered to any listener when it is dispatched. Allows skipping the creation of an event nobody listens to.
+     * 
+     * @param type
+     *            the type of the event
+     */
+    boolean hasListeners(FlowableEventType type);
+
     /**
      * @param enabled
      *            true, if event dispatching should be enabled.
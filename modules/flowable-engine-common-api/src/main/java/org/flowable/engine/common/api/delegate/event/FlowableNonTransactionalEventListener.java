@@ -0,0 +1,25 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.common.api.delegate.event;
+
+/**
+ * A {@link FlowableEventListener} that doesn't take part in the transaction in which the event is dispatched.
+ * 
+ * When the event dispatcher is configured with an executor for non-transactional listeners, these listeners are notified on a thread of that executor
+ * once the transaction in which the event is dispatched is committed, and the dispatching operation doesn't wait for them. They aren't notified of events of
+ * transactions that are rolled back, exceptions they throw are only logged, and they must not use the command context or change the entities of the event.
+ * Without such an executor, they are notified like any other listener.
+ */
+public interface FlowableNonTransactionalEventListener extends FlowableEventListener {
+
+}
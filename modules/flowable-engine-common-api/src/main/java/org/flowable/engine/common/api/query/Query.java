@@ -61,4 +61,20 @@ public interface Query<T extends Query<?, ?>, U extends Object> {
      * Executes the query and get a list of entities as the result.
      */
     List<U> listPage(int firstResult, int maxResults);
+
+    /**
+     * Executes the query and gets the page of at most maxResults entities that follows the page for which the given continuation token
+     * was returned by {@link #getContinuationToken()}, or the first page when the continuation token is null.
+     *
+     * Queries that support it select the page with a condition on the values of the order properties of the last entity of the previous page,
+     * so the database doesn't need to skip the entities of all previous pages. The id is used as last order property to make the order unique.
+     * Other queries, or queries ordered on properties that can't be used in such a condition, select the page with an offset as {@link #listPage(int, int)} does.
+     */
+    List<U> listPageAfter(String continuationToken, int maxResults);
+
+    /**
+     * Returns the continuation token to get the page after the page returned by the last call to {@link #listPageAfter(String, int)},
+     * or null when that page wasn't full, as there are no more entities then.
+     */
+    String getContinuationToken();
 }
@@ -154,6 +154,25 @@ public abstract class AbstractEngineConfiguration {
 
     public int DEFAULT_MAX_NR_OF_STATEMENTS_BULK_INSERT_SQL_SERVER = 70; // currently Execution has most params (28). 2000 / 28 = 71.
 
+    /**
+     * When enabled, the updates and deletes of entities that happen when the db session is flushed are sent to the database using JDBC batching
+     * (one round trip per entity type instead of one per entity). The update count of every row is still checked for optimistic locking.
+     * <p>
+     * Only enable this when the JDBC driver returns the actual update counts for batched statements.
+     * <p>
+     * By default: false
+     */
+    protected boolean isFlushBatchingEnabled;
+
+    /**
+     * When enabled, entities implementing {@link org.flowable.engine.common.impl.persistence.entity.DirtyTrackingEntity} (executions, tasks and variables) 
+     * are checked for changes using their dirty flag, instead of copying their persistent state when loaded and comparing it when the db session is flushed.
+     * Other entities keep using the persistent state comparison.
+     * <p>
+     * By default: false
+     */
+    protected boolean isDirtyTrackingEnabled;
+
     protected Set<Class<?>> customMybatisMappers;
     protected Set<String> customMybatisXMLMappers;
     
@@ -513,6 +532,8 @@ public abstract class AbstractEngineConfiguration {
         dbSqlSessionFactory.setDatabaseCatalog(databaseCatalog);
         dbSqlSessionFactory.setDatabaseSchema(databaseSchema);
         dbSqlSessionFactory.setMaxNrOfStatementsInBulkInsert(maxNrOfStatementsInBulkInsert);
+        dbSqlSessionFactory.setFlushBatchingEnabled(isFlushBatchingEnabled);
+        dbSqlSessionFactory.setDirtyTrackingEnabled(isDirtyTrackingEnabled);
         
         initDbSqlSessionFactoryEntitySettings();
         
@@ -1024,6 +1045,24 @@ public abstract class AbstractEngineConfiguration {
         return this;
     }
 
+    public boolean isFlushBatchingEnabled() {
+        return isFlushBatchingEnabled;
+    }
+
+    public AbstractEngineConfiguration setFlushBatchingEnabled(boolean isFlushBatchingEnabled) {
+        this.isFlushBatchingEnabled = isFlushBatchingEnabled;
+        return this;
+    }
+
+    public boolean isDirtyTrackingEnabled() {
+        return isDirtyTrackingEnabled;
+    }
+
+    public AbstractEngineConfiguration setDirtyTrackingEnabled(boolean isDirtyTrackingEnabled) {
+        this.isDirtyTrackingEnabled = isDirtyTrackingEnabled;
+        return this;
+    }
+
     public Set<Class<?>> getCustomMybatisMappers() {
         return customMybatisMappers;
     }
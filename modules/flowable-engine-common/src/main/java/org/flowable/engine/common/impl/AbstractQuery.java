@@ -128,6 +128,21 @@ public abstract class AbstractQuery<T extends Query<?, ?>, U> extends ListQueryP
         return executeList(Context.getCommandContext());
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<U> listPageAfter(String continuationToken, int maxResults) {
+        startPageAfter(continuationToken, maxResults);
+        this.resultType = ResultType.LIST_PAGE;
+        try {
+            if (commandExecutor != null) {
+                return (List<U>) commandExecutor.execute(this);
+            }
+            return (List<U>) execute(Context.getCommandContext());
+        } finally {
+            endPageAfter();
+        }
+    }
+
     @Override
     public long count() {
         this.resultType = ResultType.COUNT;
@@ -144,7 +159,11 @@ public abstract class AbstractQuery<T extends Query<?, ?>, U> extends ListQueryP
         } else if (resultType == ResultType.SINGLE_RESULT) {
             return executeSingleResult(commandContext);
         } else if (resultType == ResultType.LIST_PAGE) {
-            return executeList(commandContext);
+            List<U> results = executeList(commandContext);
+            if (pageStart != null) {
+                createContinuationToken(results, commandContext);
+            }
+            return results;
         } else {
             return executeCount(commandContext);
         }
@@ -12,7 +12,8 @@
  */
 package org.flowable.engine.common.impl.agenda;
 
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 import org.flowable.engine.common.api.FlowableException;
 import org.flowable.engine.common.impl.interceptor.CommandContext;
@@ -27,7 +28,11 @@ public abstract class AbstractAgenda implements Agenda {
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractAgenda.class);
 
     protected CommandContext commandContext;
-    protected LinkedList<Runnable> operations = new LinkedList<Runnable>();
+
+    /**
+     * Array backed, so planning and taking operations doesn't allocate a node per operation as a linked list would.
+     */
+    protected ArrayDeque<Runnable> operations = new ArrayDeque<>();
     
     public AbstractAgenda(CommandContext commandContext) {
         this.commandContext = commandContext;
@@ -67,7 +72,7 @@ public abstract class AbstractAgenda implements Agenda {
         }
     }
 
-    public LinkedList<Runnable> getOperations() {
+    public Deque<Runnable> getOperations() {
         return operations;
     }
     
@@ -31,6 +31,11 @@ import org.flowable.engine.common.impl.persistence.entity.data.DataManager;
  */
 public abstract class AbstractDataManager<EntityImpl extends Entity> implements DataManager<EntityImpl> {
 
+    /**
+     * The maximum number of values passed in one IN clause, as some databases (for example Oracle) don't support more.
+     */
+    protected static final int MAX_IN_CLAUSE_VALUES = 1000;
+
     public abstract Class<? extends EntityImpl> getManagedEntityClass();
 
     public List<Class<? extends EntityImpl>> getManagedEntitySubClasses() {
@@ -105,9 +110,20 @@ public abstract class AbstractDataManager<EntityImpl extends Entity> implements
     @SuppressWarnings("unchecked")
     protected EntityImpl getEntity(String selectQuery, Object parameter, SingleCachedEntityMatcher<EntityImpl> cachedEntityMatcher, boolean checkDatabase) {
         // Cache
-        for (EntityImpl cachedEntity : getEntityCache().findInCache(getManagedEntityClass())) {
-            if (cachedEntityMatcher.isRetained(cachedEntity, parameter)) {
-                return cachedEntity;
+        Collection<CachedEntity> indexedCachedObjects = findIndexedCachedObjects(getManagedEntityClass(), cachedEntityMatcher, parameter);
+        if (indexedCachedObjects != null) {
+            for (CachedEntity cachedObject : indexedCachedObjects) {
+                EntityImpl cachedEntity = (EntityImpl) cachedObject.getEntity();
+                if (cachedEntityMatcher.isRetained(cachedEntity, parameter)) {
+                    return cachedEntity;
+                }
+            }
+
+        } else {
+            for (EntityImpl cachedEntity : getEntityCache().findInCache(getManagedEntityClass())) {
+                if (cachedEntityMatcher.isRetained(cachedEntity, parameter)) {
+                    return cachedEntity;
+                }
             }
         }
 
@@ -157,7 +173,7 @@ public abstract class AbstractDataManager<EntityImpl extends Entity> implements
 
                 // Cache entities
                 if (cachedObjects != null && cachedEntityMatcher != null) {
-                    for (CachedEntity cachedObject : cachedObjects) {
+                    for (CachedEntity cachedObject : getCandidateCachedObjects(getManagedEntityClass(), cachedObjects, cachedEntityMatcher, parameter)) {
                         EntityImpl cachedEntity = (EntityImpl) cachedObject.getEntity();
                         if (cachedEntityMatcher.isRetained(result, cachedObjects, cachedEntity, parameter)) {
                             entityMap.put(cachedEntity.getId(), cachedEntity); // will overwrite db version with newer version
@@ -169,7 +185,7 @@ public abstract class AbstractDataManager<EntityImpl extends Entity> implements
                     for (Class<? extends EntityImpl> entitySubClass : getManagedEntitySubClasses()) {
                         Collection<CachedEntity> subclassCachedObjects = getEntityCache().findInCacheAsCachedObjects(entitySubClass);
                         if (subclassCachedObjects != null) {
-                            for (CachedEntity subclassCachedObject : subclassCachedObjects) {
+                            for (CachedEntity subclassCachedObject : getCandidateCachedObjects(entitySubClass, subclassCachedObjects, cachedEntityMatcher, parameter)) {
                                 EntityImpl cachedSubclassEntity = (EntityImpl) subclassCachedObject.getEntity();
                                 if (cachedEntityMatcher.isRetained(result, cachedObjects, cachedSubclassEntity, parameter)) {
                                     entityMap.put(cachedSubclassEntity.getId(), cachedSubclassEntity); // will overwrite db version with newer version
@@ -206,7 +222,7 @@ public abstract class AbstractDataManager<EntityImpl extends Entity> implements
 
         List<EntityImpl> result = new ArrayList<>(cachedObjects.size());
         if (cachedObjects != null && entityMatcher != null) {
-            for (CachedEntity cachedObject : cachedObjects) {
+            for (CachedEntity cachedObject : getCandidateCachedObjects(getManagedEntityClass(), cachedObjects, entityMatcher, parameter)) {
                 EntityImpl cachedEntity = (EntityImpl) cachedObject.getEntity();
                 if (entityMatcher.isRetained(null, cachedObjects, cachedEntity, parameter) && !dbSqlSession.isEntityToBeDeleted(cachedEntity)) {
                     result.add(cachedEntity);
@@ -218,7 +234,7 @@ public abstract class AbstractDataManager<EntityImpl extends Entity> implements
             for (Class<? extends EntityImpl> entitySubClass : getManagedEntitySubClasses()) {
                 Collection<CachedEntity> subclassCachedObjects = getEntityCache().findInCacheAsCachedObjects(entitySubClass);
                 if (subclassCachedObjects != null) {
-                    for (CachedEntity subclassCachedObject : subclassCachedObjects) {
+                    for (CachedEntity subclassCachedObject : getCandidateCachedObjects(entitySubClass, subclassCachedObjects, entityMatcher, parameter)) {
                         EntityImpl cachedSubclassEntity = (EntityImpl) subclassCachedObject.getEntity();
                         if (entityMatcher.isRetained(null, cachedObjects, cachedSubclassEntity, parameter) && !dbSqlSession.isEntityToBeDeleted(cachedSubclassEntity)) {
                             result.add(cachedSubclassEntity);
@@ -231,4 +247,25 @@ public abstract class AbstractDataManager<EntityImpl extends Entity> implements
         return result;
     }
 
+    /**
+     * Returns the cached objects of the given type that need to be checked by the matcher: only the ones found through the index of the entity cache
+     * when the matcher is an {@link IndexedCachedEntityMatcher}, or else all of them.
+     */
+    protected Collection<CachedEntity> getCandidateCachedObjects(Class<?> entityClass, Collection<CachedEntity> cachedObjects, Object cachedEntityMatcher, Object parameter) {
+        Collection<CachedEntity> indexedCachedObjects = findIndexedCachedObjects(entityClass, cachedEntityMatcher, parameter);
+        if (indexedCachedObjects != null) {
+            return indexedCachedObjects;
+        }
+        return cachedObjects;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Collection<CachedEntity> findIndexedCachedObjects(Class<?> entityClass, Object cachedEntityMatcher, Object parameter) {
+        if (cachedEntityMatcher instanceof IndexedCachedEntityMatcher) {
+            IndexedCachedEntityMatcher<EntityImpl> indexedCachedEntityMatcher = (IndexedCachedEntityMatcher<EntityImpl>) cachedEntityMatcher;
+            return getEntityCache().findInCacheAsCachedObjects(entityClass, indexedCachedEntityMatcher.getIndex(), indexedCachedEntityMatcher.getIndexKey(parameter));
+        }
+        return null;
+    }
+
 }
@@ -0,0 +1,168 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.common.impl.db;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.flowable.engine.common.api.FlowableIllegalArgumentException;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * The position at which a page of query results starts, encoded in the opaque token returned by
+ * {@link org.flowable.engine.common.api.query.Query#getContinuationToken()}.
+ *
+ * A keyset token contains the values of the order columns of the last result of the previous page, so the page is selected
+ * with a condition on these columns instead of skipping the results of all previous pages. When the order columns or their
+ * values can't be used for such a condition, only the number of results of the previous pages is kept, and the page is
+ * selected with an offset.
+ */
+public class ContinuationToken {
+
+    protected static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    protected static final String TYPE_STRING = "S";
+    protected static final String TYPE_DATE = "D";
+    protected static final String TYPE_INTEGER = "I";
+    protected static final String TYPE_LONG = "L";
+    protected static final String TYPE_DOUBLE = "F";
+    protected static final String TYPE_BOOLEAN = "B";
+    protected static final String TYPE_NULL = "N";
+
+    protected int offset;
+    protected int orderSignature;
+    protected List<Object> values;
+
+    public ContinuationToken(int offset) {
+        this.offset = offset;
+    }
+
+    public ContinuationToken(int offset, int orderSignature, List<Object> values) {
+        this.offset = offset;
+        this.orderSignature = orderSignature;
+        this.values = values;
+    }
+
+    /**
+     * Returns whether the given value can be kept in a keyset token.
+     */
+    public static boolean isSupportedValue(Object value) {
+        return value == null || value instanceof String || value instanceof Date || value instanceof Integer
+                || value instanceof Long || value instanceof Double || value instanceof Boolean;
+    }
+
+    public static ContinuationToken parse(String token) {
+        try {
+            JsonNode tokenNode = OBJECT_MAPPER.readTree(Base64Variants.MODIFIED_FOR_URL.decode(token));
+            int offset = tokenNode.path("o").asInt(-1);
+            if (offset < 0) {
+                throw new FlowableIllegalArgumentException("Invalid continuation token " + token);
+            }
+
+            JsonNode valuesNode = tokenNode.get("v");
+            if (valuesNode == null) {
+                return new ContinuationToken(offset);
+            }
+
+            List<Object> values = new ArrayList<>(valuesNode.size());
+            for (JsonNode valueNode : valuesNode) {
+                values.add(parseValue(valueNode.path("t").asText(), valueNode.path("v")));
+            }
+            return new ContinuationToken(offset, tokenNode.path("s").asInt(), values);
+
+        } catch (IOException | IllegalArgumentException e) {
+            throw new FlowableIllegalArgumentException("Invalid continuation token " + token, e);
+        }
+    }
+
+    protected static Object parseValue(String type, JsonNode valueNode) {
+        if (TYPE_NULL.equals(type)) {
+            return null;
+        } else if (TYPE_STRING.equals(type)) {
+            return valueNode.asText();
+        } else if (TYPE_DATE.equals(type)) {
+            return new Date(valueNode.asLong());
+        } else if (TYPE_INTEGER.equals(type)) {
+            return valueNode.asInt();
+        } else if (TYPE_LONG.equals(type)) {
+            return valueNode.asLong();
+        } else if (TYPE_DOUBLE.equals(type)) {
+            return valueNode.asDouble();
+        } else if (TYPE_BOOLEAN.equals(type)) {
+            return valueNode.asBoolean();
+        }
+        throw new IllegalArgumentException("Unknown value type " + type);
+    }
+
+    public boolean isKeyset() {
+        return values != null;
+    }
+
+    /**
+     * The number of results of all previous pages.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Identifies the order columns the values belong to, so a token can't be used for a query with a different order.
+     */
+    public int getOrderSignature() {
+        return orderSignature;
+    }
+
+    public List<Object> getValues() {
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        ObjectNode tokenNode = OBJECT_MAPPER.createObjectNode();
+        tokenNode.put("o", offset);
+        if (values != null) {
+            tokenNode.put("s", orderSignature);
+            ArrayNode valuesNode = tokenNode.putArray("v");
+            for (Object value : values) {
+                ObjectNode valueNode = valuesNode.addObject();
+                if (value == null) {
+                    valueNode.put("t", TYPE_NULL);
+                } else if (value instanceof String) {
+                    valueNode.put("t", TYPE_STRING).put("v", (String) value);
+                } else if (value instanceof Date) {
+                    valueNode.put("t", TYPE_DATE).put("v", ((Date) value).getTime());
+                } else if (value instanceof Integer) {
+                    valueNode.put("t", TYPE_INTEGER).put("v", (Integer) value);
+                } else if (value instanceof Long) {
+                    valueNode.put("t", TYPE_LONG).put("v", (Long) value);
+                } else if (value instanceof Double) {
+                    valueNode.put("t", TYPE_DOUBLE).put("v", (Double) value);
+                } else if (value instanceof Boolean) {
+                    valueNode.put("t", TYPE_BOOLEAN).put("v", (Boolean) value);
+                } else {
+                    throw new IllegalArgumentException("Unsupported value type " + value.getClass());
+                }
+            }
+        }
+        return Base64Variants.MODIFIED_FOR_URL.encode(tokenNode.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+}
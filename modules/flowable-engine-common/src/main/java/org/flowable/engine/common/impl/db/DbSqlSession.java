@@ -14,6 +14,7 @@
 package org.flowable.engine.common.impl.db;
 
 import java.sql.Connection;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -24,7 +25,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.defaults.DefaultSqlSession;
+import org.apache.ibatis.transaction.managed.ManagedTransaction;
 import org.flowable.engine.common.api.FlowableException;
 import org.flowable.engine.common.api.FlowableOptimisticLockingException;
 import org.flowable.engine.common.impl.Page;
@@ -32,6 +40,7 @@ import org.flowable.engine.common.impl.interceptor.Session;
 import org.flowable.engine.common.impl.persistence.cache.CachedEntity;
 import org.flowable.engine.common.impl.persistence.cache.EntityCache;
 import org.flowable.engine.common.impl.persistence.entity.AlwaysUpdatedPersistentObject;
+import org.flowable.engine.common.impl.persistence.entity.DirtyTrackingEntity;
 import org.flowable.engine.common.impl.persistence.entity.Entity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,6 +57,7 @@ public class DbSqlSession implements Session {
 
     protected EntityCache entityCache;
     protected SqlSession sqlSession;
+    protected SqlSession batchSqlSession;
     protected DbSqlSessionFactory dbSqlSessionFactory;
     protected String connectionMetadataDefaultCatalog;
     protected String connectionMetadataDefaultSchema;
@@ -86,7 +96,7 @@ public class DbSqlSession implements Session {
         }
 
         insertedObjects.get(clazz).put(entity.getId(), entity);
-        entityCache.put(entity, false); // False -> entity is inserted, so always changed
+        cachePut(entity, false); // False -> entity is inserted, so always changed
         entity.setInserted(true);
     }
 
@@ -94,7 +104,7 @@ public class DbSqlSession implements Session {
     // ///////////////////////////////////////////////////////////////////
 
     public void update(Entity entity) {
-        entityCache.put(entity, false); // false -> we don't store state, meaning it will always be seen as changed
+        cachePut(entity, false); // false -> we don't store state, meaning it will always be seen as changed
         entity.setUpdated(true);
     }
 
@@ -217,6 +227,16 @@ public class DbSqlSession implements Session {
         return result;
     }
 
+    /**
+     * Returns a cursor over the results of the statement, which keeps the underlying result set open until the cursor is closed or the session ends.
+     * Useful for results that shouldn't be read into memory at once, like the contents of large byte arrays.
+     * The returned objects aren't stored in the entity cache.
+     */
+    public <T> Cursor<T> selectCursor(String statement, Object parameter) {
+        statement = dbSqlSessionFactory.mapStatement(statement);
+        return sqlSession.selectCursor(statement, parameter);
+    }
+
     public <T extends Entity> T selectById(Class<T> entityClass, String id) {
         return selectById(entityClass, id, true);
     }
@@ -239,7 +259,7 @@ public class DbSqlSession implements Session {
             return null;
         }
 
-        entityCache.put(entity, true); // true -> store state so we can see later if it is updated later on
+        cachePut(entity, true); // true -> store state so we can see later if it is updated later on
         return entity;
     }
 
@@ -272,10 +292,27 @@ public class DbSqlSession implements Session {
         if (cachedEntity != null) {
             return cachedEntity;
         }
-        entityCache.put(entity, true);
+        cachePut(entity, true);
         return entity;
     }
 
+    /**
+     * Puts the entity in the entity cache. For entities that track their own changes (when enabled), no copy of the persistent state is made:
+     * the dirty flag is reset instead (it got set when MyBatis populated the entity), or set when the entity must always be seen as changed.
+     */
+    protected void cachePut(Entity entity, boolean storeState) {
+        if (isDirtyTracked(entity)) {
+            ((DirtyTrackingEntity) entity).setDirty(!storeState);
+            entityCache.put(entity, false);
+        } else {
+            entityCache.put(entity, storeState);
+        }
+    }
+
+    protected boolean isDirtyTracked(Entity entity) {
+        return dbSqlSessionFactory.isDirtyTrackingEnabled() && entity instanceof DirtyTrackingEntity;
+    }
+
     // flush
     // ////////////////////////////////////////////////////////////////////
 
@@ -341,14 +378,26 @@ public class DbSqlSession implements Session {
 
                 if (!isEntityInserted(cachedEntity) &&
                         (cachedEntity instanceof AlwaysUpdatedPersistentObject || !isEntityToBeDeleted(cachedEntity)) &&
-                        cachedObject.hasChanged()) {
+                        hasChanged(cachedObject)) {
 
+                    if (isDirtyTracked(cachedEntity)) {
+                        // the update statement compares with the original persistent state to only write the changed columns
+                        cachedEntity.setOriginalPersistentState(((DirtyTrackingEntity) cachedEntity).determineOriginalPersistentState());
+                    }
                     updatedObjects.add(cachedEntity);
                 }
             }
         }
     }
 
+    protected boolean hasChanged(CachedEntity cachedObject) {
+        Entity cachedEntity = cachedObject.getEntity();
+        if (isDirtyTracked(cachedEntity)) {
+            return ((DirtyTrackingEntity) cachedEntity).isDirty();
+        }
+        return cachedObject.hasChanged();
+    }
+
     protected void debugFlush() {
         LOGGER.debug("Flushing dbSqlSession");
         int nrOfInserts = 0;
@@ -486,13 +535,13 @@ public class DbSqlSession implements Session {
     }
 
     protected void flushUpdates() {
-        for (Entity updatedObject : updatedObjects) {
-            String updateStatement = dbSqlSessionFactory.getUpdateStatement(updatedObject);
-            updateStatement = dbSqlSessionFactory.mapStatement(updateStatement);
+        if (isFlushBatched(updatedObjects)) {
+            flushBatchedUpdates();
+            return;
+        }
 
-            if (updateStatement == null) {
-                throw new FlowableException("no update statement for " + updatedObject.getClass() + " in the ibatis mapping files");
-            }
+        for (Entity updatedObject : updatedObjects) {
+            String updateStatement = getMappedUpdateStatement(updatedObject);
 
             LOGGER.debug("updating: {}", updatedObject);
             
@@ -510,6 +559,57 @@ public class DbSqlSession implements Session {
         updatedObjects.clear();
     }
 
+    /**
+     * @return whether the given updated or deleted entities are sent through a JDBC batch instead of one statement per entity
+     */
+    protected boolean isFlushBatched(Collection<Entity> entities) {
+        return dbSqlSessionFactory.isFlushBatchingEnabled() && entities.size() > 1;
+    }
+
+    /**
+     * Sends all updates through one JDBC batch. The updates are grouped per entity type first,
+     * such that consecutive updates share the same prepared statement.
+     * The update count of every row is still verified, to keep the optimistic locking semantics of the regular update.
+     */
+    protected void flushBatchedUpdates() {
+        Map<Class<? extends Entity>, List<Entity>> updatedObjectsByType = new LinkedHashMap<>();
+        for (Entity updatedObject : updatedObjects) {
+            List<Entity> entities = updatedObjectsByType.get(updatedObject.getClass());
+            if (entities == null) {
+                entities = new ArrayList<>();
+                updatedObjectsByType.put(updatedObject.getClass(), entities);
+            }
+            entities.add(updatedObject);
+        }
+
+        SqlSession batchSession = getBatchSqlSession();
+        for (List<Entity> entities : updatedObjectsByType.values()) {
+            String updateStatement = getMappedUpdateStatement(entities.get(0));
+            for (Entity updatedObject : entities) {
+                LOGGER.debug("updating (batched): {}", updatedObject);
+                batchSession.update(updateStatement, updatedObject);
+            }
+        }
+
+        for (Entity updatedObject : executeBatch(batchSession, true)) {
+            // See https://activiti.atlassian.net/browse/ACT-1290
+            if (updatedObject instanceof HasRevision) {
+                ((HasRevision) updatedObject).setRevision(((HasRevision) updatedObject).getRevisionNext());
+            }
+        }
+        updatedObjects.clear();
+    }
+
+    protected String getMappedUpdateStatement(Entity updatedObject) {
+        String updateStatement = dbSqlSessionFactory.getUpdateStatement(updatedObject);
+        updateStatement = dbSqlSessionFactory.mapStatement(updateStatement);
+
+        if (updateStatement == null) {
+            throw new FlowableException("no update statement for " + updatedObject.getClass() + " in the ibatis mapping files");
+        }
+        return updateStatement;
+    }
+
     protected void flushDeletes() {
 
         if (deletedObjects.size() == 0 && bulkDeleteOperations.size() == 0) {
@@ -546,12 +646,13 @@ public class DbSqlSession implements Session {
     }
 
     protected void flushDeleteEntities(Class<? extends Entity> entityClass, Collection<Entity> entitiesToDelete) {
+        if (isFlushBatched(entitiesToDelete)) {
+            flushBatchedDeleteEntities(entitiesToDelete);
+            return;
+        }
+
         for (Entity entity : entitiesToDelete) {
-            String deleteStatement = dbSqlSessionFactory.getDeleteStatement(entity.getClass());
-            deleteStatement = dbSqlSessionFactory.mapStatement(deleteStatement);
-            if (deleteStatement == null) {
-                throw new FlowableException("no delete statement for " + entity.getClass() + " in the ibatis mapping files");
-            }
+            String deleteStatement = getMappedDeleteStatement(entity);
 
             // It only makes sense to check for optimistic locking exceptions
             // for objects that actually have a revision
@@ -565,18 +666,85 @@ public class DbSqlSession implements Session {
             }
         }
     }
-    
+
+    /**
+     * Sends the deletes of one entity type through one JDBC batch. The batch is executed before returning,
+     * as the bulk delete operations of the same entity type (executed on the regular session) must see the result.
+     */
+    protected void flushBatchedDeleteEntities(Collection<Entity> entitiesToDelete) {
+        SqlSession batchSession = getBatchSqlSession();
+        for (Entity entity : entitiesToDelete) {
+            batchSession.delete(getMappedDeleteStatement(entity), entity);
+        }
+        executeBatch(batchSession, false);
+    }
+
+    protected String getMappedDeleteStatement(Entity entity) {
+        String deleteStatement = dbSqlSessionFactory.getDeleteStatement(entity.getClass());
+        deleteStatement = dbSqlSessionFactory.mapStatement(deleteStatement);
+        if (deleteStatement == null) {
+            throw new FlowableException("no delete statement for " + entity.getClass() + " in the ibatis mapping files");
+        }
+        return deleteStatement;
+    }
+
+    /**
+     * Executes the pending statements of the batch session and verifies the update count of every row.
+     * 
+     * @param checkAllRows
+     *            if true, a zero update count results in a {@link FlowableOptimisticLockingException} for every entity (updates).
+     *            If false, only entities with a revision are checked (deletes).
+     * @return the entities that were part of the batch, in the order they were executed
+     */
+    protected List<Entity> executeBatch(SqlSession batchSession, boolean checkAllRows) {
+        List<Entity> executedEntities = new ArrayList<>();
+        for (BatchResult batchResult : batchSession.flushStatements()) {
+            int[] updateCounts = batchResult.getUpdateCounts();
+            List<Object> parameterObjects = batchResult.getParameterObjects();
+            for (int i = 0; i < parameterObjects.size(); i++) {
+                Entity entity = (Entity) parameterObjects.get(i);
+
+                // Some drivers (e.g. older Oracle drivers) don't report row counts for batched statements,
+                // in which case Statement.SUCCESS_NO_INFO is returned and the row can't be verified.
+                if (updateCounts[i] == 0 && (checkAllRows || entity instanceof HasRevision)) {
+                    throw new FlowableOptimisticLockingException(entity + " was updated by another transaction concurrently");
+                } else if (updateCounts[i] == Statement.SUCCESS_NO_INFO) {
+                    LOGGER.debug("No update count returned for {}", entity);
+                }
+                executedEntities.add(entity);
+            }
+        }
+        return executedEntities;
+    }
+
+    /**
+     * Lazily creates a MyBatis session with a {@link ExecutorType#BATCH} executor that shares the connection (and thus the transaction) of the regular session.
+     * The session is wrapped in a {@link ManagedTransaction} that doesn't commit, rollback or close the connection: this stays the responsibility of the regular session.
+     */
+    protected SqlSession getBatchSqlSession() {
+        if (batchSqlSession == null) {
+            Configuration configuration = dbSqlSessionFactory.getSqlSessionFactory().getConfiguration();
+            Executor executor = configuration.newExecutor(new ManagedTransaction(sqlSession.getConnection(), false), ExecutorType.BATCH);
+            batchSqlSession = new DefaultSqlSession(configuration, executor, false);
+        }
+        return batchSqlSession;
+    }
+
     @Override
     public void close() {
+        if (batchSqlSession != null) {
+            batchSqlSession.close();
+        }
         sqlSession.close();
     }
 
     public void commit() {
-        sqlSession.commit();
+        // Statements executed through the batch session don't mark the regular session as dirty, hence the forced commit
+        sqlSession.commit(batchSqlSession != null);
     }
 
     public void rollback() {
-        sqlSession.rollback();
+        sqlSession.rollback(batchSqlSession != null);
     }
     
     public <T> T getCustomMapper(Class<T> type) {
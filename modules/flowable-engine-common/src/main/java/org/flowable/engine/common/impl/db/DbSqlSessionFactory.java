@@ -64,6 +64,10 @@ public class DbSqlSessionFactory implements SessionFactory {
     protected Map<Class<?>, String> bulkInsertStatements = new ConcurrentHashMap<>();
     
     protected int maxNrOfStatementsInBulkInsert = 100;
+    
+    protected boolean isFlushBatchingEnabled;
+    
+    protected boolean isDirtyTrackingEnabled;
 
     @Override
     public Class<?> getSessionType() {
@@ -196,6 +200,22 @@ public class DbSqlSessionFactory implements SessionFactory {
         this.maxNrOfStatementsInBulkInsert = maxNrOfStatementsInBulkInsert;
     }
     
+    public boolean isFlushBatchingEnabled() {
+        return isFlushBatchingEnabled;
+    }
+
+    public void setFlushBatchingEnabled(boolean isFlushBatchingEnabled) {
+        this.isFlushBatchingEnabled = isFlushBatchingEnabled;
+    }
+    
+    public boolean isDirtyTrackingEnabled() {
+        return isDirtyTrackingEnabled;
+    }
+
+    public void setDirtyTrackingEnabled(boolean isDirtyTrackingEnabled) {
+        this.isDirtyTrackingEnabled = isDirtyTrackingEnabled;
+    }
+    
     public Map<Class<?>, String> getBulkInsertStatements() {
         return bulkInsertStatements;
     }
@@ -0,0 +1,33 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.common.impl.db;
+
+import org.flowable.engine.common.impl.persistence.cache.EntityCache;
+import org.flowable.engine.common.impl.persistence.cache.EntityCacheIndex;
+import org.flowable.engine.common.impl.persistence.entity.Entity;
+
+/**
+ * Can be implemented by a {@link CachedEntityMatcher} or {@link SingleCachedEntityMatcher} that only retains entities with a given key in an {@link EntityCacheIndex}.
+ * 
+ * Only the cached entities with that key are then checked, using the index of the {@link EntityCache}, instead of all cached entities of the type.
+ */
+public interface IndexedCachedEntityMatcher<EntityImpl extends Entity> {
+
+    EntityCacheIndex<EntityImpl> getIndex();
+
+    /**
+     * Returns the index key of the entities that can be retained for the given query parameter.
+     */
+    Object getIndexKey(Object parameter);
+
+}
@@ -13,9 +13,21 @@
 
 package org.flowable.engine.common.impl.db;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.Configuration;
 import org.flowable.engine.common.AbstractEngineConfiguration;
+import org.flowable.engine.common.api.FlowableException;
+import org.flowable.engine.common.api.FlowableIllegalArgumentException;
 import org.flowable.engine.common.api.query.Query.NullHandlingOnOrder;
 import org.flowable.engine.common.api.query.QueryProperty;
+import org.flowable.engine.common.impl.interceptor.CommandContext;
 
 /**
  * @author Tijs Rademakers
@@ -30,6 +42,9 @@ public class ListQueryParameterObject {
     public static final String SORTORDER_ASC = "asc";
     public static final String SORTORDER_DESC = "desc";
 
+    protected static final String ID_COLUMN = "RES.ID_";
+    protected static final Pattern SEEK_ORDER_PATTERN = Pattern.compile("(RES\\.[A-Z0-9_]+) (asc|desc)");
+
     protected int firstResult = -1;
     protected int maxResults = -1;
     protected Object parameter;
@@ -39,6 +54,13 @@ public class ListQueryParameterObject {
     protected NullHandlingOnOrder nullHandlingOnOrder;
     protected ResultType resultType;
     protected String databaseType;
+
+    // Pages that start after a continuation token
+    protected ContinuationToken pageStart;
+    protected String orderByColumnsBeforePage;
+    protected List<String> seekOrder;
+    protected List<List<SeekKey>> seekConditions;
+    protected String continuationToken;
     
     public ListQueryParameterObject() {
         
@@ -188,5 +210,200 @@ public class ListQueryParameterObject {
     public void setNullHandlingColumn(String nullHandlingColumn) {
         this.nullHandlingColumn = nullHandlingColumn;
     }
+
+    /**
+     * Returns whether the select statements of this query include the seek conditions (see the seekCondition sql of the common mapping),
+     * so a page can be selected with a condition on the order columns instead of an offset.
+     */
+    protected boolean isSeekPaginationSupported() {
+        return false;
+    }
+
+    /**
+     * Prepares this query for selecting the page of at most maxResults results that starts after the given continuation token,
+     * or at the first result when the token is null.
+     */
+    protected void startPageAfter(String continuationToken, int maxResults) {
+        this.pageStart = continuationToken != null ? ContinuationToken.parse(continuationToken) : new ContinuationToken(0);
+        this.orderByColumnsBeforePage = orderByColumns;
+        this.maxResults = maxResults;
+        this.continuationToken = null;
+
+        if (isSeekPaginationSupported()) {
+            // The id makes the order unique, so no results are skipped or repeated when other order columns have equal values
+            if (!getOrderByColumns().contains(ID_COLUMN)) {
+                orderByColumns = getOrderByColumns() + ", " + ID_COLUMN + " " + SORTORDER_ASC;
+            }
+            seekOrder = getSeekOrder();
+        }
+
+        if (pageStart.isKeyset()) {
+            if (seekOrder == null || pageStart.getOrderSignature() != seekOrder.hashCode() || pageStart.getValues().size() != seekOrder.size()) {
+                throw new FlowableIllegalArgumentException("The continuation token doesn't match the order of the query");
+            }
+            firstResult = 0;
+        } else {
+            firstResult = pageStart.getOffset();
+        }
+    }
+
+    /**
+     * Creates the continuation token for the page after the given results, when these results fill the page.
+     */
+    protected void createContinuationToken(List<?> results, CommandContext commandContext) {
+        if (maxResults <= 0 || results.size() < maxResults) {
+            return;
+        }
+
+        int offset = pageStart.getOffset() + results.size();
+        List<Object> values = null;
+        if (seekOrder != null && isNullsFirstOnAscending() != null) {
+            values = getSeekValues(results.get(results.size() - 1), commandContext.getSession(DbSqlSession.class).getSqlSession().getConfiguration());
+        }
+        if (values != null) {
+            continuationToken = new ContinuationToken(offset, seekOrder.hashCode(), values).toString();
+        } else {
+            continuationToken = new ContinuationToken(offset).toString();
+        }
+    }
+
+    /**
+     * Restores the order of this query after a page has been selected, as the order and seek conditions only apply to that page.
+     */
+    protected void endPageAfter() {
+        orderByColumns = orderByColumnsBeforePage;
+        orderByColumnsBeforePage = null;
+        pageStart = null;
+        seekOrder = null;
+        seekConditions = null;
+    }
+
+    /**
+     * Returns the order columns followed by their direction, up to the id column, or null when the order can't be used for seek conditions.
+     */
+    protected List<String> getSeekOrder() {
+        if (nullHandlingColumn != null) {
+            return null;
+        }
+
+        List<String> order = new ArrayList<>();
+        for (String orderByColumn : getOrderByColumns().split(",")) {
+            Matcher matcher = SEEK_ORDER_PATTERN.matcher(orderByColumn.trim());
+            if (!matcher.matches()) {
+                return null;
+            }
+            order.add(orderByColumn.trim());
+            if (ID_COLUMN.equals(matcher.group(1))) {
+                return order;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates the conditions that select the results after the given values of the order columns:
+     * (a &gt; :a) or (a = :a and b &gt; :b) or ...
+     * Null values are ordered as the database orders them, so the conditions for a nullable column depend on the database type.
+     */
+    protected List<List<SeekKey>> createSeekConditions(List<Object> values, boolean nullsFirstOnAscending) {
+        List<List<SeekKey>> conditions = new ArrayList<>(seekOrder.size());
+        for (int i = 0; i < seekOrder.size(); i++) {
+            List<SeekKey> condition = new ArrayList<>(i + 1);
+            for (int j = 0; j < i; j++) {
+                Object value = values.get(j);
+                condition.add(value != null ? new SeekKey(getSeekColumn(j), "=", value, false) : new SeekKey(getSeekColumn(j), "is null", null, false));
+            }
+
+            boolean descending = seekOrder.get(i).endsWith(SORTORDER_DESC);
+            boolean nullsFirst = descending ? !nullsFirstOnAscending : nullsFirstOnAscending;
+            Object value = values.get(i);
+            if (value != null) {
+                condition.add(new SeekKey(getSeekColumn(i), descending ? "<" : ">", value, !nullsFirst));
+            } else if (nullsFirst) {
+                condition.add(new SeekKey(getSeekColumn(i), "is not null", null, false));
+            } else {
+                // Nothing is ordered after the null values of this column
+                continue;
+            }
+            conditions.add(condition);
+        }
+        return conditions;
+    }
+
+    /**
+     * Returns whether the database orders null values before all other values in ascending order, or null when that is not known for the database type.
+     */
+    protected Boolean isNullsFirstOnAscending() {
+        if (AbstractEngineConfiguration.DATABASE_TYPE_H2.equals(databaseType)
+                || AbstractEngineConfiguration.DATABASE_TYPE_HSQL.equals(databaseType)
+                || AbstractEngineConfiguration.DATABASE_TYPE_MYSQL.equals(databaseType)
+                || AbstractEngineConfiguration.DATABASE_TYPE_MSSQL.equals(databaseType)) {
+            return Boolean.TRUE;
+        } else if (AbstractEngineConfiguration.DATABASE_TYPE_POSTGRES.equals(databaseType)
+                || AbstractEngineConfiguration.DATABASE_TYPE_ORACLE.equals(databaseType)
+                || AbstractEngineConfiguration.DATABASE_TYPE_DB2.equals(databaseType)) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+
+    protected String getSeekColumn(int index) {
+        String order = seekOrder.get(index);
+        return order.substring(0, order.indexOf(' '));
+    }
+
+    /**
+     * Returns the values of the order columns of the given result, as mapped by the result maps of its type,
+     * or null when a value can't be found or can't be used in a continuation token.
+     */
+    protected List<Object> getSeekValues(Object result, Configuration configuration) {
+        List<Object> values = new ArrayList<>(seekOrder.size());
+        for (int i = 0; i < seekOrder.size(); i++) {
+            String property = getMappedProperty(result.getClass(), getSeekColumn(i).substring("RES.".length()), configuration);
+            if (property == null) {
+                return null;
+            }
+            Object value = SystemMetaObject.forObject(result).getValue(property);
+            if (!ContinuationToken.isSupportedValue(value)) {
+                return null;
+            }
+            values.add(value);
+        }
+        return values;
+    }
+
+    protected String getMappedProperty(Class<?> resultClass, String column, Configuration configuration) {
+        // The result maps also contain markers for short result map names that are used more than once
+        for (Object resultMapObject : configuration.getResultMaps()) {
+            if (resultMapObject instanceof ResultMap && ((ResultMap) resultMapObject).getType() != null
+                    && ((ResultMap) resultMapObject).getType().isAssignableFrom(resultClass)) {
+                for (ResultMapping resultMapping : ((ResultMap) resultMapObject).getResultMappings()) {
+                    if (resultMapping.getNestedResultMapId() == null && column.equalsIgnoreCase(resultMapping.getColumn())) {
+                        return resultMapping.getProperty();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    public List<List<SeekKey>> getSeekConditions() {
+        // Created when the statement is built, as the database type is only known then
+        if (seekConditions == null && pageStart != null && pageStart.isKeyset()) {
+            Boolean nullsFirstOnAscending = isNullsFirstOnAscending();
+            if (nullsFirstOnAscending == null) {
+                throw new FlowableException("Continuation tokens with order values are not supported for database type " + databaseType);
+            }
+            seekConditions = createSeekConditions(pageStart.getValues(), nullsFirstOnAscending);
+        }
+        return seekConditions;
+    }
+
+    /**
+     * The continuation token of the page after the last selected page, or null when that page was the last one.
+     */
+    public String getContinuationToken() {
+        return continuationToken;
+    }
     
 }
@@ -0,0 +1,53 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.common.impl.db;
+
+/**
+ * A comparison of an order column with the value of that column in the last result of the previous page,
+ * used in the condition that selects the results after that page.
+ * The operator is 'is null' or 'is not null' when there is no value.
+ */
+public class SeekKey {
+
+    protected String column;
+    protected String operator;
+    protected Object value;
+    protected boolean orNull;
+
+    public SeekKey(String column, String operator, Object value, boolean orNull) {
+        this.column = column;
+        this.operator = operator;
+        this.value = value;
+        this.orNull = orNull;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public String getOperator() {
+        return operator;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * Whether null values of the column match as well, as these are ordered after all other values.
+     */
+    public boolean isOrNull() {
+        return orNull;
+    }
+
+}
@@ -13,10 +13,16 @@
 package org.flowable.engine.common.impl.event;
 
 import org.flowable.engine.common.api.delegate.event.FlowableEvent;
+import org.flowable.engine.common.api.delegate.event.FlowableEventType;
 import org.flowable.engine.common.impl.interceptor.CommandContext;
 
 public interface EventDispatchAction {
     
     void dispatchEvent(CommandContext commandContext, FlowableEventSupport eventSupport, FlowableEvent event); 
 
+    /**
+     * Returns whether this action could deliver an event of the given type to any listener.
+     */
+    boolean hasListeners(CommandContext commandContext, FlowableEventType type);
+
 }
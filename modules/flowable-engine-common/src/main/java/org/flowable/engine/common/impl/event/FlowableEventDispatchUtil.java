@@ -0,0 +1,28 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.common.impl.event;
+
+import org.flowable.engine.common.api.delegate.event.FlowableEventDispatcher;
+import org.flowable.engine.common.api.delegate.event.FlowableEventType;
+
+public class FlowableEventDispatchUtil {
+
+    /**
+     * Returns whether an event of the given type needs to be created, which isn't the case
+     * when the event dispatcher is disabled or when nobody listens to events of that type.
+     */
+    public static boolean isDispatchNeeded(FlowableEventDispatcher eventDispatcher, FlowableEventType type) {
+        return eventDispatcher != null && eventDispatcher.isEnabled() && eventDispatcher.hasListeners(type);
+    }
+
+}
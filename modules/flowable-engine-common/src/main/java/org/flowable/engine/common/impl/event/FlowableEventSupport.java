@@ -12,43 +12,65 @@
  */
 package org.flowable.engine.common.impl.event;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.flowable.engine.common.api.FlowableException;
 import org.flowable.engine.common.api.FlowableIllegalArgumentException;
+import org.flowable.engine.common.api.delegate.event.FlowableEngineEventType;
 import org.flowable.engine.common.api.delegate.event.FlowableEvent;
 import org.flowable.engine.common.api.delegate.event.FlowableEventListener;
 import org.flowable.engine.common.api.delegate.event.FlowableEventType;
+import org.flowable.engine.common.api.delegate.event.FlowableNonTransactionalEventListener;
+import org.flowable.engine.common.impl.cfg.TransactionContext;
+import org.flowable.engine.common.impl.cfg.TransactionListener;
+import org.flowable.engine.common.impl.cfg.TransactionState;
+import org.flowable.engine.common.impl.context.Context;
+import org.flowable.engine.common.impl.interceptor.CommandContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Class that allows adding and removing event listeners and dispatching events to the appropriate listeners.
  * 
+ * The listeners are kept in arrays that are replaced as a whole when a listener is added or removed, so dispatching an event never needs to lock
+ * and doesn't allocate anything.
+ * 
  * @author Frederik Heremans
  */
 public class FlowableEventSupport {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FlowableEventSupport.class);
 
-    protected List<FlowableEventListener> eventListeners;
-    protected Map<FlowableEventType, List<FlowableEventListener>> typedListeners;
+    protected static final FlowableEventListener[] NO_LISTENERS = new FlowableEventListener[0];
 
-    public FlowableEventSupport() {
-        eventListeners = new CopyOnWriteArrayList<>();
-        typedListeners = new HashMap<>();
-    }
+    protected volatile FlowableEventListener[] eventListeners = NO_LISTENERS;
+
+    /**
+     * Typed listeners of the {@link FlowableEngineEventType}s, indexed by the ordinal of the type.
+     */
+    protected volatile FlowableEventListener[][] engineEventTypeListeners = new FlowableEventListener[FlowableEngineEventType.values().length][];
+
+    /**
+     * Typed listeners of all other event types.
+     */
+    protected volatile Map<FlowableEventType, FlowableEventListener[]> typedListeners = Collections.emptyMap();
+
+    /**
+     * When set, the {@link FlowableNonTransactionalEventListener}s are notified on a thread of this executor,
+     * after the transaction in which the event is dispatched is committed.
+     */
+    protected Executor nonTransactionalListenerExecutor;
 
     public synchronized void addEventListener(FlowableEventListener listenerToAdd) {
         if (listenerToAdd == null) {
             throw new FlowableIllegalArgumentException("Listener cannot be null.");
         }
-        if (!eventListeners.contains(listenerToAdd)) {
-            eventListeners.add(listenerToAdd);
-        }
+        eventListeners = addListener(eventListeners, listenerToAdd);
     }
 
     public synchronized void addEventListener(FlowableEventListener listenerToAdd, FlowableEventType... types) {
@@ -66,12 +88,29 @@ public class FlowableEventSupport {
         }
     }
 
-    public void removeEventListener(FlowableEventListener listenerToRemove) {
-        eventListeners.remove(listenerToRemove);
+    public synchronized void removeEventListener(FlowableEventListener listenerToRemove) {
+        eventListeners = removeListener(eventListeners, listenerToRemove);
 
-        for (List<FlowableEventListener> listeners : typedListeners.values()) {
-            listeners.remove(listenerToRemove);
+        FlowableEventListener[][] newEngineEventTypeListeners = engineEventTypeListeners.clone();
+        for (int i = 0; i < newEngineEventTypeListeners.length; i++) {
+            if (newEngineEventTypeListeners[i] != null) {
+                newEngineEventTypeListeners[i] = removeListener(newEngineEventTypeListeners[i], listenerToRemove);
+            }
+        }
+        engineEventTypeListeners = newEngineEventTypeListeners;
+
+        Map<FlowableEventType, FlowableEventListener[]> newTypedListeners = new HashMap<>(typedListeners);
+        for (Map.Entry<FlowableEventType, FlowableEventListener[]> entry : newTypedListeners.entrySet()) {
+            entry.setValue(removeListener(entry.getValue(), listenerToRemove));
         }
+        typedListeners = newTypedListeners;
+    }
+
+    /**
+     * Returns whether an event of the given type would be delivered to any listener of this event support.
+     */
+    public boolean hasListeners(FlowableEventType type) {
+        return eventListeners.length > 0 || getTypedListeners(type).length > 0;
     }
 
     public void dispatchEvent(FlowableEvent event) {
@@ -84,22 +123,29 @@ public class FlowableEventSupport {
         }
 
         // Call global listeners
-        if (!eventListeners.isEmpty()) {
-            for (FlowableEventListener listener : eventListeners) {
-                dispatchEvent(event, listener);
-            }
+        for (FlowableEventListener listener : eventListeners) {
+            dispatchEvent(event, listener);
         }
 
         // Call typed listeners, if any
-        List<FlowableEventListener> typed = typedListeners.get(event.getType());
-        if (typed != null && !typed.isEmpty()) {
-            for (FlowableEventListener listener : typed) {
-                dispatchEvent(event, listener);
-            }
+        for (FlowableEventListener listener : getTypedListeners(event.getType())) {
+            dispatchEvent(event, listener);
         }
     }
 
     protected void dispatchEvent(FlowableEvent event, FlowableEventListener listener) {
+        if (nonTransactionalListenerExecutor != null && listener instanceof FlowableNonTransactionalEventListener) {
+            NonTransactionalListenerNotification notification = new NonTransactionalListenerNotification(event, listener, nonTransactionalListenerExecutor);
+            TransactionContext transactionContext = Context.getTransactionContext();
+            if (transactionContext != null) {
+                // The entities of the event can still change until the transaction is committed
+                transactionContext.addTransactionListener(TransactionState.COMMITTED, notification);
+            } else {
+                notification.submit();
+            }
+            return;
+        }
+
         try {
             listener.onEvent(event);
         } catch (Throwable t) {
@@ -113,16 +159,100 @@ public class FlowableEventSupport {
         }
     }
 
+    protected FlowableEventListener[] getTypedListeners(FlowableEventType type) {
+        FlowableEventListener[] listeners;
+        if (type instanceof FlowableEngineEventType) {
+            listeners = engineEventTypeListeners[((FlowableEngineEventType) type).ordinal()];
+        } else {
+            listeners = typedListeners.get(type);
+        }
+        return listeners != null ? listeners : NO_LISTENERS;
+    }
+
     protected synchronized void addTypedEventListener(FlowableEventListener listener, FlowableEventType type) {
-        List<FlowableEventListener> listeners = typedListeners.get(type);
-        if (listeners == null) {
-            // Add an empty list of listeners for this type
-            listeners = new CopyOnWriteArrayList<>();
-            typedListeners.put(type, listeners);
+        if (type instanceof FlowableEngineEventType) {
+            int index = ((FlowableEngineEventType) type).ordinal();
+            FlowableEventListener[][] newEngineEventTypeListeners = engineEventTypeListeners.clone();
+            newEngineEventTypeListeners[index] = addListener(newEngineEventTypeListeners[index] != null ? newEngineEventTypeListeners[index] : NO_LISTENERS, listener);
+            engineEventTypeListeners = newEngineEventTypeListeners;
+
+        } else {
+            Map<FlowableEventType, FlowableEventListener[]> newTypedListeners = new HashMap<>(typedListeners);
+            FlowableEventListener[] listeners = newTypedListeners.get(type);
+            newTypedListeners.put(type, addListener(listeners != null ? listeners : NO_LISTENERS, listener));
+            typedListeners = newTypedListeners;
+        }
+    }
+
+    protected FlowableEventListener[] addListener(FlowableEventListener[] listeners, FlowableEventListener listenerToAdd) {
+        for (FlowableEventListener listener : listeners) {
+            if (listener.equals(listenerToAdd)) {
+                return listeners;
+            }
+        }
+
+        FlowableEventListener[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+        newListeners[listeners.length] = listenerToAdd;
+        return newListeners;
+    }
+
+    protected FlowableEventListener[] removeListener(FlowableEventListener[] listeners, FlowableEventListener listenerToRemove) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i].equals(listenerToRemove)) {
+                FlowableEventListener[] newListeners = new FlowableEventListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, newListeners, 0, i);
+                System.arraycopy(listeners, i + 1, newListeners, i, listeners.length - i - 1);
+                return newListeners;
+            }
+        }
+        return listeners;
+    }
+
+    public Executor getNonTransactionalListenerExecutor() {
+        return nonTransactionalListenerExecutor;
+    }
+
+    public void setNonTransactionalListenerExecutor(Executor nonTransactionalListenerExecutor) {
+        this.nonTransactionalListenerExecutor = nonTransactionalListenerExecutor;
+    }
+
+    /**
+     * Notifies a {@link FlowableNonTransactionalEventListener} on the executor, once the transaction in which the event was dispatched is committed.
+     */
+    protected static class NonTransactionalListenerNotification implements Runnable, TransactionListener {
+
+        protected FlowableEvent event;
+        protected FlowableEventListener listener;
+        protected Executor executor;
+
+        public NonTransactionalListenerNotification(FlowableEvent event, FlowableEventListener listener, Executor executor) {
+            this.event = event;
+            this.listener = listener;
+            this.executor = executor;
+        }
+
+        @Override
+        public void execute(CommandContext commandContext) {
+            submit();
+        }
+
+        public void submit() {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                LOGGER.debug("Executor for non-transactional event-listeners is saturated, notifying the listener in the current thread");
+                run();
+            }
         }
 
-        if (!listeners.contains(listener)) {
-            listeners.add(listener);
+        @Override
+        public void run() {
+            try {
+                listener.onEvent(event);
+            } catch (Throwable t) {
+                LOGGER.warn("Exception while executing non-transactional event-listener, which was ignored", t);
+            }
         }
+
     }
 }
@@ -59,8 +59,20 @@ public interface EntityCache extends Session {
      */
     <T> Collection<CachedEntity> findInCacheAsCachedObjects(Class<T> entityClass);
 
+    /**
+     * Returns the {@link CachedEntity} instances of the given type for which the given {@link EntityCacheIndex} returns the given key. Returns null if no instances of the given type exist.
+     * 
+     * The index is built the first time it is used for a type, and is kept up to date when entities are added, removed or changed afterwards.
+     */
+    <T> Collection<CachedEntity> findInCacheAsCachedObjects(Class<T> entityClass, EntityCacheIndex<?> index, Object key);
+
     /**
      * Removes the {@link Entity} of the given type with the given id from the cache.
      */
     void cacheRemove(Class<?> entityClass, String entityId);
+
+    /**
+     * Updates the position of the given {@link Entity} in the secondary indexes of its type, after an indexed property of the entity has changed.
+     */
+    void updateIndexes(Entity entity);
 }
@@ -27,6 +27,7 @@ import org.flowable.engine.common.impl.persistence.entity.Entity;
 public class EntityCacheImpl implements EntityCache {
 
     protected Map<Class<?>, Map<String, CachedEntity>> cachedObjects = new HashMap<>();
+    protected Map<Class<?>, Map<EntityCacheIndex<?>, IndexedCachedObjects>> indexedCachedObjects = new HashMap<>();
 
     @Override
     public CachedEntity put(Entity entity, boolean storeState) {
@@ -37,6 +38,13 @@ public class EntityCacheImpl implements EntityCache {
         }
         CachedEntity cachedObject = new CachedEntity(entity, storeState);
         classCache.put(entity.getId(), cachedObject);
+
+        Map<EntityCacheIndex<?>, IndexedCachedObjects> classIndexes = indexedCachedObjects.get(entity.getClass());
+        if (classIndexes != null) {
+            for (IndexedCachedObjects indexedObjects : classIndexes.values()) {
+                indexedObjects.put(cachedObject);
+            }
+        }
         return cachedObject;
     }
 
@@ -77,6 +85,29 @@ public class EntityCacheImpl implements EntityCache {
             return;
         }
         classCache.remove(entityId);
+
+        Map<EntityCacheIndex<?>, IndexedCachedObjects> classIndexes = indexedCachedObjects.get(entityClass);
+        if (classIndexes != null) {
+            for (IndexedCachedObjects indexedObjects : classIndexes.values()) {
+                indexedObjects.remove(entityId);
+            }
+        }
+    }
+
+    @Override
+    public void updateIndexes(Entity entity) {
+        Map<EntityCacheIndex<?>, IndexedCachedObjects> classIndexes = indexedCachedObjects.get(entity.getClass());
+        if (classIndexes == null || entity.getId() == null) {
+            return;
+        }
+
+        // Only the cached instance is indexed, not another instance with the same id (e.g. one that is being loaded from the database)
+        CachedEntity cachedObject = cachedObjects.get(entity.getClass()).get(entity.getId());
+        if (cachedObject != null && cachedObject.getEntity() == entity) {
+            for (IndexedCachedObjects indexedObjects : classIndexes.values()) {
+                indexedObjects.put(cachedObject);
+            }
+        }
     }
 
     @Override
@@ -88,6 +119,44 @@ public class EntityCacheImpl implements EntityCache {
         return null;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Collection<CachedEntity> findInCacheAsCachedObjects(Class<T> entityClass, EntityCacheIndex<?> index, Object key) {
+        Map<String, CachedEntity> classCache = cachedObjects.get(entityClass);
+        if (classCache == null) {
+            return null;
+        }
+
+        Map<EntityCacheIndex<?>, IndexedCachedObjects> classIndexes = indexedCachedObjects.get(entityClass);
+        if (classIndexes == null) {
+            classIndexes = new HashMap<>();
+            indexedCachedObjects.put(entityClass, classIndexes);
+        }
+
+        IndexedCachedObjects indexedObjects = classIndexes.get(index);
+        if (indexedObjects == null) {
+            indexedObjects = new IndexedCachedObjects((EntityCacheIndex<Entity>) index);
+            for (CachedEntity cachedObject : classCache.values()) {
+                indexedObjects.put(cachedObject);
+            }
+            classIndexes.put(index, indexedObjects);
+        }
+
+        List<CachedEntity> result = new ArrayList<>();
+        if (key != null) {
+            Map<String, CachedEntity> cachedObjectsForKey = indexedObjects.get(key);
+            if (cachedObjectsForKey != null) {
+                for (CachedEntity cachedObject : cachedObjectsForKey.values()) {
+                    // The class cache map is exposed through getAllCachedEntities(), so it could have been changed without the index knowing
+                    if (classCache.get(cachedObject.getEntity().getId()) == cachedObject) {
+                        result.add(cachedObject);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <T> List<T> findInCache(Class<T> entityClass) {
@@ -122,4 +191,62 @@ public class EntityCacheImpl implements EntityCache {
     public void flush() {
 
     }
+
+    /**
+     * The cached entities of one type, grouped by the key of one {@link EntityCacheIndex}.
+     */
+    protected static class IndexedCachedObjects {
+
+        protected EntityCacheIndex<Entity> index;
+        protected Map<Object, Map<String, CachedEntity>> cachedObjectsByKey = new HashMap<>();
+        protected Map<String, Object> keysById = new HashMap<>();
+
+        public IndexedCachedObjects(EntityCacheIndex<Entity> index) {
+            this.index = index;
+        }
+
+        public void put(CachedEntity cachedObject) {
+            String id = cachedObject.getEntity().getId();
+            if (id == null) {
+                return;
+            }
+
+            Object key = index.getKey(cachedObject.getEntity());
+            Object previousKey = key != null ? keysById.put(id, key) : keysById.remove(id);
+            if (previousKey != null && !previousKey.equals(key)) {
+                removeFromKey(previousKey, id);
+            }
+
+            if (key != null) {
+                Map<String, CachedEntity> cachedObjectsForKey = cachedObjectsByKey.get(key);
+                if (cachedObjectsForKey == null) {
+                    cachedObjectsForKey = new HashMap<>();
+                    cachedObjectsByKey.put(key, cachedObjectsForKey);
+                }
+                cachedObjectsForKey.put(id, cachedObject);
+            }
+        }
+
+        public void remove(String id) {
+            Object key = keysById.remove(id);
+            if (key != null) {
+                removeFromKey(key, id);
+            }
+        }
+
+        public Map<String, CachedEntity> get(Object key) {
+            return cachedObjectsByKey.get(key);
+        }
+
+        protected void removeFromKey(Object key, String id) {
+            Map<String, CachedEntity> cachedObjectsForKey = cachedObjectsByKey.get(key);
+            if (cachedObjectsForKey != null) {
+                cachedObjectsForKey.remove(id);
+                if (cachedObjectsForKey.isEmpty()) {
+                    cachedObjectsByKey.remove(key);
+                }
+            }
+        }
+
+    }
 }
@@ -0,0 +1,30 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.common.impl.persistence.cache;
+
+import org.flowable.engine.common.impl.persistence.entity.AbstractEntity;
+import org.flowable.engine.common.impl.persistence.entity.Entity;
+
+/**
+ * A secondary index of the {@link EntityCache}, which groups the cached entities of one type by the value of a property.
+ * 
+ * An entity must call {@link AbstractEntity#updateEntityCacheIndexes()} when an indexed property changes, to keep the index up to date.
+ */
+public interface EntityCacheIndex<EntityImpl extends Entity> {
+
+    /**
+     * Returns the key under which the given entity is indexed. Entities with a null key are not indexed.
+     */
+    Object getKey(EntityImpl entity);
+
+}
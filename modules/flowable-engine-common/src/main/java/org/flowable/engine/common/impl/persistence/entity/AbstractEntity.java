@@ -12,7 +12,15 @@
  */
 package org.flowable.engine.common.impl.persistence.entity;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.flowable.engine.common.impl.context.Context;
 import org.flowable.engine.common.impl.db.HasRevision;
+import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.engine.common.impl.persistence.cache.EntityCache;
+import org.flowable.engine.common.impl.persistence.cache.EntityCacheIndex;
 
 /**
  * Abstract superclass for the common properties of all {@link Entity} implementations.
@@ -29,6 +37,9 @@ public abstract class AbstractEntity implements Entity, HasRevision {
     protected boolean isDeleted;
     
     protected Object originalPersistentState;
+    
+    protected boolean isDirty;
+    protected Map<String, Object> originalValues;
 
     @Override
     public String getId() {
@@ -94,4 +105,64 @@ public abstract class AbstractEntity implements Entity, HasRevision {
     public void setOriginalPersistentState(Object persistentState) {
         this.originalPersistentState = persistentState;
     }
+
+    /**
+     * Needs to be called when a property used by an {@link EntityCacheIndex} has changed.
+     */
+    protected void updateEntityCacheIndexes() {
+        CommandContext commandContext = Context.getCommandContext();
+        if (commandContext != null) {
+            // Not using getSession(), as that would open an entity cache when there is none yet
+            EntityCache entityCache = (EntityCache) commandContext.getSessions().get(EntityCache.class);
+            if (entityCache != null) {
+                entityCache.updateIndexes(this);
+            }
+        }
+    }
+
+    // dirty tracking, only used by subclasses implementing DirtyTrackingEntity
+
+    public boolean isDirty() {
+        return isDirty;
+    }
+
+    public void setDirty(boolean isDirty) {
+        this.isDirty = isDirty;
+        if (!isDirty) {
+            this.originalValues = null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public Object determineOriginalPersistentState() {
+        Map<String, Object> persistentState = (Map<String, Object>) getPersistentState();
+        if (originalValues != null) {
+            persistentState.putAll(originalValues);
+        }
+        return persistentState;
+    }
+
+    protected void trackChange(String property, Object oldValue, Object newValue) {
+        if (!Objects.equals(oldValue, newValue)) {
+            isDirty = true;
+            if (originalValues == null) {
+                originalValues = new HashMap<>(4);
+            }
+            if (!originalValues.containsKey(property)) {
+                originalValues.put(property, oldValue);
+            }
+        }
+    }
+
+    protected void trackChange(String property, int oldValue, int newValue) {
+        if (oldValue != newValue) {
+            trackChange(property, Integer.valueOf(oldValue), Integer.valueOf(newValue));
+        }
+    }
+
+    protected void trackChange(String property, boolean oldValue, boolean newValue) {
+        if (oldValue != newValue) {
+            trackChange(property, Boolean.valueOf(oldValue), Boolean.valueOf(newValue));
+        }
+    }
 }
@@ -0,0 +1,38 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.common.impl.persistence.entity;
+
+/**
+ * An {@link Entity} that keeps track itself of changes to the fields that are part of its persistent state.
+ * 
+ * When dirty tracking is enabled in the engine configuration, the persistent state of such an entity is not 
+ * copied when it is loaded and not compared when the db session is flushed: only the dirty flag is checked.
+ * Every change to a field that is part of the {@link #getPersistentState()} must therefore mark the entity as dirty
+ * and remember the original value of the field, keyed by the name used in the update statement of the entity.
+ */
+public interface DirtyTrackingEntity extends Entity {
+
+    boolean isDirty();
+
+    /**
+     * Marks the entity as dirty or clean. Marking it clean also forgets the original values of the changed fields.
+     */
+    void setDirty(boolean dirty);
+
+    /**
+     * Rebuilds the original persistent state from the current persistent state and the original values of the changed fields,
+     * so the update statement only writes the changed columns.
+     */
+    Object determineOriginalPersistentState();
+
+}
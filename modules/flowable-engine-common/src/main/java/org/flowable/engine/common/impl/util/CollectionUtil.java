@@ -12,8 +12,10 @@
  */
 package org.flowable.engine.common.impl.util;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.flowable.engine.common.api.FlowableIllegalArgumentException;
@@ -67,4 +69,20 @@ public class CollectionUtil {
         return !isEmpty(collection);
     }
 
+    /**
+     * Splits the given collection in lists of at most the given size, for example to keep the number of parameters of an IN clause within the database limits.
+     */
+    public static <T> List<List<T>> partition(Collection<T> values, int partitionSize) {
+        List<List<T>> partitions = new ArrayList<>();
+        List<T> partition = null;
+        for (T value : values) {
+            if (partition == null || partition.size() == partitionSize) {
+                partition = new ArrayList<>(Math.min(partitionSize, values.size()));
+                partitions.add(partition);
+            }
+            partition.add(value);
+        }
+        return partitions;
+    }
+
 }
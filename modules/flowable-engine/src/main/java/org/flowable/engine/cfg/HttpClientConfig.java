@@ -24,6 +24,12 @@ public class HttpClientConfig {
     protected int requestRetryLimit = 3;
     // https settings
     protected boolean disableCertVerify;
+    // async request settings
+    // time in ms after which an async request without response is considered lost and is sent again, should exceed the request timeouts
+    protected int asyncRequestTimeout = 5 * 60 * 1000;
+    protected int asyncRequestRetryLimit = 3;
+    protected int asyncRequestThreadPoolSize = 10;
+    protected int asyncRequestQueueSize = 100;
 
     public int getConnectTimeout() {
         return connectTimeout;
@@ -65,6 +71,38 @@ public class HttpClientConfig {
         this.disableCertVerify = disableCertVerify;
     }
 
+    public int getAsyncRequestTimeout() {
+        return asyncRequestTimeout;
+    }
+
+    public void setAsyncRequestTimeout(int asyncRequestTimeout) {
+        this.asyncRequestTimeout = asyncRequestTimeout;
+    }
+
+    public int getAsyncRequestRetryLimit() {
+        return asyncRequestRetryLimit;
+    }
+
+    public void setAsyncRequestRetryLimit(int asyncRequestRetryLimit) {
+        this.asyncRequestRetryLimit = asyncRequestRetryLimit;
+    }
+
+    public int getAsyncRequestThreadPoolSize() {
+        return asyncRequestThreadPoolSize;
+    }
+
+    public void setAsyncRequestThreadPoolSize(int asyncRequestThreadPoolSize) {
+        this.asyncRequestThreadPoolSize = asyncRequestThreadPoolSize;
+    }
+
+    public int getAsyncRequestQueueSize() {
+        return asyncRequestQueueSize;
+    }
+
+    public void setAsyncRequestQueueSize(int asyncRequestQueueSize) {
+        this.asyncRequestQueueSize = asyncRequestQueueSize;
+    }
+
     public void merge(HttpClientConfig other) {
         if (this.connectTimeout != other.getConnectTimeout()) {
             setConnectTimeout(other.getConnectTimeout());
@@ -85,5 +123,21 @@ public class HttpClientConfig {
         if (this.disableCertVerify != other.isDisableCertVerify()) {
             setDisableCertVerify(other.isDisableCertVerify());
         }
+
+        if (this.asyncRequestTimeout != other.getAsyncRequestTimeout()) {
+            setAsyncRequestTimeout(other.getAsyncRequestTimeout());
+        }
+
+        if (this.asyncRequestRetryLimit != other.getAsyncRequestRetryLimit()) {
+            setAsyncRequestRetryLimit(other.getAsyncRequestRetryLimit());
+        }
+
+        if (this.asyncRequestThreadPoolSize != other.getAsyncRequestThreadPoolSize()) {
+            setAsyncRequestThreadPoolSize(other.getAsyncRequestThreadPoolSize());
+        }
+
+        if (this.asyncRequestQueueSize != other.getAsyncRequestQueueSize()) {
+            setAsyncRequestQueueSize(other.getAsyncRequestQueueSize());
+        }
     }
 }
@@ -12,11 +12,16 @@
  */
 package org.flowable.engine.delegate.event.impl;
 
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.flowable.bpmn.model.BpmnModel;
 import org.flowable.engine.common.api.delegate.event.FlowableEngineEvent;
 import org.flowable.engine.common.api.delegate.event.FlowableEngineEventType;
 import org.flowable.engine.common.api.delegate.event.FlowableEntityEvent;
 import org.flowable.engine.common.api.delegate.event.FlowableEvent;
+import org.flowable.engine.common.api.delegate.event.FlowableEventType;
 import org.flowable.engine.common.impl.event.EventDispatchAction;
 import org.flowable.engine.common.impl.event.FlowableEventSupport;
 import org.flowable.engine.common.impl.interceptor.CommandContext;
@@ -26,6 +31,13 @@ import org.flowable.engine.repository.ProcessDefinition;
 
 public class BpmnModelEventDispatchAction implements EventDispatchAction {
 
+    /**
+     * The event types that an event listener defined in a process definition parsed by this engine listens to.
+     * Only grows, as other versions of a process definition can still be executed.
+     */
+    protected Set<FlowableEventType> eventListenerTypes = Collections.newSetFromMap(new ConcurrentHashMap<FlowableEventType, Boolean>());
+    protected volatile boolean eventListenerForAllTypes;
+
     @Override
     public void dispatchEvent(CommandContext commandContext, FlowableEventSupport eventSupport, FlowableEvent event) {
         if (event.getType() == FlowableEngineEventType.ENTITY_DELETED && event instanceof FlowableEntityEvent) {
@@ -45,6 +57,36 @@ public class BpmnModelEventDispatchAction implements EventDispatchAction {
         }
     }
     
+    /**
+     * Returns whether an event listener defined in any process definition parsed by this engine listens to events of the given type.
+     * 
+     * A process definition is parsed when it's deployed, or when it's first used after the engine is started, before its executions are continued.
+     * When an event could belong to a process definition that isn't parsed yet, use {@link #hasListeners(String, FlowableEventType)} instead.
+     */
+    @Override
+    public boolean hasListeners(CommandContext commandContext, FlowableEventType type) {
+        return eventListenerForAllTypes || eventListenerTypes.contains(type);
+    }
+
+    /**
+     * Registers that a parsed process definition defines an event listener for the given types, or for all types when no types are given.
+     */
+    public void addEventListenerTypes(FlowableEventType... types) {
+        if (types == null || types.length == 0) {
+            eventListenerForAllTypes = true;
+        } else {
+            Collections.addAll(eventListenerTypes, types);
+        }
+    }
+
+    /**
+     * Returns whether an event of the given type could be delivered to a listener defined in the given process definition.
+     */
+    public boolean hasListeners(String processDefinitionId, FlowableEventType type) {
+        BpmnModel bpmnModel = ProcessDefinitionUtil.getBpmnModelFromCache(processDefinitionId);
+        return bpmnModel == null || ((FlowableEventSupport) bpmnModel.getEventSupport()).hasListeners(type);
+    }
+
     /**
      * In case no process-context is active, this method attempts to extract a process-definition based on the event. In case it's an event related to an entity, this can be deducted by inspecting the
      * entity, without additional queries to the database.
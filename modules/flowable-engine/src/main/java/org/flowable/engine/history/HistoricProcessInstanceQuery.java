@@ -14,6 +14,7 @@
 package org.flowable.engine.history;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
@@ -302,6 +303,11 @@ public interface HistoricProcessInstanceQuery extends Query<HistoricProcessInsta
      */
     HistoricProcessInstanceQuery limitProcessInstanceVariables(Integer processInstanceVariablesLimit);
 
+    /**
+     * Only include the process variables with the given names in the process query result
+     */
+    HistoricProcessInstanceQuery limitProcessInstanceVariableNames(Collection<String> variableNames);
+
     /**
      * Only select process instances that failed due to an exception happening during a job execution.
      */
@@ -14,6 +14,7 @@
 package org.flowable.engine.impl;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
@@ -25,6 +26,7 @@ import org.flowable.engine.common.impl.interceptor.CommandContext;
 import org.flowable.engine.common.impl.interceptor.CommandExecutor;
 import org.flowable.engine.history.HistoricProcessInstance;
 import org.flowable.engine.history.HistoricProcessInstanceQuery;
+import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.flowable.engine.impl.context.BpmnOverrideContext;
 import org.flowable.engine.impl.persistence.entity.HistoricProcessInstanceEntity;
 import org.flowable.engine.impl.util.CommandContextUtil;
@@ -70,6 +72,7 @@ public class HistoricProcessInstanceQueryImpl extends AbstractVariableQueryImpl<
     protected String involvedUser;
     protected boolean includeProcessVariables;
     protected Integer processInstanceVariablesLimit;
+    protected Collection<String> processInstanceVariableNames;
     protected boolean withJobException;
     protected String tenantId;
     protected String tenantIdLike;
@@ -357,10 +360,20 @@ public class HistoricProcessInstanceQueryImpl extends AbstractVariableQueryImpl<
         return this;
     }
 
+    @Override
+    public HistoricProcessInstanceQuery limitProcessInstanceVariableNames(Collection<String> variableNames) {
+        this.processInstanceVariableNames = variableNames;
+        return this;
+    }
+
     public Integer getProcessInstanceVariablesLimit() {
         return processInstanceVariablesLimit;
     }
 
+    public Collection<String> getProcessInstanceVariableNames() {
+        return processInstanceVariableNames;
+    }
+
     @Override
     public HistoricProcessInstanceQuery withJobException() {
         this.withJobException = true;
@@ -706,11 +719,22 @@ public class HistoricProcessInstanceQueryImpl extends AbstractVariableQueryImpl<
     protected void checkQueryOk() {
         super.checkQueryOk();
 
-        if (includeProcessVariables) {
+        // When the variables are fetched in a separate query, that query is ordered instead
+        if (includeProcessVariables && !isTwoPhaseVariableQueries()) {
             this.orderBy(HistoricProcessInstanceQueryProperty.INCLUDED_VARIABLE_TIME).asc();
         }
     }
 
+    protected boolean isTwoPhaseVariableQueries() {
+        ProcessEngineConfigurationImpl processEngineConfiguration = CommandContextUtil.getProcessEngineConfiguration();
+        return processEngineConfiguration != null && processEngineConfiguration.getPerformanceSettings().isEnableTwoPhaseVariableQueries();
+    }
+
+    @Override
+    protected boolean isSeekPaginationSupported() {
+        return true;
+    }
+
     public String getBusinessKey() {
         return businessKey;
     }
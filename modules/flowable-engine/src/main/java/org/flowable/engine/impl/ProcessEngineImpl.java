@@ -30,6 +30,8 @@ import org.flowable.engine.common.impl.interceptor.CommandExecutor;
 import org.flowable.engine.common.impl.interceptor.SessionFactory;
 import org.flowable.engine.delegate.event.impl.FlowableEventBuilder;
 import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.flowable.engine.impl.db.PrefetchingDbIdGenerator;
+import org.flowable.engine.impl.history.async.sink.AsyncHistorySinkApplier;
 import org.flowable.job.service.impl.asyncexecutor.AsyncExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,6 +54,7 @@ public class ProcessEngineImpl implements ProcessEngine {
     protected DynamicBpmnService dynamicBpmnService;
     protected AsyncExecutor asyncExecutor;
     protected AsyncExecutor asyncHistoryExecutor;
+    protected AsyncHistorySinkApplier asyncHistorySinkApplier;
     protected CommandExecutor commandExecutor;
     protected Map<Class<?>, SessionFactory> sessionFactories;
     protected TransactionContextFactory transactionContextFactory;
@@ -70,6 +73,7 @@ public class ProcessEngineImpl implements ProcessEngine {
         this.dynamicBpmnService = processEngineConfiguration.getDynamicBpmnService();
         this.asyncExecutor = processEngineConfiguration.getAsyncExecutor();
         this.asyncHistoryExecutor = processEngineConfiguration.getAsyncHistoryExecutor();
+        this.asyncHistorySinkApplier = processEngineConfiguration.getAsyncHistorySinkApplier();
         this.commandExecutor = processEngineConfiguration.getCommandExecutor();
         this.sessionFactories = processEngineConfiguration.getSessionFactories();
         this.transactionContextFactory = processEngineConfiguration.getTransactionContextFactory();
@@ -98,6 +102,9 @@ public class ProcessEngineImpl implements ProcessEngine {
         if (asyncHistoryExecutor != null && asyncHistoryExecutor.isAutoActivate()) {
             asyncHistoryExecutor.start();
         }
+        if (asyncHistorySinkApplier != null && asyncHistorySinkApplier.isAutoActivate()) {
+            asyncHistorySinkApplier.start();
+        }
     }
 
     @Override
@@ -109,6 +116,13 @@ public class ProcessEngineImpl implements ProcessEngine {
         if (asyncHistoryExecutor != null && asyncHistoryExecutor.isActive()) {
             asyncHistoryExecutor.shutdown();
         }
+        if (asyncHistorySinkApplier != null && asyncHistorySinkApplier.isActive()) {
+            asyncHistorySinkApplier.shutdown();
+        }
+        processEngineConfiguration.shutdownNonTransactionalEventListenerExecutor();
+        if (processEngineConfiguration.getIdGenerator() instanceof PrefetchingDbIdGenerator) {
+            ((PrefetchingDbIdGenerator) processEngineConfiguration.getIdGenerator()).shutdown();
+        }
 
         Runnable closeRunnable = processEngineConfiguration.getProcessEngineCloseRunnable();
         if (closeRunnable != null) {
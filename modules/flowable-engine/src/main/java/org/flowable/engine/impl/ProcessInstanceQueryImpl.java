@@ -15,6 +15,7 @@ package org.flowable.engine.impl;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
@@ -67,6 +68,7 @@ public class ProcessInstanceQueryImpl extends AbstractVariableQueryImpl<ProcessI
     protected SuspensionState suspensionState;
     protected boolean includeProcessVariables;
     protected Integer processInstanceVariablesLimit;
+    protected Collection<String> processInstanceVariableNames;
     protected boolean withJobException;
     protected String name;
     protected String nameLike;
@@ -410,10 +412,20 @@ public class ProcessInstanceQueryImpl extends AbstractVariableQueryImpl<ProcessI
         return this;
     }
 
+    @Override
+    public ProcessInstanceQuery limitProcessInstanceVariableNames(Collection<String> variableNames) {
+        this.processInstanceVariableNames = variableNames;
+        return this;
+    }
+
     public Integer getProcessInstanceVariablesLimit() {
         return processInstanceVariablesLimit;
     }
 
+    public Collection<String> getProcessInstanceVariableNames() {
+        return processInstanceVariableNames;
+    }
+
     @Override
     public ProcessInstanceQuery withJobException() {
         this.withJobException = true;
@@ -679,6 +691,11 @@ public class ProcessInstanceQueryImpl extends AbstractVariableQueryImpl<ProcessI
         return specialOrderBy;
     }
 
+    @Override
+    protected boolean isSeekPaginationSupported() {
+        return true;
+    }
+
     // results /////////////////////////////////////////////////////////////////
 
     @Override
@@ -36,6 +36,11 @@ public abstract class AbstractOperation implements Runnable {
     protected FlowableEngineAgenda agenda;
     protected ExecutionEntity execution;
 
+    /**
+     * True when this instance is owned by the pool of the agenda, which hands it out again once it is executed.
+     */
+    protected boolean pooled;
+
     public AbstractOperation() {
 
     }
@@ -119,4 +124,12 @@ public abstract class AbstractOperation implements Runnable {
         this.execution = execution;
     }
 
+    public boolean isPooled() {
+        return pooled;
+    }
+
+    public void setPooled(boolean pooled) {
+        this.pooled = pooled;
+    }
+
 }
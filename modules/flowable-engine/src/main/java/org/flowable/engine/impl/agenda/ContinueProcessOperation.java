@@ -13,12 +13,17 @@
 package org.flowable.engine.impl.agenda;
 
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.flowable.bpmn.model.Activity;
 import org.flowable.bpmn.model.BoundaryEvent;
+import org.flowable.bpmn.model.BaseElement;
 import org.flowable.bpmn.model.CompensateEventDefinition;
+import org.flowable.bpmn.model.ExtensionElement;
 import org.flowable.bpmn.model.FlowElement;
+import org.flowable.bpmn.model.FlowElementsContainer;
 import org.flowable.bpmn.model.FlowNode;
 import org.flowable.bpmn.model.SequenceFlow;
 import org.flowable.bpmn.model.SubProcess;
@@ -53,6 +58,12 @@ public class ContinueProcessOperation extends AbstractOperation {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ContinueProcessOperation.class);
 
+    /**
+     * Extension element that holds a comma separated list of the variables that are needed by an activity.
+     * When defined on a process or a sub process, these variables are needed by all activities in it.
+     */
+    public static final String PREFETCH_VARIABLES_EXTENSION_ELEMENT = "prefetchVariables";
+
     protected boolean forceSynchronousOperation;
     protected boolean inCompensation;
 
@@ -115,6 +126,43 @@ public class ContinueProcessOperation extends AbstractOperation {
         }
     }
 
+    /**
+     * Fetches the variables that are declared to be needed by the flow node or by the process in one query, before the execution listeners and the behavior use them.
+     */
+    protected void prefetchVariables(FlowNode flowNode) {
+        Set<String> variableNames = null;
+
+        BaseElement element = flowNode;
+        while (element != null) {
+            List<ExtensionElement> prefetchVariablesElements = element.getExtensionElements().get(PREFETCH_VARIABLES_EXTENSION_ELEMENT);
+            if (prefetchVariablesElements != null) {
+                for (ExtensionElement prefetchVariablesElement : prefetchVariablesElements) {
+                    if (prefetchVariablesElement.getElementText() != null) {
+                        for (String variableName : prefetchVariablesElement.getElementText().split(",")) {
+                            if (!variableName.trim().isEmpty()) {
+                                if (variableNames == null) {
+                                    variableNames = new LinkedHashSet<>();
+                                }
+                                variableNames.add(variableName.trim());
+                            }
+                        }
+                    }
+                }
+            }
+
+            if (element instanceof FlowElement) {
+                FlowElementsContainer parentContainer = ((FlowElement) element).getParentContainer();
+                element = parentContainer instanceof BaseElement ? (BaseElement) parentContainer : null;
+            } else {
+                element = null;
+            }
+        }
+
+        if (variableNames != null) {
+            execution.prefetchVariables(variableNames);
+        }
+    }
+
     protected void createChildExecutionForSubProcess(SubProcess subProcess) {
         ExecutionEntity parentScopeExecution = findFirstParentScopeExecution(execution);
 
@@ -132,6 +180,8 @@ public class ContinueProcessOperation extends AbstractOperation {
     }
 
     protected void executeSynchronous(FlowNode flowNode) {
+        prefetchVariables(flowNode);
+
         CommandContextUtil.getHistoryManager(commandContext).recordActivityStart(execution);
 
         // Execution listener: event 'start'
@@ -179,6 +229,7 @@ public class ContinueProcessOperation extends AbstractOperation {
     }
 
     protected void executeMultiInstanceSynchronous(FlowNode flowNode) {
+        prefetchVariables(flowNode);
 
         // Execution listener: event 'start'
         if (CollectionUtil.isNotEmpty(flowNode.getExecutionListeners())) {
@@ -238,7 +289,8 @@ public class ContinueProcessOperation extends AbstractOperation {
         LOGGER.debug("Executing activityBehavior {} on activity '{}' with execution {}", activityBehavior.getClass(), flowNode.getId(), execution.getId());
 
         ProcessEngineConfigurationImpl processEngineConfiguration = CommandContextUtil.getProcessEngineConfiguration();
-        if (processEngineConfiguration != null && processEngineConfiguration.getEventDispatcher().isEnabled()) {
+        if (processEngineConfiguration != null && processEngineConfiguration.getEventDispatcher().isEnabled()
+                && processEngineConfiguration.getEventDispatcher().hasListeners(FlowableEngineEventType.ACTIVITY_STARTED)) {
             processEngineConfiguration.getEventDispatcher().dispatchEvent(
                     FlowableEventBuilder.createActivityEvent(FlowableEngineEventType.ACTIVITY_STARTED, flowNode.getId(), flowNode.getName(), execution.getId(),
                             execution.getProcessInstanceId(), execution.getProcessDefinitionId(), flowNode));
@@ -265,7 +317,8 @@ public class ContinueProcessOperation extends AbstractOperation {
 
         // Firing event that transition is being taken
         ProcessEngineConfigurationImpl processEngineConfiguration = CommandContextUtil.getProcessEngineConfiguration();
-        if (processEngineConfiguration != null && processEngineConfiguration.getEventDispatcher().isEnabled()) {
+        if (processEngineConfiguration != null && processEngineConfiguration.getEventDispatcher().isEnabled()
+                && processEngineConfiguration.getEventDispatcher().hasListeners(FlowableEngineEventType.SEQUENCEFLOW_TAKEN)) {
             FlowElement sourceFlowElement = sequenceFlow.getSourceFlowElement();
             FlowElement targetFlowElement = sequenceFlow.getTargetFlowElement();
             processEngineConfiguration.getEventDispatcher().dispatchEvent(
@@ -320,4 +373,20 @@ public class ContinueProcessOperation extends AbstractOperation {
         }
     }
 
+    public boolean isForceSynchronousOperation() {
+        return forceSynchronousOperation;
+    }
+
+    public void setForceSynchronousOperation(boolean forceSynchronousOperation) {
+        this.forceSynchronousOperation = forceSynchronousOperation;
+    }
+
+    public boolean isInCompensation() {
+        return inCompensation;
+    }
+
+    public void setInCompensation(boolean inCompensation) {
+        this.inCompensation = inCompensation;
+    }
+
 }
@@ -12,12 +12,15 @@
  */
 package org.flowable.engine.impl.agenda;
 
+import java.util.ArrayDeque;
+
 import org.flowable.engine.FlowableEngineAgenda;
 import org.flowable.engine.common.impl.agenda.AbstractAgenda;
 import org.flowable.engine.common.impl.context.Context;
 import org.flowable.engine.common.impl.interceptor.Command;
 import org.flowable.engine.common.impl.interceptor.CommandContext;
 import org.flowable.engine.common.impl.interceptor.CommandExecutor;
+import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.flowable.engine.impl.delegate.ActivityBehavior;
 import org.flowable.engine.impl.persistence.entity.ExecutionEntity;
 import org.flowable.engine.impl.util.CommandContextUtil;
@@ -38,8 +41,24 @@ public class DefaultFlowableEngineAgenda extends AbstractAgenda implements Flowa
     
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultFlowableEngineAgenda.class);
 
+    /**
+     * When true, the operations that are planned for every step of a process instance are reused once they are executed, instead of
+     * allocating new ones. See {@link org.flowable.engine.impl.cfg.PerformanceSettings#isEnableAgendaOperationPooling()}.
+     */
+    protected boolean operationPoolingEnabled;
+
+    protected ArrayDeque<ContinueProcessOperation> continueProcessOperationPool;
+    protected ArrayDeque<TakeOutgoingSequenceFlowsOperation> takeOutgoingSequenceFlowsOperationPool;
+    protected ArrayDeque<TriggerExecutionOperation> triggerExecutionOperationPool;
+    protected ArrayDeque<EndExecutionOperation> endExecutionOperationPool;
+
     public DefaultFlowableEngineAgenda(CommandContext commandContext) {
         super(commandContext);
+
+        ProcessEngineConfigurationImpl processEngineConfiguration = CommandContextUtil.getProcessEngineConfiguration(commandContext);
+        if (processEngineConfiguration != null) {
+            this.operationPoolingEnabled = processEngineConfiguration.getPerformanceSettings().isEnableAgendaOperationPooling();
+        }
     }
 
     /**
@@ -48,28 +67,53 @@ public class DefaultFlowableEngineAgenda extends AbstractAgenda implements Flowa
     @Override
     public void planOperation(Runnable operation, ExecutionEntity executionEntity) {
         operations.add(operation);
-        LOGGER.debug("Operation {} added to agenda", operation.getClass());
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Operation {} added to agenda", operation.getClass());
+        }
 
         if (executionEntity != null) {
             CommandContextUtil.addInvolvedExecution(commandContext, executionEntity);
         }
     }
 
+    /**
+     * Called by the {@link org.flowable.engine.impl.interceptor.CommandInvoker} once the given operation is executed.
+     * Operations that were taken from the pool of this agenda are put back, so they can be planned again.
+     */
+    public void releaseOperation(Runnable operation) {
+        if (!(operation instanceof AbstractOperation) || !((AbstractOperation) operation).isPooled()) {
+            return;
+        }
+
+        AbstractOperation abstractOperation = (AbstractOperation) operation;
+        abstractOperation.setExecution(null);
+
+        if (operation instanceof ContinueProcessOperation) {
+            continueProcessOperationPool.push((ContinueProcessOperation) operation);
+        } else if (operation instanceof TakeOutgoingSequenceFlowsOperation) {
+            takeOutgoingSequenceFlowsOperationPool.push((TakeOutgoingSequenceFlowsOperation) operation);
+        } else if (operation instanceof TriggerExecutionOperation) {
+            triggerExecutionOperationPool.push((TriggerExecutionOperation) operation);
+        } else if (operation instanceof EndExecutionOperation) {
+            endExecutionOperationPool.push((EndExecutionOperation) operation);
+        }
+    }
+
     /* SPECIFIC operations */
 
     @Override
     public void planContinueProcessOperation(ExecutionEntity execution) {
-        planOperation(new ContinueProcessOperation(commandContext, execution), execution);
+        planOperation(createContinueProcessOperation(execution, false, false), execution);
     }
 
     @Override
     public void planContinueProcessSynchronousOperation(ExecutionEntity execution) {
-        planOperation(new ContinueProcessOperation(commandContext, execution, true, false), execution);
+        planOperation(createContinueProcessOperation(execution, true, false), execution);
     }
 
     @Override
     public void planContinueProcessInCompensation(ExecutionEntity execution) {
-        planOperation(new ContinueProcessOperation(commandContext, execution, false, true), execution);
+        planOperation(createContinueProcessOperation(execution, false, true), execution);
     }
 
     @Override
@@ -79,17 +123,17 @@ public class DefaultFlowableEngineAgenda extends AbstractAgenda implements Flowa
 
     @Override
     public void planTakeOutgoingSequenceFlowsOperation(ExecutionEntity execution, boolean evaluateConditions) {
-        planOperation(new TakeOutgoingSequenceFlowsOperation(commandContext, execution, evaluateConditions), execution);
+        planOperation(createTakeOutgoingSequenceFlowsOperation(execution, evaluateConditions), execution);
     }
 
     @Override
     public void planEndExecutionOperation(ExecutionEntity execution) {
-        planOperation(new EndExecutionOperation(commandContext, execution), execution);
+        planOperation(createEndExecutionOperation(execution), execution);
     }
 
     @Override
     public void planTriggerExecutionOperation(ExecutionEntity execution) {
-        planOperation(new TriggerExecutionOperation(commandContext, execution), execution);
+        planOperation(createTriggerExecutionOperation(execution), execution);
     }
 
     @Override
@@ -102,4 +146,89 @@ public class DefaultFlowableEngineAgenda extends AbstractAgenda implements Flowa
         planOperation(new ExecuteInactiveBehaviorsOperation(commandContext));
     }
 
+    /* Pooled operations */
+
+    protected ContinueProcessOperation createContinueProcessOperation(ExecutionEntity execution, boolean forceSynchronousOperation, boolean inCompensation) {
+        if (!operationPoolingEnabled) {
+            return new ContinueProcessOperation(commandContext, execution, forceSynchronousOperation, inCompensation);
+        }
+
+        if (continueProcessOperationPool == null) {
+            continueProcessOperationPool = new ArrayDeque<>();
+        }
+        ContinueProcessOperation operation = continueProcessOperationPool.poll();
+        if (operation == null) {
+            operation = new ContinueProcessOperation(commandContext, execution, forceSynchronousOperation, inCompensation);
+            operation.setPooled(true);
+        } else {
+            operation.setExecution(execution);
+            operation.setForceSynchronousOperation(forceSynchronousOperation);
+            operation.setInCompensation(inCompensation);
+        }
+        return operation;
+    }
+
+    protected TakeOutgoingSequenceFlowsOperation createTakeOutgoingSequenceFlowsOperation(ExecutionEntity execution, boolean evaluateConditions) {
+        if (!operationPoolingEnabled) {
+            return new TakeOutgoingSequenceFlowsOperation(commandContext, execution, evaluateConditions);
+        }
+
+        if (takeOutgoingSequenceFlowsOperationPool == null) {
+            takeOutgoingSequenceFlowsOperationPool = new ArrayDeque<>();
+        }
+        TakeOutgoingSequenceFlowsOperation operation = takeOutgoingSequenceFlowsOperationPool.poll();
+        if (operation == null) {
+            operation = new TakeOutgoingSequenceFlowsOperation(commandContext, execution, evaluateConditions);
+            operation.setPooled(true);
+        } else {
+            operation.setExecution(execution);
+            operation.setEvaluateConditions(evaluateConditions);
+        }
+        return operation;
+    }
+
+    protected TriggerExecutionOperation createTriggerExecutionOperation(ExecutionEntity execution) {
+        if (!operationPoolingEnabled) {
+            return new TriggerExecutionOperation(commandContext, execution);
+        }
+
+        if (triggerExecutionOperationPool == null) {
+            triggerExecutionOperationPool = new ArrayDeque<>();
+        }
+        TriggerExecutionOperation operation = triggerExecutionOperationPool.poll();
+        if (operation == null) {
+            operation = new TriggerExecutionOperation(commandContext, execution);
+            operation.setPooled(true);
+        } else {
+            operation.setExecution(execution);
+        }
+        return operation;
+    }
+
+    protected EndExecutionOperation createEndExecutionOperation(ExecutionEntity execution) {
+        if (!operationPoolingEnabled) {
+            return new EndExecutionOperation(commandContext, execution);
+        }
+
+        if (endExecutionOperationPool == null) {
+            endExecutionOperationPool = new ArrayDeque<>();
+        }
+        EndExecutionOperation operation = endExecutionOperationPool.poll();
+        if (operation == null) {
+            operation = new EndExecutionOperation(commandContext, execution);
+            operation.setPooled(true);
+        } else {
+            operation.setExecution(execution);
+        }
+        return operation;
+    }
+
+    public boolean isOperationPoolingEnabled() {
+        return operationPoolingEnabled;
+    }
+
+    public void setOperationPoolingEnabled(boolean operationPoolingEnabled) {
+        this.operationPoolingEnabled = operationPoolingEnabled;
+    }
+
 }
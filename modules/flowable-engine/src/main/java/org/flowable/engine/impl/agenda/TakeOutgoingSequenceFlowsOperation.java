@@ -117,7 +117,8 @@ public class TakeOutgoingSequenceFlowsOperation extends AbstractOperation {
                 CommandContextUtil.getHistoryManager(commandContext).recordActivityEnd(execution, null);
             }
 
-            if (!(execution.getCurrentFlowElement() instanceof SubProcess)) {
+            if (!(execution.getCurrentFlowElement() instanceof SubProcess)
+                    && CommandContextUtil.getEventDispatcher(commandContext).hasListeners(FlowableEngineEventType.ACTIVITY_COMPLETED)) {
                 CommandContextUtil.getEventDispatcher(commandContext).dispatchEvent(
                         FlowableEventBuilder.createActivityEvent(FlowableEngineEventType.ACTIVITY_COMPLETED, flowNode.getId(), flowNode.getName(),
                                 execution.getId(), execution.getProcessInstanceId(), execution.getProcessDefinitionId(), flowNode));
@@ -362,4 +363,12 @@ public class TakeOutgoingSequenceFlowsOperation extends AbstractOperation {
         return true;
     }
 
+    public boolean isEvaluateConditions() {
+        return evaluateConditions;
+    }
+
+    public void setEvaluateConditions(boolean evaluateConditions) {
+        this.evaluateConditions = evaluateConditions;
+    }
+
 }
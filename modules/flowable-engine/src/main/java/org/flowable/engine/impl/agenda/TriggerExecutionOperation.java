@@ -15,7 +15,6 @@ package org.flowable.engine.impl.agenda;
 import org.flowable.bpmn.model.BoundaryEvent;
 import org.flowable.bpmn.model.FlowElement;
 import org.flowable.bpmn.model.FlowNode;
-import org.flowable.bpmn.model.ServiceTask;
 import org.flowable.engine.common.api.FlowableException;
 import org.flowable.engine.common.impl.interceptor.CommandContext;
 import org.flowable.engine.impl.delegate.ActivityBehavior;
@@ -45,8 +44,9 @@ public class TriggerExecutionOperation extends AbstractOperation {
             ActivityBehavior activityBehavior = (ActivityBehavior) ((FlowNode) currentFlowElement).getBehavior();
             if (activityBehavior instanceof TriggerableActivityBehavior) {
 
-                if (currentFlowElement instanceof BoundaryEvent
-                        || currentFlowElement instanceof ServiceTask) { // custom service task with no automatic leave (will not have a activity-start history entry in ContinueProcessOperation)
+                // A service task that waits to be triggered already has its activity-start history entry from ContinueProcessOperation,
+                // recording it again would leave an unfinished historic activity instance behind when the trigger happens in a later transaction
+                if (currentFlowElement instanceof BoundaryEvent) {
                     CommandContextUtil.getHistoryManager(commandContext).recordActivityStart(execution);
                 }
                 
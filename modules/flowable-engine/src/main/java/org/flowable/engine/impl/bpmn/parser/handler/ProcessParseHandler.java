@@ -20,8 +20,11 @@ import org.flowable.bpmn.model.EventListener;
 import org.flowable.bpmn.model.ImplementationType;
 import org.flowable.bpmn.model.Process;
 import org.flowable.engine.common.api.delegate.event.FlowableEngineEventType;
+import org.flowable.engine.common.impl.event.EventDispatchAction;
 import org.flowable.engine.common.impl.event.FlowableEventSupport;
+import org.flowable.engine.delegate.event.impl.BpmnModelEventDispatchAction;
 import org.flowable.engine.impl.bpmn.parser.BpmnParse;
+import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.flowable.engine.impl.persistence.entity.ProcessDefinitionEntity;
 import org.flowable.engine.impl.util.CommandContextUtil;
 import org.slf4j.Logger;
@@ -85,6 +88,7 @@ public class ProcessParseHandler extends AbstractBpmnParseHandler<Process> {
             for (EventListener eventListener : eventListeners) {
                 // Extract specific event-types (if any)
                 FlowableEngineEventType[] types = FlowableEngineEventType.getTypesFromString(eventListener.getEvents());
+                addEventListenerTypes(types);
 
                 if (ImplementationType.IMPLEMENTATION_TYPE_CLASS.equals(eventListener.getImplementationType())) {
                     getEventSupport(bpmnParse.getBpmnModel()).addEventListener(bpmnParse.getListenerFactory().createClassDelegateEventListener(eventListener), types);
@@ -107,6 +111,20 @@ public class ProcessParseHandler extends AbstractBpmnParseHandler<Process> {
 
     }
 
+    /**
+     * Lets the {@link BpmnModelEventDispatchAction} know that events of the given types have a listener, so the engine doesn't skip creating them.
+     */
+    protected void addEventListenerTypes(FlowableEngineEventType[] types) {
+        ProcessEngineConfigurationImpl processEngineConfiguration = CommandContextUtil.getProcessEngineConfiguration();
+        if (processEngineConfiguration != null && processEngineConfiguration.getAdditionalEventDispatchActions() != null) {
+            for (EventDispatchAction eventDispatchAction : processEngineConfiguration.getAdditionalEventDispatchActions()) {
+                if (eventDispatchAction instanceof BpmnModelEventDispatchAction) {
+                    ((BpmnModelEventDispatchAction) eventDispatchAction).addEventListenerTypes(types);
+                }
+            }
+        }
+    }
+
     protected FlowableEventSupport getEventSupport(BpmnModel bpmnModel) {
         return (FlowableEventSupport) bpmnModel.getEventSupport();
     }
@@ -53,6 +53,35 @@ public class PerformanceSettings {
      */
     protected boolean enableLocalization = true;
 
+    /**
+     * Experimental setting: when true, the agenda reuses the operations that are planned for every step of a process instance (continuing the process,
+     * taking the outgoing sequence flows, triggering and ending an execution) within a command, instead of allocating new ones for every step.
+     * Only has an effect with the default agenda.
+     */
+    protected boolean enableAgendaOperationPooling;
+
+    /**
+     * Experimental setting: when true, getting a variable of an execution of which the variables aren't fetched yet only fetches the variable with that name,
+     * for the execution and all its parent executions in one query, instead of fetching all the variables of the execution and of every parent execution that is visited.
+     * 
+     * Activities that use many variables can declare them in a 'prefetchVariables' extension element, so these are fetched in one query before the activity is executed.
+     */
+    protected boolean enableVariableFetchByName;
+
+    /**
+     * Experimental setting: when true, scripts of script tasks, script conditions and script listeners are compiled once by script engines that support it
+     * (for example Groovy and JavaScript), and the compiled scripts are kept per process definition in a cache, instead of parsing the script for every evaluation.
+     * The compiled scripts of a process definition are removed from the cache when its deployment is deleted.
+     */
+    protected boolean enableCompiledScriptCache;
+
+    /**
+     * Experimental setting: when true, task and process instance queries that include variables or identity links first fetch one page of
+     * tasks or process instances, and then fetch the variables and identity links of that page with one query per related entity type,
+     * instead of joining them in one query. This avoids the cartesian product of the join and the in-memory paging that it requires.
+     */
+    protected boolean enableTwoPhaseVariableQueries;
+
     public boolean isEnableEagerExecutionTreeFetching() {
         return enableEagerExecutionTreeFetching;
     }
@@ -101,4 +130,36 @@ public class PerformanceSettings {
         this.enableLocalization = enableLocalization;
     }
 
+    public boolean isEnableAgendaOperationPooling() {
+        return enableAgendaOperationPooling;
+    }
+
+    public void setEnableAgendaOperationPooling(boolean enableAgendaOperationPooling) {
+        this.enableAgendaOperationPooling = enableAgendaOperationPooling;
+    }
+
+    public boolean isEnableVariableFetchByName() {
+        return enableVariableFetchByName;
+    }
+
+    public void setEnableVariableFetchByName(boolean enableVariableFetchByName) {
+        this.enableVariableFetchByName = enableVariableFetchByName;
+    }
+
+    public boolean isEnableCompiledScriptCache() {
+        return enableCompiledScriptCache;
+    }
+
+    public void setEnableCompiledScriptCache(boolean enableCompiledScriptCache) {
+        this.enableCompiledScriptCache = enableCompiledScriptCache;
+    }
+
+    public boolean isEnableTwoPhaseVariableQueries() {
+        return enableTwoPhaseVariableQueries;
+    }
+
+    public void setEnableTwoPhaseVariableQueries(boolean enableTwoPhaseVariableQueries) {
+        this.enableTwoPhaseVariableQueries = enableTwoPhaseVariableQueries;
+    }
+
 }
@@ -13,9 +13,13 @@
 
 package org.flowable.engine.impl.cfg;
 
+import java.io.File;
 import java.io.InputStream;
 import java.io.Reader;
 import java.net.URL;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -32,9 +36,16 @@ import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import javax.script.CompiledScript;
 import javax.xml.namespace.QName;
 
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.ibatis.builder.xml.XMLConfigBuilder;
 import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.session.Configuration;
@@ -162,6 +173,7 @@ import org.flowable.engine.impl.cmd.ValidateV5EntitiesCmd;
 import org.flowable.engine.impl.db.DbIdGenerator;
 import org.flowable.engine.impl.db.EntityDependencyOrder;
 import org.flowable.engine.impl.db.IbatisVariableTypeHandler;
+import org.flowable.engine.impl.db.PrefetchingDbIdGenerator;
 import org.flowable.engine.impl.db.ProcessDbSchemaManager;
 import org.flowable.engine.impl.delegate.invocation.DefaultDelegateInterceptor;
 import org.flowable.engine.impl.el.DefaultExpressionManager;
@@ -190,21 +202,28 @@ import org.flowable.engine.impl.history.async.AsyncHistoryManager;
 import org.flowable.engine.impl.history.async.AsyncHistorySession;
 import org.flowable.engine.impl.history.async.AsyncHistorySessionFactory;
 import org.flowable.engine.impl.history.async.DefaultAsyncHistoryJobProducer;
+import org.flowable.engine.impl.history.async.sink.AsyncHistorySink;
+import org.flowable.engine.impl.history.async.sink.AsyncHistorySinkApplier;
+import org.flowable.engine.impl.history.async.sink.AsyncHistorySinkListener;
 import org.flowable.engine.impl.interceptor.BpmnOverrideContextInterceptor;
 import org.flowable.engine.impl.interceptor.CommandInvoker;
 import org.flowable.engine.impl.interceptor.DelegateInterceptor;
 import org.flowable.engine.impl.interceptor.LoggingExecutionTreeCommandInvoker;
 import org.flowable.engine.impl.jobexecutor.AsyncContinuationJobHandler;
+import org.flowable.engine.impl.jobexecutor.AsyncTriggerJobHandler;
 import org.flowable.engine.impl.jobexecutor.DefaultFailedJobCommandFactory;
 import org.flowable.engine.impl.jobexecutor.ProcessEventJobHandler;
 import org.flowable.engine.impl.jobexecutor.TimerActivateProcessDefinitionHandler;
 import org.flowable.engine.impl.jobexecutor.TimerStartEventJobHandler;
 import org.flowable.engine.impl.jobexecutor.TimerSuspendProcessDefinitionHandler;
 import org.flowable.engine.impl.jobexecutor.TriggerTimerEventJobHandler;
+import org.flowable.engine.impl.persistence.deploy.CacheInvalidationNotifier;
+import org.flowable.engine.impl.persistence.deploy.DbPollingCacheInvalidationNotifier;
 import org.flowable.engine.impl.persistence.deploy.Deployer;
 import org.flowable.engine.impl.persistence.deploy.DeploymentManager;
 import org.flowable.engine.impl.persistence.deploy.ProcessDefinitionCacheEntry;
 import org.flowable.engine.impl.persistence.deploy.ProcessDefinitionInfoCache;
+import org.flowable.engine.impl.persistence.deploy.ProcessDefinitionLatestVersionCache;
 import org.flowable.engine.impl.persistence.entity.AttachmentEntityManager;
 import org.flowable.engine.impl.persistence.entity.AttachmentEntityManagerImpl;
 import org.flowable.engine.impl.persistence.entity.ByteArrayEntityManager;
@@ -269,6 +288,7 @@ import org.flowable.engine.impl.persistence.entity.data.impl.MybatisProcessDefin
 import org.flowable.engine.impl.persistence.entity.data.impl.MybatisPropertyDataManager;
 import org.flowable.engine.impl.persistence.entity.data.impl.MybatisResourceDataManager;
 import org.flowable.engine.impl.scripting.BeansResolverFactory;
+import org.flowable.engine.impl.scripting.CompiledScriptCache;
 import org.flowable.engine.impl.scripting.ResolverFactory;
 import org.flowable.engine.impl.scripting.ScriptBindingsFactory;
 import org.flowable.engine.impl.scripting.ScriptingEngines;
@@ -306,6 +326,7 @@ import org.flowable.variable.service.impl.types.DefaultVariableTypes;
 import org.flowable.variable.service.impl.types.DoubleType;
 import org.flowable.variable.service.impl.types.EntityManagerSession;
 import org.flowable.variable.service.impl.types.EntityManagerSessionFactory;
+import org.flowable.variable.service.impl.types.InputStreamType;
 import org.flowable.variable.service.impl.types.IntegerType;
 import org.flowable.variable.service.impl.types.JPAEntityListVariableType;
 import org.flowable.variable.service.impl.types.JPAEntityVariableType;
@@ -407,6 +428,30 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     protected int asyncHistoryJsonGroupingThreshold = 10;
     protected AsyncHistoryListener asyncHistoryListener;
 
+    /**
+     * When set, the async history data of a transaction is appended to this sink right before the transaction commits, and the transaction
+     * only inserts a small commit marker. The {@link AsyncHistorySinkApplier} applies the appended history data of committed transactions
+     * to the history tables in the background. Only used when async history is enabled and no custom {@link AsyncHistoryListener} is set.
+     */
+    protected AsyncHistorySink asyncHistorySink;
+
+    /**
+     * When true, the async history data of a transaction is also stored in one history job that is locked for the {@link #asyncHistorySink},
+     * and is appended to the sink when the transaction has committed. For sinks that don't store the appended records durably.
+     */
+    protected boolean asyncHistorySinkHistoryJobFallback;
+    protected AsyncHistorySinkApplier asyncHistorySinkApplier;
+    protected boolean asyncHistorySinkApplierActivate = true;
+    protected int asyncHistorySinkApplierMaxRecordsPerTransaction = 100;
+    protected long asyncHistorySinkApplierIdleWaitTime = 1000L;
+
+    /**
+     * After this time, a record of the async history sink of which the commit marker doesn't exist is considered to belong to a transaction that rolled back.
+     * With the history job fallback, the history job of which the data was appended to the async history sink is no longer locked for the sink after this time.
+     * The async history executor then applies the history jobs of which the record was never appended or applied.
+     */
+    protected long asyncHistorySinkRecoveryTime = 5L * 60L * 1000L;
+
     // Job Manager
 
     protected JobManager jobManager;
@@ -445,6 +490,28 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     protected int processDefinitionInfoCacheLimit = -1; // By default, no limit
     protected ProcessDefinitionInfoCache processDefinitionInfoCache;
 
+    /**
+     * The time in milliseconds a cached process definition info node is used without checking its revision in the database.
+     * By default, the revision is checked on every use. Changes saved on this process engine are always visible immediately.
+     */
+    protected long processDefinitionInfoCacheStalenessTime;
+
+    /**
+     * If set to true, the process definition info cache only checks the revision of its cached info nodes after the {@link CacheInvalidationNotifier}
+     * signalled a change, instead of on every use or after the processDefinitionInfoCacheStalenessTime.
+     */
+    protected boolean processDefinitionInfoCacheInvalidationNotifierEnabled;
+
+    /**
+     * If set to true, the id of the latest version of a process definition is cached by key and tenant id, so that starting a process instance by key
+     * doesn't need to query the latest version. The cache is invalidated through the {@link CacheInvalidationNotifier} whenever a deployment changes.
+     * With the default {@link DbPollingCacheInvalidationNotifier}, deployments done on other nodes of a cluster are seen after at most the cacheInvalidationPollInterval.
+     */
+    protected boolean processDefinitionLatestVersionCacheEnabled;
+    protected ProcessDefinitionLatestVersionCache processDefinitionLatestVersionCache;
+    protected CacheInvalidationNotifier cacheInvalidationNotifier;
+    protected long cacheInvalidationPollInterval = 5000L;
+
     protected int knowledgeBaseCacheLimit = -1;
     protected DeploymentCache<Object> knowledgeBaseCache;
 
@@ -606,12 +673,49 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
      */
     protected int asyncExecutorResetExpiredJobsMaxTimeout = 24 * 60 * 60 * 1000;
 
+    /**
+     * Whether the async executor acquires async and timer jobs by locking the selected rows with 'select ... for update skip locked' (or the 'readpast' table hint on SQL Server),
+     * so that executors on different nodes skip the jobs another node is acquiring instead of failing with an optimistic locking exception.
+     * <p>
+     * Only applied on PostgreSQL 9.5, MySQL 8 and MariaDB 10.6 or higher, Oracle and SQL Server. The version is checked when the engine is built,
+     * other databases and older versions keep using the optimistic acquisition.
+     * <p>
+     * By default false.
+     */
+    protected boolean asyncExecutorSkipLockedAcquisitionEnabled;
+
     /**
      * The {@link AsyncExecutor} has a 'cleanup' thread that resets expired jobs so they can be re-acquired by other executors. This setting defines the size of the page being used when fetching these
      * expired jobs.
      */
     protected int asyncExecutorResetExpiredJobsPageSize = 3;
 
+    /**
+     * Whether the async executor keeps the timer jobs that are due within the timer job wheel window in an in-memory timer wheel,
+     * and acquires them at their due date instead of polling the database for due timer jobs every
+     * {@link #asyncExecutorDefaultTimerJobAcquireWaitTime}. The wheel is loaded from the database every {@link #asyncExecutorTimerJobWheelReloadInterval},
+     * so timer jobs created by other nodes can be picked up later than their due date by at most that interval.
+     * <p>
+     * By default false.
+     */
+    protected boolean asyncExecutorTimerJobWheelEnabled;
+
+    /**
+     * The time (in milliseconds) from now in which the timer jobs are due that are loaded in the timer job wheel. Default is 5 minutes.
+     */
+    protected int asyncExecutorTimerJobWheelWindow = 5 * 60 * 1000;
+
+    /**
+     * The maximum number of timer jobs that are loaded in the timer job wheel at once. Default is 10000.
+     */
+    protected int asyncExecutorTimerJobWheelLoadSize = 10000;
+
+    /**
+     * The time (in milliseconds) after which the timer job wheel is loaded again from the database.
+     * By default (-1) the {@link #asyncExecutorDefaultTimerJobAcquireWaitTime} is used.
+     */
+    protected int asyncExecutorTimerJobWheelReloadInterval = -1;
+
     /**
      * Experimental!
      * <p>
@@ -620,6 +724,15 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     protected boolean asyncExecutorMessageQueueMode;
     protected boolean asyncHistoryExecutorMessageQueueMode;
 
+    /**
+     * The maximum number of acquired history jobs that the async history executor applies together in one transaction.
+     * The historic data that is needed by the jobs of such a batch is fetched with a few queries, instead of with queries per job.
+     * When a batch can't be applied, its jobs are applied one by one. Default is 1, meaning every history job is applied in its own transaction.
+     * <p>
+     * (This property is only applicable when using the {@link DefaultAsyncHistoryJobExecutor}).
+     */
+    protected int asyncHistoryExecutorBatchSize = 1;
+
     /**
      * Allows to define a custom factory for creating the {@link Runnable} that is executed by the async executor.
      * <p>
@@ -675,10 +788,16 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
      */
     protected boolean serializableVariableTypeTrackDeserializedObjects = true;
 
+    /**
+     * The directory in which the contents of stream variables are copied to temporary files. When null, the default temporary-file directory is used.
+     */
+    protected File temporaryBytesFileDirectory;
+
     protected ExpressionManager expressionManager;
     protected List<String> customScriptingEngineClasses;
     protected ScriptingEngines scriptingEngines;
     protected List<ResolverFactory> resolverFactories;
+    protected int compiledScriptCacheLimit = 1000; // Only used when the compiled script cache is enabled in the performance settings
 
     protected BusinessCalendarManager businessCalendarManager;
 
@@ -737,6 +856,13 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
      */
     protected boolean isBulkInsertEnabled = true;
 
+    /**
+     * If set to true, the {@link PrefetchingDbIdGenerator} is used instead of the {@link DbIdGenerator}: ids are handed out without locking and the next id block
+     * is fetched in the background before the current one runs out. The block size grows with the consumption rate, from the idBlockSize up to the maxIdBlockSize.
+     */
+    protected boolean idBlockPrefetchEnabled;
+    protected int maxIdBlockSize = 50000;
+
     protected ObjectMapper objectMapper = new ObjectMapper();
 
     /**
@@ -746,6 +872,21 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
     protected PerformanceSettings performanceSettings = new PerformanceSettings();
 
+    /**
+     * Executor on which the {@link org.flowable.engine.common.api.delegate.event.FlowableNonTransactionalEventListener}s are notified, so the
+     * operation that dispatches an event doesn't wait for them. When not set and the pool size is larger than 0, a thread pool with that number
+     * of threads and a queue of the given size is created. When the queue is full, the listener is notified in the dispatching thread.
+     * The executor is shut down when the engine is closed, unless it was set on this configuration.
+     */
+    protected ExecutorService nonTransactionalEventListenerExecutor;
+    protected int nonTransactionalEventListenerExecutorPoolSize;
+    protected int nonTransactionalEventListenerExecutorQueueSize = 1000;
+
+    /**
+     * The executor for the non-transactional event listeners, if it was created by the engine rather than set on this configuration.
+     */
+    protected ExecutorService createdNonTransactionalEventListenerExecutor;
+
     // agenda factory
     protected FlowableEngineAgendaFactory agendaFactory;
 
@@ -826,7 +967,9 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         initListenerFactory();
         initBpmnParser();
         initProcessDefinitionCache();
+        initCacheInvalidationNotifier();
         initProcessDefinitionInfoCache();
+        initProcessDefinitionLatestVersionCache();
         initAppResourceCache();
         initKnowledgeBaseCache();
         initJobHandlers();
@@ -857,6 +1000,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         initJobServiceConfiguration();
         initAsyncExecutor();
         initAsyncHistoryExecutor();
+        initAsyncHistorySinkApplier();
         configuratorsAfterInit();
         afterInitTaskServiceConfiguration();
     }
@@ -1162,6 +1306,14 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     }
 
     protected void initDefaultAsyncHistoryListener() {
+        if (asyncHistorySink != null) {
+            AsyncHistorySinkListener asyncHistorySinkListener = new AsyncHistorySinkListener(asyncHistorySink);
+            asyncHistorySinkListener.setHistoryJobFallback(asyncHistorySinkHistoryJobFallback);
+            asyncHistorySinkListener.setRecoveryTimeInMillis(asyncHistorySinkRecoveryTime);
+            asyncHistoryListener = asyncHistorySinkListener;
+            return;
+        }
+
         DefaultAsyncHistoryJobProducer asyncHistoryJobProducer = new DefaultAsyncHistoryJobProducer();
         //asyncHistoryJobProducer.setJsonGzipCompressionEnabled(isAsyncHistoryJsonGzipCompressionEnabled);
         //asyncHistoryJobProducer.setAsyncHistoryJsonGroupingEnabled(isAsyncHistoryJsonGroupingEnabled);
@@ -1257,6 +1409,8 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
         this.variableServiceConfiguration.setMaxLengthString(this.getMaxLengthString());
         this.variableServiceConfiguration.setSerializableVariableTypeTrackDeserializedObjects(this.isSerializableVariableTypeTrackDeserializedObjects());
+        this.variableServiceConfiguration.setFetchVariablesByName(this.performanceSettings.isEnableVariableFetchByName());
+        this.variableServiceConfiguration.setTemporaryBytesFileDirectory(this.temporaryBytesFileDirectory);
 
         this.variableServiceConfiguration.init();
 
@@ -1302,6 +1456,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         
         this.taskServiceConfiguration.setEnableTaskRelationshipCounts(this.performanceSettings.isEnableTaskRelationshipCounts());
         this.taskServiceConfiguration.setEnableLocalization(this.performanceSettings.isEnableLocalization());
+        this.taskServiceConfiguration.setEnableTwoPhaseVariableQueries(this.performanceSettings.isEnableTwoPhaseVariableQueries());
         this.taskServiceConfiguration.setTaskQueryLimit(this.taskQueryLimit);
         this.taskServiceConfiguration.setHistoricTaskQueryLimit(this.historicTaskQueryLimit);
         
@@ -1326,6 +1481,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         this.jobServiceConfiguration.setAsyncRunnableExecutionExceptionHandler(this.asyncRunnableExecutionExceptionHandler);
         this.jobServiceConfiguration.setAsyncExecutorNumberOfRetries(this.asyncExecutorNumberOfRetries);
         this.jobServiceConfiguration.setAsyncExecutorResetExpiredJobsMaxTimeout(this.asyncExecutorResetExpiredJobsMaxTimeout);
+        this.jobServiceConfiguration.setAsyncExecutorSkipLockedAcquisitionEnabled(this.asyncExecutorSkipLockedAcquisitionEnabled && isSkipLockedAcquisitionSupported());
         
         if (this.jobManager != null) {
             this.jobServiceConfiguration.setJobManager(this.jobManager);
@@ -1342,6 +1498,58 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         addServiceConfiguration(EngineConfigurationConstants.KEY_JOB_SERVICE_CONFIG, this.jobServiceConfiguration);
     }
 
+    protected boolean isSkipLockedAcquisitionSupported() {
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            DatabaseMetaData databaseMetaData = connection.getMetaData();
+            boolean supported = isSkipLockedAcquisitionSupported(databaseType, databaseMetaData.getDatabaseProductVersion(),
+                    databaseMetaData.getDatabaseMajorVersion(), databaseMetaData.getDatabaseMinorVersion());
+            if (!supported) {
+                LOGGER.info("Skip locked job acquisition is not supported by {} {}, using the regular job acquisition", databaseType, databaseMetaData.getDatabaseProductVersion());
+            }
+            return supported;
+
+        } catch (SQLException e) {
+            LOGGER.warn("Could not get the database version, using the regular job acquisition", e);
+            return false;
+        } finally {
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    LOGGER.error("Exception while closing the Database connection", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether the given database version supports the locking used by the skip locked job acquisition: 'for update skip locked' on PostgreSQL 9.5,
+     * MySQL 8 and MariaDB 10.6 or higher and Oracle, and the 'readpast' table hint on SQL Server.
+     */
+    public boolean isSkipLockedAcquisitionSupported(String databaseType, String databaseProductVersion, int majorVersion, int minorVersion) {
+        if (DATABASE_TYPE_POSTGRES.equals(databaseType)) {
+            return majorVersion > 9 || (majorVersion == 9 && minorVersion >= 5);
+
+        } else if (DATABASE_TYPE_MYSQL.equals(databaseType)) {
+            if (databaseProductVersion != null && databaseProductVersion.contains("MariaDB")) {
+                // MariaDB reports itself as MySQL, possibly with a '5.5.5-' prefix before its own version
+                Matcher matcher = Pattern.compile("(?:5\\.5\\.5-)?(\\d+)\\.(\\d+)").matcher(databaseProductVersion);
+                if (!matcher.find()) {
+                    return false;
+                }
+                int mariaDbMajorVersion = Integer.parseInt(matcher.group(1));
+                int mariaDbMinorVersion = Integer.parseInt(matcher.group(2));
+                return mariaDbMajorVersion > 10 || (mariaDbMajorVersion == 10 && mariaDbMinorVersion >= 6);
+            }
+            return majorVersion >= 8;
+
+        } else {
+            return DATABASE_TYPE_ORACLE.equals(databaseType) || DATABASE_TYPE_MSSQL.equals(databaseType);
+        }
+    }
+
     public void configuratorsAfterInit() {
         for (ProcessEngineConfigurator configurator : allConfigurators) {
             LOGGER.info("Executing configure() of {} (priority:{})", configurator.getClass(), configurator.getPriority());
@@ -1376,6 +1584,25 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
             } else {
                 processDefinitionInfoCache = new ProcessDefinitionInfoCache(commandExecutor, processDefinitionInfoCacheLimit);
             }
+
+            processDefinitionInfoCache.setStalenessTime(processDefinitionInfoCacheStalenessTime);
+            if (processDefinitionInfoCacheInvalidationNotifierEnabled) {
+                processDefinitionInfoCache.setCacheInvalidationNotifier(cacheInvalidationNotifier);
+                cacheInvalidationNotifier.addCacheInvalidationListener(ProcessDefinitionInfoCache.CACHE_NAME, processDefinitionInfoCache);
+            }
+        }
+    }
+
+    public void initCacheInvalidationNotifier() {
+        if (cacheInvalidationNotifier == null) {
+            cacheInvalidationNotifier = new DbPollingCacheInvalidationNotifier(cacheInvalidationPollInterval);
+        }
+    }
+
+    public void initProcessDefinitionLatestVersionCache() {
+        if (processDefinitionLatestVersionCacheEnabled && processDefinitionLatestVersionCache == null) {
+            processDefinitionLatestVersionCache = new ProcessDefinitionLatestVersionCache();
+            cacheInvalidationNotifier.addCacheInvalidationListener(ProcessDefinitionLatestVersionCache.CACHE_NAME, processDefinitionLatestVersionCache);
         }
     }
 
@@ -1417,6 +1644,8 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
             deploymentManager.setProcessDefinitionCache(processDefinitionCache);
             deploymentManager.setProcessDefinitionInfoCache(processDefinitionInfoCache);
+            deploymentManager.setProcessDefinitionLatestVersionCache(processDefinitionLatestVersionCache);
+            deploymentManager.setCacheInvalidationNotifier(cacheInvalidationNotifier);
             deploymentManager.setAppResourceCache(appResourceCache);
             deploymentManager.setKnowledgeBaseCache(knowledgeBaseCache);
             deploymentManager.setProcessEngineConfiguration(this);
@@ -1620,6 +1849,9 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         AsyncContinuationJobHandler asyncContinuationJobHandler = new AsyncContinuationJobHandler();
         jobHandlers.put(asyncContinuationJobHandler.getType(), asyncContinuationJobHandler);
 
+        AsyncTriggerJobHandler asyncTriggerJobHandler = new AsyncTriggerJobHandler();
+        jobHandlers.put(asyncTriggerJobHandler.getType(), asyncTriggerJobHandler);
+
         TriggerTimerEventJobHandler triggerTimerEventJobHandler = new TriggerTimerEventJobHandler();
         jobHandlers.put(triggerTimerEventJobHandler.getType(), triggerTimerEventJobHandler);
 
@@ -1649,7 +1881,8 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
             AsyncHistoryJobHandler asyncHistoryJobHandler = new AsyncHistoryJobHandler();
             asyncHistoryJobHandler.initDefaultTransformers();
-            asyncHistoryJobHandler.setAsyncHistoryJsonGroupingEnabled(isAsyncHistoryJsonGroupingEnabled);
+            // The history jobs of the async history sink always hold the history data of a transaction as one json array
+            asyncHistoryJobHandler.setAsyncHistoryJsonGroupingEnabled(isAsyncHistoryJsonGroupingEnabled || asyncHistorySink != null);
             historyJobHandlers.put(asyncHistoryJobHandler.getType(), asyncHistoryJobHandler);
 
             AsyncHistoryJobZippedHandler asyncHistoryJobZippedHandler = new AsyncHistoryJobZippedHandler();
@@ -1707,6 +1940,12 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
             defaultAsyncExecutor.setResetExpiredJobsInterval(asyncExecutorResetExpiredJobsInterval);
             defaultAsyncExecutor.setResetExpiredJobsPageSize(asyncExecutorResetExpiredJobsPageSize);
 
+            // Timer job wheel
+            defaultAsyncExecutor.setTimerJobWheelEnabled(asyncExecutorTimerJobWheelEnabled);
+            defaultAsyncExecutor.setTimerJobWheelWindowInMillis(asyncExecutorTimerJobWheelWindow);
+            defaultAsyncExecutor.setTimerJobWheelLoadSize(asyncExecutorTimerJobWheelLoadSize);
+            defaultAsyncExecutor.setTimerJobWheelReloadIntervalInMillis(asyncExecutorTimerJobWheelReloadInterval);
+
             // Shutdown
             defaultAsyncExecutor.setSecondsToWaitOnShutdown(asyncExecutorSecondsToWaitOnShutdown);
 
@@ -1720,7 +1959,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
     public void initAsyncHistoryExecutor() {
         if (asyncHistoryExecutor == null) {
-            DefaultAsyncJobExecutor defaultAsyncHistoryExecutor = new DefaultAsyncHistoryJobExecutor();
+            DefaultAsyncHistoryJobExecutor defaultAsyncHistoryExecutor = new DefaultAsyncHistoryJobExecutor();
 
             // Message queue mode
             defaultAsyncHistoryExecutor.setMessageQueueMode(asyncHistoryExecutorMessageQueueMode);
@@ -1755,12 +1994,27 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
             // Shutdown
             defaultAsyncHistoryExecutor.setSecondsToWaitOnShutdown(asyncExecutorSecondsToWaitOnShutdown);
 
+            // Batching
+            if (asyncHistoryExecutorBatchSize > 1) {
+                defaultAsyncHistoryExecutor.setHistoryJobBatchSize(asyncHistoryExecutorBatchSize);
+                defaultAsyncHistoryExecutor.setMaxAsyncJobsDuePerAcquisition(asyncHistoryExecutorBatchSize);
+            }
+
             asyncHistoryExecutor = defaultAsyncHistoryExecutor;
         }
 
         asyncHistoryExecutor.setJobServiceConfiguration(jobServiceConfiguration);
         asyncHistoryExecutor.setAutoActivate(asyncHistoryExecutorActivate);
     }
+
+    public void initAsyncHistorySinkApplier() {
+        if (isAsyncHistoryEnabled && asyncHistorySink != null && asyncHistorySinkApplier == null) {
+            asyncHistorySinkApplier = new AsyncHistorySinkApplier(this, asyncHistorySink);
+            asyncHistorySinkApplier.setMaxRecordsPerTransaction(asyncHistorySinkApplierMaxRecordsPerTransaction);
+            asyncHistorySinkApplier.setIdleWaitTimeInMillis(asyncHistorySinkApplierIdleWaitTime);
+            asyncHistorySinkApplier.setAutoActivate(asyncHistorySinkApplierActivate);
+        }
+    }
     
     // history
     // //////////////////////////////////////////////////////////////////
@@ -1778,7 +2032,14 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     public void initIdGenerator() {
         if (idGenerator == null) {
             CommandExecutor idGeneratorCommandExecutor = getCommandExecutor();
-            DbIdGenerator dbIdGenerator = new DbIdGenerator();
+            DbIdGenerator dbIdGenerator;
+            if (idBlockPrefetchEnabled) {
+                PrefetchingDbIdGenerator prefetchingDbIdGenerator = new PrefetchingDbIdGenerator();
+                prefetchingDbIdGenerator.setMaxIdBlockSize(maxIdBlockSize);
+                dbIdGenerator = prefetchingDbIdGenerator;
+            } else {
+                dbIdGenerator = new DbIdGenerator();
+            }
             dbIdGenerator.setIdBlockSize(idBlockSize);
             dbIdGenerator.setCommandExecutor(idGeneratorCommandExecutor);
             dbIdGenerator.setCommandConfig(getDefaultCommandConfig().transactionRequiresNew());
@@ -1832,6 +2093,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
             variableTypes.addType(new JsonType(getMaxLengthString(), objectMapper));
             variableTypes.addType(new LongJsonType(getMaxLengthString() + 1, objectMapper));
             variableTypes.addType(new ByteArrayType());
+            variableTypes.addType(new InputStreamType());
             variableTypes.addType(new SerializableType(serializableVariableTypeTrackDeserializedObjects));
             variableTypes.addType(new CustomObjectType("item", ItemInstance.class));
             variableTypes.addType(new CustomObjectType("message", MessageInstance.class));
@@ -1895,6 +2157,9 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         if (scriptingEngines == null) {
             scriptingEngines = new ScriptingEngines(new ScriptBindingsFactory(this, resolverFactories));
         }
+        if (performanceSettings.isEnableCompiledScriptCache() && scriptingEngines.getCompiledScriptCache() == null) {
+            scriptingEngines.setCompiledScriptCache(new CompiledScriptCache<CompiledScript>(compiledScriptCacheLimit));
+        }
     }
 
     public void initExpressionManager() {
@@ -1992,6 +2257,16 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
         this.eventDispatcher.setEnabled(enableEventDispatcher);
 
+        if (nonTransactionalEventListenerExecutor == null && nonTransactionalEventListenerExecutorPoolSize > 0) {
+            BasicThreadFactory threadFactory = new BasicThreadFactory.Builder().namingPattern("flowable-event-listener-thread-%d").daemon(true).build();
+            nonTransactionalEventListenerExecutor = new ThreadPoolExecutor(nonTransactionalEventListenerExecutorPoolSize, nonTransactionalEventListenerExecutorPoolSize,
+                    0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(nonTransactionalEventListenerExecutorQueueSize), threadFactory);
+            createdNonTransactionalEventListenerExecutor = nonTransactionalEventListenerExecutor;
+        }
+        if (nonTransactionalEventListenerExecutor != null && this.eventDispatcher instanceof FlowableEventDispatcherImpl) {
+            ((FlowableEventDispatcherImpl) this.eventDispatcher).getEventSupport().setNonTransactionalListenerExecutor(nonTransactionalEventListenerExecutor);
+        }
+
         if (eventListeners != null) {
             for (FlowableEventListener listenerToAdd : eventListeners) {
                 this.eventDispatcher.addEventListener(listenerToAdd);
@@ -2372,6 +2647,24 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         return this;
     }
 
+    public boolean isIdBlockPrefetchEnabled() {
+        return idBlockPrefetchEnabled;
+    }
+
+    public ProcessEngineConfigurationImpl setIdBlockPrefetchEnabled(boolean idBlockPrefetchEnabled) {
+        this.idBlockPrefetchEnabled = idBlockPrefetchEnabled;
+        return this;
+    }
+
+    public int getMaxIdBlockSize() {
+        return maxIdBlockSize;
+    }
+
+    public ProcessEngineConfigurationImpl setMaxIdBlockSize(int maxIdBlockSize) {
+        this.maxIdBlockSize = maxIdBlockSize;
+        return this;
+    }
+
     public String getWsSyncFactoryClassName() {
         return wsSyncFactoryClassName;
     }
@@ -2473,6 +2766,15 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         this.serializableVariableTypeTrackDeserializedObjects = serializableVariableTypeTrackDeserializedObjects;
     }
 
+    public File getTemporaryBytesFileDirectory() {
+        return temporaryBytesFileDirectory;
+    }
+
+    public ProcessEngineConfigurationImpl setTemporaryBytesFileDirectory(File temporaryBytesFileDirectory) {
+        this.temporaryBytesFileDirectory = temporaryBytesFileDirectory;
+        return this;
+    }
+
     public ExpressionManager getExpressionManager() {
         return expressionManager;
     }
@@ -2816,6 +3118,15 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         return this;
     }
 
+    public int getCompiledScriptCacheLimit() {
+        return compiledScriptCacheLimit;
+    }
+
+    public ProcessEngineConfigurationImpl setCompiledScriptCacheLimit(int compiledScriptCacheLimit) {
+        this.compiledScriptCacheLimit = compiledScriptCacheLimit;
+        return this;
+    }
+
     public DeploymentCache<ProcessDefinitionCacheEntry> getProcessDefinitionCache() {
         return processDefinitionCache;
     }
@@ -2843,6 +3154,60 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         return this;
     }
 
+    public long getProcessDefinitionInfoCacheStalenessTime() {
+        return processDefinitionInfoCacheStalenessTime;
+    }
+
+    public ProcessEngineConfigurationImpl setProcessDefinitionInfoCacheStalenessTime(long processDefinitionInfoCacheStalenessTime) {
+        this.processDefinitionInfoCacheStalenessTime = processDefinitionInfoCacheStalenessTime;
+        return this;
+    }
+
+    public boolean isProcessDefinitionInfoCacheInvalidationNotifierEnabled() {
+        return processDefinitionInfoCacheInvalidationNotifierEnabled;
+    }
+
+    public ProcessEngineConfigurationImpl setProcessDefinitionInfoCacheInvalidationNotifierEnabled(boolean processDefinitionInfoCacheInvalidationNotifierEnabled) {
+        this.processDefinitionInfoCacheInvalidationNotifierEnabled = processDefinitionInfoCacheInvalidationNotifierEnabled;
+        return this;
+    }
+
+    public boolean isProcessDefinitionLatestVersionCacheEnabled() {
+        return processDefinitionLatestVersionCacheEnabled;
+    }
+
+    public ProcessEngineConfigurationImpl setProcessDefinitionLatestVersionCacheEnabled(boolean processDefinitionLatestVersionCacheEnabled) {
+        this.processDefinitionLatestVersionCacheEnabled = processDefinitionLatestVersionCacheEnabled;
+        return this;
+    }
+
+    public ProcessDefinitionLatestVersionCache getProcessDefinitionLatestVersionCache() {
+        return processDefinitionLatestVersionCache;
+    }
+
+    public ProcessEngineConfigurationImpl setProcessDefinitionLatestVersionCache(ProcessDefinitionLatestVersionCache processDefinitionLatestVersionCache) {
+        this.processDefinitionLatestVersionCache = processDefinitionLatestVersionCache;
+        return this;
+    }
+
+    public CacheInvalidationNotifier getCacheInvalidationNotifier() {
+        return cacheInvalidationNotifier;
+    }
+
+    public ProcessEngineConfigurationImpl setCacheInvalidationNotifier(CacheInvalidationNotifier cacheInvalidationNotifier) {
+        this.cacheInvalidationNotifier = cacheInvalidationNotifier;
+        return this;
+    }
+
+    public long getCacheInvalidationPollInterval() {
+        return cacheInvalidationPollInterval;
+    }
+
+    public ProcessEngineConfigurationImpl setCacheInvalidationPollInterval(long cacheInvalidationPollInterval) {
+        this.cacheInvalidationPollInterval = cacheInvalidationPollInterval;
+        return this;
+    }
+
     public DeploymentCache<Object> getAppResourceCache() {
         return appResourceCache;
     }
@@ -3000,6 +3365,64 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         return this;
     }
 
+    public ProcessEngineConfigurationImpl setEnableAgendaOperationPooling(boolean enableAgendaOperationPooling) {
+        this.performanceSettings.setEnableAgendaOperationPooling(enableAgendaOperationPooling);
+        return this;
+    }
+
+    public ProcessEngineConfigurationImpl setEnableVariableFetchByName(boolean enableVariableFetchByName) {
+        this.performanceSettings.setEnableVariableFetchByName(enableVariableFetchByName);
+        return this;
+    }
+
+    public ProcessEngineConfigurationImpl setEnableCompiledScriptCache(boolean enableCompiledScriptCache) {
+        this.performanceSettings.setEnableCompiledScriptCache(enableCompiledScriptCache);
+        return this;
+    }
+
+    public ProcessEngineConfigurationImpl setEnableTwoPhaseVariableQueries(boolean enableTwoPhaseVariableQueries) {
+        this.performanceSettings.setEnableTwoPhaseVariableQueries(enableTwoPhaseVariableQueries);
+        return this;
+    }
+
+    public ExecutorService getNonTransactionalEventListenerExecutor() {
+        return nonTransactionalEventListenerExecutor;
+    }
+
+    public ProcessEngineConfigurationImpl setNonTransactionalEventListenerExecutor(ExecutorService nonTransactionalEventListenerExecutor) {
+        this.nonTransactionalEventListenerExecutor = nonTransactionalEventListenerExecutor;
+        return this;
+    }
+
+    /**
+     * Shuts down the executor for the non-transactional event listeners if it was created by the engine. An executor that was set
+     * with {@link #setNonTransactionalEventListenerExecutor(ExecutorService)} is left running, it's managed by whoever created it.
+     */
+    public void shutdownNonTransactionalEventListenerExecutor() {
+        if (createdNonTransactionalEventListenerExecutor != null) {
+            createdNonTransactionalEventListenerExecutor.shutdown();
+            createdNonTransactionalEventListenerExecutor = null;
+        }
+    }
+
+    public int getNonTransactionalEventListenerExecutorPoolSize() {
+        return nonTransactionalEventListenerExecutorPoolSize;
+    }
+
+    public ProcessEngineConfigurationImpl setNonTransactionalEventListenerExecutorPoolSize(int nonTransactionalEventListenerExecutorPoolSize) {
+        this.nonTransactionalEventListenerExecutorPoolSize = nonTransactionalEventListenerExecutorPoolSize;
+        return this;
+    }
+
+    public int getNonTransactionalEventListenerExecutorQueueSize() {
+        return nonTransactionalEventListenerExecutorQueueSize;
+    }
+
+    public ProcessEngineConfigurationImpl setNonTransactionalEventListenerExecutorQueueSize(int nonTransactionalEventListenerExecutorQueueSize) {
+        this.nonTransactionalEventListenerExecutorQueueSize = nonTransactionalEventListenerExecutorQueueSize;
+        return this;
+    }
+
     public AttachmentDataManager getAttachmentDataManager() {
         return attachmentDataManager;
     }
@@ -3355,6 +3778,69 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         return this;
     }
 
+    public AsyncHistorySink getAsyncHistorySink() {
+        return asyncHistorySink;
+    }
+
+    public ProcessEngineConfigurationImpl setAsyncHistorySink(AsyncHistorySink asyncHistorySink) {
+        this.asyncHistorySink = asyncHistorySink;
+        return this;
+    }
+
+    public AsyncHistorySinkApplier getAsyncHistorySinkApplier() {
+        return asyncHistorySinkApplier;
+    }
+
+    public ProcessEngineConfigurationImpl setAsyncHistorySinkApplier(AsyncHistorySinkApplier asyncHistorySinkApplier) {
+        this.asyncHistorySinkApplier = asyncHistorySinkApplier;
+        return this;
+    }
+
+    public boolean isAsyncHistorySinkApplierActivate() {
+        return asyncHistorySinkApplierActivate;
+    }
+
+    public ProcessEngineConfigurationImpl setAsyncHistorySinkApplierActivate(boolean asyncHistorySinkApplierActivate) {
+        this.asyncHistorySinkApplierActivate = asyncHistorySinkApplierActivate;
+        return this;
+    }
+
+    public int getAsyncHistorySinkApplierMaxRecordsPerTransaction() {
+        return asyncHistorySinkApplierMaxRecordsPerTransaction;
+    }
+
+    public ProcessEngineConfigurationImpl setAsyncHistorySinkApplierMaxRecordsPerTransaction(int asyncHistorySinkApplierMaxRecordsPerTransaction) {
+        this.asyncHistorySinkApplierMaxRecordsPerTransaction = asyncHistorySinkApplierMaxRecordsPerTransaction;
+        return this;
+    }
+
+    public boolean isAsyncHistorySinkHistoryJobFallback() {
+        return asyncHistorySinkHistoryJobFallback;
+    }
+
+    public ProcessEngineConfigurationImpl setAsyncHistorySinkHistoryJobFallback(boolean asyncHistorySinkHistoryJobFallback) {
+        this.asyncHistorySinkHistoryJobFallback = asyncHistorySinkHistoryJobFallback;
+        return this;
+    }
+
+    public long getAsyncHistorySinkRecoveryTime() {
+        return asyncHistorySinkRecoveryTime;
+    }
+
+    public ProcessEngineConfigurationImpl setAsyncHistorySinkRecoveryTime(long asyncHistorySinkRecoveryTime) {
+        this.asyncHistorySinkRecoveryTime = asyncHistorySinkRecoveryTime;
+        return this;
+    }
+
+    public long getAsyncHistorySinkApplierIdleWaitTime() {
+        return asyncHistorySinkApplierIdleWaitTime;
+    }
+
+    public ProcessEngineConfigurationImpl setAsyncHistorySinkApplierIdleWaitTime(long asyncHistorySinkApplierIdleWaitTime) {
+        this.asyncHistorySinkApplierIdleWaitTime = asyncHistorySinkApplierIdleWaitTime;
+        return this;
+    }
+
     public JobManager getJobManager() {
         return jobManager;
     }
@@ -3701,6 +4187,15 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         return this;
     }
 
+    public boolean isAsyncExecutorSkipLockedAcquisitionEnabled() {
+        return asyncExecutorSkipLockedAcquisitionEnabled;
+    }
+
+    public ProcessEngineConfigurationImpl setAsyncExecutorSkipLockedAcquisitionEnabled(boolean asyncExecutorSkipLockedAcquisitionEnabled) {
+        this.asyncExecutorSkipLockedAcquisitionEnabled = asyncExecutorSkipLockedAcquisitionEnabled;
+        return this;
+    }
+
     public ExecuteAsyncRunnableFactory getAsyncExecutorExecuteAsyncRunnableFactory() {
         return asyncExecutorExecuteAsyncRunnableFactory;
     }
@@ -3719,6 +4214,42 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         return this;
     }
 
+    public boolean isAsyncExecutorTimerJobWheelEnabled() {
+        return asyncExecutorTimerJobWheelEnabled;
+    }
+
+    public ProcessEngineConfigurationImpl setAsyncExecutorTimerJobWheelEnabled(boolean asyncExecutorTimerJobWheelEnabled) {
+        this.asyncExecutorTimerJobWheelEnabled = asyncExecutorTimerJobWheelEnabled;
+        return this;
+    }
+
+    public int getAsyncExecutorTimerJobWheelWindow() {
+        return asyncExecutorTimerJobWheelWindow;
+    }
+
+    public ProcessEngineConfigurationImpl setAsyncExecutorTimerJobWheelWindow(int asyncExecutorTimerJobWheelWindow) {
+        this.asyncExecutorTimerJobWheelWindow = asyncExecutorTimerJobWheelWindow;
+        return this;
+    }
+
+    public int getAsyncExecutorTimerJobWheelLoadSize() {
+        return asyncExecutorTimerJobWheelLoadSize;
+    }
+
+    public ProcessEngineConfigurationImpl setAsyncExecutorTimerJobWheelLoadSize(int asyncExecutorTimerJobWheelLoadSize) {
+        this.asyncExecutorTimerJobWheelLoadSize = asyncExecutorTimerJobWheelLoadSize;
+        return this;
+    }
+
+    public int getAsyncExecutorTimerJobWheelReloadInterval() {
+        return asyncExecutorTimerJobWheelReloadInterval;
+    }
+
+    public ProcessEngineConfigurationImpl setAsyncExecutorTimerJobWheelReloadInterval(int asyncExecutorTimerJobWheelReloadInterval) {
+        this.asyncExecutorTimerJobWheelReloadInterval = asyncExecutorTimerJobWheelReloadInterval;
+        return this;
+    }
+
     public boolean isAsyncExecutorIsMessageQueueMode() {
         return asyncExecutorMessageQueueMode;
     }
@@ -3736,4 +4267,13 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         this.asyncHistoryExecutorMessageQueueMode = asyncHistoryExecutorMessageQueueMode;
         return this;
     }
+
+    public int getAsyncHistoryExecutorBatchSize() {
+        return asyncHistoryExecutorBatchSize;
+    }
+
+    public ProcessEngineConfigurationImpl setAsyncHistoryExecutorBatchSize(int asyncHistoryExecutorBatchSize) {
+        this.asyncHistoryExecutorBatchSize = asyncHistoryExecutorBatchSize;
+        return this;
+    }
 }
@@ -56,6 +56,7 @@ public class ChangeDeploymentTenantIdCmd implements Command<Void>, Serializable
 
         if (Flowable5Util.isFlowable5Deployment(deployment, commandContext)) {
             CommandContextUtil.getProcessEngineConfiguration(commandContext).getFlowable5CompatibilityHandler().changeDeploymentTenantId(deploymentId, newTenantId);
+            CommandContextUtil.getProcessEngineConfiguration(commandContext).getDeploymentManager().processDefinitionLatestVersionsChanged();
             return null;
         }
 
@@ -78,6 +79,7 @@ public class ChangeDeploymentTenantIdCmd implements Command<Void>, Serializable
 
         // Clear process definition cache
         CommandContextUtil.getProcessEngineConfiguration(commandContext).getProcessDefinitionCache().clear();
+        CommandContextUtil.getProcessEngineConfiguration(commandContext).getDeploymentManager().processDefinitionLatestVersionsChanged();
 
         return null;
 
@@ -139,7 +139,9 @@ public class DeployCmd<T> implements Command<Deployment>, Serializable {
             throw new FlowableException("Found Flowable 5 process definition, but no compatibility handler on the classpath. "
                     + "Cannot use the deployment property " + DeploymentProperties.DEPLOY_AS_FLOWABLE5_PROCESS_DEFINITION);
         }
-        return flowable5CompatibilityHandler.deploy(deploymentBuilder);
+        Deployment deployment = flowable5CompatibilityHandler.deploy(deploymentBuilder);
+        CommandContextUtil.getProcessEngineConfiguration(commandContext).getDeploymentManager().processDefinitionLatestVersionsChanged();
+        return deployment;
     }
 
     protected boolean deploymentsDiffer(DeploymentEntity deployment, DeploymentEntity saved) {
@@ -65,6 +65,9 @@ public class SaveProcessDefinitionInfoCmd implements Command<Void>, Serializable
             throw new FlowableException("Unable to serialize info node " + infoNode);
         }
 
+        CommandContextUtil.getProcessEngineConfiguration(commandContext).getDeploymentManager().getProcessDefinitionInfoCache()
+                .processDefinitionInfoChanged(commandContext, processDefinitionId);
+
         return null;
     }
 
@@ -0,0 +1,231 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.impl.db;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.flowable.engine.common.api.FlowableException;
+import org.flowable.engine.common.impl.cfg.IdGenerator;
+import org.flowable.engine.common.impl.db.IdBlock;
+import org.flowable.engine.impl.cmd.GetNextIdBlockCmd;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link IdGenerator} that, like the {@link DbIdGenerator}, reserves blocks of ids in the database, but hands out the ids of the current block without locking
+ * and fetches the next block in the background before the current one runs out.
+ *
+ * The size of the blocks adapts to the consumption rate: it is chosen so that a block lasts about {@link #getTargetBlockDuration()} milliseconds,
+ * between the {@link #getIdBlockSize()} and the {@link #getMaxIdBlockSize()}.
+ *
+ * Threads only wait when a block runs out before the next block has been fetched, or when the fetch of the next block failed.
+ */
+public class PrefetchingDbIdGenerator extends DbIdGenerator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrefetchingDbIdGenerator.class);
+
+    protected int maxIdBlockSize = 50000;
+    protected long targetBlockDuration = 10000L;
+    protected int prefetchPercentage = 25;
+
+    protected final AtomicReference<PrefetchedIdBlock> currentBlock = new AtomicReference<>();
+    protected final AtomicReference<FutureTask<IdBlock>> nextBlock = new AtomicReference<>();
+    protected volatile Executor prefetchExecutor;
+    protected ExecutorService createdPrefetchExecutor;
+
+    @Override
+    public String getNextId() {
+        while (true) {
+            PrefetchedIdBlock block = currentBlock.get();
+            if (block != null) {
+                long id = block.nextId.getAndIncrement();
+                if (id <= block.lastId) {
+                    if (id == block.prefetchId) {
+                        prefetchNextBlock(block, id);
+                    }
+                    return Long.toString(id);
+                }
+            }
+            switchToNextBlock(block);
+        }
+    }
+
+    protected void prefetchNextBlock(PrefetchedIdBlock block, long id) {
+        long consumedIds = id - block.firstId + 1;
+        long elapsedTime = Math.max(1L, System.currentTimeMillis() - block.startTime);
+        final int blockSize = determineBlockSize(consumedIds * targetBlockDuration / elapsedTime);
+
+        FutureTask<IdBlock> fetchTask = new FutureTask<>(new Callable<IdBlock>() {
+
+            @Override
+            public IdBlock call() throws Exception {
+                return fetchBlock(blockSize);
+            }
+        });
+
+        if (nextBlock.compareAndSet(null, fetchTask)) {
+            try {
+                getOrCreatePrefetchExecutor().execute(fetchTask);
+            } catch (RejectedExecutionException e) {
+                // e.g. the executor was shut down, the next block is then fetched when the current one runs out
+                nextBlock.compareAndSet(fetchTask, null);
+                LOGGER.debug("Prefetching the next id block was rejected", e);
+            }
+        }
+    }
+
+    /**
+     * Called by the threads that found the current block exhausted, only one of them installs the next block.
+     */
+    protected synchronized void switchToNextBlock(PrefetchedIdBlock exhaustedBlock) {
+        if (currentBlock.get() != exhaustedBlock) {
+            return; // another thread already switched
+        }
+
+        IdBlock idBlock = null;
+        FutureTask<IdBlock> fetchTask = nextBlock.getAndSet(null);
+        if (fetchTask != null) {
+            try {
+                idBlock = fetchTask.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FlowableException("Interrupted while waiting for the next id block", e);
+            } catch (ExecutionException e) {
+                LOGGER.warn("Prefetching the next id block failed, fetching it again", e.getCause());
+            }
+        }
+
+        if (idBlock == null) {
+            // Nothing prefetched yet (first block or prefetching failed)
+            int blockSize = exhaustedBlock != null ? exhaustedBlock.size() : idBlockSize;
+            idBlock = fetchBlock(blockSize);
+        }
+
+        currentBlock.set(new PrefetchedIdBlock(idBlock, prefetchPercentage));
+    }
+
+    protected IdBlock fetchBlock(int blockSize) {
+        return commandExecutor.execute(commandConfig, new GetNextIdBlockCmd(blockSize));
+    }
+
+    protected int determineBlockSize(long expectedConsumption) {
+        return (int) Math.max(idBlockSize, Math.min(maxIdBlockSize, expectedConsumption));
+    }
+
+    protected Executor getOrCreatePrefetchExecutor() {
+        if (prefetchExecutor == null) {
+            synchronized (this) {
+                if (prefetchExecutor == null) {
+                    // A single daemon thread that stops when idle, shut down by shutdown() when the engine is closed
+                    ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+
+                        protected final AtomicInteger threadNumber = new AtomicInteger();
+
+                        @Override
+                        public Thread newThread(Runnable runnable) {
+                            Thread thread = new Thread(runnable, "flowable-id-block-prefetch-" + threadNumber.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+                    threadPoolExecutor.allowCoreThreadTimeOut(true);
+                    createdPrefetchExecutor = threadPoolExecutor;
+                    prefetchExecutor = threadPoolExecutor;
+                }
+            }
+        }
+        return prefetchExecutor;
+    }
+
+    /**
+     * Shuts down the prefetch executor if it was created by this id generator. An executor that was set with {@link #setPrefetchExecutor(Executor)}
+     * is left alone. Called when the process engine is closed.
+     */
+    public synchronized void shutdown() {
+        if (createdPrefetchExecutor != null) {
+            createdPrefetchExecutor.shutdown();
+            if (prefetchExecutor == createdPrefetchExecutor) {
+                prefetchExecutor = null;
+            }
+            createdPrefetchExecutor = null;
+        }
+    }
+
+    public int getMaxIdBlockSize() {
+        return maxIdBlockSize;
+    }
+
+    public void setMaxIdBlockSize(int maxIdBlockSize) {
+        this.maxIdBlockSize = maxIdBlockSize;
+    }
+
+    public long getTargetBlockDuration() {
+        return targetBlockDuration;
+    }
+
+    public void setTargetBlockDuration(long targetBlockDuration) {
+        this.targetBlockDuration = targetBlockDuration;
+    }
+
+    public int getPrefetchPercentage() {
+        return prefetchPercentage;
+    }
+
+    public void setPrefetchPercentage(int prefetchPercentage) {
+        this.prefetchPercentage = prefetchPercentage;
+    }
+
+    public Executor getPrefetchExecutor() {
+        return prefetchExecutor;
+    }
+
+    public void setPrefetchExecutor(Executor prefetchExecutor) {
+        this.prefetchExecutor = prefetchExecutor;
+    }
+
+    /**
+     * An id block that hands out its ids with an atomic counter. The next block is prefetched when the id at the given percentage of the block remaining is handed out.
+     */
+    protected static class PrefetchedIdBlock {
+
+        protected final long firstId;
+        protected final long lastId;
+        protected final long prefetchId;
+        protected final long startTime = System.currentTimeMillis();
+        protected final AtomicLong nextId;
+
+        public PrefetchedIdBlock(IdBlock idBlock, int prefetchPercentage) {
+            this.firstId = idBlock.getNextId();
+            this.lastId = idBlock.getLastId();
+            this.prefetchId = lastId - (size() * prefetchPercentage / 100);
+            this.nextId = new AtomicLong(firstId);
+        }
+
+        public int size() {
+            return (int) (lastId - firstId + 1);
+        }
+
+    }
+}
@@ -222,6 +222,16 @@ public abstract class AbstractHistoryManager extends AbstractManager implements
         // there can never be an entry for a historic activity instance with this execution id.
         if (!execution.isInserted() && !execution.isProcessInstanceType()) {
 
+            // The execution knows the id of its current historic activity instance, so it can be fetched by primary key.
+            // Executions started before that id was kept, or that moved on to an activity without history, use the query below.
+            if (execution.getActivityInstanceId() != null) {
+                HistoricActivityInstanceEntity historicActivityInstance = getHistoricActivityInstanceEntityManager().findById(execution.getActivityInstanceId());
+                if (historicActivityInstance != null && activityId.equals(historicActivityInstance.getActivityId())
+                        && executionId.equals(historicActivityInstance.getExecutionId()) && historicActivityInstance.getEndTime() == null) {
+                    return historicActivityInstance;
+                }
+            }
+
             // Check the database
             List<HistoricActivityInstanceEntity> historicActivityInstances = getHistoricActivityInstanceEntityManager()
                             .findUnfinishedHistoricActivityInstancesByExecutionAndActivityId(executionId, activityId);
@@ -264,6 +274,11 @@ public abstract class AbstractHistoryManager extends AbstractManager implements
         }
 
         getHistoricActivityInstanceEntityManager().insert(historicActivityInstance);
+
+        // Allows ending the historic activity instance by its id when the activity ends in a later transaction
+        execution.setActivityInstanceId(historicActivityInstance.getId());
+        execution.setActivityInstanceStartTime(now);
+
         return historicActivityInstance;
     }
 
@@ -20,7 +20,11 @@ import java.util.Objects;
 
 import org.flowable.engine.common.api.delegate.event.FlowableEngineEventType;
 import org.flowable.engine.common.api.delegate.event.FlowableEventDispatcher;
+import org.flowable.engine.common.api.delegate.event.FlowableEventType;
+import org.flowable.engine.common.impl.event.EventDispatchAction;
+import org.flowable.engine.common.impl.event.FlowableEventDispatcherImpl;
 import org.flowable.engine.common.impl.history.HistoryLevel;
+import org.flowable.engine.delegate.event.impl.BpmnModelEventDispatchAction;
 import org.flowable.engine.delegate.event.impl.FlowableEventBuilder;
 import org.flowable.engine.history.HistoricProcessInstance;
 import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
@@ -197,6 +201,10 @@ public class DefaultHistoryManager extends AbstractHistoryManager {
     @Override
     public void recordActivityEnd(ExecutionEntity executionEntity, String deleteReason) {
         if (isHistoryLevelAtLeast(HistoryLevel.ACTIVITY)) {
+            if (markActivityInstanceEndedWithoutFetching(executionEntity, deleteReason)) {
+                return;
+            }
+
             HistoricActivityInstanceEntity historicActivityInstance = findActivityInstance(executionEntity, false, true);
             if (historicActivityInstance != null) {
                 historicActivityInstance.markEnded(deleteReason);
@@ -211,6 +219,59 @@ public class DefaultHistoryManager extends AbstractHistoryManager {
         }
     }
 
+    /**
+     * Ends the historic activity instance of which the execution knows the id and start time with a single update statement,
+     * when it isn't fetched already and nobody listens to the event that it has ended.
+     */
+    protected boolean markActivityInstanceEndedWithoutFetching(ExecutionEntity executionEntity, String deleteReason) {
+        String activityInstanceId = executionEntity.getActivityInstanceId();
+        Date activityInstanceStartTime = executionEntity.getActivityInstanceStartTime();
+        if (activityInstanceId == null || activityInstanceStartTime == null || executionEntity.isInserted() || executionEntity.isProcessInstanceType()
+                || getEntityCache().findInCache(HistoricActivityInstanceEntity.class, activityInstanceId) != null
+                || hasActivityInstanceEndedListeners(executionEntity)) {
+            return false;
+        }
+
+        String activityId = getActivityIdForExecution(executionEntity);
+        if (activityId == null || getHistoricActivityInstanceFromCache(executionEntity.getId(), activityId, true) != null) {
+            return false;
+        }
+
+        Date endTime = getClock().getCurrentTime();
+        return getHistoricActivityInstanceEntityManager().markHistoricActivityInstanceEnded(activityInstanceId, executionEntity.getId(), activityId,
+                endTime, endTime.getTime() - activityInstanceStartTime.getTime(), deleteReason);
+    }
+
+    /**
+     * Unlike {@link FlowableEventDispatcher#hasListeners(FlowableEventType)}, this only looks at the event listeners
+     * defined in the process definition of the execution, which is known here.
+     */
+    protected boolean hasActivityInstanceEndedListeners(ExecutionEntity executionEntity) {
+        FlowableEventDispatcher eventDispatcher = getEventDispatcher();
+        if (eventDispatcher == null || !eventDispatcher.isEnabled()) {
+            return false;
+        }
+
+        FlowableEngineEventType type = FlowableEngineEventType.HISTORIC_ACTIVITY_INSTANCE_ENDED;
+        if (!(eventDispatcher instanceof FlowableEventDispatcherImpl) || ((FlowableEventDispatcherImpl) eventDispatcher).getEventSupport().hasListeners(type)) {
+            return true;
+        }
+
+        List<EventDispatchAction> eventDispatchActions = getProcessEngineConfiguration().getAdditionalEventDispatchActions();
+        if (eventDispatchActions != null) {
+            for (EventDispatchAction eventDispatchAction : eventDispatchActions) {
+                if (eventDispatchAction instanceof BpmnModelEventDispatchAction) {
+                    if (((BpmnModelEventDispatchAction) eventDispatchAction).hasListeners(executionEntity.getProcessDefinitionId(), type)) {
+                        return true;
+                    }
+                } else if (eventDispatchAction.hasListeners(CommandContextUtil.getCommandContext(), type)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     @Override
     public void recordProcessDefinitionChange(String processInstanceId, String processDefinitionId) {
         if (isHistoryLevelAtLeast(HistoryLevel.ACTIVITY)) {
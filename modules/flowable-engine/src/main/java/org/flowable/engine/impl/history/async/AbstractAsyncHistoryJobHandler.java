@@ -12,17 +12,25 @@
  */
 package org.flowable.engine.impl.history.async;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.flowable.engine.common.api.FlowableException;
 import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.engine.impl.history.async.sink.AsyncHistorySink;
 import org.flowable.engine.impl.util.CommandContextUtil;
-import org.flowable.job.service.HistoryJobHandler;
+import org.flowable.job.service.HistoryJobBatchHandler;
 import org.flowable.job.service.impl.persistence.entity.HistoryJobEntity;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 
-public abstract class AbstractAsyncHistoryJobHandler implements HistoryJobHandler {
+public abstract class AbstractAsyncHistoryJobHandler implements HistoryJobBatchHandler {
 
     protected boolean isAsyncHistoryJsonGroupingEnabled;
 
@@ -54,10 +62,97 @@ public abstract class AbstractAsyncHistoryJobHandler implements HistoryJobHandle
         }
     }
 
+    /**
+     * Applies the history json of the given jobs in one transaction. The json is applied in the order in which the jobs were created,
+     * grouped per process instance. Before that, {@link #prefetchHistoricData(CommandContext, Map)} can fetch the historic data that
+     * is needed by all json with a few queries, so the lookups of the transformers are answered by the entity cache.
+     */
+    @Override
+    public void executeBatch(List<HistoryJobEntity> jobs, CommandContext commandContext) {
+        List<HistoryJobEntity> sortedJobs = new ArrayList<>(jobs);
+        Collections.sort(sortedJobs, new Comparator<HistoryJobEntity>() {
+
+            @Override
+            public int compare(HistoryJobEntity job1, HistoryJobEntity job2) {
+                if (job1.getCreateTime() != null && job2.getCreateTime() != null) {
+                    int result = job1.getCreateTime().compareTo(job2.getCreateTime());
+                    if (result != 0) {
+                        return result;
+                    }
+                }
+
+                // Jobs created in the same millisecond are ordered by id, which follows the creation order with the default id generator
+                int result = Integer.compare(job1.getId().length(), job2.getId().length());
+                return result != 0 ? result : job1.getId().compareTo(job2.getId());
+            }
+        });
+
+        ObjectMapper objectMapper = CommandContextUtil.getProcessEngineConfiguration(commandContext).getObjectMapper();
+        Map<String, List<BatchedHistoryJson>> historyJsonByProcessInstanceId = new LinkedHashMap<>();
+        for (HistoryJobEntity job : sortedJobs) {
+            if (job.getAdvancedJobHandlerConfigurationByteArrayRef() == null) {
+                continue;
+            }
+
+            JsonNode historyNode;
+            try {
+                historyNode = objectMapper.readTree(getJobBytes(job));
+            } catch (Exception e) {
+                throw new FlowableException("Could not deserialize async history json for job (id=" + job.getId() + ")", e);
+            }
+
+            if (isAsyncHistoryJsonGroupingEnabled() && historyNode.isArray()) {
+                for (JsonNode jsonNode : historyNode) {
+                    addBatchedHistoryJson(historyJsonByProcessInstanceId, job, jsonNode);
+                }
+            } else {
+                addBatchedHistoryJson(historyJsonByProcessInstanceId, job, historyNode);
+            }
+        }
+
+        prefetchHistoricData(commandContext, historyJsonByProcessInstanceId);
+
+        for (List<BatchedHistoryJson> processInstanceHistoryJson : historyJsonByProcessInstanceId.values()) {
+            for (BatchedHistoryJson batchedHistoryJson : processInstanceHistoryJson) {
+                processHistoryJson(commandContext, batchedHistoryJson.getJob(), batchedHistoryJson.getHistoryNode());
+            }
+        }
+    }
+
+    protected void addBatchedHistoryJson(Map<String, List<BatchedHistoryJson>> historyJsonByProcessInstanceId, HistoryJobEntity job, JsonNode historyNode) {
+        String processInstanceId = null;
+        JsonNode dataNode = historyNode.get(HistoryJsonConstants.DATA);
+        if (dataNode != null && dataNode.hasNonNull(HistoryJsonConstants.PROCESS_INSTANCE_ID)) {
+            processInstanceId = dataNode.get(HistoryJsonConstants.PROCESS_INSTANCE_ID).asText();
+        }
+
+        List<BatchedHistoryJson> processInstanceHistoryJson = historyJsonByProcessInstanceId.get(processInstanceId);
+        if (processInstanceHistoryJson == null) {
+            processInstanceHistoryJson = new ArrayList<>();
+            historyJsonByProcessInstanceId.put(processInstanceId, processInstanceHistoryJson);
+        }
+        processInstanceHistoryJson.add(new BatchedHistoryJson(job, historyNode));
+    }
+
+    /**
+     * Called by {@link #executeBatch(List, CommandContext)} before any history json of the batch is applied.
+     * The history json is keyed by process instance id; json that doesn't belong to a process instance has a null key.
+     */
+    protected void prefetchHistoricData(CommandContext commandContext, Map<String, List<BatchedHistoryJson>> historyJsonByProcessInstanceId) {
+        // Nothing is fetched up front by default
+    }
+
     protected byte[] getJobBytes(HistoryJobEntity job) {
         return job.getAdvancedJobHandlerConfigurationByteArrayRef().getBytes();
     }
 
+    /**
+     * Applies history json that was not read from the given job, for example because it was read from an {@link AsyncHistorySink}.
+     */
+    public void handleHistoryJson(CommandContext commandContext, HistoryJobEntity job, JsonNode historyNode) {
+        processHistoryJson(commandContext, job, historyNode);
+    }
+
     protected abstract void processHistoryJson(CommandContext commandContext, HistoryJobEntity job, JsonNode historyNode);
 
     public boolean isAsyncHistoryJsonGroupingEnabled() {
@@ -67,5 +162,25 @@ public abstract class AbstractAsyncHistoryJobHandler implements HistoryJobHandle
     public void setAsyncHistoryJsonGroupingEnabled(boolean isAsyncHistoryJsonGroupingEnabled) {
         this.isAsyncHistoryJsonGroupingEnabled = isAsyncHistoryJsonGroupingEnabled;
     }
+
+    protected static class BatchedHistoryJson {
+
+        protected HistoryJobEntity job;
+        protected JsonNode historyNode;
+
+        public BatchedHistoryJson(HistoryJobEntity job, JsonNode historyNode) {
+            this.job = job;
+            this.historyNode = historyNode;
+        }
+
+        public HistoryJobEntity getJob() {
+            return job;
+        }
+
+        public JsonNode getHistoryNode() {
+            return historyNode;
+        }
+
+    }
     
 }
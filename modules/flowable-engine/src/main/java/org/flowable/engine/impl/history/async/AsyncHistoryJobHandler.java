@@ -13,9 +13,12 @@
 package org.flowable.engine.impl.history.async;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.flowable.engine.common.impl.interceptor.CommandContext;
 import org.flowable.engine.impl.history.async.json.transformer.ActivityEndHistoryJsonTransformer;
@@ -41,6 +44,7 @@ import org.flowable.engine.impl.history.async.json.transformer.TaskPropertyChang
 import org.flowable.engine.impl.history.async.json.transformer.VariableCreatedHistoryJsonTransformer;
 import org.flowable.engine.impl.history.async.json.transformer.VariableRemovedHistoryJsonTransformer;
 import org.flowable.engine.impl.history.async.json.transformer.VariableUpdatedHistoryJsonTransformer;
+import org.flowable.engine.impl.util.CommandContextUtil;
 import org.flowable.job.service.impl.persistence.entity.HistoryJobEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,6 +58,10 @@ public class AsyncHistoryJobHandler extends AbstractAsyncHistoryJobHandler {
 
     public static final String JOB_TYPE = "async-history";
 
+    protected static final Set<String> TASK_TYPES = new HashSet<>(Arrays.asList(HistoryJsonConstants.TYPE_TASK_CREATED,
+            HistoryJsonConstants.TYPE_TASK_ASSIGNEE_CHANGED, HistoryJsonConstants.TYPE_TASK_OWNER_CHANGED,
+            HistoryJsonConstants.TYPE_TASK_PROPERTY_CHANGED, HistoryJsonConstants.TYPE_TASK_ENDED));
+
     protected Map<String, List<HistoryJsonTransformer>> historyJsonTransformers = new HashMap<>();
 
     @Override
@@ -128,6 +136,36 @@ public class AsyncHistoryJobHandler extends AbstractAsyncHistoryJobHandler {
         }
     }
 
+    /**
+     * Fetches the historic process instances, their unfinished historic activity instances and the historic tasks of the batch
+     * with one query each. The fetched entities are kept in the entity cache, where the transformers look them up first.
+     */
+    @Override
+    protected void prefetchHistoricData(CommandContext commandContext, Map<String, List<BatchedHistoryJson>> historyJsonByProcessInstanceId) {
+        Set<String> processInstanceIds = new HashSet<>(historyJsonByProcessInstanceId.keySet());
+        processInstanceIds.remove(null);
+
+        Set<String> taskIds = new HashSet<>();
+        for (List<BatchedHistoryJson> processInstanceHistoryJson : historyJsonByProcessInstanceId.values()) {
+            for (BatchedHistoryJson batchedHistoryJson : processInstanceHistoryJson) {
+                JsonNode historyNode = batchedHistoryJson.getHistoryNode();
+                JsonNode dataNode = historyNode.get(HistoryJsonConstants.DATA);
+                if (historyNode.hasNonNull(HistoryJsonConstants.TYPE) && TASK_TYPES.contains(historyNode.get(HistoryJsonConstants.TYPE).asText())
+                        && dataNode != null && dataNode.hasNonNull(HistoryJsonConstants.ID)) {
+                    taskIds.add(dataNode.get(HistoryJsonConstants.ID).asText());
+                }
+            }
+        }
+
+        if (!processInstanceIds.isEmpty()) {
+            CommandContextUtil.getHistoricProcessInstanceEntityManager(commandContext).findHistoricProcessInstancesByIds(processInstanceIds);
+            CommandContextUtil.getHistoricActivityInstanceEntityManager(commandContext).findUnfinishedHistoricActivityInstancesByProcessInstanceIds(processInstanceIds);
+        }
+        if (!taskIds.isEmpty()) {
+            CommandContextUtil.getHistoricTaskService().findHistoricTasksByIds(taskIds);
+        }
+    }
+
     public Map<String, List<HistoryJsonTransformer>> getHistoryJsonTransformers() {
         return historyJsonTransformers;
     }
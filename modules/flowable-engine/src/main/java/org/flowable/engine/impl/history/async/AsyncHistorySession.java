@@ -23,6 +23,7 @@ import org.flowable.engine.common.impl.context.Context;
 import org.flowable.engine.common.impl.interceptor.CommandContext;
 import org.flowable.engine.common.impl.interceptor.CommandContextCloseListener;
 import org.flowable.engine.common.impl.interceptor.Session;
+import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.flowable.engine.impl.util.CommandContextUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,6 +36,7 @@ public class AsyncHistorySession implements Session {
     protected AsyncHistoryListener asyncHistoryListener;
     protected CommandContextCloseListener commandContextCloseListener;
     protected AsyncHistoryCommittedTransactionListener asyncHistoryCommittedTransactionListener;
+    protected AsyncHistoryCommittedTransactionListener asyncHistoryCommittingTransactionListener;
 
     protected String tenantId;
     protected Map<String, List<Map<String, String>>> jobData;
@@ -44,7 +46,8 @@ public class AsyncHistorySession implements Session {
         this.asyncHistoryListener = asyncHistoryJobListener;
         initCommandContextCloseListener();
         
-        if (CommandContextUtil.getProcessEngineConfiguration(commandContext).isAsyncHistoryExecutorIsMessageQueueMode()) {
+        ProcessEngineConfigurationImpl processEngineConfiguration = CommandContextUtil.getProcessEngineConfiguration(commandContext);
+        if (processEngineConfiguration.isAsyncHistoryExecutorIsMessageQueueMode() || processEngineConfiguration.getAsyncHistorySink() != null) {
             intitTransactionListener();
         }
     }
@@ -68,8 +71,12 @@ public class AsyncHistorySession implements Session {
         if (transactionContext != null) {
             this.asyncHistoryCommittedTransactionListener = new AsyncHistoryCommittedTransactionListener();
             transactionContext.addTransactionListener(TransactionState.COMMITTED, asyncHistoryCommittedTransactionListener);
+
+            // The async history sink stores the history data of the transaction right before the commit
+            this.asyncHistoryCommittingTransactionListener = new AsyncHistoryCommittedTransactionListener();
+            transactionContext.addTransactionListener(TransactionState.COMMITTING, asyncHistoryCommittingTransactionListener);
         } else {
-            LOGGER.warn("No transaction context active, but one is required for proper message queue based async history.");
+            LOGGER.warn("No transaction context active, but one is required for proper message queue or sink based async history.");
         }
     }
 
@@ -121,6 +128,22 @@ public class AsyncHistorySession implements Session {
         this.jobData = jobData;
     }
     
+    public AsyncHistoryCommittedTransactionListener getAsyncHistoryCommittedTransactionListener() {
+        return asyncHistoryCommittedTransactionListener;
+    }
+
+    public AsyncHistoryCommittedTransactionListener getAsyncHistoryCommittingTransactionListener() {
+        return asyncHistoryCommittingTransactionListener;
+    }
+
+    public void addAsyncHistoryRunnableBeforeCommit(Runnable runnable) {
+        if (asyncHistoryCommittingTransactionListener != null) {
+            asyncHistoryCommittingTransactionListener.addRunnable(runnable);
+        } else {
+            LOGGER.warn("Cannot register a Runnable instance when no transaction listener is active");
+        }
+    }
+
     public void addAsyncHistoryRunnableAfterCommit(Runnable runnable) {
         if (asyncHistoryCommittedTransactionListener != null) {
             asyncHistoryCommittedTransactionListener.addRunnable(runnable);
@@ -0,0 +1,54 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.impl.history.async.sink;
+
+import java.util.List;
+
+/**
+ * An ordered log that durably stores the async history data of transactions, so it is applied without the async history executor
+ * having to acquire and lock history jobs, and without storing the history data in the database first.
+ *
+ * Every record has a position, and the position of the next record is always higher. This is the model of a partition of a message broker topic
+ * (where the position is the offset), so such a broker can be plugged in by implementing this interface. The {@link AsyncHistorySinkApplier}
+ * keeps the position up to which the records are applied in the database, in the same transaction as the applied history. The positions are
+ * kept per sink name, so every engine that reads a sink with a given name must see the same records at the same positions.
+ *
+ * Implementations must be thread safe.
+ */
+public interface AsyncHistorySink {
+
+    /**
+     * The name of the sink, which identifies the applied position in the database.
+     * At most {@link AsyncHistorySinkApplier#MAX_SINK_NAME_LENGTH} (38) characters, which is checked when the applier is created.
+     */
+    String getName();
+
+    /**
+     * Appends a record with the given data. When this method returns, the record must be stored durably.
+     */
+    void append(byte[] data);
+
+    /**
+     * Returns at most the given number of records, starting at the given position. When the records at the given position are no longer
+     * available because they were acknowledged, the first available record is returned first.
+     */
+    List<AsyncHistorySinkRecord> read(long position, int maxRecords);
+
+    /**
+     * Signals that all records before the given position are applied, so they don't need to be kept any longer.
+     */
+    void acknowledge(long position);
+
+    void close();
+
+}
@@ -0,0 +1,385 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.impl.history.async.sink;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flowable.engine.common.api.FlowableException;
+import org.flowable.engine.common.api.FlowableIllegalArgumentException;
+import org.flowable.engine.common.api.FlowableOptimisticLockingException;
+import org.flowable.engine.common.impl.interceptor.Command;
+import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.engine.common.impl.interceptor.CommandExecutor;
+import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.flowable.engine.impl.history.async.AbstractAsyncHistoryJobHandler;
+import org.flowable.engine.impl.history.async.AsyncHistoryJobHandler;
+import org.flowable.engine.impl.history.async.AsyncHistoryJobNotApplicableException;
+import org.flowable.engine.impl.history.async.DefaultAsyncHistoryJobProducer;
+import org.flowable.engine.impl.persistence.entity.PropertyEntity;
+import org.flowable.engine.impl.persistence.entity.PropertyEntityManager;
+import org.flowable.engine.impl.util.CommandContextUtil;
+import org.flowable.job.service.impl.persistence.entity.HistoryJobEntity;
+import org.flowable.job.service.impl.persistence.entity.HistoryJobEntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Applies the records of an {@link AsyncHistorySink} to the history tables in a background thread.
+ *
+ * The position up to which the records are applied is kept in the ACT_GE_PROPERTY table and is updated in the transaction that applies
+ * the records. Applied records are acknowledged to the sink when that transaction has committed.
+ *
+ * Every record refers to the commit marker that the {@link AsyncHistorySinkListener} inserted in the transaction of the history data,
+ * and applying the record deletes that marker. Applying stops at a record of which the marker doesn't exist yet, as its transaction
+ * may still commit, until the record is older than the recovery time: its transaction then rolled back and the record is skipped.
+ * With the history job fallback, a record refers to the history job that holds the same history data instead, and applying the record
+ * deletes that job. A record of which the job is gone, or no longer locked for the sink, is skipped, so a record is never applied twice,
+ * even when the async history executor recovered its job.
+ *
+ * History data that can't be applied yet, for example because it depends on history data of another engine that is not applied yet,
+ * is left to the async history executor by storing it in history jobs (or by unlocking its history job), so it is retried like any other async history.
+ */
+public class AsyncHistorySinkApplier implements Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncHistorySinkApplier.class);
+
+    public static final String POSITION_PROPERTY_PREFIX = "asyncHistorySink.";
+    public static final String POSITION_PROPERTY_SUFFIX = ".position";
+
+    /**
+     * The maximum length of a sink name, as the name of the position property can be at most 64 characters.
+     */
+    public static final int MAX_SINK_NAME_LENGTH = 64 - POSITION_PROPERTY_PREFIX.length() - POSITION_PROPERTY_SUFFIX.length();
+
+    protected ProcessEngineConfigurationImpl processEngineConfiguration;
+    protected AsyncHistorySink asyncHistorySink;
+    protected int maxRecordsPerTransaction = 100;
+    protected long idleWaitTimeInMillis = 1000L;
+    protected boolean autoActivate = true;
+
+    protected Thread thread;
+    protected volatile boolean isInterrupted;
+    protected volatile boolean isWakeUpRequested;
+    protected final Object MONITOR = new Object();
+
+    public AsyncHistorySinkApplier(ProcessEngineConfigurationImpl processEngineConfiguration, AsyncHistorySink asyncHistorySink) {
+        String name = asyncHistorySink.getName();
+        if (name == null || name.isEmpty() || name.length() > MAX_SINK_NAME_LENGTH) {
+            throw new FlowableIllegalArgumentException("The name of async history sink '" + name + "' must have between 1 and "
+                    + MAX_SINK_NAME_LENGTH + " characters");
+        }
+        this.processEngineConfiguration = processEngineConfiguration;
+        this.asyncHistorySink = asyncHistorySink;
+    }
+
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+
+        LOGGER.info("Starting to apply async history sink {}", asyncHistorySink.getName());
+        isInterrupted = false;
+        thread = new Thread(this, "flowable-async-history-sink-applier");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void shutdown() {
+        if (thread == null) {
+            return;
+        }
+
+        synchronized (MONITOR) {
+            isInterrupted = true;
+            MONITOR.notifyAll();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+        LOGGER.info("Stopped applying async history sink {}", asyncHistorySink.getName());
+    }
+
+    public boolean isActive() {
+        return thread != null;
+    }
+
+    /**
+     * Signals that records were appended to the sink, so the applier doesn't wait for the idle wait time to pass.
+     */
+    public void wakeUp() {
+        synchronized (MONITOR) {
+            isWakeUpRequested = true;
+            MONITOR.notifyAll();
+        }
+    }
+
+    @Override
+    public void run() {
+        while (!isInterrupted) {
+            int nrOfAppliedRecords = 0;
+            try {
+                nrOfAppliedRecords = applyRecords();
+
+            } catch (FlowableOptimisticLockingException e) {
+                LOGGER.debug("Async history sink {} is being applied by another engine: {}", asyncHistorySink.getName(), e.getMessage());
+
+            } catch (Throwable e) {
+                LOGGER.error("Exception while applying async history sink {}: {}", asyncHistorySink.getName(), e.getMessage(), e);
+            }
+
+            if (nrOfAppliedRecords < maxRecordsPerTransaction) {
+                synchronized (MONITOR) {
+                    if (!isInterrupted && !isWakeUpRequested) {
+                        try {
+                            MONITOR.wait(idleWaitTimeInMillis);
+                        } catch (InterruptedException e) {
+                            LOGGER.debug("Async history sink applier wait interrupted");
+                        }
+                    }
+                    isWakeUpRequested = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the next records of the sink and returns the number of applied records.
+     */
+    public int applyRecords() {
+        CommandExecutor commandExecutor = processEngineConfiguration.getCommandExecutor();
+        ApplyRecordsResult result;
+        try {
+            result = commandExecutor.execute(new ApplyRecordsCmd(maxRecordsPerTransaction, false));
+
+        } catch (AsyncHistoryJobNotApplicableException e) {
+            // Apply the records one by one, so only the record that can't be applied is stored in history jobs
+            result = new ApplyRecordsResult();
+            for (int i = 0; i < maxRecordsPerTransaction; i++) {
+                ApplyRecordsResult recordResult;
+                try {
+                    recordResult = commandExecutor.execute(new ApplyRecordsCmd(1, false));
+                } catch (AsyncHistoryJobNotApplicableException notApplicableException) {
+                    recordResult = commandExecutor.execute(new ApplyRecordsCmd(1, true));
+                }
+
+                if (recordResult.nrOfRecords == 0) {
+                    break;
+                }
+                result.nrOfRecords += recordResult.nrOfRecords;
+                result.nextPosition = recordResult.nextPosition;
+            }
+        }
+
+        if (result.nrOfRecords > 0) {
+            asyncHistorySink.acknowledge(result.nextPosition);
+        }
+        return result.nrOfRecords;
+    }
+
+    /**
+     * Applies all records that are in the sink at the moment this method is called. Mainly useful for testing.
+     */
+    public void applyAllRecords() {
+        while (applyRecords() > 0) {
+            // apply until nothing is left
+        }
+    }
+
+    /**
+     * Returns false when the transaction of the record may not have committed yet, so the record can't be applied yet.
+     */
+    protected boolean applyRecord(CommandContext commandContext, AsyncHistorySinkRecord record, boolean storeInHistoryJobs) {
+        JsonNode recordNode;
+        try {
+            recordNode = processEngineConfiguration.getObjectMapper().readTree(record.getData());
+        } catch (IOException e) {
+            throw new FlowableException("Could not deserialize async history json at position " + record.getPosition()
+                    + " of async history sink " + asyncHistorySink.getName(), e);
+        }
+
+        if (recordNode.has(AsyncHistorySinkListener.RECORD_COMMIT_MARKER)) {
+            return applyCommittedRecord(commandContext, record, recordNode, storeInHistoryJobs);
+        }
+
+        applyHistoryJobRecord(commandContext, record, recordNode, storeInHistoryJobs);
+        return true;
+    }
+
+    protected boolean applyCommittedRecord(CommandContext commandContext, AsyncHistorySinkRecord record, JsonNode recordNode, boolean storeInHistoryJobs) {
+        PropertyEntityManager propertyEntityManager = CommandContextUtil.getPropertyEntityManager(commandContext);
+        String commitMarkerName = recordNode.path(AsyncHistorySinkListener.RECORD_COMMIT_MARKER).asText();
+        PropertyEntity commitMarker = propertyEntityManager.findById(commitMarkerName);
+        if (commitMarker == null) {
+            long age = processEngineConfiguration.getClock().getCurrentTime().getTime() - recordNode.path(AsyncHistorySinkListener.RECORD_CREATE_TIME).asLong();
+            if (age < processEngineConfiguration.getAsyncHistorySinkRecoveryTime()) {
+                LOGGER.debug("Waiting for the transaction of the async history at position {} of async history sink {} to commit",
+                        record.getPosition(), asyncHistorySink.getName());
+                return false;
+            }
+
+            LOGGER.debug("Skipping async history at position {} of async history sink {}, its transaction rolled back",
+                    record.getPosition(), asyncHistorySink.getName());
+            return true;
+        }
+
+        JsonNode historyNodes = recordNode.path(AsyncHistorySinkListener.RECORD_HISTORY_DATA);
+        if (storeInHistoryJobs) {
+            LOGGER.debug("Storing async history at position {} of async history sink {} in history jobs", record.getPosition(), asyncHistorySink.getName());
+            List<ObjectNode> historyObjectNodes = new ArrayList<>(historyNodes.size());
+            for (JsonNode historyNode : historyNodes) {
+                historyObjectNodes.add((ObjectNode) historyNode);
+            }
+            new DefaultAsyncHistoryJobProducer().historyDataGenerated(historyObjectNodes);
+
+        } else {
+            AbstractAsyncHistoryJobHandler asyncHistoryJobHandler = (AbstractAsyncHistoryJobHandler) processEngineConfiguration
+                    .getHistoryJobHandlers().get(AsyncHistoryJobHandler.JOB_TYPE);
+
+            // Never persisted, only identifies the history data in the logging of the transformers
+            HistoryJobEntity job = CommandContextUtil.getHistoryJobService(commandContext).createHistoryJob();
+            job.setId(commitMarkerName);
+            job.setJobHandlerType(AsyncHistoryJobHandler.JOB_TYPE);
+
+            for (JsonNode historyNode : historyNodes) {
+                asyncHistoryJobHandler.handleHistoryJson(commandContext, job, historyNode);
+            }
+        }
+
+        // Fails with an optimistic locking exception when another engine applied the record in the meantime
+        propertyEntityManager.delete(commitMarker);
+        return true;
+    }
+
+    protected void applyHistoryJobRecord(CommandContext commandContext, AsyncHistorySinkRecord record, JsonNode recordNode, boolean storeInHistoryJobs) {
+        // The history job that holds the same history data decides whether the record still needs to be applied
+        String historyJobId = recordNode.path(AsyncHistorySinkListener.RECORD_HISTORY_JOB_ID).asText(null);
+        HistoryJobEntityManager historyJobEntityManager = CommandContextUtil.getJobServiceConfiguration(commandContext).getHistoryJobEntityManager();
+        HistoryJobEntity historyJob = historyJobId != null ? historyJobEntityManager.findById(historyJobId) : null;
+        if (historyJob == null || !getLockOwner().equals(historyJob.getLockOwner())) {
+            LOGGER.debug("Skipping async history at position {} of async history sink {}, its history job {} is already applied or recovered",
+                    record.getPosition(), asyncHistorySink.getName(), historyJobId);
+            return;
+        }
+
+        if (storeInHistoryJobs) {
+            LOGGER.debug("Leaving async history at position {} of async history sink {} to the async history executor", record.getPosition(), asyncHistorySink.getName());
+            historyJob.setLockOwner(null);
+            historyJob.setLockExpirationTime(null);
+
+        } else {
+            AbstractAsyncHistoryJobHandler asyncHistoryJobHandler = (AbstractAsyncHistoryJobHandler) processEngineConfiguration
+                    .getHistoryJobHandlers().get(AsyncHistoryJobHandler.JOB_TYPE);
+            for (JsonNode historyNode : recordNode.path(AsyncHistorySinkListener.RECORD_HISTORY_DATA)) {
+                asyncHistoryJobHandler.handleHistoryJson(commandContext, historyJob, historyNode);
+            }
+
+            // Fails with an optimistic locking exception when the async history executor acquired the job in the meantime
+            historyJobEntityManager.delete(historyJob);
+        }
+    }
+
+    protected String getLockOwner() {
+        return AsyncHistorySinkListener.LOCK_OWNER_PREFIX + asyncHistorySink.getName();
+    }
+
+    protected String getPositionPropertyName() {
+        return POSITION_PROPERTY_PREFIX + asyncHistorySink.getName() + POSITION_PROPERTY_SUFFIX;
+    }
+
+    public AsyncHistorySink getAsyncHistorySink() {
+        return asyncHistorySink;
+    }
+
+    public int getMaxRecordsPerTransaction() {
+        return maxRecordsPerTransaction;
+    }
+
+    public void setMaxRecordsPerTransaction(int maxRecordsPerTransaction) {
+        this.maxRecordsPerTransaction = maxRecordsPerTransaction;
+    }
+
+    public long getIdleWaitTimeInMillis() {
+        return idleWaitTimeInMillis;
+    }
+
+    public void setIdleWaitTimeInMillis(long idleWaitTimeInMillis) {
+        this.idleWaitTimeInMillis = idleWaitTimeInMillis;
+    }
+
+    public boolean isAutoActivate() {
+        return autoActivate;
+    }
+
+    public void setAutoActivate(boolean autoActivate) {
+        this.autoActivate = autoActivate;
+    }
+
+    protected static class ApplyRecordsResult {
+
+        protected int nrOfRecords;
+        protected long nextPosition;
+
+    }
+
+    protected class ApplyRecordsCmd implements Command<ApplyRecordsResult> {
+
+        protected int maxRecords;
+        protected boolean storeInHistoryJobs;
+
+        public ApplyRecordsCmd(int maxRecords, boolean storeInHistoryJobs) {
+            this.maxRecords = maxRecords;
+            this.storeInHistoryJobs = storeInHistoryJobs;
+        }
+
+        @Override
+        public ApplyRecordsResult execute(CommandContext commandContext) {
+            PropertyEntityManager propertyEntityManager = CommandContextUtil.getPropertyEntityManager(commandContext);
+            PropertyEntity positionProperty = propertyEntityManager.findById(getPositionPropertyName());
+            long position = positionProperty != null ? Long.parseLong(positionProperty.getValue()) : 0L;
+
+            ApplyRecordsResult result = new ApplyRecordsResult();
+            List<AsyncHistorySinkRecord> records = asyncHistorySink.read(position, maxRecords);
+            for (AsyncHistorySinkRecord record : records) {
+                if (!applyRecord(commandContext, record, storeInHistoryJobs)) {
+                    break; // the records after it are applied once its transaction has committed or is known to have rolled back
+                }
+                result.nrOfRecords++;
+                result.nextPosition = record.getNextPosition();
+            }
+
+            if (result.nrOfRecords == 0) {
+                return result;
+            }
+
+            if (positionProperty == null) {
+                positionProperty = propertyEntityManager.create();
+                positionProperty.setName(getPositionPropertyName());
+                positionProperty.setValue(Long.toString(result.nextPosition));
+                propertyEntityManager.insert(positionProperty);
+            } else {
+                positionProperty.setValue(Long.toString(result.nextPosition));
+            }
+            return result;
+        }
+
+    }
+
+}
@@ -0,0 +1,250 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.impl.history.async.sink;
+
+import java.util.Date;
+import java.util.List;
+
+import org.flowable.engine.common.api.FlowableException;
+import org.flowable.engine.common.impl.context.Context;
+import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.flowable.engine.impl.history.async.AsyncHistoryJobHandler;
+import org.flowable.engine.impl.history.async.AsyncHistoryListener;
+import org.flowable.engine.impl.history.async.AsyncHistorySession;
+import org.flowable.engine.impl.persistence.entity.PropertyEntity;
+import org.flowable.engine.impl.persistence.entity.PropertyEntityManager;
+import org.flowable.engine.impl.util.CommandContextUtil;
+import org.flowable.job.service.HistoryJobService;
+import org.flowable.job.service.impl.persistence.entity.HistoryJobEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * {@link AsyncHistoryListener} that appends the history data of a transaction as one record to an {@link AsyncHistorySink}.
+ *
+ * The sink is the durable store of the history data: the record is appended right before the transaction commits, and the transaction
+ * fails when it can't be appended. The transaction only inserts a commit marker, a property without the history data, of which the name
+ * is part of the record. The {@link AsyncHistorySinkApplier} only applies a record of which the commit marker exists, and deletes the marker
+ * in the transaction that applies the record. A record without commit marker belongs to a transaction that is not committed yet,
+ * or that rolled back after the append when it's older than the recovery time.
+ *
+ * With the history job fallback, the history data is stored in one history job in the same transaction instead, locked for the sink,
+ * and the record is appended when the transaction has committed, together with the id of the job. The applier deletes the job in the
+ * transaction that applies the record. When the record is never applied, for example because the JVM stopped between the commit and the append,
+ * the lock of the job expires after the recovery time and the async history executor applies the job like any other history job.
+ */
+public class AsyncHistorySinkListener implements AsyncHistoryListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncHistorySinkListener.class);
+
+    public static final String LOCK_OWNER_PREFIX = "asyncHistorySink:";
+
+    /**
+     * The prefix of the name of the commit marker property. Together with an id, the name stays within the 64 characters of a property name.
+     */
+    public static final String COMMIT_MARKER_PREFIX = "asyncHistorySink.commit.";
+
+    public static final String RECORD_HISTORY_JOB_ID = "historyJobId";
+    public static final String RECORD_COMMIT_MARKER = "commitMarker";
+    public static final String RECORD_CREATE_TIME = "createTime";
+    public static final String RECORD_HISTORY_DATA = "historyData";
+
+    protected AsyncHistorySink asyncHistorySink;
+    protected boolean historyJobFallback;
+    protected long recoveryTimeInMillis = 5L * 60L * 1000L;
+
+    public AsyncHistorySinkListener(AsyncHistorySink asyncHistorySink) {
+        this.asyncHistorySink = asyncHistorySink;
+    }
+
+    @Override
+    public void historyDataGenerated(List<ObjectNode> historyObjectNodes) {
+        CommandContext commandContext = Context.getCommandContext();
+        ProcessEngineConfigurationImpl processEngineConfiguration = CommandContextUtil.getProcessEngineConfiguration(commandContext);
+        ObjectMapper objectMapper = processEngineConfiguration.getObjectMapper();
+
+        ArrayNode historyData = objectMapper.createArrayNode();
+        for (ObjectNode historyObjectNode : historyObjectNodes) {
+            historyData.add(historyObjectNode);
+        }
+
+        if (historyJobFallback) {
+            appendAfterCommitWithHistoryJob(commandContext, processEngineConfiguration, historyData);
+        } else {
+            appendBeforeCommit(commandContext, processEngineConfiguration, historyData);
+        }
+    }
+
+    protected void appendBeforeCommit(CommandContext commandContext, final ProcessEngineConfigurationImpl processEngineConfiguration, ArrayNode historyData) {
+        ObjectMapper objectMapper = processEngineConfiguration.getObjectMapper();
+        PropertyEntity commitMarker = createAndInsertCommitMarker(commandContext, processEngineConfiguration);
+
+        ObjectNode record = objectMapper.createObjectNode();
+        record.put(RECORD_COMMIT_MARKER, commitMarker.getName());
+        record.put(RECORD_CREATE_TIME, processEngineConfiguration.getClock().getCurrentTime().getTime());
+        record.set(RECORD_HISTORY_DATA, historyData);
+
+        final byte[] data;
+        try {
+            data = objectMapper.writeValueAsBytes(record);
+        } catch (JsonProcessingException e) {
+            throw new FlowableException("Could not serialize historic data for async history", e);
+        }
+
+        // The transaction context is no longer available here, so the session registered the transaction listeners up front
+        AsyncHistorySession asyncHistorySession = commandContext.getSession(AsyncHistorySession.class);
+        if (asyncHistorySession.getAsyncHistoryCommittingTransactionListener() != null) {
+            asyncHistorySession.addAsyncHistoryRunnableBeforeCommit(new Runnable() {
+
+                @Override
+                public void run() {
+                    // Fails the transaction when the record can't be appended
+                    asyncHistorySink.append(data);
+                }
+            });
+            asyncHistorySession.addAsyncHistoryRunnableAfterCommit(new Runnable() {
+
+                @Override
+                public void run() {
+                    wakeUpApplier(processEngineConfiguration);
+                }
+            });
+
+        } else {
+            LOGGER.warn("No transaction context active, appending the async history data before the transaction is flushed.");
+            asyncHistorySink.append(data);
+        }
+    }
+
+    protected PropertyEntity createAndInsertCommitMarker(CommandContext commandContext, ProcessEngineConfigurationImpl processEngineConfiguration) {
+        PropertyEntityManager propertyEntityManager = CommandContextUtil.getPropertyEntityManager(commandContext);
+        PropertyEntity commitMarker = propertyEntityManager.create();
+        commitMarker.setName(COMMIT_MARKER_PREFIX + processEngineConfiguration.getIdGenerator().getNextId());
+        commitMarker.setValue(asyncHistorySink.getName());
+        propertyEntityManager.insert(commitMarker);
+        return commitMarker;
+    }
+
+    protected void appendAfterCommitWithHistoryJob(CommandContext commandContext, final ProcessEngineConfigurationImpl processEngineConfiguration, ArrayNode historyData) {
+        ObjectMapper objectMapper = processEngineConfiguration.getObjectMapper();
+        HistoryJobEntity historyJob = createAndInsertLockedHistoryJob(commandContext, processEngineConfiguration);
+        ObjectNode record = objectMapper.createObjectNode();
+        record.put(RECORD_HISTORY_JOB_ID, historyJob.getId());
+        record.set(RECORD_HISTORY_DATA, historyData);
+
+        final byte[] data;
+        try {
+            historyJob.setAdvancedJobHandlerConfigurationBytes(objectMapper.writeValueAsBytes(historyData));
+            data = objectMapper.writeValueAsBytes(record);
+        } catch (JsonProcessingException e) {
+            throw new FlowableException("Could not serialize historic data for async history", e);
+        }
+
+        // The transaction context is no longer available here, so the session registered the committed listener up front
+        AsyncHistorySession asyncHistorySession = commandContext.getSession(AsyncHistorySession.class);
+        if (asyncHistorySession.getAsyncHistoryCommittedTransactionListener() != null) {
+            asyncHistorySession.addAsyncHistoryRunnableAfterCommit(new Runnable() {
+
+                @Override
+                public void run() {
+                    append(processEngineConfiguration, data);
+                }
+            });
+
+        } else {
+            LOGGER.warn("No transaction context active, appending the async history data before the transaction has committed.");
+            append(processEngineConfiguration, data);
+        }
+    }
+
+    protected HistoryJobEntity createAndInsertLockedHistoryJob(CommandContext commandContext, ProcessEngineConfigurationImpl processEngineConfiguration) {
+        HistoryJobService historyJobService = CommandContextUtil.getHistoryJobService(commandContext);
+        HistoryJobEntity historyJob = historyJobService.createHistoryJob();
+        historyJob.setJobHandlerType(AsyncHistoryJobHandler.JOB_TYPE);
+        historyJob.setRetries(processEngineConfiguration.getAsyncHistoryExecutorNumberOfRetries());
+        historyJob.setTenantId(commandContext.getSession(AsyncHistorySession.class).getTenantId());
+
+        Date now = processEngineConfiguration.getClock().getCurrentTime();
+        historyJob.setCreateTime(now);
+        historyJob.setLockOwner(getLockOwner());
+        historyJob.setLockExpirationTime(new Date(now.getTime() + recoveryTimeInMillis));
+
+        historyJobService.scheduleHistoryJob(historyJob);
+        return historyJob;
+    }
+
+    protected void append(ProcessEngineConfigurationImpl processEngineConfiguration, byte[] data) {
+        try {
+            asyncHistorySink.append(data);
+        } catch (RuntimeException e) {
+            // The history job is applied by the async history executor when its lock expires
+            LOGGER.error("Could not append async history data to async history sink {}, it will be recovered in {} ms",
+                    asyncHistorySink.getName(), recoveryTimeInMillis, e);
+            return;
+        }
+
+        wakeUpApplier(processEngineConfiguration);
+    }
+
+    protected void wakeUpApplier(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        AsyncHistorySinkApplier asyncHistorySinkApplier = processEngineConfiguration.getAsyncHistorySinkApplier();
+        if (asyncHistorySinkApplier != null) {
+            asyncHistorySinkApplier.wakeUp();
+        }
+    }
+
+    /**
+     * The lock owner of the history jobs of which the data is appended to the sink.
+     */
+    public String getLockOwner() {
+        return LOCK_OWNER_PREFIX + asyncHistorySink.getName();
+    }
+
+    public AsyncHistorySink getAsyncHistorySink() {
+        return asyncHistorySink;
+    }
+
+    public void setAsyncHistorySink(AsyncHistorySink asyncHistorySink) {
+        this.asyncHistorySink = asyncHistorySink;
+    }
+
+    public boolean isHistoryJobFallback() {
+        return historyJobFallback;
+    }
+
+    /**
+     * When true, the history data is also stored in a history job, so the sink doesn't need to be durable.
+     */
+    public void setHistoryJobFallback(boolean historyJobFallback) {
+        this.historyJobFallback = historyJobFallback;
+    }
+
+    public long getRecoveryTimeInMillis() {
+        return recoveryTimeInMillis;
+    }
+
+    /**
+     * How long the history job of a transaction stays locked for the sink, or how long a record without commit marker is waited for.
+     * Should be well above the time the applier needs to apply a record and the time a transaction needs to commit.
+     */
+    public void setRecoveryTimeInMillis(long recoveryTimeInMillis) {
+        this.recoveryTimeInMillis = recoveryTimeInMillis;
+    }
+
+}
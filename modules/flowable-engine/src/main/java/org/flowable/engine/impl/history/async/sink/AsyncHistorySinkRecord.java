@@ -0,0 +1,42 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.impl.history.async.sink;
+
+/**
+ * A record read from an {@link AsyncHistorySink}.
+ */
+public class AsyncHistorySinkRecord {
+
+    protected long position;
+    protected long nextPosition;
+    protected byte[] data;
+
+    public AsyncHistorySinkRecord(long position, long nextPosition, byte[] data) {
+        this.position = position;
+        this.nextPosition = nextPosition;
+        this.data = data;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public long getNextPosition() {
+        return nextPosition;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+}
@@ -0,0 +1,71 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.impl.history.async.sink;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link AsyncHistorySink} that keeps the records in memory, behaving like a single partition of a message broker topic:
+ * every record gets the next offset as its position.
+ *
+ * The records are lost when the JVM stops, so this sink should only be used for testing, or as a stand-in for a real broker.
+ */
+public class InMemoryAsyncHistorySink implements AsyncHistorySink {
+
+    protected String name;
+    protected List<byte[]> records = new ArrayList<>();
+    protected long firstPosition;
+
+    public InMemoryAsyncHistorySink(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public synchronized void append(byte[] data) {
+        records.add(data);
+    }
+
+    @Override
+    public synchronized List<AsyncHistorySinkRecord> read(long position, int maxRecords) {
+        List<AsyncHistorySinkRecord> result = new ArrayList<>();
+        long currentPosition = Math.max(position, firstPosition);
+        while (result.size() < maxRecords && currentPosition - firstPosition < records.size()) {
+            result.add(new AsyncHistorySinkRecord(currentPosition, currentPosition + 1, records.get((int) (currentPosition - firstPosition))));
+            currentPosition++;
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void acknowledge(long position) {
+        int nrOfRecords = (int) Math.min(Math.max(position - firstPosition, 0), records.size());
+        records.subList(0, nrOfRecords).clear();
+        firstPosition += nrOfRecords;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    // For testing purposes only
+    public synchronized int size() {
+        return records.size();
+    }
+
+}
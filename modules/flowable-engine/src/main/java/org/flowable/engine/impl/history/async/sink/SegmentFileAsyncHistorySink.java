@@ -0,0 +1,320 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.impl.history.async.sink;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+import org.flowable.engine.common.api.FlowableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link AsyncHistorySink} that appends the records to segment files in a local directory.
+ *
+ * The position of a record is its offset over all segments, and every segment file is named after the position of its first record.
+ * When a segment reaches the maximum segment size, a new one is started. Segments of which all records are acknowledged are deleted.
+ *
+ * Every record is written as its length, a checksum and the data. A record that was only partially written when the JVM stopped
+ * is detected by its checksum when the sink is opened again, and is removed. Every read verifies the length and the checksum as well.
+ *
+ * The positions are offsets in files on the local disk, so this sink is meant for a single node: only the engine on the node that owns
+ * the directory may append to and apply it. In a cluster, every node needs its own sink with a name that identifies the node, as the
+ * applied position is kept in the database per sink name.
+ */
+public class SegmentFileAsyncHistorySink implements AsyncHistorySink {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SegmentFileAsyncHistorySink.class);
+
+    public static final String SEGMENT_FILE_SUFFIX = ".log";
+
+    protected static final int RECORD_HEADER_SIZE = 8;
+
+    protected String name;
+    protected File directory;
+    protected long maxSegmentSize = 64L * 1024L * 1024L;
+    protected boolean syncOnAppend = true;
+
+    protected TreeMap<Long, File> segments = new TreeMap<>();
+    protected FileChannel currentSegmentChannel;
+    protected long currentSegmentPosition;
+    protected long endPosition;
+
+    public SegmentFileAsyncHistorySink(String name, File directory) {
+        this.name = name;
+        this.directory = directory;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Opens the segments in the directory, creating the directory when it does not exist yet.
+     * Called on first use when not called explicitly.
+     */
+    public synchronized void open() {
+        if (currentSegmentChannel != null) {
+            return;
+        }
+
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new FlowableException("Could not create async history sink directory " + directory);
+        }
+
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String fileName = file.getName();
+                if (fileName.endsWith(SEGMENT_FILE_SUFFIX)) {
+                    segments.put(Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_FILE_SUFFIX.length())), file);
+                }
+            }
+        }
+
+        if (segments.isEmpty()) {
+            openSegment(0L);
+        } else {
+            Map.Entry<Long, File> lastSegment = segments.lastEntry();
+            currentSegmentPosition = lastSegment.getKey();
+            currentSegmentChannel = openChannel(lastSegment.getValue(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            endPosition = currentSegmentPosition + recoverSegment(currentSegmentChannel, lastSegment.getValue());
+        }
+    }
+
+    @Override
+    public synchronized void append(byte[] data) {
+        open();
+        try {
+            long segmentSize = endPosition - currentSegmentPosition;
+            if (segmentSize > 0 && segmentSize + RECORD_HEADER_SIZE + data.length > maxSegmentSize) {
+                currentSegmentChannel.close();
+                openSegment(endPosition);
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + data.length);
+            buffer.putInt(data.length);
+            buffer.putInt(checksum(data));
+            buffer.put(data);
+            buffer.flip();
+
+            long writePosition = endPosition - currentSegmentPosition;
+            while (buffer.hasRemaining()) {
+                writePosition += currentSegmentChannel.write(buffer, writePosition);
+            }
+            if (syncOnAppend) {
+                currentSegmentChannel.force(false);
+            }
+            endPosition = currentSegmentPosition + writePosition;
+
+        } catch (IOException e) {
+            throw new FlowableException("Could not append to async history sink " + name, e);
+        }
+    }
+
+    @Override
+    public synchronized List<AsyncHistorySinkRecord> read(long position, int maxRecords) {
+        open();
+        List<AsyncHistorySinkRecord> records = new ArrayList<>();
+        long currentPosition = Math.max(position, segments.firstKey());
+        while (records.size() < maxRecords && currentPosition < endPosition) {
+            Map.Entry<Long, File> segment = segments.floorEntry(currentPosition);
+            Long nextSegmentPosition = segments.higherKey(segment.getKey());
+            long segmentEndPosition = nextSegmentPosition != null ? nextSegmentPosition : endPosition;
+
+            currentPosition = readSegment(segment.getKey(), segment.getValue(), currentPosition, segmentEndPosition, maxRecords, records);
+            if (currentPosition >= segmentEndPosition && nextSegmentPosition != null) {
+                currentPosition = nextSegmentPosition;
+            }
+        }
+        return records;
+    }
+
+    @Override
+    public synchronized void acknowledge(long position) {
+        Map.Entry<Long, File> segment = segments.firstEntry();
+        while (segment != null && segment.getKey() != currentSegmentPosition) {
+            Long nextSegmentPosition = segments.higherKey(segment.getKey());
+            if (nextSegmentPosition == null || nextSegmentPosition > position) {
+                break;
+            }
+
+            if (!segment.getValue().delete()) {
+                LOGGER.warn("Could not delete applied async history segment {}", segment.getValue());
+                break;
+            }
+            segments.remove(segment.getKey());
+            segment = segments.firstEntry();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (currentSegmentChannel != null) {
+            try {
+                currentSegmentChannel.close();
+            } catch (IOException e) {
+                LOGGER.warn("Could not close async history sink {}", name, e);
+            }
+            currentSegmentChannel = null;
+            segments.clear();
+        }
+    }
+
+    protected void openSegment(long position) {
+        File segmentFile = new File(directory, String.format("%020d", position) + SEGMENT_FILE_SUFFIX);
+        currentSegmentChannel = openChannel(segmentFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        currentSegmentPosition = position;
+        endPosition = position;
+        segments.put(position, segmentFile);
+    }
+
+    protected FileChannel openChannel(File file, StandardOpenOption... options) {
+        try {
+            return FileChannel.open(file.toPath(), options);
+        } catch (IOException e) {
+            throw new FlowableException("Could not open async history segment " + file, e);
+        }
+    }
+
+    protected long readSegment(long segmentPosition, File segmentFile, long position, long segmentEndPosition, int maxRecords,
+            List<AsyncHistorySinkRecord> records) {
+
+        FileChannel channel = segmentPosition == currentSegmentPosition ? currentSegmentChannel : openChannel(segmentFile, StandardOpenOption.READ);
+        try {
+            long currentPosition = position;
+            ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+            while (records.size() < maxRecords && currentPosition < segmentEndPosition) {
+                header.clear();
+                readFully(channel, header, currentPosition - segmentPosition);
+                header.flip();
+                int length = header.getInt();
+                int checksum = header.getInt();
+                long nextPosition = currentPosition + RECORD_HEADER_SIZE + length;
+                if (length < 0 || nextPosition > segmentEndPosition) {
+                    throw new FlowableException("Invalid record length " + length + " at position " + currentPosition + " of async history segment " + segmentFile);
+                }
+
+                ByteBuffer data = ByteBuffer.allocate(length);
+                readFully(channel, data, currentPosition - segmentPosition + RECORD_HEADER_SIZE);
+                if (checksum(data.array()) != checksum) {
+                    throw new FlowableException("Invalid checksum of the record at position " + currentPosition + " of async history segment " + segmentFile);
+                }
+                records.add(new AsyncHistorySinkRecord(currentPosition, nextPosition, data.array()));
+                currentPosition = nextPosition;
+            }
+            return currentPosition;
+
+        } catch (IOException e) {
+            throw new FlowableException("Could not read async history segment " + segmentFile, e);
+
+        } finally {
+            if (channel != currentSegmentChannel) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    LOGGER.debug("Could not close async history segment {}", segmentFile, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the size of the valid records in the segment, removing a record that was only partially written.
+     */
+    protected long recoverSegment(FileChannel channel, File segmentFile) {
+        try {
+            long size = channel.size();
+            long validSize = 0;
+            ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+            while (validSize + RECORD_HEADER_SIZE <= size) {
+                header.clear();
+                readFully(channel, header, validSize);
+                header.flip();
+                int length = header.getInt();
+                int checksum = header.getInt();
+                if (length < 0 || validSize + RECORD_HEADER_SIZE + length > size) {
+                    break;
+                }
+
+                ByteBuffer data = ByteBuffer.allocate(length);
+                readFully(channel, data, validSize + RECORD_HEADER_SIZE);
+                if (checksum(data.array()) != checksum) {
+                    break;
+                }
+                validSize += RECORD_HEADER_SIZE + length;
+            }
+
+            if (validSize < size) {
+                LOGGER.warn("Removing {} bytes of an incomplete record at the end of async history segment {}", size - validSize, segmentFile);
+                channel.truncate(validSize);
+                channel.force(false);
+            }
+            return validSize;
+
+        } catch (IOException e) {
+            throw new FlowableException("Could not recover async history segment " + segmentFile, e);
+        }
+    }
+
+    protected void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long currentPosition = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, currentPosition);
+            if (read < 0) {
+                throw new IOException("Unexpected end of async history segment at position " + currentPosition);
+            }
+            currentPosition += read;
+        }
+    }
+
+    protected int checksum(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length);
+        return (int) crc.getValue();
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public long getMaxSegmentSize() {
+        return maxSegmentSize;
+    }
+
+    public void setMaxSegmentSize(long maxSegmentSize) {
+        this.maxSegmentSize = maxSegmentSize;
+    }
+
+    public boolean isSyncOnAppend() {
+        return syncOnAppend;
+    }
+
+    /**
+     * Whether every appended record is forced to the storage device before the append returns. Disabling this is faster,
+     * but the history of the last transactions can be lost when the machine crashes.
+     */
+    public void setSyncOnAppend(boolean syncOnAppend) {
+        this.syncOnAppend = syncOnAppend;
+    }
+
+}
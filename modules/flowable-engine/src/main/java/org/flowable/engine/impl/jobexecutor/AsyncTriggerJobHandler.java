@@ -0,0 +1,48 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.impl.jobexecutor;
+
+import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.engine.impl.persistence.entity.ExecutionEntity;
+import org.flowable.engine.impl.util.CommandContextUtil;
+import org.flowable.job.service.JobHandler;
+import org.flowable.job.service.impl.persistence.entity.JobEntity;
+
+/**
+ * Triggers the execution of the job, for activities that wait for something that completes outside of the engine transaction,
+ * such as an HTTP request, and continue in a new transaction when it is completed.
+ *
+ * The configuration of the job is available to the activity behavior as the transient local variable {@link #CONFIGURATION_VARIABLE_NAME},
+ * for example to correlate the trigger with the request it completes.
+ */
+public class AsyncTriggerJobHandler implements JobHandler {
+
+    public static final String TYPE = "async-trigger";
+
+    public static final String CONFIGURATION_VARIABLE_NAME = "_asyncTriggerConfiguration";
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public void execute(JobEntity job, String configuration, Object execution, CommandContext commandContext) {
+        ExecutionEntity executionEntity = (ExecutionEntity) execution;
+        if (configuration != null) {
+            executionEntity.setTransientVariableLocal(CONFIGURATION_VARIABLE_NAME, configuration);
+        }
+        CommandContextUtil.getAgenda(commandContext).planTriggerExecutionOperation(executionEntity);
+    }
+
+}
@@ -0,0 +1,39 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.impl.persistence.deploy;
+
+import org.flowable.engine.common.impl.interceptor.CommandContext;
+
+/**
+ * Lets the caches of all engines that share a database know when the data behind them has changed.
+ *
+ * Caches register a {@link CacheInvalidationListener} for their cache name. A change is signalled with {@link #cacheChanged(CommandContext, String)}
+ * in the transaction that makes it; the listeners of all nodes are notified once it is visible to them. Implementations that
+ * are not pushed notifications from the other nodes check for changes in {@link #checkForChanges(CommandContext, String)},
+ * which caches call before they are read.
+ */
+public interface CacheInvalidationNotifier {
+
+    void addCacheInvalidationListener(String cacheName, CacheInvalidationListener listener);
+
+    /**
+     * Called in the transaction that changes the data behind the cache with the given name.
+     */
+    void cacheChanged(CommandContext commandContext, String cacheName);
+
+    /**
+     * Called before the cache with the given name is read, to notify its listeners about changes made by other nodes.
+     */
+    void checkForChanges(CommandContext commandContext, String cacheName);
+
+}
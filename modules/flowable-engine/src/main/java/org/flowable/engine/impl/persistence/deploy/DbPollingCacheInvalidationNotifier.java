@@ -0,0 +1,167 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.impl.persistence.deploy;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.flowable.engine.common.impl.cfg.TransactionContext;
+import org.flowable.engine.common.impl.cfg.TransactionListener;
+import org.flowable.engine.common.impl.cfg.TransactionState;
+import org.flowable.engine.common.impl.context.Context;
+import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.engine.impl.persistence.entity.PropertyEntity;
+import org.flowable.engine.impl.persistence.entity.PropertyEntityManager;
+import org.flowable.engine.impl.util.CommandContextUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link CacheInvalidationNotifier} that keeps a version counter per cache in the ACT_GE_PROPERTY table.
+ *
+ * A change increments the counter of the cache in the changing transaction. Every node reads the counter at most once per poll interval
+ * and notifies the listeners of the cache when it differs from the value it read before. Changes made by other nodes are thus
+ * seen within the poll interval, changes made by this node as soon as their transaction ends.
+ *
+ * Two transactions changing the same cache at the same time will conflict on the counter, the last one to commit fails with
+ * an optimistic locking exception and can be retried.
+ */
+public class DbPollingCacheInvalidationNotifier implements CacheInvalidationNotifier {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DbPollingCacheInvalidationNotifier.class);
+
+    public static final String PROPERTY_NAME_PREFIX = "cache.";
+    public static final String PROPERTY_NAME_SUFFIX = ".version";
+
+    protected long pollInterval;
+    protected ConcurrentMap<String, List<CacheInvalidationListener>> listeners = new ConcurrentHashMap<>();
+    protected ConcurrentMap<String, CacheVersion> cacheVersions = new ConcurrentHashMap<>();
+
+    /**
+     * @param pollInterval the minimum time in milliseconds between two reads of the version counter of a cache
+     */
+    public DbPollingCacheInvalidationNotifier(long pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    @Override
+    public void addCacheInvalidationListener(String cacheName, CacheInvalidationListener listener) {
+        List<CacheInvalidationListener> cacheListeners = listeners.get(cacheName);
+        if (cacheListeners == null) {
+            cacheListeners = new CopyOnWriteArrayList<>();
+            List<CacheInvalidationListener> existingCacheListeners = listeners.putIfAbsent(cacheName, cacheListeners);
+            if (existingCacheListeners != null) {
+                cacheListeners = existingCacheListeners;
+            }
+        }
+        cacheListeners.add(listener);
+    }
+
+    @Override
+    public void cacheChanged(CommandContext commandContext, final String cacheName) {
+        PropertyEntityManager propertyEntityManager = CommandContextUtil.getPropertyEntityManager(commandContext);
+        String propertyName = getPropertyName(cacheName);
+        PropertyEntity propertyEntity = propertyEntityManager.findById(propertyName);
+        if (propertyEntity == null) {
+            propertyEntity = propertyEntityManager.create();
+            propertyEntity.setName(propertyName);
+            propertyEntity.setValue("1");
+            propertyEntityManager.insert(propertyEntity);
+        } else {
+            propertyEntity.setValue(Long.toString(Long.parseLong(propertyEntity.getValue()) + 1));
+        }
+
+        // Anything cached during the transaction can be based on uncommitted or outdated data,
+        // so the cache is invalidated now and again when the transaction has ended
+        notifyListeners(cacheName);
+
+        TransactionContext transactionContext = Context.getTransactionContext();
+        if (transactionContext != null) {
+            TransactionListener transactionListener = new TransactionListener() {
+
+                @Override
+                public void execute(CommandContext commandContext) {
+                    notifyListeners(cacheName);
+                }
+            };
+            transactionContext.addTransactionListener(TransactionState.COMMITTED, transactionListener);
+            transactionContext.addTransactionListener(TransactionState.ROLLED_BACK, transactionListener);
+        }
+    }
+
+    @Override
+    public void checkForChanges(CommandContext commandContext, String cacheName) {
+        CacheVersion cacheVersion = getCacheVersion(cacheName);
+        long now = System.currentTimeMillis();
+        long lastCheckTime = cacheVersion.lastCheckTime.get();
+        if (now - lastCheckTime < pollInterval || !cacheVersion.lastCheckTime.compareAndSet(lastCheckTime, now)) {
+            return;
+        }
+
+        PropertyEntity propertyEntity = CommandContextUtil.getPropertyEntityManager(commandContext).findById(getPropertyName(cacheName));
+        String version = propertyEntity != null ? propertyEntity.getValue() : null;
+        String previousVersion = cacheVersion.version;
+        cacheVersion.version = version;
+
+        if (cacheVersion.initialized && (version == null ? previousVersion != null : !version.equals(previousVersion))) {
+            LOGGER.debug("Cache {} changed from version {} to {}, invalidating", cacheName, previousVersion, version);
+            notifyListeners(cacheName);
+        }
+        cacheVersion.initialized = true;
+    }
+
+    protected void notifyListeners(String cacheName) {
+        List<CacheInvalidationListener> cacheListeners = listeners.get(cacheName);
+        if (cacheListeners != null) {
+            for (CacheInvalidationListener listener : cacheListeners) {
+                listener.invalidateCache();
+            }
+        }
+    }
+
+    protected CacheVersion getCacheVersion(String cacheName) {
+        CacheVersion cacheVersion = cacheVersions.get(cacheName);
+        if (cacheVersion == null) {
+            cacheVersion = new CacheVersion();
+            CacheVersion existingCacheVersion = cacheVersions.putIfAbsent(cacheName, cacheVersion);
+            if (existingCacheVersion != null) {
+                cacheVersion = existingCacheVersion;
+            }
+        }
+        return cacheVersion;
+    }
+
+    protected String getPropertyName(String cacheName) {
+        return PROPERTY_NAME_PREFIX + cacheName + PROPERTY_NAME_SUFFIX;
+    }
+
+    public long getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(long pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    protected static class CacheVersion {
+
+        protected AtomicLong lastCheckTime = new AtomicLong(Long.MIN_VALUE / 2);
+        protected volatile String version;
+        protected volatile boolean initialized;
+
+    }
+
+}
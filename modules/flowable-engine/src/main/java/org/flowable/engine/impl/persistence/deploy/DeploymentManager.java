@@ -46,6 +46,8 @@ public class DeploymentManager {
     protected ProcessDefinitionInfoCache processDefinitionInfoCache;
     protected DeploymentCache<Object> appResourceCache;
     protected DeploymentCache<Object> knowledgeBaseCache; // Needs to be object to avoid an import to Drools in this core class
+    protected ProcessDefinitionLatestVersionCache processDefinitionLatestVersionCache;
+    protected CacheInvalidationNotifier cacheInvalidationNotifier;
     protected List<Deployer> deployers;
 
     protected ProcessEngineConfigurationImpl processEngineConfiguration;
@@ -60,6 +62,10 @@ public class DeploymentManager {
         for (Deployer deployer : deployers) {
             deployer.deploy(deployment, deploymentSettings);
         }
+
+        if (deployment.isNew()) {
+            processDefinitionLatestVersionsChanged();
+        }
     }
 
     public ProcessDefinition findDeployedProcessDefinitionById(String processDefinitionId) {
@@ -82,24 +88,86 @@ public class DeploymentManager {
     }
 
     public ProcessDefinition findDeployedLatestProcessDefinitionByKey(String processDefinitionKey) {
-        ProcessDefinition processDefinition = processDefinitionEntityManager.findLatestProcessDefinitionByKey(processDefinitionKey);
+        ProcessDefinition processDefinition = findCachedLatestProcessDefinition(processDefinitionKey, null);
+        if (processDefinition != null) {
+            return processDefinition;
+        }
+
+        long cacheGeneration = getProcessDefinitionLatestVersionCacheGeneration();
+        processDefinition = processDefinitionEntityManager.findLatestProcessDefinitionByKey(processDefinitionKey);
 
         if (processDefinition == null) {
             throw new FlowableObjectNotFoundException("no processes deployed with key '" + processDefinitionKey + "'", ProcessDefinition.class);
         }
         processDefinition = resolveProcessDefinition(processDefinition).getProcessDefinition();
+        addLatestProcessDefinitionToCache(processDefinitionKey, null, processDefinition, cacheGeneration);
         return processDefinition;
     }
 
     public ProcessDefinition findDeployedLatestProcessDefinitionByKeyAndTenantId(String processDefinitionKey, String tenantId) {
-        ProcessDefinition processDefinition = processDefinitionEntityManager.findLatestProcessDefinitionByKeyAndTenantId(processDefinitionKey, tenantId);
+        ProcessDefinition processDefinition = findCachedLatestProcessDefinition(processDefinitionKey, tenantId);
+        if (processDefinition != null) {
+            return processDefinition;
+        }
+
+        long cacheGeneration = getProcessDefinitionLatestVersionCacheGeneration();
+        processDefinition = processDefinitionEntityManager.findLatestProcessDefinitionByKeyAndTenantId(processDefinitionKey, tenantId);
         if (processDefinition == null) {
             throw new FlowableObjectNotFoundException("no processes deployed with key '" + processDefinitionKey + "' for tenant identifier '" + tenantId + "'", ProcessDefinition.class);
         }
         processDefinition = resolveProcessDefinition(processDefinition).getProcessDefinition();
+        addLatestProcessDefinitionToCache(processDefinitionKey, tenantId, processDefinition, cacheGeneration);
         return processDefinition;
     }
 
+    /**
+     * @return the latest version of the process definition with the given key and tenant id when its id is in the latest version cache, null otherwise
+     */
+    protected ProcessDefinition findCachedLatestProcessDefinition(String processDefinitionKey, String tenantId) {
+        if (processDefinitionLatestVersionCache == null) {
+            return null;
+        }
+
+        cacheInvalidationNotifier.checkForChanges(CommandContextUtil.getCommandContext(), ProcessDefinitionLatestVersionCache.CACHE_NAME);
+        String processDefinitionId = processDefinitionLatestVersionCache.get(processDefinitionKey, tenantId);
+        if (processDefinitionId == null) {
+            return null;
+        }
+
+        ProcessDefinitionCacheEntry cacheEntry = processDefinitionCache.get(processDefinitionId);
+        if (cacheEntry != null) {
+            return cacheEntry.getProcessDefinition();
+        }
+
+        // Evicted from the process definition cache, or deleted by another node which hasn't been noticed yet
+        ProcessDefinition processDefinition = processDefinitionEntityManager.findById(processDefinitionId);
+        if (processDefinition == null) {
+            processDefinitionLatestVersionCache.remove(processDefinitionKey, tenantId);
+            return null;
+        }
+        return resolveProcessDefinition(processDefinition).getProcessDefinition();
+    }
+
+    protected long getProcessDefinitionLatestVersionCacheGeneration() {
+        return processDefinitionLatestVersionCache != null ? processDefinitionLatestVersionCache.getGeneration() : 0L;
+    }
+
+    protected void addLatestProcessDefinitionToCache(String processDefinitionKey, String tenantId, ProcessDefinition processDefinition, long cacheGeneration) {
+        if (processDefinitionLatestVersionCache != null) {
+            processDefinitionLatestVersionCache.add(processDefinitionKey, tenantId, processDefinition.getId(), cacheGeneration);
+        }
+    }
+
+    /**
+     * Invalidates the latest process definition versions cached by all engines, as the latest versions can have changed.
+     * Needs to be called in the transaction that adds, removes or changes deployments.
+     */
+    public void processDefinitionLatestVersionsChanged() {
+        if (processDefinitionLatestVersionCache != null) {
+            cacheInvalidationNotifier.cacheChanged(CommandContextUtil.getCommandContext(), ProcessDefinitionLatestVersionCache.CACHE_NAME);
+        }
+    }
+
     public ProcessDefinition findDeployedProcessDefinitionByKeyAndVersionAndTenantId(String processDefinitionKey, Integer processDefinitionVersion, String tenantId) {
         ProcessDefinition processDefinition = (ProcessDefinitionEntity) processDefinitionEntityManager
                 .findProcessDefinitionByKeyAndVersionAndTenantId(processDefinitionKey, processDefinitionVersion, tenantId);
@@ -185,6 +253,7 @@ public class DeploymentManager {
 
         if (Flowable5Util.isFlowable5Deployment(deployment, processEngineConfiguration)) {
             processEngineConfiguration.getFlowable5CompatibilityHandler().deleteDeployment(deploymentId, cascade);
+            processDefinitionLatestVersionsChanged();
             return;
         }
 
@@ -211,7 +280,9 @@ public class DeploymentManager {
         for (ProcessDefinition processDefinition : processDefinitions) {
             processDefinitionCache.remove(processDefinition.getId());
             processDefinitionInfoCache.remove(processDefinition.getId());
+            processEngineConfiguration.getScriptingEngines().removeCompiledScripts(processDefinition.getId());
         }
+        processDefinitionLatestVersionsChanged();
 
         appResourceCache.remove(deploymentId);
         knowledgeBaseCache.remove(deploymentId);
@@ -244,6 +315,22 @@ public class DeploymentManager {
         this.processDefinitionInfoCache = processDefinitionInfoCache;
     }
 
+    public ProcessDefinitionLatestVersionCache getProcessDefinitionLatestVersionCache() {
+        return processDefinitionLatestVersionCache;
+    }
+
+    public void setProcessDefinitionLatestVersionCache(ProcessDefinitionLatestVersionCache processDefinitionLatestVersionCache) {
+        this.processDefinitionLatestVersionCache = processDefinitionLatestVersionCache;
+    }
+
+    public CacheInvalidationNotifier getCacheInvalidationNotifier() {
+        return cacheInvalidationNotifier;
+    }
+
+    public void setCacheInvalidationNotifier(CacheInvalidationNotifier cacheInvalidationNotifier) {
+        this.cacheInvalidationNotifier = cacheInvalidationNotifier;
+    }
+
     public DeploymentCache<Object> getKnowledgeBaseCache() {
         return knowledgeBaseCache;
     }
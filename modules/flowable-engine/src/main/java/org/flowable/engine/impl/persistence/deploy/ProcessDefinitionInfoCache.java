@@ -16,8 +16,12 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.flowable.engine.common.api.FlowableException;
+import org.flowable.engine.common.impl.cfg.TransactionContext;
+import org.flowable.engine.common.impl.cfg.TransactionListener;
+import org.flowable.engine.common.impl.cfg.TransactionState;
 import org.flowable.engine.common.impl.context.Context;
 import org.flowable.engine.common.impl.interceptor.Command;
 import org.flowable.engine.common.impl.interceptor.CommandContext;
@@ -34,14 +38,24 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 /**
  * Default cache: keep everything in memory, unless a limit is set.
  * 
+ * By default, the revision of a cached info node is verified against the database on every get. When a staleness time is set, a cached
+ * info node is only verified again once it has been verified longer than the staleness time ago. When a {@link CacheInvalidationNotifier}
+ * is set, a cached info node is only verified again after the notifier signalled a change to any info node. Changes saved on this process
+ * engine are always visible immediately, as they invalidate the cached info node of the process definition.
+ * 
  * @author Tijs Rademakers
  */
-public class ProcessDefinitionInfoCache {
+public class ProcessDefinitionInfoCache implements CacheInvalidationListener {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ProcessDefinitionInfoCache.class);
 
+    public static final String CACHE_NAME = "processDefinitionInfo";
+
     protected Map<String, ProcessDefinitionInfoCacheObject> cache;
     protected CommandExecutor commandExecutor;
+    protected long stalenessTime;
+    protected CacheInvalidationNotifier cacheInvalidationNotifier;
+    protected AtomicLong generation = new AtomicLong();
 
     /** Cache with no limit */
     public ProcessDefinitionInfoCache(CommandExecutor commandExecutor) {
@@ -101,6 +115,39 @@ public class ProcessDefinitionInfoCache {
         cache.clear();
     }
 
+    /**
+     * Invalidates the cached info node of the given process definition, now and when the current transaction has ended.
+     * Other process engines are notified through the {@link CacheInvalidationNotifier}, if set.
+     */
+    public void processDefinitionInfoChanged(CommandContext commandContext, final String processDefinitionId) {
+        if (cacheInvalidationNotifier != null) {
+            cacheInvalidationNotifier.cacheChanged(commandContext, CACHE_NAME);
+        }
+
+        remove(processDefinitionId);
+
+        TransactionContext transactionContext = Context.getTransactionContext();
+        if (transactionContext != null) {
+            TransactionListener transactionListener = new TransactionListener() {
+
+                @Override
+                public void execute(CommandContext commandContext) {
+                    remove(processDefinitionId);
+                }
+            };
+            transactionContext.addTransactionListener(TransactionState.COMMITTED, transactionListener);
+            transactionContext.addTransactionListener(TransactionState.ROLLED_BACK, transactionListener);
+        }
+    }
+
+    /**
+     * Called by the {@link CacheInvalidationNotifier} when an info node was changed: all cached info nodes are verified again on their next get.
+     */
+    @Override
+    public void invalidateCache() {
+        generation.incrementAndGet();
+    }
+
     // For testing purposes only
     public int size() {
         return cache.size();
@@ -110,15 +157,26 @@ public class ProcessDefinitionInfoCache {
         ProcessDefinitionInfoEntityManager infoEntityManager = CommandContextUtil.getProcessDefinitionInfoEntityManager(commandContext);
         ObjectMapper objectMapper = CommandContextUtil.getProcessEngineConfiguration(commandContext).getObjectMapper();
 
-        ProcessDefinitionInfoCacheObject cacheObject = null;
-        if (cache.containsKey(processDefinitionId)) {
-            cacheObject = cache.get(processDefinitionId);
-        } else {
+        if (cacheInvalidationNotifier != null) {
+            cacheInvalidationNotifier.checkForChanges(commandContext, CACHE_NAME);
+        }
+
+        ProcessDefinitionInfoCacheObject cacheObject = cache.get(processDefinitionId);
+        if (cacheObject != null && isVerified(cacheObject)) {
+            return cacheObject;
+        }
+
+        if (cacheObject == null) {
             cacheObject = new ProcessDefinitionInfoCacheObject();
             cacheObject.setRevision(0);
             cacheObject.setInfoNode(objectMapper.createObjectNode());
+            cache.put(processDefinitionId, cacheObject);
         }
 
+        // Taken before the verification, so that an invalidation during the verification is not lost
+        long verificationGeneration = generation.get();
+        long verificationTime = System.currentTimeMillis();
+
         ProcessDefinitionInfoEntity infoEntity = infoEntityManager.findProcessDefinitionInfoByProcessDefinitionId(processDefinitionId);
         if (infoEntity != null && infoEntity.getRevision() != cacheObject.getRevision()) {
             cacheObject.setRevision(infoEntity.getRevision());
@@ -136,7 +194,37 @@ public class ProcessDefinitionInfoCache {
             cacheObject.setInfoNode(objectMapper.createObjectNode());
         }
 
+        cacheObject.setVerificationTime(verificationTime);
+        cacheObject.setVerificationGeneration(verificationGeneration);
+
         return cacheObject;
     }
 
+    protected boolean isVerified(ProcessDefinitionInfoCacheObject cacheObject) {
+        if (cacheObject.getVerificationGeneration() != generation.get()) {
+            return false;
+        }
+
+        if (cacheInvalidationNotifier != null) {
+            return true;
+        }
+        return stalenessTime > 0 && System.currentTimeMillis() - cacheObject.getVerificationTime() < stalenessTime;
+    }
+
+    public long getStalenessTime() {
+        return stalenessTime;
+    }
+
+    public void setStalenessTime(long stalenessTime) {
+        this.stalenessTime = stalenessTime;
+    }
+
+    public CacheInvalidationNotifier getCacheInvalidationNotifier() {
+        return cacheInvalidationNotifier;
+    }
+
+    public void setCacheInvalidationNotifier(CacheInvalidationNotifier cacheInvalidationNotifier) {
+        this.cacheInvalidationNotifier = cacheInvalidationNotifier;
+    }
+
 }
@@ -22,6 +22,8 @@ public class ProcessDefinitionInfoCacheObject {
     protected String id;
     protected int revision;
     protected ObjectNode infoNode;
+    protected volatile long verificationTime;
+    protected volatile long verificationGeneration = -1L;
 
     public String getId() {
         return id;
@@ -46,4 +48,20 @@ public class ProcessDefinitionInfoCacheObject {
     public void setInfoNode(ObjectNode infoNode) {
         this.infoNode = infoNode;
     }
+
+    public long getVerificationTime() {
+        return verificationTime;
+    }
+
+    public void setVerificationTime(long verificationTime) {
+        this.verificationTime = verificationTime;
+    }
+
+    public long getVerificationGeneration() {
+        return verificationGeneration;
+    }
+
+    public void setVerificationGeneration(long verificationGeneration) {
+        this.verificationGeneration = verificationGeneration;
+    }
 }
\ No newline at end of file
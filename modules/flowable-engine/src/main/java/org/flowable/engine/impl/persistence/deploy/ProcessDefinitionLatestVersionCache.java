@@ -0,0 +1,78 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.impl.persistence.deploy;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the id of the latest version of the process definitions by key and tenant id.
+ *
+ * The whole cache is invalidated when a deployment is added, removed or changed, which is signalled by the {@link CacheInvalidationNotifier}.
+ * To not keep a latest version that was read before such an invalidation, the generation of the cache is taken before the latest version
+ * is fetched, and the fetched version is only cached when no invalidation happened in the meantime.
+ */
+public class ProcessDefinitionLatestVersionCache implements CacheInvalidationListener {
+
+    public static final String CACHE_NAME = "processDefinitionLatestVersion";
+
+    protected ConcurrentMap<String, String> processDefinitionIds = new ConcurrentHashMap<>();
+    protected AtomicLong generation = new AtomicLong();
+
+    public String get(String processDefinitionKey, String tenantId) {
+        return processDefinitionIds.get(createCacheKey(processDefinitionKey, tenantId));
+    }
+
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Caches the id of the latest version, unless the cache was invalidated since the given generation was taken.
+     */
+    public void add(String processDefinitionKey, String tenantId, String processDefinitionId, long generation) {
+        if (this.generation.get() != generation) {
+            return;
+        }
+
+        String cacheKey = createCacheKey(processDefinitionKey, tenantId);
+        processDefinitionIds.put(cacheKey, processDefinitionId);
+
+        // The cache can have been invalidated between the check and the put
+        if (this.generation.get() != generation) {
+            processDefinitionIds.remove(cacheKey, processDefinitionId);
+        }
+    }
+
+    public void remove(String processDefinitionKey, String tenantId) {
+        processDefinitionIds.remove(createCacheKey(processDefinitionKey, tenantId));
+    }
+
+    @Override
+    public void invalidateCache() {
+        generation.incrementAndGet();
+        processDefinitionIds.clear();
+    }
+
+    // For testing purposes only
+    public int size() {
+        return processDefinitionIds.size();
+    }
+
+    protected String createCacheKey(String processDefinitionKey, String tenantId) {
+        // '#' is not allowed in a process definition key
+        return tenantId != null ? processDefinitionKey + '#' + tenantId : processDefinitionKey;
+    }
+
+}
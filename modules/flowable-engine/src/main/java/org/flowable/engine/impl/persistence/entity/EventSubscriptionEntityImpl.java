@@ -89,6 +89,7 @@ public abstract class EventSubscriptionEntityImpl extends AbstractEntity impleme
     @Override
     public void setExecutionId(String executionId) {
         this.executionId = executionId;
+        updateEntityCacheIndexes();
     }
 
     @Override
@@ -104,6 +105,7 @@ public abstract class EventSubscriptionEntityImpl extends AbstractEntity impleme
         this.execution = execution;
         if (execution != null) {
             this.executionId = execution.getId();
+            updateEntityCacheIndexes();
             this.processInstanceId = execution.getProcessInstanceId();
         }
     }
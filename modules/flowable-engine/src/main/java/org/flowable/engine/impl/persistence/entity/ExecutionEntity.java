@@ -13,6 +13,7 @@
 
 package org.flowable.engine.impl.persistence.entity;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -153,9 +154,28 @@ public interface ExecutionEntity extends DelegateExecution, Execution, ProcessIn
     void setCallbackId(String callbackId);
     
     void setCallbackType(String callbackType);
+
+    /**
+     * @return the id of the historic activity instance of the activity this execution is currently in, or was last in
+     */
+    String getActivityInstanceId();
+
+    void setActivityInstanceId(String activityInstanceId);
+
+    /**
+     * @return the start time of the historic activity instance returned by {@link #getActivityInstanceId()}
+     */
+    Date getActivityInstanceStartTime();
+
+    void setActivityInstanceStartTime(Date activityInstanceStartTime);
     
     void setVariable(String variableName, Object value, ExecutionEntity sourceExecution, boolean fetchAllVariables);
     
     Object setVariableLocal(String variableName, Object value, ExecutionEntity sourceExecution, boolean fetchAllVariables);
+    
+    /**
+     * Fetches the variables with the given names of this execution and all its parent executions in one query, without fetching all their variables.
+     */
+    void prefetchVariables(Collection<String> variableNames);
 
 }
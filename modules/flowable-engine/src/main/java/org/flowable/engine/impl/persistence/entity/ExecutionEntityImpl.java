@@ -27,6 +27,7 @@ import org.flowable.engine.common.api.FlowableException;
 import org.flowable.engine.common.impl.context.Context;
 import org.flowable.engine.common.impl.db.SuspensionState;
 import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.engine.common.impl.persistence.entity.DirtyTrackingEntity;
 import org.flowable.engine.impl.persistence.CountingExecutionEntity;
 import org.flowable.engine.impl.util.CommandContextUtil;
 import org.flowable.engine.impl.util.CountingEntityUtil;
@@ -47,7 +48,7 @@ import org.flowable.variable.service.impl.persistence.entity.VariableScopeImpl;
  * @author Joram Barrez
  */
 
-public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionEntity, CountingExecutionEntity {
+public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionEntity, CountingExecutionEntity, DirtyTrackingEntity {
 
     private static final long serialVersionUID = 1L;
 
@@ -209,6 +210,9 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
     protected String callbackId;
     protected String callbackType;
 
+    protected String activityInstanceId;
+    protected Date activityInstanceStartTime;
+
     public ExecutionEntityImpl() {
 
     }
@@ -265,6 +269,8 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
         persistentState.put("identityLinkCount", identityLinkCount);
         persistentState.put("callbackId", callbackId);
         persistentState.put("callbackType", callbackType);
+        persistentState.put("activityInstanceId", activityInstanceId);
+        persistentState.put("activityInstanceStartTime", activityInstanceStartTime);
         return persistentState;
     }
 
@@ -285,11 +291,9 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
     @Override
     public void setCurrentFlowElement(FlowElement currentFlowElement) {
         this.currentFlowElement = currentFlowElement;
-        if (currentFlowElement != null) {
-            this.activityId = currentFlowElement.getId();
-        } else {
-            this.activityId = null;
-        }
+        String activityId = currentFlowElement != null ? currentFlowElement.getId() : null;
+        trackChange("activityId", this.activityId, activityId);
+        this.activityId = activityId;
     }
 
     @Override
@@ -334,6 +338,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setBusinessKey(String businessKey) {
+        trackChange("businessKey", this.businessKey, businessKey);
         this.businessKey = businessKey;
     }
 
@@ -346,6 +351,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setProcessDefinitionId(String processDefinitionId) {
+        trackChange("processDefinitionId", this.processDefinitionId, processDefinitionId);
         this.processDefinitionId = processDefinitionId;
     }
 
@@ -414,6 +420,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
         this.processInstance = (ExecutionEntityImpl) processInstance;
         if (processInstance != null) {
             this.processInstanceId = this.processInstance.getId();
+            updateEntityCacheIndexes();
         }
     }
 
@@ -441,11 +448,10 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
     public void setParent(ExecutionEntity parent) {
         this.parent = (ExecutionEntityImpl) parent;
 
-        if (parent != null) {
-            this.parentId = parent.getId();
-        } else {
-            this.parentId = null;
-        }
+        String parentId = parent != null ? parent.getId() : null;
+        trackChange("parentId", this.parentId, parentId);
+        this.parentId = parentId;
+        updateEntityCacheIndexes();
     }
 
     // super- and subprocess executions /////////////////////////////////////////
@@ -468,11 +474,10 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
             superExecution.setSubProcessInstance(null);
         }
 
-        if (superExecution != null) {
-            this.superExecutionId = ((ExecutionEntityImpl) superExecution).getId();
-        } else {
-            this.superExecutionId = null;
-        }
+        String superExecutionId = superExecution != null ? superExecution.getId() : null;
+        trackChange("superExecutionId", this.superExecutionId, superExecutionId);
+        this.superExecutionId = superExecutionId;
+        updateEntityCacheIndexes();
     }
 
     protected void ensureSuperExecutionInitialized() {
@@ -514,11 +519,10 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
     public void setRootProcessInstance(ExecutionEntity rootProcessInstance) {
         this.rootProcessInstance = (ExecutionEntityImpl) rootProcessInstance;
 
-        if (rootProcessInstance != null) {
-            this.rootProcessInstanceId = rootProcessInstance.getId();
-        } else {
-            this.rootProcessInstanceId = null;
-        }
+        String rootProcessInstanceId = rootProcessInstance != null ? rootProcessInstance.getId() : null;
+        trackChange("rootProcessInstanceId", this.rootProcessInstanceId, rootProcessInstanceId);
+        this.rootProcessInstanceId = rootProcessInstanceId;
+        updateEntityCacheIndexes();
     }
 
     @Override
@@ -528,7 +532,9 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setRootProcessInstanceId(String rootProcessInstanceId) {
+        trackChange("rootProcessInstanceId", this.rootProcessInstanceId, rootProcessInstanceId);
         this.rootProcessInstanceId = rootProcessInstanceId;
+        updateEntityCacheIndexes();
     }
 
     // scopes ///////////////////////////////////////////////////////////////////
@@ -540,11 +546,13 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setScope(boolean isScope) {
+        trackChange("isScope", this.isScope, isScope);
         this.isScope = isScope;
     }
 
     @Override
     public void forceUpdate() {
+        trackChange("forcedUpdate", this.forcedUpdate, true);
         this.forcedUpdate = true;
     }
 
@@ -571,6 +579,11 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
     protected VariableScopeImpl getParentVariableScope() {
         return getParent();
     }
+
+    @Override
+    protected String getVariableScopeExecutionId() {
+        return id;
+    }
     
     @Override
     public void setVariable(String variableName, Object value, boolean fetchAllVariables) {
@@ -626,7 +639,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
                 // Not in local cache, check if defined on this scope
                 // Create it if it doesn't exist yet
-                VariableInstanceEntity variable = getSpecificVariable(variableName);
+                VariableInstanceEntity variable = findSpecificVariable(variableName);
                 if (variable != null) {
                     updateVariableInstance(variable, value, sourceExecution);
                     usedVariablesCache.put(variableName, variable);
@@ -689,7 +702,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
                 updateVariableInstance(variableInstances.get(variableName), value, sourceExecution);
             } else {
 
-                VariableInstanceEntity variable = getSpecificVariable(variableName);
+                VariableInstanceEntity variable = findSpecificVariable(variableName);
                 if (variable != null) {
                     updateVariableInstance(variable, value, sourceExecution);
                 } else {
@@ -863,6 +876,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
     @Override
     public void setProcessInstanceId(String processInstanceId) {
         this.processInstanceId = processInstanceId;
+        updateEntityCacheIndexes();
     }
 
     @Override
@@ -872,7 +886,9 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setParentId(String parentId) {
+        trackChange("parentId", this.parentId, parentId);
         this.parentId = parentId;
+        updateEntityCacheIndexes();
     }
 
     @Override
@@ -887,6 +903,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setConcurrent(boolean isConcurrent) {
+        trackChange("isConcurrent", this.isConcurrent, isConcurrent);
         this.isConcurrent = isConcurrent;
     }
 
@@ -897,11 +914,13 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setActive(boolean isActive) {
+        trackChange("isActive", this.isActive, isActive);
         this.isActive = isActive;
     }
 
     @Override
     public void inactivate() {
+        trackChange("isActive", this.isActive, false);
         this.isActive = false;
     }
 
@@ -942,6 +961,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setSuspensionState(int suspensionState) {
+        trackChange("suspensionState", this.suspensionState, suspensionState);
         this.suspensionState = suspensionState;
     }
 
@@ -957,6 +977,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setEventScope(boolean isEventScope) {
+        trackChange("isEventScope", this.isEventScope, isEventScope);
         this.isEventScope = isEventScope;
     }
 
@@ -967,6 +988,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setMultiInstanceRoot(boolean isMultiInstanceRoot) {
+        trackChange("isMultiInstanceRoot", this.isMultiInstanceRoot, isMultiInstanceRoot);
         this.isMultiInstanceRoot = isMultiInstanceRoot;
     }
 
@@ -977,6 +999,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setCountEnabled(boolean isCountEnabled) {
+        trackChange("isCountEnabled", this.isCountEnabled, isCountEnabled);
         this.isCountEnabled = isCountEnabled;
     }
 
@@ -996,6 +1019,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setName(String name) {
+        trackChange("name", this.name, name);
         this.name = name;
     }
 
@@ -1050,6 +1074,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setLockTime(Date lockTime) {
+        trackChange("lockTime", this.lockTime, lockTime);
         this.lockTime = lockTime;
     }
 
@@ -1088,6 +1113,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setStartActivityId(String startActivityId) {
+        trackChange("startActivityId", this.startActivityId, startActivityId);
         this.startActivityId = startActivityId;
     }
 
@@ -1098,6 +1124,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setStartUserId(String startUserId) {
+        trackChange("startUserId", this.startUserId, startUserId);
         this.startUserId = startUserId;
     }
 
@@ -1108,6 +1135,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setStartTime(Date startTime) {
+        trackChange("startTime", this.startTime, startTime);
         this.startTime = startTime;
     }
 
@@ -1118,6 +1146,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setEventSubscriptionCount(int eventSubscriptionCount) {
+        trackChange("eventSubscriptionCount", this.eventSubscriptionCount, eventSubscriptionCount);
         this.eventSubscriptionCount = eventSubscriptionCount;
     }
 
@@ -1128,6 +1157,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setTaskCount(int taskCount) {
+        trackChange("taskCount", this.taskCount, taskCount);
         this.taskCount = taskCount;
     }
 
@@ -1138,6 +1168,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setJobCount(int jobCount) {
+        trackChange("jobCount", this.jobCount, jobCount);
         this.jobCount = jobCount;
     }
 
@@ -1148,6 +1179,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setTimerJobCount(int timerJobCount) {
+        trackChange("timerJobCount", this.timerJobCount, timerJobCount);
         this.timerJobCount = timerJobCount;
     }
 
@@ -1158,6 +1190,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setSuspendedJobCount(int suspendedJobCount) {
+        trackChange("suspendedJobCount", this.suspendedJobCount, suspendedJobCount);
         this.suspendedJobCount = suspendedJobCount;
     }
 
@@ -1168,6 +1201,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setDeadLetterJobCount(int deadLetterJobCount) {
+        trackChange("deadLetterJobCount", this.deadLetterJobCount, deadLetterJobCount);
         this.deadLetterJobCount = deadLetterJobCount;
     }
 
@@ -1178,6 +1212,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setVariableCount(int variableCount) {
+        trackChange("variableCount", this.variableCount, variableCount);
         this.variableCount = variableCount;
     }
 
@@ -1188,6 +1223,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setIdentityLinkCount(int identityLinkCount) {
+        trackChange("identityLinkCount", this.identityLinkCount, identityLinkCount);
         this.identityLinkCount = identityLinkCount;
     }
     
@@ -1198,6 +1234,7 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setCallbackId(String callbackId) {
+        trackChange("callbackId", this.callbackId, callbackId);
         this.callbackId = callbackId;
     }
 
@@ -1208,9 +1245,32 @@ public class ExecutionEntityImpl extends VariableScopeImpl implements ExecutionE
 
     @Override
     public void setCallbackType(String callbackType) {
+        trackChange("callbackType", this.callbackType, callbackType);
         this.callbackType = callbackType;
     }
 
+    @Override
+    public String getActivityInstanceId() {
+        return activityInstanceId;
+    }
+
+    @Override
+    public void setActivityInstanceId(String activityInstanceId) {
+        trackChange("activityInstanceId", this.activityInstanceId, activityInstanceId);
+        this.activityInstanceId = activityInstanceId;
+    }
+
+    @Override
+    public Date getActivityInstanceStartTime() {
+        return activityInstanceStartTime;
+    }
+
+    @Override
+    public void setActivityInstanceStartTime(Date activityInstanceStartTime) {
+        trackChange("activityInstanceStartTime", this.activityInstanceStartTime, activityInstanceStartTime);
+        this.activityInstanceStartTime = activityInstanceStartTime;
+    }
+
     // toString /////////////////////////////////////////////////////////////////
 
     @Override
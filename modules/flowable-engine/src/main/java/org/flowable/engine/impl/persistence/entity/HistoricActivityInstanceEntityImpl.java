@@ -94,6 +94,7 @@ public class HistoricActivityInstanceEntityImpl extends HistoricScopeInstanceEnt
     @Override
     public void setExecutionId(String executionId) {
         this.executionId = executionId;
+        updateEntityCacheIndexes();
     }
 
     @Override
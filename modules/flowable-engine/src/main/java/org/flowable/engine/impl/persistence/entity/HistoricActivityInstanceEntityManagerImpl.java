@@ -13,8 +13,10 @@
 
 package org.flowable.engine.impl.persistence.entity;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.flowable.engine.common.impl.history.HistoryLevel;
 import org.flowable.engine.common.impl.persistence.entity.data.DataManager;
@@ -56,6 +58,11 @@ public class HistoricActivityInstanceEntityManagerImpl extends AbstractEntityMan
         return historicActivityInstanceDataManager.findUnfinishedHistoricActivityInstancesByProcessInstanceId(processInstanceId);
     }
 
+    @Override
+    public List<HistoricActivityInstanceEntity> findUnfinishedHistoricActivityInstancesByProcessInstanceIds(Set<String> processInstanceIds) {
+        return historicActivityInstanceDataManager.findUnfinishedHistoricActivityInstancesByProcessInstanceIds(processInstanceIds);
+    }
+
     @Override
     public void deleteHistoricActivityInstancesByProcessInstanceId(String historicProcessInstanceId) {
         if (getHistoryManager().isHistoryLevelAtLeast(HistoryLevel.ACTIVITY)) {
@@ -63,6 +70,11 @@ public class HistoricActivityInstanceEntityManagerImpl extends AbstractEntityMan
         }
     }
 
+    @Override
+    public boolean markHistoricActivityInstanceEnded(String id, String executionId, String activityId, Date endTime, Long durationInMillis, String deleteReason) {
+        return historicActivityInstanceDataManager.markHistoricActivityInstanceEnded(id, executionId, activityId, endTime, durationInMillis, deleteReason);
+    }
+
     @Override
     public long findHistoricActivityInstanceCountByQueryCriteria(HistoricActivityInstanceQueryImpl historicActivityInstanceQuery) {
         return historicActivityInstanceDataManager.findHistoricActivityInstanceCountByQueryCriteria(historicActivityInstanceQuery);
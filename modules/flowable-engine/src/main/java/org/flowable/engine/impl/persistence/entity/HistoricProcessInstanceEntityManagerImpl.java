@@ -16,6 +16,7 @@ package org.flowable.engine.impl.persistence.entity;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.flowable.engine.common.impl.persistence.entity.data.DataManager;
 import org.flowable.engine.history.HistoricProcessInstance;
@@ -81,6 +82,11 @@ public class HistoricProcessInstanceEntityManagerImpl extends AbstractEntityMana
     public List<HistoricProcessInstance> findHistoricProcessInstancesBySuperProcessInstanceId(String historicProcessInstanceId) {
         return historicProcessInstanceDataManager.findHistoricProcessInstancesBySuperProcessInstanceId(historicProcessInstanceId);
     }
+
+    @Override
+    public List<HistoricProcessInstanceEntity> findHistoricProcessInstancesByIds(Set<String> processInstanceIds) {
+        return historicProcessInstanceDataManager.findHistoricProcessInstancesByIds(processInstanceIds);
+    }
     
     @Override
     public List<String> findHistoricProcessInstanceIdsByProcessDefinitionId(String processDefinitionId) {
@@ -65,8 +65,10 @@ public class ProcessDefinitionInfoEntityManagerImpl extends
 
             if (processDefinitionInfo.getInfoJsonId() == null) {
                 processDefinitionInfo.setInfoJsonId(ref.getId());
-                updateProcessDefinitionInfo(processDefinitionInfo);
             }
+
+            // Always updated, so that the revision tells the process definition info caches that the json has changed
+            updateProcessDefinitionInfo(processDefinitionInfo);
         }
     }
 
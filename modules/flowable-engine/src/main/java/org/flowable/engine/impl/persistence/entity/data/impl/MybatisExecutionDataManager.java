@@ -16,12 +16,14 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.flowable.engine.common.api.FlowableOptimisticLockingException;
 import org.flowable.engine.common.impl.db.CachedEntityMatcher;
 import org.flowable.engine.common.impl.db.SingleCachedEntityMatcher;
+import org.flowable.engine.common.impl.util.CollectionUtil;
 import org.flowable.engine.impl.ExecutionQueryImpl;
 import org.flowable.engine.impl.ProcessInstanceQueryImpl;
 import org.flowable.engine.impl.cfg.PerformanceSettings;
@@ -43,6 +45,7 @@ import org.flowable.engine.impl.persistence.entity.data.impl.cachematcher.Proces
 import org.flowable.engine.impl.persistence.entity.data.impl.cachematcher.SubProcessInstanceExecutionBySuperExecutionIdMatcher;
 import org.flowable.engine.runtime.Execution;
 import org.flowable.engine.runtime.ProcessInstance;
+import org.flowable.variable.service.impl.persistence.entity.VariableInstanceEntity;
 
 /**
  * @author Joram Barrez
@@ -255,6 +258,10 @@ public class MybatisExecutionDataManager extends AbstractProcessDataManager<Exec
     @Override
     @SuppressWarnings("unchecked")
     public List<ProcessInstance> findProcessInstanceAndVariablesByQueryCriteria(ProcessInstanceQueryImpl executionQuery) {
+        if (performanceSettings.isEnableTwoPhaseVariableQueries()) {
+            return findProcessInstanceAndVariablesInTwoPhases(executionQuery);
+        }
+
         // paging doesn't work for combining process instances and variables due
         // to an outer join, so doing it in-memory
 
@@ -271,6 +278,10 @@ public class MybatisExecutionDataManager extends AbstractProcessDataManager<Exec
 
         List<ProcessInstance> instanceList = getDbSqlSession().selectListWithRawParameterNoCacheCheck("selectProcessInstanceWithVariablesByQueryCriteria", executionQuery);
 
+        // The paging of the query is used again to create the continuation token of the page
+        executionQuery.setFirstResult(firstResult);
+        executionQuery.setMaxResults(maxResults);
+
         if (instanceList != null && !instanceList.isEmpty()) {
             if (firstResult > 0) {
                 if (firstResult <= instanceList.size()) {
@@ -287,6 +298,35 @@ public class MybatisExecutionDataManager extends AbstractProcessDataManager<Exec
         return Collections.EMPTY_LIST;
     }
 
+    /**
+     * Fetches the requested page of process instances without joining the variables, so the database can do the paging,
+     * and then fetches the variables of the process instances of that page in one query.
+     */
+    @SuppressWarnings("unchecked")
+    protected List<ProcessInstance> findProcessInstanceAndVariablesInTwoPhases(ProcessInstanceQueryImpl executionQuery) {
+        List<ProcessInstance> processInstances = getDbSqlSession().selectListWithRawParameterNoCacheCheck("selectProcessInstanceByQueryCriteria", executionQuery);
+        if (processInstances.isEmpty()) {
+            return processInstances;
+        }
+
+        Map<String, ExecutionEntityImpl> processInstancesById = new LinkedHashMap<>();
+        for (ProcessInstance processInstance : processInstances) {
+            processInstancesById.put(processInstance.getId(), (ExecutionEntityImpl) processInstance);
+        }
+
+        for (List<String> processInstanceIds : CollectionUtil.partition(processInstancesById.keySet(), MAX_IN_CLAUSE_VALUES)) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("executionIds", processInstanceIds);
+            params.put("names", executionQuery.getProcessInstanceVariableNames());
+            List<VariableInstanceEntity> variables = getDbSqlSession().selectListNoCacheCheck("selectVariableInstancesByExecutionIdsAndNames", params);
+            for (VariableInstanceEntity variable : variables) {
+                processInstancesById.get(variable.getExecutionId()).getQueryVariables().add(variable);
+            }
+        }
+
+        return processInstances;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public List<Execution> findExecutionsByNativeQuery(Map<String, Object> parameterMap) {
@@ -12,9 +12,11 @@
  */
 package org.flowable.engine.impl.persistence.entity.data.impl;
 
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.flowable.engine.common.impl.db.CachedEntityMatcher;
 import org.flowable.engine.history.HistoricActivityInstance;
@@ -72,11 +74,29 @@ public class MybatisHistoricActivityInstanceDataManager extends AbstractProcessD
         return getList("selectUnfinishedHistoricActivityInstanceExecutionIdAndActivityId", params, unfinishedHistoricActivityInstanceMatcher, true);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<HistoricActivityInstanceEntity> findUnfinishedHistoricActivityInstancesByProcessInstanceIds(Set<String> processInstanceIds) {
+        return getDbSqlSession().selectList("selectUnfinishedHistoricActivityInstancesByProcessInstanceIds", processInstanceIds);
+    }
+
     @Override
     public void deleteHistoricActivityInstancesByProcessInstanceId(String historicProcessInstanceId) {
         getDbSqlSession().delete("deleteHistoricActivityInstancesByProcessInstanceId", historicProcessInstanceId, HistoricActivityInstanceEntityImpl.class);
     }
 
+    @Override
+    public boolean markHistoricActivityInstanceEnded(String id, String executionId, String activityId, Date endTime, Long durationInMillis, String deleteReason) {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("id", id);
+        params.put("executionId", executionId);
+        params.put("activityId", activityId);
+        params.put("endTime", endTime);
+        params.put("durationInMillis", durationInMillis);
+        params.put("deleteReason", deleteReason);
+        return getDbSqlSession().update("markHistoricActivityInstanceEnded", params) > 0;
+    }
+
     @Override
     public long findHistoricActivityInstanceCountByQueryCriteria(HistoricActivityInstanceQueryImpl historicActivityInstanceQuery) {
         return (Long) getDbSqlSession().selectOne("selectHistoricActivityInstanceCountByQueryCriteria", historicActivityInstanceQuery);
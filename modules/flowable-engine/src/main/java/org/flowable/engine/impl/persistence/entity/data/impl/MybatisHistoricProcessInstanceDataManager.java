@@ -13,9 +13,13 @@
 package org.flowable.engine.impl.persistence.entity.data.impl;
 
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import org.flowable.engine.common.impl.util.CollectionUtil;
 import org.flowable.engine.history.HistoricProcessInstance;
 import org.flowable.engine.impl.HistoricProcessInstanceQueryImpl;
 import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
@@ -24,6 +28,7 @@ import org.flowable.engine.impl.persistence.entity.HistoricProcessInstanceEntity
 import org.flowable.engine.impl.persistence.entity.HistoricProcessInstanceEntityImpl;
 import org.flowable.engine.impl.persistence.entity.data.AbstractProcessDataManager;
 import org.flowable.engine.impl.persistence.entity.data.HistoricProcessInstanceDataManager;
+import org.flowable.variable.service.impl.persistence.entity.HistoricVariableInstanceEntity;
 
 /**
  * @author Joram Barrez
@@ -61,6 +66,12 @@ public class MybatisHistoricProcessInstanceDataManager extends AbstractProcessDa
         return getDbSqlSession().selectList("selectHistoricProcessInstanceIdsBySuperProcessInstanceId", superProcessInstanceId);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<HistoricProcessInstanceEntity> findHistoricProcessInstancesByIds(Set<String> processInstanceIds) {
+        return getDbSqlSession().selectList("selectHistoricProcessInstancesByIds", processInstanceIds);
+    }
+
     @Override
     public long findHistoricProcessInstanceCountByQueryCriteria(HistoricProcessInstanceQueryImpl historicProcessInstanceQuery) {
         return (Long) getDbSqlSession().selectOne("selectHistoricProcessInstanceCountByQueryCriteria", historicProcessInstanceQuery);
@@ -75,6 +86,10 @@ public class MybatisHistoricProcessInstanceDataManager extends AbstractProcessDa
     @Override
     @SuppressWarnings("unchecked")
     public List<HistoricProcessInstance> findHistoricProcessInstancesAndVariablesByQueryCriteria(HistoricProcessInstanceQueryImpl historicProcessInstanceQuery) {
+        if (getProcessEngineConfiguration().getPerformanceSettings().isEnableTwoPhaseVariableQueries()) {
+            return findHistoricProcessInstancesAndVariablesInTwoPhases(historicProcessInstanceQuery);
+        }
+
         // paging doesn't work for combining process instances and variables
         // due to an outer join, so doing it in-memory
 
@@ -91,6 +106,10 @@ public class MybatisHistoricProcessInstanceDataManager extends AbstractProcessDa
 
         List<HistoricProcessInstance> instanceList = getDbSqlSession().selectListWithRawParameterNoCacheCheck("selectHistoricProcessInstancesWithVariablesByQueryCriteria", historicProcessInstanceQuery);
 
+        // The paging of the query is used again to create the continuation token of the page
+        historicProcessInstanceQuery.setFirstResult(firstResult);
+        historicProcessInstanceQuery.setMaxResults(maxResults);
+
         if (instanceList != null && !instanceList.isEmpty()) {
             if (firstResult > 0) {
                 if (firstResult <= instanceList.size()) {
@@ -108,6 +127,37 @@ public class MybatisHistoricProcessInstanceDataManager extends AbstractProcessDa
         return instanceList;
     }
 
+    /**
+     * Fetches the requested page of historic process instances without joining the variables, so the database can do the paging,
+     * and then fetches the variables of the process instances of that page in one query.
+     */
+    @SuppressWarnings("unchecked")
+    protected List<HistoricProcessInstance> findHistoricProcessInstancesAndVariablesInTwoPhases(HistoricProcessInstanceQueryImpl historicProcessInstanceQuery) {
+        List<HistoricProcessInstance> historicProcessInstances = getDbSqlSession().selectListWithRawParameterNoCacheCheck(
+                "selectHistoricProcessInstancesByQueryCriteria", historicProcessInstanceQuery);
+        if (historicProcessInstances.isEmpty()) {
+            return historicProcessInstances;
+        }
+
+        Map<String, HistoricProcessInstanceEntityImpl> processInstancesById = new LinkedHashMap<>();
+        for (HistoricProcessInstance historicProcessInstance : historicProcessInstances) {
+            processInstancesById.put(historicProcessInstance.getId(), (HistoricProcessInstanceEntityImpl) historicProcessInstance);
+        }
+
+        // The variables are ordered by their last update time, so the last value of a variable is used
+        for (List<String> processInstanceIds : CollectionUtil.partition(processInstancesById.keySet(), MAX_IN_CLAUSE_VALUES)) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("processInstanceIds", processInstanceIds);
+            params.put("names", historicProcessInstanceQuery.getProcessInstanceVariableNames());
+            List<HistoricVariableInstanceEntity> variables = getDbSqlSession().selectListNoCacheCheck("selectHistoricVariableInstancesByProcessInstanceIdsAndNames", params);
+            for (HistoricVariableInstanceEntity variable : variables) {
+                processInstancesById.get(variable.getExecutionId()).getQueryVariables().add(variable);
+            }
+        }
+
+        return historicProcessInstances;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public List<HistoricProcessInstance> findHistoricProcessInstancesByNativeQuery(Map<String, Object> parameterMap) {
@@ -0,0 +1,75 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.impl.persistence.entity.data.impl.cachematcher;
+
+import org.flowable.engine.common.impl.persistence.cache.EntityCacheIndex;
+import org.flowable.engine.impl.persistence.entity.EventSubscriptionEntity;
+import org.flowable.engine.impl.persistence.entity.ExecutionEntity;
+import org.flowable.engine.impl.persistence.entity.HistoricActivityInstanceEntity;
+
+/**
+ * The secondary indexes of the entity cache used by the cached entity matchers.
+ * 
+ * The setters of the indexed properties call updateEntityCacheIndexes(), so these need to be kept in sync with the entity implementations.
+ */
+public class EntityCacheIndexes {
+
+    public static final EntityCacheIndex<ExecutionEntity> EXECUTION_BY_PARENT_ID = new EntityCacheIndex<ExecutionEntity>() {
+
+        @Override
+        public Object getKey(ExecutionEntity executionEntity) {
+            return executionEntity.getParentId();
+        }
+    };
+
+    public static final EntityCacheIndex<ExecutionEntity> EXECUTION_BY_PROCESS_INSTANCE_ID = new EntityCacheIndex<ExecutionEntity>() {
+
+        @Override
+        public Object getKey(ExecutionEntity executionEntity) {
+            return executionEntity.getProcessInstanceId();
+        }
+    };
+
+    public static final EntityCacheIndex<ExecutionEntity> EXECUTION_BY_ROOT_PROCESS_INSTANCE_ID = new EntityCacheIndex<ExecutionEntity>() {
+
+        @Override
+        public Object getKey(ExecutionEntity executionEntity) {
+            return executionEntity.getRootProcessInstanceId();
+        }
+    };
+
+    public static final EntityCacheIndex<ExecutionEntity> EXECUTION_BY_SUPER_EXECUTION_ID = new EntityCacheIndex<ExecutionEntity>() {
+
+        @Override
+        public Object getKey(ExecutionEntity executionEntity) {
+            return executionEntity.getSuperExecutionId();
+        }
+    };
+
+    public static final EntityCacheIndex<EventSubscriptionEntity> EVENT_SUBSCRIPTION_BY_EXECUTION_ID = new EntityCacheIndex<EventSubscriptionEntity>() {
+
+        @Override
+        public Object getKey(EventSubscriptionEntity eventSubscriptionEntity) {
+            return eventSubscriptionEntity.getExecutionId();
+        }
+    };
+
+    public static final EntityCacheIndex<HistoricActivityInstanceEntity> HISTORIC_ACTIVITY_INSTANCE_BY_EXECUTION_ID = new EntityCacheIndex<HistoricActivityInstanceEntity>() {
+
+        @Override
+        public Object getKey(HistoricActivityInstanceEntity historicActivityInstanceEntity) {
+            return historicActivityInstanceEntity.getExecutionId();
+        }
+    };
+
+}
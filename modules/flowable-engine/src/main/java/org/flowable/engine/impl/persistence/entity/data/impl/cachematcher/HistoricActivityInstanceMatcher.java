@@ -15,12 +15,14 @@ package org.flowable.engine.impl.persistence.entity.data.impl.cachematcher;
 import java.util.Map;
 
 import org.flowable.engine.common.impl.db.CachedEntityMatcherAdapter;
+import org.flowable.engine.common.impl.db.IndexedCachedEntityMatcher;
+import org.flowable.engine.common.impl.persistence.cache.EntityCacheIndex;
 import org.flowable.engine.impl.persistence.entity.HistoricActivityInstanceEntity;
 
 /**
  * @author Joram Barrez
  */
-public class HistoricActivityInstanceMatcher extends CachedEntityMatcherAdapter<HistoricActivityInstanceEntity> {
+public class HistoricActivityInstanceMatcher extends CachedEntityMatcherAdapter<HistoricActivityInstanceEntity> implements IndexedCachedEntityMatcher<HistoricActivityInstanceEntity> {
 
     @Override
     public boolean isRetained(HistoricActivityInstanceEntity entity, Object parameter) {
@@ -32,4 +34,15 @@ public class HistoricActivityInstanceMatcher extends CachedEntityMatcherAdapter<
                 && entity.getActivityId() != null && entity.getActivityId().equals(activityId);
     }
 
+    @Override
+    public EntityCacheIndex<HistoricActivityInstanceEntity> getIndex() {
+        return EntityCacheIndexes.HISTORIC_ACTIVITY_INSTANCE_BY_EXECUTION_ID;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object getIndexKey(Object parameter) {
+        return ((Map<String, String>) parameter).get("executionId");
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,152 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.impl.scripting;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps compiled scripts per process definition, language and script text, evicting the least recently used script when the limit is reached.
+ * Used by the {@link ScriptingEngines} for {@link javax.script.CompiledScript}s, and by scripting modules that compile scripts themselves.
+ *
+ * The hit and miss counts tell how effective the cache is for the scripts that are executed.
+ *
+ * @param <S> the type of the compiled scripts
+ */
+public class CompiledScriptCache<S> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompiledScriptCache.class);
+
+    protected final Map<Key, S> cache;
+    protected final AtomicLong hitCount = new AtomicLong();
+    protected final AtomicLong missCount = new AtomicLong();
+
+    public CompiledScriptCache(final int limit) {
+        this.cache = new LinkedHashMap<Key, S>(limit + 1, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, S> eldest) {
+                boolean removeEldest = size() > limit;
+                if (removeEldest && LOGGER.isTraceEnabled()) {
+                    LOGGER.trace("Compiled script cache limit is reached, script of process definition {} will be evicted", eldest.getKey().processDefinitionId);
+                }
+                return removeEldest;
+            }
+
+        };
+    }
+
+    public S get(String processDefinitionId, String language, String script) {
+        S compiledScript;
+        synchronized (cache) {
+            compiledScript = cache.get(new Key(processDefinitionId, language, script));
+        }
+
+        if (compiledScript != null) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+        }
+        return compiledScript;
+    }
+
+    public void add(String processDefinitionId, String language, String script, S compiledScript) {
+        synchronized (cache) {
+            cache.put(new Key(processDefinitionId, language, script), compiledScript);
+        }
+    }
+
+    /**
+     * Removes the compiled scripts of the given process definition, for example because its deployment is deleted.
+     */
+    public void removeProcessDefinition(String processDefinitionId) {
+        synchronized (cache) {
+            Iterator<Key> keyIterator = cache.keySet().iterator();
+            while (keyIterator.hasNext()) {
+                Key key = keyIterator.next();
+                if (processDefinitionId.equals(key.processDefinitionId)) {
+                    keyIterator.remove();
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public double getHitRatio() {
+        long hits = hitCount.get();
+        long total = hits + missCount.get();
+        return total > 0 ? (double) hits / total : 0.0;
+    }
+
+    protected static class Key {
+
+        protected final String processDefinitionId;
+        protected final String language;
+        protected final String script;
+
+        public Key(String processDefinitionId, String language, String script) {
+            this.processDefinitionId = processDefinitionId;
+            this.language = language;
+            this.script = script;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = processDefinitionId != null ? processDefinitionId.hashCode() : 0;
+            result = 31 * result + language.hashCode();
+            result = 31 * result + script.hashCode();
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return (processDefinitionId != null ? processDefinitionId.equals(other.processDefinitionId) : other.processDefinitionId == null)
+                    && language.equals(other.language) && script.equals(other.script);
+        }
+
+    }
+
+}
@@ -17,6 +17,8 @@ import java.util.List;
 import java.util.Map;
 
 import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineFactory;
@@ -24,6 +26,8 @@ import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
 
 import org.flowable.engine.common.api.FlowableException;
+import org.flowable.engine.delegate.DelegateExecution;
+import org.flowable.task.service.delegate.DelegateTask;
 import org.flowable.variable.service.delegate.VariableScope;
 
 /**
@@ -42,6 +46,9 @@ public class ScriptingEngines {
     protected boolean cacheScriptingEngines = true;
     protected Map<String, ScriptEngine> cachedEngines;
 
+    // Only used when set, for script engines that implement Compilable
+    protected CompiledScriptCache<CompiledScript> compiledScriptCache;
+
     public ScriptingEngines(ScriptBindingsFactory scriptBindingsFactory) {
         this(new ScriptEngineManager());
         this.scriptBindingsFactory = scriptBindingsFactory;
@@ -66,11 +73,11 @@ public class ScriptingEngines {
     }
 
     public Object evaluate(String script, String language, VariableScope variableScope) {
-        return evaluate(script, language, createBindings(variableScope));
+        return evaluate(script, language, createBindings(variableScope), getProcessDefinitionId(variableScope));
     }
 
     public Object evaluate(String script, String language, VariableScope variableScope, boolean storeScriptVariables) {
-        return evaluate(script, language, createBindings(variableScope, storeScriptVariables));
+        return evaluate(script, language, createBindings(variableScope, storeScriptVariables), getProcessDefinitionId(variableScope));
     }
 
     public void setCacheScriptingEngines(boolean cacheScriptingEngines) {
@@ -81,15 +88,62 @@ public class ScriptingEngines {
         return cacheScriptingEngines;
     }
 
+    public CompiledScriptCache<CompiledScript> getCompiledScriptCache() {
+        return compiledScriptCache;
+    }
+
+    public void setCompiledScriptCache(CompiledScriptCache<CompiledScript> compiledScriptCache) {
+        this.compiledScriptCache = compiledScriptCache;
+    }
+
+    /**
+     * Removes the compiled scripts of the given process definition, when the compiled script cache is used.
+     */
+    public void removeCompiledScripts(String processDefinitionId) {
+        if (compiledScriptCache != null) {
+            compiledScriptCache.removeProcessDefinition(processDefinitionId);
+        }
+    }
+
     protected Object evaluate(String script, String language, Bindings bindings) {
-        ScriptEngine scriptEngine = getEngineByName(language);
+        return evaluate(script, language, bindings, null);
+    }
+
+    protected Object evaluate(String script, String language, Bindings bindings, String processDefinitionId) {
+        // JUEL binds the variables of an expression when it is parsed, so a compiled JUEL expression can't be evaluated with other bindings
+        boolean useCompiledScriptCache = compiledScriptCache != null && script != null && language != null && !DEFAULT_SCRIPTING_LANGUAGE.equals(language);
         try {
+            if (useCompiledScriptCache) {
+                // A cached script doesn't need the script engine, which is created for every evaluation when the engine is not cached
+                CompiledScript compiledScript = compiledScriptCache.get(processDefinitionId, language, script);
+                if (compiledScript != null) {
+                    return compiledScript.eval(bindings);
+                }
+            }
+
+            ScriptEngine scriptEngine = getEngineByName(language);
+            if (useCompiledScriptCache && scriptEngine instanceof Compilable) {
+                CompiledScript compiledScript = ((Compilable) scriptEngine).compile(script);
+                compiledScriptCache.add(processDefinitionId, language, script, compiledScript);
+                return compiledScript.eval(bindings);
+            }
+
             return scriptEngine.eval(script, bindings);
+
         } catch (ScriptException e) {
             throw new FlowableException("problem evaluating script: " + e.getMessage(), e);
         }
     }
 
+    protected String getProcessDefinitionId(VariableScope variableScope) {
+        if (variableScope instanceof DelegateExecution) {
+            return ((DelegateExecution) variableScope).getProcessDefinitionId();
+        } else if (variableScope instanceof DelegateTask) {
+            return ((DelegateTask) variableScope).getProcessDefinitionId();
+        }
+        return null;
+    }
+
     protected ScriptEngine getEngineByName(String language) {
         ScriptEngine scriptEngine = null;
 
@@ -13,6 +13,7 @@
 package org.flowable.engine.runtime;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
@@ -299,6 +300,11 @@ public interface ProcessInstanceQuery extends Query<ProcessInstanceQuery, Proces
      */
     ProcessInstanceQuery limitProcessInstanceVariables(Integer processInstanceVariablesLimit);
 
+    /**
+     * Only include the process variables with the given names in the process query result
+     */
+    ProcessInstanceQuery limitProcessInstanceVariableNames(Collection<String> variableNames);
+
     /**
      * Only select process instances that failed due to an exception happening during a job execution.
      */
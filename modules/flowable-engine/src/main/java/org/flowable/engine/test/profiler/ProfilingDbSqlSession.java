@@ -14,7 +14,9 @@ package org.flowable.engine.test.profiler;
 
 import java.sql.Connection;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.flowable.engine.common.impl.db.BulkDeleteOperation;
 import org.flowable.engine.common.impl.db.DbSqlSession;
@@ -121,22 +123,48 @@ public class ProfilingDbSqlSession extends DbSqlSession {
     @Override
     protected void flushUpdates() {
         if (getCurrentCommandExecution() != null) {
-            for (Entity persistentObject : updatedObjects) {
-                getCurrentCommandExecution().addDbUpdate(persistentObject.getClass().getName());
+            if (isFlushBatched(updatedObjects)) {
+                Map<String, Integer> batchedUpdates = new LinkedHashMap<>();
+                for (Entity persistentObject : updatedObjects) {
+                    String className = persistentObject.getClass().getName();
+                    Integer count = batchedUpdates.get(className);
+                    batchedUpdates.put(className, count != null ? count + 1 : 1);
+                }
+                for (Map.Entry<String, Integer> batchedUpdate : batchedUpdates.entrySet()) {
+                    getCurrentCommandExecution().addDbUpdate(batchedUpdate.getKey() + "-batch-with-" + batchedUpdate.getValue());
+                }
+
+            } else {
+                for (Entity persistentObject : updatedObjects) {
+                    getCurrentCommandExecution().addDbUpdate(persistentObject.getClass().getName());
+                }
             }
         }
 
         super.flushUpdates();
     }
 
+    @Override
+    public int update(String statement, Object parameters) {
+        if (getCurrentCommandExecution() != null) {
+            getCurrentCommandExecution().addDbUpdate(statement);
+        }
+        return super.update(statement, parameters);
+    }
+
     // DELETES
 
     @Override
     protected void flushDeleteEntities(Class<? extends Entity> entityClass, Collection<Entity> entitiesToDelete) {
+        boolean flushBatched = isFlushBatched(entitiesToDelete);
         super.flushDeleteEntities(entityClass, entitiesToDelete);
         if (getCurrentCommandExecution() != null) {
-            for (Entity entity : entitiesToDelete) {
-                getCurrentCommandExecution().addDbDelete(entity.getClass().getName());
+            if (flushBatched) {
+                getCurrentCommandExecution().addDbDelete(entityClass.getName() + "-batch-with-" + entitiesToDelete.size());
+            } else {
+                for (Entity entity : entitiesToDelete) {
+                    getCurrentCommandExecution().addDbDelete(entity.getClass().getName());
+                }
             }
         }
     }
@@ -86,6 +86,8 @@ create table ACT_RU_EXECUTION (
     ID_LINK_COUNT_ int,
     CALLBACK_ID_ nvarchar(255),
     CALLBACK_TYPE_ nvarchar(255),
+    ACT_INST_ID_ nvarchar(64),
+    ACT_INST_START_TIME_ datetime,
     primary key (ID_)
 );
 
@@ -85,6 +85,8 @@ create table ACT_RU_EXECUTION (
     ID_LINK_COUNT_ integer,
     CALLBACK_ID_ varchar(255),
     CALLBACK_TYPE_ varchar(255),
+    ACT_INST_ID_ varchar(64),
+    ACT_INST_START_TIME_ datetime,
     primary key (ID_)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8 COLLATE utf8_bin;
 
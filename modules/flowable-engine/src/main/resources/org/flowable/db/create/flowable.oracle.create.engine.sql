@@ -86,6 +86,8 @@ create table ACT_RU_EXECUTION (
     ID_LINK_COUNT_ INTEGER,
     CALLBACK_ID_ NVARCHAR2(255),
     CALLBACK_TYPE_ NVARCHAR2(255),
+    ACT_INST_ID_ NVARCHAR2(64),
+    ACT_INST_START_TIME_ TIMESTAMP(6),
     primary key (ID_)
 );
 
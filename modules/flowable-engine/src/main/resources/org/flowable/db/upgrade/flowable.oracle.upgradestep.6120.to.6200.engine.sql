@@ -1,4 +1,6 @@
 alter table ACT_RU_EXECUTION add CALLBACK_ID_ NVARCHAR2(255);
 alter table ACT_RU_EXECUTION add CALLBACK_TYPE_ NVARCHAR2(255);
+alter table ACT_RU_EXECUTION add ACT_INST_ID_ NVARCHAR2(64);
+alter table ACT_RU_EXECUTION add ACT_INST_START_TIME_ TIMESTAMP(6);
 
 update ACT_GE_PROPERTY set VALUE_ = '6.2.0.0' where NAME_ = 'schema.version';
\ No newline at end of file
@@ -0,0 +1,239 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.test.api.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.flowable.bpmn.model.BpmnModel;
+import org.flowable.bpmn.model.EventListener;
+import org.flowable.bpmn.model.ImplementationType;
+import org.flowable.engine.ProcessEngine;
+import org.flowable.engine.ProcessEngines;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.common.api.FlowableException;
+import org.flowable.engine.common.api.delegate.event.FlowableEngineEvent;
+import org.flowable.engine.common.api.delegate.event.FlowableEngineEventType;
+import org.flowable.engine.common.api.delegate.event.FlowableEvent;
+import org.flowable.engine.common.api.delegate.event.FlowableEventDispatcher;
+import org.flowable.engine.common.api.delegate.event.FlowableEventType;
+import org.flowable.engine.common.api.delegate.event.FlowableNonTransactionalEventListener;
+import org.flowable.engine.common.impl.interceptor.Command;
+import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.flowable.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.flowable.engine.impl.test.AbstractTestCase;
+import org.flowable.engine.repository.Deployment;
+import org.flowable.engine.test.util.TestProcessUtil;
+
+/**
+ * Tests which event types the event dispatcher reports to have listeners, and notifying non-transactional listeners on another thread.
+ */
+public class EventDispatcherListenersTest extends AbstractTestCase {
+
+    protected ProcessEngine processEngine;
+    protected FlowableEventDispatcher eventDispatcher;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        // Make sure no other process engine is using the database
+        ProcessEngines.destroy();
+
+        processEngine = new StandaloneInMemProcessEngineConfiguration()
+                .setNonTransactionalEventListenerExecutorPoolSize(1)
+                .setJdbcUrl("jdbc:h2:mem:flowable-event-dispatcher-listeners-test;DB_CLOSE_DELAY=1000")
+                .buildProcessEngine();
+        eventDispatcher = processEngine.getProcessEngineConfiguration().getEventDispatcher();
+        StaticTestFlowableEventListener.clearEventsReceived();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        for (Deployment deployment : processEngine.getRepositoryService().createDeploymentQuery().list()) {
+            processEngine.getRepositoryService().deleteDeployment(deployment.getId(), true);
+        }
+        processEngine.close();
+        StaticTestFlowableEventListener.clearEventsReceived();
+
+        super.tearDown();
+    }
+
+    public void testListenersOnDispatcher() {
+        assertFalse(eventDispatcher.hasListeners(FlowableEngineEventType.ACTIVITY_STARTED));
+        assertFalse(eventDispatcher.hasListeners(FlowableEngineEventType.ENTITY_CREATED));
+
+        TestFlowableEventListener typedListener = new TestFlowableEventListener();
+        eventDispatcher.addEventListener(typedListener, FlowableEngineEventType.ACTIVITY_STARTED);
+        assertTrue(eventDispatcher.hasListeners(FlowableEngineEventType.ACTIVITY_STARTED));
+        assertFalse(eventDispatcher.hasListeners(FlowableEngineEventType.ENTITY_CREATED));
+
+        TestFlowableEventListener globalListener = new TestFlowableEventListener();
+        eventDispatcher.addEventListener(globalListener);
+        assertTrue(eventDispatcher.hasListeners(FlowableEngineEventType.ENTITY_CREATED));
+
+        eventDispatcher.removeEventListener(typedListener);
+        eventDispatcher.removeEventListener(globalListener);
+        assertFalse(eventDispatcher.hasListeners(FlowableEngineEventType.ACTIVITY_STARTED));
+        assertFalse(eventDispatcher.hasListeners(FlowableEngineEventType.ENTITY_CREATED));
+    }
+
+    public void testListenersInProcessDefinition() {
+        BpmnModel bpmnModel = TestProcessUtil.createOneTaskBpmnModel();
+        EventListener eventListener = new EventListener();
+        eventListener.setEvents(FlowableEngineEventType.ACTIVITY_STARTED.name());
+        eventListener.setImplementationType(ImplementationType.IMPLEMENTATION_TYPE_CLASS);
+        eventListener.setImplementation(StaticTestFlowableEventListener.class.getName());
+        bpmnModel.getMainProcess().getEventListeners().add(eventListener);
+
+        assertFalse(hasListenersInCommand(FlowableEngineEventType.ACTIVITY_STARTED));
+        assertFalse(hasListenersInCommand(FlowableEngineEventType.ACTIVITY_COMPLETED));
+
+        processEngine.getRepositoryService().createDeployment().addBpmnModel("oneTaskProcess.bpmn20.xml", bpmnModel).deploy();
+        assertTrue(hasListenersInCommand(FlowableEngineEventType.ACTIVITY_STARTED));
+        assertFalse(hasListenersInCommand(FlowableEngineEventType.ACTIVITY_COMPLETED));
+
+        // Outside of a command, only the listeners on the dispatcher are taken into account
+        assertFalse(eventDispatcher.hasListeners(FlowableEngineEventType.ACTIVITY_STARTED));
+
+        processEngine.getRuntimeService().startProcessInstanceByKey("oneTaskProcess");
+        List<FlowableEvent> eventsReceived = StaticTestFlowableEventListener.getEventsReceived();
+        assertEquals(2, eventsReceived.size());
+        for (FlowableEvent event : eventsReceived) {
+            assertEquals(FlowableEngineEventType.ACTIVITY_STARTED, event.getType());
+        }
+    }
+
+    public void testNonTransactionalListener() throws Exception {
+        TestNonTransactionalEventListener listener = new TestNonTransactionalEventListener(4);
+        eventDispatcher.addEventListener(listener, FlowableEngineEventType.ACTIVITY_STARTED);
+
+        processEngine.getRepositoryService().createDeployment().addBpmnModel("oneTaskProcess.bpmn20.xml", TestProcessUtil.createOneTaskBpmnModel()).deploy();
+        processEngine.getRuntimeService().startProcessInstanceByKey("oneTaskProcess");
+        processEngine.getRuntimeService().startProcessInstanceByKey("oneTaskProcess");
+
+        // Two activities are started per process instance
+        assertTrue(listener.await(10L));
+        for (String threadName : listener.getThreadNames()) {
+            assertTrue(threadName, threadName.startsWith("flowable-event-listener-thread-"));
+        }
+    }
+
+    public void testNonTransactionalListenerNotifiedAfterCommit() throws Exception {
+        final RuntimeService runtimeService = processEngine.getRuntimeService();
+        final List<Long> processInstanceCounts = Collections.synchronizedList(new ArrayList<Long>());
+        TestNonTransactionalEventListener listener = new TestNonTransactionalEventListener(2) {
+
+            @Override
+            public void onEvent(FlowableEvent event) {
+                String processInstanceId = ((FlowableEngineEvent) event).getProcessInstanceId();
+                processInstanceCounts.add(runtimeService.createProcessInstanceQuery().processInstanceId(processInstanceId).count());
+                super.onEvent(event);
+            }
+        };
+        eventDispatcher.addEventListener(listener, FlowableEngineEventType.ACTIVITY_STARTED);
+
+        processEngine.getRepositoryService().createDeployment().addBpmnModel("oneTaskProcess.bpmn20.xml", TestProcessUtil.createOneTaskBpmnModel()).deploy();
+
+        try {
+            ((ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration()).getCommandExecutor().execute(new Command<Void>() {
+
+                @Override
+                public Void execute(CommandContext commandContext) {
+                    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+                    throw new FlowableException("rollback");
+                }
+            });
+            fail();
+        } catch (FlowableException e) {
+            assertEquals("rollback", e.getMessage());
+        }
+
+        runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+        // The listener is notified on a single thread, so the events of the rolled back transaction would have been received first
+        assertTrue(listener.await(10L));
+        assertEquals(2, listener.getThreadNames().size());
+        assertEquals(Arrays.asList(1L, 1L), processInstanceCounts);
+    }
+
+    public void testExecutorShutdownOnClose() {
+        ExecutorService executor = ((ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration()).getNonTransactionalEventListenerExecutor();
+        processEngine.close();
+        assertTrue(executor.isShutdown());
+
+        ExecutorService suppliedExecutor = Executors.newSingleThreadExecutor();
+        try {
+            ProcessEngine otherProcessEngine = new StandaloneInMemProcessEngineConfiguration()
+                    .setNonTransactionalEventListenerExecutor(suppliedExecutor)
+                    .setJdbcUrl("jdbc:h2:mem:flowable-event-dispatcher-listeners-executor-test;DB_CLOSE_DELAY=1000")
+                    .buildProcessEngine();
+            otherProcessEngine.close();
+            assertFalse(suppliedExecutor.isShutdown());
+
+        } finally {
+            suppliedExecutor.shutdown();
+            processEngine = new StandaloneInMemProcessEngineConfiguration()
+                    .setJdbcUrl("jdbc:h2:mem:flowable-event-dispatcher-listeners-test;DB_CLOSE_DELAY=1000")
+                    .buildProcessEngine();
+        }
+    }
+
+    protected boolean hasListenersInCommand(final FlowableEventType type) {
+        return ((ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration()).getCommandExecutor().execute(new Command<Boolean>() {
+
+            @Override
+            public Boolean execute(CommandContext commandContext) {
+                return eventDispatcher.hasListeners(type);
+            }
+        });
+    }
+
+    public static class TestNonTransactionalEventListener implements FlowableNonTransactionalEventListener {
+
+        protected CountDownLatch latch;
+        protected List<String> threadNames = Collections.synchronizedList(new ArrayList<String>());
+
+        public TestNonTransactionalEventListener(int expectedEvents) {
+            this.latch = new CountDownLatch(expectedEvents);
+        }
+
+        @Override
+        public void onEvent(FlowableEvent event) {
+            threadNames.add(Thread.currentThread().getName());
+            latch.countDown();
+        }
+
+        @Override
+        public boolean isFailOnException() {
+            return false;
+        }
+
+        public boolean await(long seconds) throws InterruptedException {
+            return latch.await(seconds, TimeUnit.SECONDS);
+        }
+
+        public List<String> getThreadNames() {
+            return threadNames;
+        }
+
+    }
+
+}
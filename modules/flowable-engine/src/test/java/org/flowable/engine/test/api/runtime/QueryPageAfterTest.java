@@ -0,0 +1,188 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.test.api.runtime;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.flowable.engine.common.api.FlowableIllegalArgumentException;
+import org.flowable.engine.common.api.query.Query;
+import org.flowable.engine.common.impl.db.ContinuationToken;
+import org.flowable.engine.common.impl.history.HistoryLevel;
+import org.flowable.engine.history.HistoricActivityInstance;
+import org.flowable.engine.history.HistoricProcessInstance;
+import org.flowable.engine.impl.test.HistoryTestHelper;
+import org.flowable.engine.impl.test.PluggableFlowableTestCase;
+import org.flowable.engine.runtime.ProcessInstance;
+import org.flowable.task.service.Task;
+import org.flowable.task.service.history.HistoricTaskInstance;
+
+/**
+ * Tests selecting the pages of a query with continuation tokens.
+ */
+public class QueryPageAfterTest extends PluggableFlowableTestCase {
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        repositoryService.createDeployment().addClasspathResource("org/flowable/engine/test/api/oneTaskProcess.bpmn20.xml").deploy();
+
+        for (int i = 0; i < 7; i++) {
+            runtimeService.startProcessInstanceByKey("oneTaskProcess", "key" + (i % 3));
+        }
+
+        // Equal priorities for most tasks and no assignee for some of them
+        List<Task> tasks = taskService.createTaskQuery().list();
+        for (int i = 0; i < tasks.size(); i++) {
+            taskService.setPriority(tasks.get(i).getId(), i % 2 == 0 ? 50 : 70);
+            if (i % 3 != 0) {
+                taskService.setAssignee(tasks.get(i).getId(), "user" + (i % 2));
+            }
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        for (org.flowable.engine.repository.Deployment deployment : repositoryService.createDeploymentQuery().list()) {
+            repositoryService.deleteDeployment(deployment.getId(), true);
+        }
+        super.tearDown();
+    }
+
+    public void testTaskQueryPages() {
+        assertPages(taskService.createTaskQuery().orderByTaskPriority().desc(), 3, true);
+        assertPages(taskService.createTaskQuery().orderByTaskCreateTime().asc().orderByTaskPriority().asc(), 2, true);
+        assertPages(taskService.createTaskQuery().processDefinitionKey("oneTaskProcess"), 7, true);
+        assertPages(taskService.createTaskQuery().orderByProcessDefinitionId().desc().includeProcessVariables(), 3, true);
+    }
+
+    public void testTaskQueryPagesWithNullOrderValues() {
+        assertPages(taskService.createTaskQuery().orderByTaskAssignee().asc(), 1, true);
+        assertPages(taskService.createTaskQuery().orderByTaskAssignee().desc(), 2, true);
+        assertPages(taskService.createTaskQuery().orderByTaskAssignee().asc().orderByTaskPriority().desc(), 3, true);
+    }
+
+    public void testProcessInstanceQueryPages() {
+        assertPages(runtimeService.createProcessInstanceQuery(), 3, true);
+        assertPages(runtimeService.createProcessInstanceQuery().orderByProcessInstanceId().desc(), 4, true);
+
+        // Ordered by a column of another table, so the pages start at an offset
+        assertPages(runtimeService.createProcessInstanceQuery().orderByProcessDefinitionKey().asc(), 3, false);
+    }
+
+    public void testHistoricQueryPages() {
+        if (HistoryTestHelper.isHistoryLevelAtLeast(HistoryLevel.AUDIT, processEngineConfiguration)) {
+            assertPages(historyService.createHistoricTaskInstanceQuery().orderByHistoricTaskInstanceStartTime().desc(), 3, true);
+            assertPages(historyService.createHistoricTaskInstanceQuery().orderByTaskAssignee().desc().orderByTaskPriority().asc(), 2, true);
+            assertPages(historyService.createHistoricProcessInstanceQuery().orderByProcessInstanceBusinessKey().asc(), 3, true);
+            assertPages(historyService.createHistoricProcessInstanceQuery().orderByProcessInstanceStartTime().desc(), 5, true);
+        }
+    }
+
+    public void testPagesOfQueryWithoutSeekSupport() {
+        if (HistoryTestHelper.isHistoryLevelAtLeast(HistoryLevel.ACTIVITY, processEngineConfiguration)) {
+            assertPages(historyService.createHistoricActivityInstanceQuery().orderByHistoricActivityInstanceId().asc(), 4, false);
+        }
+    }
+
+    public void testLastPage() {
+        Query<?, Task> query = taskService.createTaskQuery();
+        assertEquals(7, query.listPageAfter(null, 10).size());
+        assertNull(query.getContinuationToken());
+
+        assertEquals(7, query.listPageAfter(null, 7).size());
+        String continuationToken = query.getContinuationToken();
+        assertNotNull(continuationToken);
+        assertEquals(0, query.listPageAfter(continuationToken, 7).size());
+        assertNull(query.getContinuationToken());
+
+        // The seek conditions only apply to the page
+        assertEquals(7, query.count());
+        assertEquals(7, query.list().size());
+    }
+
+    public void testInvalidContinuationToken() {
+        try {
+            taskService.createTaskQuery().listPageAfter("invalid", 3);
+            fail();
+        } catch (FlowableIllegalArgumentException e) {
+            // expected
+        }
+
+        Query<?, Task> query = taskService.createTaskQuery().orderByTaskPriority().asc();
+        query.listPageAfter(null, 3);
+        String continuationToken = query.getContinuationToken();
+        try {
+            taskService.createTaskQuery().orderByTaskName().asc().listPageAfter(continuationToken, 3);
+            fail();
+        } catch (FlowableIllegalArgumentException e) {
+            assertTextPresent("doesn't match the order", e.getMessage());
+        }
+    }
+
+    public void testPagesAfterResultsAreRemoved() {
+        Query<?, ProcessInstance> query = runtimeService.createProcessInstanceQuery().processDefinitionKey("oneTaskProcess");
+        List<ProcessInstance> processInstances = query.list();
+        List<ProcessInstance> firstPage = query.listPageAfter(null, 3);
+        String continuationToken = query.getContinuationToken();
+
+        // Unlike an offset, the token still starts the next page after the last result of the previous page
+        runtimeService.deleteProcessInstance(firstPage.get(0).getId(), "test");
+        List<ProcessInstance> nextPage = query.listPageAfter(continuationToken, 3);
+        assertEquals(processInstances.get(3).getId(), nextPage.get(0).getId());
+    }
+
+    protected <T> void assertPages(Query<?, T> query, int pageSize, boolean keyset) {
+        List<T> expectedResults = query.list();
+
+        List<T> results = new ArrayList<>();
+        String continuationToken = null;
+        do {
+            List<T> page = query.listPageAfter(continuationToken, pageSize);
+            assertTrue(page.size() <= pageSize);
+            results.addAll(page);
+
+            continuationToken = query.getContinuationToken();
+            if (continuationToken != null) {
+                assertEquals(pageSize, page.size());
+                assertEquals(keyset, ContinuationToken.parse(continuationToken).isKeyset());
+            }
+        } while (continuationToken != null);
+
+        // Every result exactly once
+        assertEquals(expectedResults.size(), new HashSet<>(getIds(results)).size());
+        assertEquals(expectedResults.size(), results.size());
+        assertTrue(getIds(results).containsAll(getIds(expectedResults)));
+    }
+
+    protected List<String> getIds(List<?> results) {
+        List<String> ids = new ArrayList<>();
+        for (Object result : results) {
+            if (result instanceof Task) {
+                ids.add(((Task) result).getId());
+            } else if (result instanceof HistoricTaskInstance) {
+                ids.add(((HistoricTaskInstance) result).getId());
+            } else if (result instanceof HistoricProcessInstance) {
+                ids.add(((HistoricProcessInstance) result).getId());
+            } else if (result instanceof ProcessInstance) {
+                ids.add(((ProcessInstance) result).getId());
+            } else {
+                ids.add(((HistoricActivityInstance) result).getId());
+            }
+        }
+        return ids;
+    }
+
+}
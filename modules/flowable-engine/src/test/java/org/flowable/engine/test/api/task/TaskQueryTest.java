@@ -2308,6 +2308,26 @@ public class TaskQueryTest extends PluggableFlowableTestCase {
         assertEquals("It is I, le binary", new String(bytes));
     }
 
+    @Deployment(resources = { "org/flowable/engine/test/api/task/TaskQueryTest.testProcessDefinition.bpmn20.xml" })
+    public void testLimitTaskVariableNames() throws Exception {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("processVar1", "one");
+        variables.put("processVar2", "two");
+        ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess", variables);
+        org.flowable.task.service.Task task = taskService.createTaskQuery().processInstanceId(processInstance.getId()).singleResult();
+        taskService.setVariableLocal(task.getId(), "taskVar1", "local one");
+        taskService.setVariableLocal(task.getId(), "taskVar2", "local two");
+
+        task = taskService.createTaskQuery().taskId(task.getId()).includeProcessVariables().includeTaskLocalVariables()
+                .limitTaskVariableNames(Arrays.asList("processVar2", "taskVar1")).singleResult();
+        assertEquals(Collections.singletonMap("processVar2", (Object) "two"), task.getProcessVariables());
+        assertEquals(Collections.singletonMap("taskVar1", (Object) "local one"), task.getTaskLocalVariables());
+
+        task = taskService.createTaskQuery().taskId(task.getId()).includeProcessVariables().includeTaskLocalVariables().singleResult();
+        assertEquals(2, task.getProcessVariables().size());
+        assertEquals(2, task.getTaskLocalVariables().size());
+    }
+
     /**
      * Test confirming fix for ACT-1731
      */
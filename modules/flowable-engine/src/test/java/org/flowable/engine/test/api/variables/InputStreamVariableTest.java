@@ -0,0 +1,208 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.test.api.variables;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.flowable.engine.common.api.FlowableException;
+import org.flowable.engine.common.impl.history.HistoryLevel;
+import org.flowable.engine.common.impl.interceptor.Command;
+import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.engine.common.impl.interceptor.EngineConfigurationConstants;
+import org.flowable.engine.common.impl.util.IoUtil;
+import org.flowable.engine.impl.persistence.entity.ExecutionEntity;
+import org.flowable.engine.impl.test.HistoryTestHelper;
+import org.flowable.engine.impl.test.PluggableFlowableTestCase;
+import org.flowable.engine.impl.util.CommandContextUtil;
+import org.flowable.engine.runtime.ProcessInstance;
+import org.flowable.engine.test.Deployment;
+import org.flowable.variable.service.VariableServiceConfiguration;
+import org.flowable.variable.service.history.HistoricVariableInstance;
+import org.flowable.variable.service.impl.types.InputStreamType;
+
+/**
+ * Tests variables of which the contents are streamed to and from the database.
+ */
+public class InputStreamVariableTest extends PluggableFlowableTestCase {
+
+    @Deployment(resources = "org/flowable/engine/test/api/oneTaskProcess.bpmn20.xml")
+    public void testStreamVariable() {
+        byte[] contents = createContents(1024 * 1024, 1);
+        ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess",
+                Collections.<String, Object>singletonMap("document", new ByteArrayInputStream(contents)));
+
+        assertEquals(InputStreamType.TYPE_NAME, runtimeService.getVariableInstance(processInstance.getId(), "document").getTypeName());
+        assertTrue(Arrays.equals(contents, readStreamVariable(processInstance.getId(), "document")));
+
+        if (HistoryTestHelper.isHistoryLevelAtLeast(HistoryLevel.ACTIVITY, processEngineConfiguration)) {
+            HistoricVariableInstance historicVariableInstance = historyService.createHistoricVariableInstanceQuery()
+                    .processInstanceId(processInstance.getId()).variableName("document").singleResult();
+            assertEquals(InputStreamType.TYPE_NAME, historicVariableInstance.getVariableTypeName());
+            assertNull(historicVariableInstance.getValue());
+        }
+    }
+
+    @Deployment(resources = "org/flowable/engine/test/api/oneTaskProcess.bpmn20.xml")
+    public void testUpdateStreamVariable() {
+        ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess",
+                Collections.<String, Object>singletonMap("document", new ByteArrayInputStream(createContents(2048, 1))));
+
+        byte[] updatedContents = createContents(4096, 2);
+        runtimeService.setVariable(processInstance.getId(), "document", new ByteArrayInputStream(updatedContents));
+        assertTrue(Arrays.equals(updatedContents, readStreamVariable(processInstance.getId(), "document")));
+
+        // Changing the type removes the contents
+        runtimeService.setVariable(processInstance.getId(), "document", "no longer a stream");
+        assertEquals("no longer a stream", runtimeService.getVariable(processInstance.getId(), "document"));
+
+        runtimeService.setVariable(processInstance.getId(), "document", new ByteArrayInputStream(updatedContents));
+        assertTrue(Arrays.equals(updatedContents, readStreamVariable(processInstance.getId(), "document")));
+
+        runtimeService.deleteProcessInstance(processInstance.getId(), "test");
+        assertEquals(0, runtimeService.createProcessInstanceQuery().processInstanceId(processInstance.getId()).count());
+    }
+
+    @Deployment(resources = "org/flowable/engine/test/api/oneTaskProcess.bpmn20.xml")
+    public void testUpdateByteArrayVariable() {
+        ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess",
+                Collections.<String, Object>singletonMap("bytes", createContents(2048, 1)));
+
+        // The bytes are overwritten without loading the current ones
+        byte[] updatedContents = createContents(1024, 3);
+        runtimeService.setVariable(processInstance.getId(), "bytes", updatedContents);
+        assertTrue(Arrays.equals(updatedContents, (byte[]) runtimeService.getVariable(processInstance.getId(), "bytes")));
+    }
+
+    @Deployment(resources = "org/flowable/engine/test/api/oneTaskProcess.bpmn20.xml")
+    public void testReadStreamVariableBeforeFlush() {
+        final ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+        final byte[] contents = createContents(8192, 5);
+
+        // Reading the variable in the transaction that sets it doesn't consume the contents that are flushed
+        managementService.executeCommand(new Command<Void>() {
+
+            @Override
+            public Void execute(CommandContext commandContext) {
+                ExecutionEntity execution = CommandContextUtil.getExecutionEntityManager(commandContext).findById(processInstance.getId());
+                execution.setVariable("document", new ByteArrayInputStream(contents));
+                assertTrue(Arrays.equals(contents, readAndClose((InputStream) execution.getVariable("document"))));
+                assertTrue(Arrays.equals(contents, readAndClose((InputStream) execution.getVariable("document"))));
+                return null;
+            }
+        });
+
+        assertTrue(Arrays.equals(contents, readStreamVariable(processInstance.getId(), "document")));
+    }
+
+    @Deployment(resources = "org/flowable/engine/test/api/oneTaskProcess.bpmn20.xml")
+    public void testReadStreamVariablePartlyInCommand() {
+        final ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess",
+                Collections.<String, Object>singletonMap("document", new ByteArrayInputStream(createContents(4096, 7))));
+
+        // The bytes that weren't read when the command ends can still be read afterwards
+        InputStream inputStream = managementService.executeCommand(new Command<InputStream>() {
+
+            @Override
+            public InputStream execute(CommandContext commandContext) {
+                InputStream inputStream = (InputStream) CommandContextUtil.getExecutionEntityManager(commandContext).findById(processInstance.getId()).getVariable("document");
+                try {
+                    assertEquals(1024, inputStream.read(new byte[1024]));
+                } catch (IOException e) {
+                    throw new FlowableException("Could not read the stream", e);
+                }
+                return inputStream;
+            }
+        });
+
+        byte[] remainder = readAndClose(inputStream);
+        assertTrue(Arrays.equals(Arrays.copyOfRange(createContents(4096, 7), 1024, 4096), remainder));
+    }
+
+    @Deployment(resources = "org/flowable/engine/test/api/oneTaskProcess.bpmn20.xml")
+    public void testTemporaryFilesDeletedWhenStreamsArentClosed() throws IOException {
+        final ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess",
+                Collections.<String, Object>singletonMap("document", new ByteArrayInputStream(createContents(4096, 9))));
+
+        final File directory = Files.createTempDirectory("flowable-stream-variable-test").toFile();
+        VariableServiceConfiguration variableServiceConfiguration = (VariableServiceConfiguration) processEngineConfiguration.getServiceConfigurations()
+                .get(EngineConfigurationConstants.KEY_VARIABLE_SERVICE_CONFIG);
+        variableServiceConfiguration.setTemporaryBytesFileDirectory(directory);
+        try {
+            final byte[] contents = createContents(8192, 11);
+            InputStream setStream = managementService.executeCommand(new Command<InputStream>() {
+
+                @Override
+                public InputStream execute(CommandContext commandContext) {
+                    ExecutionEntity execution = CommandContextUtil.getExecutionEntityManager(commandContext).findById(processInstance.getId());
+                    execution.setVariable("otherDocument", new ByteArrayInputStream(contents));
+
+                    File[] files = directory.listFiles();
+                    assertEquals(1, files.length);
+                    if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+                        try {
+                            assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(files[0].toPath()));
+                        } catch (IOException e) {
+                            throw new FlowableException("Could not read the permissions", e);
+                        }
+                    }
+                    return (InputStream) execution.getVariable("otherDocument");
+                }
+            });
+
+            // An unclosed cursor stream is copied to a temporary file when the command ends
+            InputStream cursorStream = (InputStream) runtimeService.getVariable(processInstance.getId(), "document");
+
+            if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+                // The files are deleted when the command ends, the open streams can still be read
+                assertEquals(0, directory.listFiles().length);
+            }
+            assertTrue(Arrays.equals(contents, readAndClose(setStream)));
+            assertTrue(Arrays.equals(createContents(4096, 9), readAndClose(cursorStream)));
+            assertEquals(0, directory.listFiles().length);
+
+        } finally {
+            variableServiceConfiguration.setTemporaryBytesFileDirectory(null);
+            directory.delete();
+        }
+    }
+
+    protected byte[] readStreamVariable(String executionId, String variableName) {
+        // The stream stays readable after the command that got the variable
+        return readAndClose((InputStream) runtimeService.getVariable(executionId, variableName));
+    }
+
+    protected byte[] readAndClose(InputStream inputStream) {
+        try {
+            return IoUtil.readInputStream(inputStream, "stream variable");
+        } finally {
+            IoUtil.closeSilently(inputStream);
+        }
+    }
+
+    protected byte[] createContents(int size, int seed) {
+        byte[] contents = new byte[size];
+        for (int i = 0; i < size; i++) {
+            contents[i] = (byte) (i * seed);
+        }
+        return contents;
+    }
+
+}
@@ -0,0 +1,210 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flowable.engine.test.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.flowable.engine.ProcessEngine;
+import org.flowable.engine.ProcessEngineConfiguration;
+import org.flowable.engine.ProcessEngines;
+import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.flowable.engine.impl.cfg.StandaloneProcessEngineConfiguration;
+import org.flowable.engine.impl.persistence.deploy.ProcessDefinitionInfoCache;
+import org.flowable.engine.impl.persistence.entity.ProcessDefinitionInfoEntity;
+import org.flowable.engine.impl.persistence.entity.data.impl.MybatisProcessDefinitionInfoDataManager;
+import org.flowable.engine.impl.test.AbstractTestCase;
+import org.flowable.engine.repository.Deployment;
+import org.flowable.engine.runtime.ProcessInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Tests the verification of the info nodes cached by the {@link ProcessDefinitionInfoCache}, with two process engines on the same database
+ * acting as the nodes of a cluster.
+ */
+public class ProcessDefinitionInfoCacheTest extends AbstractTestCase {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProcessDefinitionInfoCacheTest.class);
+
+    protected static final int NR_OF_STEPS = 50;
+
+    protected ProcessEngine processEngine1;
+    protected ProcessEngine processEngine2;
+    protected CountingProcessDefinitionInfoDataManager dataManager1;
+    protected CountingProcessDefinitionInfoDataManager dataManager2;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        // Make sure no other process engine is using the database
+        ProcessEngines.destroy();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (processEngine1 != null) {
+            for (Deployment deployment : processEngine1.getRepositoryService().createDeploymentQuery().list()) {
+                processEngine1.getRepositoryService().deleteDeployment(deployment.getId(), true);
+            }
+            if (processEngine2 != null) {
+                processEngine2.close();
+            }
+            processEngine1.close();
+        }
+
+        super.tearDown();
+    }
+
+    protected void createProcessEngines(long stalenessTime, boolean invalidationNotifierEnabled) {
+        ProcessEngineConfigurationImpl processEngineConfiguration1 = createProcessEngineConfiguration("info-cache-test-1",
+                ProcessEngineConfiguration.DB_SCHEMA_UPDATE_TRUE, stalenessTime, invalidationNotifierEnabled);
+        dataManager1 = new CountingProcessDefinitionInfoDataManager(processEngineConfiguration1);
+        processEngineConfiguration1.setProcessDefinitionInfoDataManager(dataManager1);
+        processEngine1 = processEngineConfiguration1.buildProcessEngine();
+
+        ProcessEngineConfigurationImpl processEngineConfiguration2 = createProcessEngineConfiguration("info-cache-test-2",
+                ProcessEngineConfiguration.DB_SCHEMA_UPDATE_FALSE, stalenessTime, invalidationNotifierEnabled);
+        dataManager2 = new CountingProcessDefinitionInfoDataManager(processEngineConfiguration2);
+        processEngineConfiguration2.setProcessDefinitionInfoDataManager(dataManager2);
+        processEngine2 = processEngineConfiguration2.buildProcessEngine();
+    }
+
+    protected ProcessEngineConfigurationImpl createProcessEngineConfiguration(String engineName, String databaseSchemaUpdate,
+            long stalenessTime, boolean invalidationNotifierEnabled) {
+
+        ProcessEngineConfigurationImpl processEngineConfiguration = new StandaloneProcessEngineConfiguration();
+        processEngineConfiguration.setProcessDefinitionInfoCacheStalenessTime(stalenessTime);
+        processEngineConfiguration.setProcessDefinitionInfoCacheInvalidationNotifierEnabled(invalidationNotifierEnabled);
+        processEngineConfiguration.setCacheInvalidationPollInterval(0L);
+        processEngineConfiguration.setEnableProcessDefinitionInfoCache(true);
+        processEngineConfiguration.setEngineName(engineName);
+        processEngineConfiguration.setDatabaseSchemaUpdate(databaseSchemaUpdate);
+        processEngineConfiguration.setJdbcUrl("jdbc:h2:mem:flowable-info-cache-test;DB_CLOSE_DELAY=1000");
+        processEngineConfiguration.setAsyncExecutorActivate(false);
+        return processEngineConfiguration;
+    }
+
+    public void testRevisionVerifiedOnEveryUseByDefault() {
+        createProcessEngines(0L, false);
+        int nrOfQueries = runProcessWithSteps(processEngine1, dataManager1);
+        LOGGER.info("Revision verified on every use: {} info queries for {} steps", nrOfQueries, NR_OF_STEPS);
+        assertTrue(nrOfQueries >= NR_OF_STEPS);
+    }
+
+    public void testRevisionVerifiedAfterStalenessTime() {
+        createProcessEngines(60000L, false);
+        int nrOfQueries = runProcessWithSteps(processEngine1, dataManager1);
+        LOGGER.info("Revision verified after staleness time: {} info queries for {} steps", nrOfQueries, NR_OF_STEPS);
+        assertTrue(nrOfQueries <= 1);
+    }
+
+    public void testRevisionVerifiedAfterNotification() {
+        createProcessEngines(0L, true);
+        int nrOfQueries = runProcessWithSteps(processEngine1, dataManager1);
+        LOGGER.info("Revision verified after notification: {} info queries for {} steps", nrOfQueries, NR_OF_STEPS);
+        assertTrue(nrOfQueries <= 1);
+    }
+
+    public void testChangeOnSameNodeVisibleWithinStalenessTime() {
+        createProcessEngines(60000L, false);
+        String processDefinitionId = deployProcessWithSteps(processEngine1, 2);
+        ProcessInstance processInstance = processEngine1.getRuntimeService().startProcessInstanceByKey("processWithSteps");
+        assertEquals("Step 1", getTaskName(processEngine1, processInstance));
+
+        changeTaskName(processEngine1, processDefinitionId, "step2", "Changed step 2");
+
+        completeTask(processEngine1, processInstance);
+        assertEquals("Changed step 2", getTaskName(processEngine1, processInstance));
+    }
+
+    public void testChangeOnOtherNodeVisibleAfterNotification() {
+        createProcessEngines(0L, true);
+        String processDefinitionId = deployProcessWithSteps(processEngine1, 3);
+        ProcessInstance processInstance = processEngine2.getRuntimeService().startProcessInstanceByKey("processWithSteps");
+        assertEquals("Step 1", getTaskName(processEngine2, processInstance));
+
+        changeTaskName(processEngine1, processDefinitionId, "step2", "Changed step 2");
+
+        completeTask(processEngine2, processInstance);
+        assertEquals("Changed step 2", getTaskName(processEngine2, processInstance));
+
+        // A second change only updates the json of the info node
+        changeTaskName(processEngine1, processDefinitionId, "step3", "Changed step 3");
+
+        completeTask(processEngine2, processInstance);
+        assertEquals("Changed step 3", getTaskName(processEngine2, processInstance));
+    }
+
+    protected int runProcessWithSteps(ProcessEngine processEngine, CountingProcessDefinitionInfoDataManager dataManager) {
+        deployProcessWithSteps(processEngine, NR_OF_STEPS);
+
+        ProcessInstance processInstance = processEngine.getRuntimeService().startProcessInstanceByKey("processWithSteps");
+        dataManager.nrOfFindByProcessDefinitionIdCalls.set(0);
+        for (int i = 0; i < NR_OF_STEPS; i++) {
+            completeTask(processEngine, processInstance);
+        }
+        assertEquals(0, processEngine.getRuntimeService().createProcessInstanceQuery().processInstanceId(processInstance.getId()).count());
+
+        return dataManager.nrOfFindByProcessDefinitionIdCalls.get();
+    }
+
+    protected String deployProcessWithSteps(ProcessEngine processEngine, int nrOfSteps) {
+        StringBuilder processXml = new StringBuilder();
+        processXml.append("<definitions xmlns=\"http://www.omg.org/spec/BPMN/20100524/MODEL\" targetNamespace=\"Examples\">")
+                .append("<process id=\"processWithSteps\"><startEvent id=\"start\" />")
+                .append("<sequenceFlow id=\"flow0\" sourceRef=\"start\" targetRef=\"step1\" />");
+        for (int i = 1; i <= nrOfSteps; i++) {
+            String targetRef = i < nrOfSteps ? "step" + (i + 1) : "end";
+            processXml.append("<userTask id=\"step").append(i).append("\" name=\"Step ").append(i).append("\" />")
+                    .append("<sequenceFlow id=\"flow").append(i).append("\" sourceRef=\"step").append(i).append("\" targetRef=\"").append(targetRef).append("\" />");
+        }
+        processXml.append("<endEvent id=\"end\" /></process></definitions>");
+
+        processEngine.getRepositoryService().createDeployment().addString("processWithSteps.bpmn20.xml", processXml.toString()).deploy();
+        return processEngine.getRepositoryService().createProcessDefinitionQuery().processDefinitionKey("processWithSteps").singleResult().getId();
+    }
+
+    protected void changeTaskName(ProcessEngine processEngine, String processDefinitionId, String taskId, String taskName) {
+        ObjectNode infoNode = processEngine.getDynamicBpmnService().changeUserTaskName(taskId, taskName);
+        processEngine.getDynamicBpmnService().saveProcessDefinitionInfo(processDefinitionId, infoNode);
+    }
+
+    protected void completeTask(ProcessEngine processEngine, ProcessInstance processInstance) {
+        processEngine.getTaskService().complete(processEngine.getTaskService().createTaskQuery().processInstanceId(processInstance.getId()).singleResult().getId());
+    }
+
+    protected String getTaskName(ProcessEngine processEngine, ProcessInstance processInstance) {
+        return processEngine.getTaskService().createTaskQuery().processInstanceId(processInstance.getId()).singleResult().getName();
+    }
+
+    protected static class CountingProcessDefinitionInfoDataManager extends MybatisProcessDefinitionInfoDataManager {
+
+        protected AtomicInteger nrOfFindByProcessDefinitionIdCalls = new AtomicInteger();
+
+        public CountingProcessDefinitionInfoDataManager(ProcessEngineConfigurationImpl processEngineConfiguration) {
+            super(processEngineConfiguration);
+        }
+
+        @Override
+        public ProcessDefinitionInfoEntity findProcessDefinitionInfoByProcessDefinitionId(String processDefinitionId) {
+            nrOfFindByProcessDefinitionIdCalls.incrementAndGet();
+            return super.findProcessDefinitionInfoByProcessDefinitionId(processDefinitionId);
+        }
+
+    }
+
+}
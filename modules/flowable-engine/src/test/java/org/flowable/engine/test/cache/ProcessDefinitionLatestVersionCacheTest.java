@@ -0,0 +1,136 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flowable.engine.test.cache;
+
+import org.flowable.engine.ProcessEngine;
+import org.flowable.engine.ProcessEngineConfiguration;
+import org.flowable.engine.ProcessEngines;
+import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.flowable.engine.impl.cfg.StandaloneProcessEngineConfiguration;
+import org.flowable.engine.impl.persistence.deploy.ProcessDefinitionLatestVersionCache;
+import org.flowable.engine.impl.test.AbstractTestCase;
+import org.flowable.engine.repository.Deployment;
+import org.flowable.engine.runtime.ProcessInstance;
+
+/**
+ * Tests the {@link ProcessDefinitionLatestVersionCache}, with two process engines on the same database acting as the nodes of a cluster.
+ */
+public class ProcessDefinitionLatestVersionCacheTest extends AbstractTestCase {
+
+    protected ProcessEngine processEngine1;
+    protected ProcessEngine processEngine2;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        // Make sure no other process engine is using the database
+        ProcessEngines.destroy();
+
+        processEngine1 = createProcessEngine("latest-version-cache-test-1", ProcessEngineConfiguration.DB_SCHEMA_UPDATE_TRUE);
+        processEngine2 = createProcessEngine("latest-version-cache-test-2", ProcessEngineConfiguration.DB_SCHEMA_UPDATE_FALSE);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        for (Deployment deployment : processEngine1.getRepositoryService().createDeploymentQuery().list()) {
+            processEngine1.getRepositoryService().deleteDeployment(deployment.getId(), true);
+        }
+        processEngine2.close();
+        processEngine1.close();
+
+        super.tearDown();
+    }
+
+    protected ProcessEngine createProcessEngine(String engineName, String databaseSchemaUpdate) {
+        return new StandaloneProcessEngineConfiguration()
+                .setProcessDefinitionLatestVersionCacheEnabled(true)
+                .setCacheInvalidationPollInterval(0L)
+                .setEngineName(engineName)
+                .setDatabaseSchemaUpdate(databaseSchemaUpdate)
+                .setJdbcUrl("jdbc:h2:mem:flowable-latest-version-cache-test;DB_CLOSE_DELAY=1000")
+                .setAsyncExecutorActivate(false)
+                .buildProcessEngine();
+    }
+
+    public void testLatestVersionIsCached() {
+        processEngine1.getRepositoryService().createDeployment().addClasspathResource("org/flowable/engine/test/cache/originalProcess.bpmn20.xml").deploy();
+
+        ProcessDefinitionLatestVersionCache cache = getCache(processEngine1);
+        assertEquals(0, cache.size());
+
+        processEngine1.getRuntimeService().startProcessInstanceByKey("oneTaskProcess");
+        assertEquals(1, cache.size());
+        assertEquals(processEngine1.getRepositoryService().createProcessDefinitionQuery().singleResult().getId(), cache.get("oneTaskProcess", null));
+
+        processEngine1.getRuntimeService().startProcessInstanceByKey("oneTaskProcess");
+        assertEquals(2, processEngine1.getTaskService().createTaskQuery().taskName("original task").count());
+    }
+
+    public void testNewVersionOnSameNode() {
+        processEngine1.getRepositoryService().createDeployment().addClasspathResource("org/flowable/engine/test/cache/originalProcess.bpmn20.xml").deploy();
+        processEngine1.getRuntimeService().startProcessInstanceByKey("oneTaskProcess");
+        assertEquals(1, getCache(processEngine1).size());
+
+        processEngine1.getRepositoryService().createDeployment().addClasspathResource("org/flowable/engine/test/cache/revisedProcess.bpmn20.xml").deploy();
+        assertEquals(0, getCache(processEngine1).size());
+
+        ProcessInstance processInstance = processEngine1.getRuntimeService().startProcessInstanceByKey("oneTaskProcess");
+        assertEquals("revised task", processEngine1.getTaskService().createTaskQuery().processInstanceId(processInstance.getId()).singleResult().getName());
+    }
+
+    public void testNewVersionOnOtherNode() {
+        processEngine1.getRepositoryService().createDeployment().addClasspathResource("org/flowable/engine/test/cache/originalProcess.bpmn20.xml").deploy();
+
+        ProcessInstance processInstance = processEngine2.getRuntimeService().startProcessInstanceByKey("oneTaskProcess");
+        assertEquals("original task", processEngine2.getTaskService().createTaskQuery().processInstanceId(processInstance.getId()).singleResult().getName());
+        assertEquals(1, getCache(processEngine2).size());
+
+        // The deployment on the first node is picked up by the second node on its next check
+        processEngine1.getRepositoryService().createDeployment().addClasspathResource("org/flowable/engine/test/cache/revisedProcess.bpmn20.xml").deploy();
+
+        processInstance = processEngine2.getRuntimeService().startProcessInstanceByKey("oneTaskProcess");
+        assertEquals("revised task", processEngine2.getTaskService().createTaskQuery().processInstanceId(processInstance.getId()).singleResult().getName());
+    }
+
+    public void testDeleteDeploymentOnOtherNode() {
+        processEngine1.getRepositoryService().createDeployment().addClasspathResource("org/flowable/engine/test/cache/originalProcess.bpmn20.xml").deploy();
+        String revisedDeploymentId = processEngine1.getRepositoryService().createDeployment()
+                .addClasspathResource("org/flowable/engine/test/cache/revisedProcess.bpmn20.xml").deploy().getId();
+
+        ProcessInstance processInstance = processEngine2.getRuntimeService().startProcessInstanceByKey("oneTaskProcess");
+        assertEquals("revised task", processEngine2.getTaskService().createTaskQuery().processInstanceId(processInstance.getId()).singleResult().getName());
+
+        processEngine1.getRepositoryService().deleteDeployment(revisedDeploymentId, true);
+
+        processInstance = processEngine2.getRuntimeService().startProcessInstanceByKey("oneTaskProcess");
+        assertEquals("original task", processEngine2.getTaskService().createTaskQuery().processInstanceId(processInstance.getId()).singleResult().getName());
+    }
+
+    public void testLatestVersionPerTenant() {
+        processEngine1.getRepositoryService().createDeployment().addClasspathResource("org/flowable/engine/test/cache/originalProcess.bpmn20.xml").tenantId("tenant1").deploy();
+        processEngine1.getRepositoryService().createDeployment().addClasspathResource("org/flowable/engine/test/cache/revisedProcess.bpmn20.xml").tenantId("tenant2").deploy();
+
+        ProcessInstance processInstance = processEngine2.getRuntimeService().startProcessInstanceByKeyAndTenantId("oneTaskProcess", "tenant1");
+        assertEquals("original task", processEngine2.getTaskService().createTaskQuery().processInstanceId(processInstance.getId()).singleResult().getName());
+        processInstance = processEngine2.getRuntimeService().startProcessInstanceByKeyAndTenantId("oneTaskProcess", "tenant2");
+        assertEquals("revised task", processEngine2.getTaskService().createTaskQuery().processInstanceId(processInstance.getId()).singleResult().getName());
+        assertEquals(2, getCache(processEngine2).size());
+    }
+
+    protected ProcessDefinitionLatestVersionCache getCache(ProcessEngine processEngine) {
+        return ((ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration()).getProcessDefinitionLatestVersionCache();
+    }
+
+}
@@ -0,0 +1,230 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.test.cfg;
+
+import org.flowable.bpmn.model.BpmnModel;
+import org.flowable.bpmn.model.EndEvent;
+import org.flowable.bpmn.model.ManualTask;
+import org.flowable.bpmn.model.ParallelGateway;
+import org.flowable.bpmn.model.SequenceFlow;
+import org.flowable.bpmn.model.StartEvent;
+import org.flowable.bpmn.model.UserTask;
+import org.flowable.engine.common.impl.interceptor.Command;
+import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.engine.impl.agenda.ContinueProcessOperation;
+import org.flowable.engine.impl.agenda.DefaultFlowableEngineAgenda;
+import org.flowable.engine.impl.agenda.TakeOutgoingSequenceFlowsOperation;
+import org.flowable.engine.impl.persistence.entity.ExecutionEntity;
+import org.flowable.engine.impl.persistence.entity.ExecutionEntityManager;
+import org.flowable.engine.impl.test.ResourceFlowableTestCase;
+import org.flowable.engine.impl.util.CommandContextUtil;
+import org.flowable.engine.repository.Deployment;
+import org.flowable.engine.runtime.ProcessInstance;
+
+/**
+ * Runs processes with the agenda reusing its operations, which must not change how the processes are executed.
+ */
+public class AgendaOperationPoolingTest extends ResourceFlowableTestCase {
+
+    public AgendaOperationPoolingTest() {
+        super("org/flowable/engine/test/cfg/AgendaOperationPoolingTest.flowable.cfg.xml");
+    }
+
+    public void testAgendaUsesPooling() {
+        boolean operationPoolingEnabled = managementService.executeCommand(new Command<Boolean>() {
+
+            @Override
+            public Boolean execute(CommandContext commandContext) {
+                return ((DefaultFlowableEngineAgenda) CommandContextUtil.getAgenda(commandContext)).isOperationPoolingEnabled();
+            }
+        });
+        assertTrue(operationPoolingEnabled);
+    }
+
+    public void testExecutedOperationsAreReused() {
+        deployOneTaskTestProcess();
+        final String processInstanceId = runtimeService.startProcessInstanceByKey("oneTaskProcess").getId();
+
+        managementService.executeCommand(new Command<Void>() {
+
+            @Override
+            public Void execute(CommandContext commandContext) {
+                DefaultFlowableEngineAgenda agenda = (DefaultFlowableEngineAgenda) CommandContextUtil.getAgenda(commandContext);
+                ExecutionEntityManager executionEntityManager = CommandContextUtil.getExecutionEntityManager(commandContext);
+                ExecutionEntity processInstance = executionEntityManager.findById(processInstanceId);
+                ExecutionEntity childExecution = executionEntityManager.findChildExecutionsByProcessInstanceId(processInstanceId).get(0);
+
+                agenda.planContinueProcessOperation(processInstance);
+                ContinueProcessOperation continueProcessOperation = (ContinueProcessOperation) agenda.getNextOperation();
+                assertTrue(continueProcessOperation.isPooled());
+                agenda.releaseOperation(continueProcessOperation);
+                assertNull(continueProcessOperation.getExecution());
+
+                // The released operation is handed out again, with the new execution
+                agenda.planContinueProcessSynchronousOperation(childExecution);
+                assertSame(continueProcessOperation, agenda.getNextOperation());
+                assertSame(childExecution, continueProcessOperation.getExecution());
+                assertTrue(continueProcessOperation.isForceSynchronousOperation());
+
+                // An operation that is still planned isn't handed out a second time
+                agenda.planContinueProcessOperation(processInstance);
+                ContinueProcessOperation otherContinueProcessOperation = (ContinueProcessOperation) agenda.getNextOperation();
+                assertNotSame(continueProcessOperation, otherContinueProcessOperation);
+                assertSame(processInstance, otherContinueProcessOperation.getExecution());
+                assertFalse(otherContinueProcessOperation.isForceSynchronousOperation());
+
+                // Operations are only reused for the same type of operation
+                agenda.releaseOperation(continueProcessOperation);
+                agenda.planTakeOutgoingSequenceFlowsOperation(childExecution, true);
+                Runnable takeOutgoingSequenceFlowsOperation = agenda.getNextOperation();
+                assertTrue(takeOutgoingSequenceFlowsOperation instanceof TakeOutgoingSequenceFlowsOperation);
+                agenda.planContinueProcessOperation(childExecution);
+                assertSame(continueProcessOperation, agenda.getNextOperation());
+
+                assertTrue(agenda.isEmpty());
+                return null;
+            }
+        });
+
+        assertEquals(1, taskService.createTaskQuery().processInstanceId(processInstanceId).count());
+        runtimeService.deleteProcessInstance(processInstanceId, "test");
+    }
+
+    public void testOperationsAreNotReusedWithoutPooling() {
+        deployOneTaskTestProcess();
+        final String processInstanceId = runtimeService.startProcessInstanceByKey("oneTaskProcess").getId();
+
+        managementService.executeCommand(new Command<Void>() {
+
+            @Override
+            public Void execute(CommandContext commandContext) {
+                DefaultFlowableEngineAgenda agenda = (DefaultFlowableEngineAgenda) CommandContextUtil.getAgenda(commandContext);
+                agenda.setOperationPoolingEnabled(false);
+                ExecutionEntity processInstance = CommandContextUtil.getExecutionEntityManager(commandContext).findById(processInstanceId);
+
+                agenda.planContinueProcessOperation(processInstance);
+                ContinueProcessOperation continueProcessOperation = (ContinueProcessOperation) agenda.getNextOperation();
+                assertFalse(continueProcessOperation.isPooled());
+                agenda.releaseOperation(continueProcessOperation);
+                assertSame(processInstance, continueProcessOperation.getExecution());
+
+                agenda.planContinueProcessOperation(processInstance);
+                assertNotSame(continueProcessOperation, agenda.getNextOperation());
+                return null;
+            }
+        });
+
+        runtimeService.deleteProcessInstance(processInstanceId, "test");
+    }
+
+    public void testStraightThroughProcess() {
+        deploy(createStraightThroughProcess(100));
+
+        for (int i = 0; i < 10; i++) {
+            ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("straightThrough");
+            assertTrue(processInstance.isEnded());
+            assertEquals(102, historyService.createHistoricActivityInstanceQuery()
+                    .processInstanceId(processInstance.getId()).finished().count());
+        }
+    }
+
+    public void testParallelBranches() {
+        deploy(createParallelProcess(10, 5));
+
+        ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("parallel");
+        assertEquals(1, taskService.createTaskQuery().processInstanceId(processInstance.getId()).count());
+        assertEquals(62, historyService.createHistoricActivityInstanceQuery()
+                .processInstanceId(processInstance.getId()).finished().count());
+
+        String taskId = taskService.createTaskQuery().processInstanceId(processInstance.getId()).singleResult().getId();
+        taskService.complete(taskId);
+        assertEquals(0, runtimeService.createProcessInstanceQuery().processInstanceId(processInstance.getId()).count());
+    }
+
+    protected void deploy(BpmnModel bpmnModel) {
+        Deployment deployment = repositoryService.createDeployment().addBpmnModel("process.bpmn20.xml", bpmnModel).deploy();
+        deploymentIdsForAutoCleanup.add(deployment.getId());
+    }
+
+    protected BpmnModel createStraightThroughProcess(int nrOfSteps) {
+        org.flowable.bpmn.model.Process process = new org.flowable.bpmn.model.Process();
+        process.setId("straightThrough");
+
+        StartEvent startEvent = new StartEvent();
+        startEvent.setId("start");
+        process.addFlowElement(startEvent);
+
+        String previousId = startEvent.getId();
+        for (int i = 0; i < nrOfSteps; i++) {
+            previousId = addManualTask(process, previousId, "step" + i);
+        }
+
+        EndEvent endEvent = new EndEvent();
+        endEvent.setId("end");
+        process.addFlowElement(endEvent);
+        process.addFlowElement(new SequenceFlow(previousId, endEvent.getId()));
+
+        BpmnModel bpmnModel = new BpmnModel();
+        bpmnModel.addProcess(process);
+        return bpmnModel;
+    }
+
+    protected BpmnModel createParallelProcess(int nrOfBranches, int nrOfStepsPerBranch) {
+        org.flowable.bpmn.model.Process process = new org.flowable.bpmn.model.Process();
+        process.setId("parallel");
+
+        StartEvent startEvent = new StartEvent();
+        startEvent.setId("start");
+        process.addFlowElement(startEvent);
+
+        ParallelGateway fork = new ParallelGateway();
+        fork.setId("fork");
+        process.addFlowElement(fork);
+        process.addFlowElement(new SequenceFlow(startEvent.getId(), fork.getId()));
+
+        ParallelGateway join = new ParallelGateway();
+        join.setId("join");
+        process.addFlowElement(join);
+
+        for (int i = 0; i < nrOfBranches; i++) {
+            String previousId = fork.getId();
+            for (int j = 0; j < nrOfStepsPerBranch; j++) {
+                previousId = addManualTask(process, previousId, "branch" + i + "step" + j);
+            }
+            process.addFlowElement(new SequenceFlow(previousId, join.getId()));
+        }
+
+        UserTask userTask = new UserTask();
+        userTask.setId("userTask");
+        process.addFlowElement(userTask);
+        process.addFlowElement(new SequenceFlow(join.getId(), userTask.getId()));
+
+        EndEvent endEvent = new EndEvent();
+        endEvent.setId("end");
+        process.addFlowElement(endEvent);
+        process.addFlowElement(new SequenceFlow(userTask.getId(), endEvent.getId()));
+
+        BpmnModel bpmnModel = new BpmnModel();
+        bpmnModel.addProcess(process);
+        return bpmnModel;
+    }
+
+    protected String addManualTask(org.flowable.bpmn.model.Process process, String previousId, String id) {
+        ManualTask manualTask = new ManualTask();
+        manualTask.setId(id);
+        process.addFlowElement(manualTask);
+        process.addFlowElement(new SequenceFlow(previousId, id));
+        return id;
+    }
+
+}
@@ -0,0 +1,91 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.test.cfg;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.script.CompiledScript;
+
+import org.flowable.engine.impl.scripting.CompiledScriptCache;
+import org.flowable.engine.impl.test.ResourceFlowableTestCase;
+import org.flowable.engine.repository.Deployment;
+import org.flowable.engine.runtime.ProcessInstance;
+import org.flowable.task.service.Task;
+
+/**
+ * Runs script tasks and script listeners with the scripts compiled once and kept in the compiled script cache.
+ */
+public class CompiledScriptCacheTest extends ResourceFlowableTestCase {
+
+    protected CompiledScriptCache<CompiledScript> compiledScriptCache;
+
+    public CompiledScriptCacheTest() {
+        super("org/flowable/engine/test/cfg/CompiledScriptCacheTest.flowable.cfg.xml");
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        compiledScriptCache = processEngineConfiguration.getScriptingEngines().getCompiledScriptCache();
+    }
+
+    public void testScriptsCompiledOnce() {
+        deploymentIdsForAutoCleanup.add(deploy().getId());
+
+        assertScriptResults(startProcessInstance(5L, 7L), 12L, 35L, "bigSumTask");
+        // Groovy script task and javascript script task
+        assertEquals(2, compiledScriptCache.size());
+        assertEquals(0L, compiledScriptCache.getHitCount());
+
+        assertScriptResults(startProcessInstance(2L, 3L), 5L, 6L, "smallSumTask");
+        assertScriptResults(startProcessInstance(1L, 1L), 2L, 1L, "smallSumTask");
+        // The listener of the sequence flow to the small sum task is only compiled when that sequence flow is taken
+        assertEquals(3, compiledScriptCache.size());
+        assertEquals(3L, compiledScriptCache.getMissCount());
+        assertEquals(5L, compiledScriptCache.getHitCount());
+    }
+
+    public void testCompiledScriptsRemovedWithDeployment() {
+        Deployment deployment = deploy();
+        startProcessInstance(2L, 3L);
+        assertEquals(3, compiledScriptCache.size());
+        assertEquals(1, runtimeService.createProcessInstanceQuery().variableValueEquals("smallSum", true).count());
+
+        repositoryService.deleteDeployment(deployment.getId(), true);
+        assertEquals(0, compiledScriptCache.size());
+    }
+
+    protected Deployment deploy() {
+        return repositoryService.createDeployment()
+                .addClasspathResource("org/flowable/engine/test/cfg/CompiledScriptCacheTest.scripts.bpmn20.xml")
+                .deploy();
+    }
+
+    protected ProcessInstance startProcessInstance(long a, long b) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("a", a);
+        variables.put("b", b);
+        return runtimeService.startProcessInstanceByKey("scripts", variables);
+    }
+
+    protected void assertScriptResults(ProcessInstance processInstance, long expectedSum, long expectedProduct, String expectedTaskDefinitionKey) {
+        Map<String, Object> variables = runtimeService.getVariables(processInstance.getId());
+        assertEquals(expectedSum, ((Number) variables.get("sum")).longValue());
+        assertEquals(expectedProduct, ((Number) variables.get("product")).longValue());
+
+        Task task = taskService.createTaskQuery().processInstanceId(processInstance.getId()).singleResult();
+        assertEquals(expectedTaskDefinitionKey, task.getTaskDefinitionKey());
+    }
+
+}
@@ -0,0 +1,243 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.test.cfg;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.flowable.engine.common.impl.db.DbSqlSessionFactory;
+import org.flowable.engine.common.impl.interceptor.Command;
+import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.engine.impl.persistence.entity.ExecutionEntity;
+import org.flowable.engine.impl.persistence.entity.ExecutionEntityImpl;
+import org.flowable.engine.impl.test.ResourceFlowableTestCase;
+import org.flowable.engine.impl.util.CommandContextUtil;
+import org.flowable.engine.runtime.ProcessInstance;
+import org.flowable.engine.test.Deployment;
+import org.flowable.engine.test.profiler.CommandStats;
+import org.flowable.engine.test.profiler.FlowableProfiler;
+import org.flowable.engine.test.profiler.ProfileSession;
+import org.flowable.task.service.Task;
+import org.flowable.task.service.impl.persistence.entity.TaskEntity;
+import org.flowable.variable.service.impl.persistence.entity.VariableInstanceEntity;
+import org.flowable.variable.service.impl.persistence.entity.VariableInstanceEntityImpl;
+
+/**
+ * Tests the dirty flag based change detection of executions, tasks and variables,
+ * and compares it with the persistent state comparison.
+ */
+public class DirtyTrackingTest extends ResourceFlowableTestCase {
+
+    public DirtyTrackingTest() {
+        super("org/flowable/engine/test/cfg/DirtyTrackingTest.flowable.cfg.xml");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FlowableProfiler.getInstance().reset();
+        super.tearDown();
+    }
+
+    @Deployment(resources = "org/flowable/engine/test/cfg/FlushBatchingTest.multiInstanceUserTask.bpmn20.xml")
+    public void testUnchangedEntitiesAreNotUpdated() {
+        final ProcessInstance processInstance = startProcessInstance(10);
+        final Map<String, Integer> revisions = getExecutionRevisions(processInstance.getId());
+
+        CommandStats stats = executeAndProfile(new Command<Void>() {
+
+            @Override
+            public Void execute(CommandContext commandContext) {
+                for (ExecutionEntity execution : CommandContextUtil.getExecutionEntityManager(commandContext).findChildExecutionsByProcessInstanceId(processInstance.getId())) {
+                    // Setting the same values must not mark the execution as dirty
+                    execution.setActive(execution.isActive());
+                    execution.setName(execution.getName());
+                    execution.getVariables();
+                }
+                return null;
+            }
+        });
+
+        assertTrue(stats.getDbUpdates().isEmpty());
+        assertEquals(revisions, getExecutionRevisions(processInstance.getId()));
+        runtimeService.deleteProcessInstance(processInstance.getId(), "test");
+    }
+
+    @Deployment(resources = "org/flowable/engine/test/cfg/FlushBatchingTest.multiInstanceUserTask.bpmn20.xml")
+    public void testChangedEntitiesAreUpdated() {
+        final ProcessInstance processInstance = startProcessInstance(10);
+
+        CommandStats stats = executeAndProfile(new Command<Void>() {
+
+            @Override
+            public Void execute(CommandContext commandContext) {
+                List<ExecutionEntity> executions = CommandContextUtil.getExecutionEntityManager(commandContext).findChildExecutionsByProcessInstanceId(processInstance.getId());
+                executions.get(0).setName("changed");
+
+                VariableInstanceEntity variable = CommandContextUtil.getVariableService().findVariableInstanceByExecutionAndName(processInstance.getId(), "nrOfTasks");
+                variable.setValue(20);
+                return null;
+            }
+        });
+
+        assertEquals(2, stats.getDbUpdates().size());
+        assertEquals(Long.valueOf(1), stats.getDbUpdates().get(ExecutionEntityImpl.class.getName()));
+        assertEquals(Long.valueOf(1), stats.getDbUpdates().get(VariableInstanceEntityImpl.class.getName()));
+        assertEquals(1, countExecutionsWithName(processInstance.getId(), "changed"));
+        assertEquals(20, runtimeService.getVariable(processInstance.getId(), "nrOfTasks"));
+
+        List<Task> tasks = taskService.createTaskQuery().processInstanceId(processInstance.getId()).list();
+        taskService.setAssignee(tasks.get(0).getId(), "kermit");
+        assertEquals("kermit", taskService.createTaskQuery().taskId(tasks.get(0).getId()).singleResult().getAssignee());
+        assertEquals(1, historyService.createHistoricTaskInstanceQuery().taskAssignee("kermit").count());
+
+        for (Task task : tasks) {
+            taskService.complete(task.getId());
+        }
+        assertEquals(0, runtimeService.createProcessInstanceQuery().processInstanceId(processInstance.getId()).count());
+    }
+
+    @Deployment(resources = "org/flowable/engine/test/cfg/FlushBatchingTest.multiInstanceUserTask.bpmn20.xml")
+    public void testChangesToNullAreUpdated() {
+        ProcessInstance processInstance = startProcessInstance(2);
+        runtimeService.setProcessInstanceName(processInstance.getId(), "name");
+        runtimeService.setProcessInstanceName(processInstance.getId(), null);
+        assertNull(runtimeService.createProcessInstanceQuery().processInstanceId(processInstance.getId()).singleResult().getName());
+
+        Task task = taskService.createTaskQuery().processInstanceId(processInstance.getId()).list().get(0);
+        taskService.setAssignee(task.getId(), "kermit");
+        taskService.setAssignee(task.getId(), null);
+        assertNull(taskService.createTaskQuery().taskId(task.getId()).singleResult().getAssignee());
+        runtimeService.deleteProcessInstance(processInstance.getId(), "test");
+    }
+
+    @Deployment(resources = "org/flowable/engine/test/cfg/FlushBatchingTest.multiInstanceUserTask.bpmn20.xml")
+    public void testCompareWithPersistentStateComparison() {
+        ProcessInstance processInstance = startProcessInstance(50);
+
+        // With dirty tracking, loading the executions doesn't copy their persistent state
+        assertEquals(2, changeTwoExecutionsAndProfile(processInstance.getId(), "changed", 0));
+
+        DbSqlSessionFactory dbSqlSessionFactory = processEngineConfiguration.getDbSqlSessionFactory();
+        dbSqlSessionFactory.setDirtyTrackingEnabled(false);
+        try {
+            // The persistent state comparison detects the same changes, but needs a copy of the state of every execution
+            assertEquals(2, changeTwoExecutionsAndProfile(processInstance.getId(), "changedAgain", 51));
+        } finally {
+            dbSqlSessionFactory.setDirtyTrackingEnabled(true);
+        }
+
+        assertEquals(2, countExecutionsWithName(processInstance.getId(), "changedAgain"));
+        runtimeService.deleteProcessInstance(processInstance.getId(), "test");
+    }
+
+    @Deployment(resources = "org/flowable/engine/test/cfg/FlushBatchingTest.multiInstanceUserTask.bpmn20.xml")
+    public void testTaskKeepsOriginalAssigneeAndOwner() {
+        ProcessInstance processInstance = startProcessInstance(1);
+        final String taskId = taskService.createTaskQuery().processInstanceId(processInstance.getId()).singleResult().getId();
+        taskService.setAssignee(taskId, "kermit");
+
+        managementService.executeCommand(new Command<Void>() {
+
+            @Override
+            public Void execute(CommandContext commandContext) {
+                TaskEntity task = CommandContextUtil.getTaskService(commandContext).getTask(taskId);
+                task.setAssignee("fozzie");
+
+                // Only the original values that the history managers need are kept
+                Map<?, ?> originalPersistentState = (Map<?, ?>) task.getOriginalPersistentState();
+                assertEquals(2, originalPersistentState.size());
+                assertEquals("kermit", originalPersistentState.get("assignee"));
+                assertNull(originalPersistentState.get("owner"));
+                return null;
+            }
+        });
+
+        assertEquals("fozzie", taskService.createTaskQuery().taskId(taskId).singleResult().getAssignee());
+        runtimeService.deleteProcessInstance(processInstance.getId(), "test");
+    }
+
+    /**
+     * @return the number of updated executions
+     */
+    protected long changeTwoExecutionsAndProfile(final String processInstanceId, final String name, final int expectedNrOfCopiedStates) {
+        CommandStats stats = executeAndProfile(new Command<Void>() {
+
+            @Override
+            public Void execute(CommandContext commandContext) {
+                List<ExecutionEntity> executions = CommandContextUtil.getExecutionEntityManager(commandContext).findChildExecutionsByProcessInstanceId(processInstanceId);
+                int nrOfCopiedStates = 0;
+                for (ExecutionEntity execution : executions) {
+                    if (!((Map<?, ?>) execution.getOriginalPersistentState()).isEmpty()) {
+                        nrOfCopiedStates++;
+                    }
+                }
+                assertEquals(expectedNrOfCopiedStates, nrOfCopiedStates);
+
+                executions.get(0).setName(name);
+                executions.get(1).setName(name);
+                return null;
+            }
+        });
+
+        assertEquals(1, stats.getDbUpdates().size());
+        return stats.getDbUpdates().get(ExecutionEntityImpl.class.getName());
+    }
+
+    protected CommandStats executeAndProfile(Command<Void> command) {
+        FlowableProfiler profiler = FlowableProfiler.getInstance();
+        profiler.startProfileSession("Dirty tracking");
+        managementService.executeCommand(command);
+        profiler.stopCurrentProfileSession();
+
+        List<ProfileSession> profileSessions = profiler.getProfileSessions();
+        return profileSessions.get(profileSessions.size() - 1).calculateSummaryStatistics().get(command.getClass().getName());
+    }
+
+    protected int countExecutionsWithName(final String processInstanceId, final String name) {
+        return managementService.executeCommand(new Command<Integer>() {
+
+            @Override
+            public Integer execute(CommandContext commandContext) {
+                int count = 0;
+                for (ExecutionEntity execution : CommandContextUtil.getExecutionEntityManager(commandContext).findChildExecutionsByProcessInstanceId(processInstanceId)) {
+                    if (name.equals(execution.getName())) {
+                        count++;
+                    }
+                }
+                return count;
+            }
+        });
+    }
+
+    protected Map<String, Integer> getExecutionRevisions(final String processInstanceId) {
+        return managementService.executeCommand(new Command<Map<String, Integer>>() {
+
+            @Override
+            public Map<String, Integer> execute(CommandContext commandContext) {
+                Map<String, Integer> revisions = new HashMap<>();
+                for (ExecutionEntity execution : CommandContextUtil.getExecutionEntityManager(commandContext).findChildExecutionsByProcessInstanceId(processInstanceId)) {
+                    revisions.put(execution.getId(), ((ExecutionEntityImpl) execution).getRevision());
+                }
+                return revisions;
+            }
+        });
+    }
+
+    protected ProcessInstance startProcessInstance(int nrOfTasks) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("nrOfTasks", nrOfTasks);
+        return runtimeService.startProcessInstanceByKey("multiInstanceUserTask", variables);
+    }
+
+}
@@ -0,0 +1,160 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.test.cfg;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.flowable.engine.common.impl.db.CachedEntityMatcherAdapter;
+import org.flowable.engine.common.impl.db.IndexedCachedEntityMatcher;
+import org.flowable.engine.common.impl.interceptor.Command;
+import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.engine.common.impl.persistence.cache.CachedEntity;
+import org.flowable.engine.common.impl.persistence.cache.EntityCache;
+import org.flowable.engine.impl.persistence.entity.ExecutionEntity;
+import org.flowable.engine.impl.persistence.entity.ExecutionEntityImpl;
+import org.flowable.engine.impl.persistence.entity.ExecutionEntityManager;
+import org.flowable.engine.impl.persistence.entity.data.impl.cachematcher.EntityCacheIndexes;
+import org.flowable.engine.impl.persistence.entity.data.impl.cachematcher.ExecutionsByParentExecutionIdEntityMatcher;
+import org.flowable.engine.impl.persistence.entity.data.impl.cachematcher.ExecutionsByProcessInstanceIdEntityMatcher;
+import org.flowable.engine.impl.test.ResourceFlowableTestCase;
+import org.flowable.engine.impl.util.CommandContextUtil;
+import org.flowable.engine.runtime.ProcessInstance;
+import org.flowable.engine.test.Deployment;
+
+/**
+ * Tests the secondary indexes of the entity cache used by the cached entity matchers,
+ * and compares their results with checking all cached entities.
+ */
+public class EntityCacheIndexTest extends ResourceFlowableTestCase {
+
+    public EntityCacheIndexTest() {
+        super("org/flowable/engine/test/cfg/EntityCacheIndexTest.flowable.cfg.xml");
+    }
+
+    @Deployment(resources = "org/flowable/engine/test/cfg/EntityCacheIndexTest.subProcess.bpmn20.xml")
+    public void testIndexFollowsChangedParent() {
+        final ProcessInstance processInstance = startProcessInstance(3);
+
+        try {
+            managementService.executeCommand(new Command<Void>() {
+
+                @Override
+                public Void execute(CommandContext commandContext) {
+                    ExecutionEntityManager executionEntityManager = CommandContextUtil.getExecutionEntityManager(commandContext);
+                    ExecutionEntity processInstanceExecution = executionEntityManager.findById(processInstance.getId());
+                    ExecutionEntity multiInstanceRoot = executionEntityManager.findChildExecutionsByParentExecutionId(processInstance.getId()).get(0);
+                    assertEquals(3, executionEntityManager.findChildExecutionsByParentExecutionId(multiInstanceRoot.getId()).size());
+
+                    ExecutionEntity newChild = executionEntityManager.createChildExecution(multiInstanceRoot);
+                    assertEquals(4, executionEntityManager.findChildExecutionsByParentExecutionId(multiInstanceRoot.getId()).size());
+
+                    newChild.setParent(processInstanceExecution);
+                    assertEquals(3, executionEntityManager.findChildExecutionsByParentExecutionId(multiInstanceRoot.getId()).size());
+                    assertTrue(executionEntityManager.findChildExecutionsByParentExecutionId(processInstance.getId()).contains(newChild));
+
+                    EntityCache entityCache = CommandContextUtil.getEntityCache(commandContext);
+                    entityCache.cacheRemove(ExecutionEntityImpl.class, multiInstanceRoot.getId());
+                    assertEquals(1, entityCache.findInCacheAsCachedObjects(ExecutionEntityImpl.class, EntityCacheIndexes.EXECUTION_BY_PARENT_ID, processInstance.getId()).size());
+
+                    throw new RollbackException();
+                }
+            });
+            fail("RollbackException expected");
+        } catch (RollbackException e) {
+            // expected
+        }
+
+        assertEquals(6, taskService.createTaskQuery().processInstanceId(processInstance.getId()).count());
+        runtimeService.deleteProcessInstance(processInstance.getId(), "test");
+    }
+
+    @Deployment(resources = "org/flowable/engine/test/cfg/EntityCacheIndexTest.subProcess.bpmn20.xml")
+    public void testIndexResultsMatchCheckingAllCachedEntities() {
+        final ProcessInstance processInstance = startProcessInstance(20);
+
+        managementService.executeCommand(new Command<Void>() {
+
+            @Override
+            public Void execute(CommandContext commandContext) {
+                ExecutionEntityManager executionEntityManager = CommandContextUtil.getExecutionEntityManager(commandContext);
+                List<ExecutionEntity> executions = executionEntityManager.findChildExecutionsByProcessInstanceId(processInstance.getId());
+
+                // The multi instance root, and a sub process execution and two task executions per instance
+                assertEquals(1 + 20 * 3, executions.size());
+
+                EntityCache entityCache = CommandContextUtil.getEntityCache(commandContext);
+                ExecutionsByParentExecutionIdEntityMatcher parentMatcher = new ExecutionsByParentExecutionIdEntityMatcher();
+                int nrOfChildren = 0;
+                for (ExecutionEntity execution : executions) {
+                    Set<String> indexedChildIds = findUsingIndex(entityCache, parentMatcher, execution.getId());
+                    assertEquals(findCheckingAllCachedEntities(entityCache, parentMatcher, execution.getId()), indexedChildIds);
+                    nrOfChildren += indexedChildIds.size();
+                }
+                // Every execution except the direct child of the process instance has its parent in the list
+                assertEquals(executions.size() - 1, nrOfChildren);
+
+                ExecutionsByProcessInstanceIdEntityMatcher processInstanceMatcher = new ExecutionsByProcessInstanceIdEntityMatcher();
+                Set<String> indexedExecutionIds = findUsingIndex(entityCache, processInstanceMatcher, processInstance.getId());
+                assertEquals(executions.size(), indexedExecutionIds.size());
+                assertEquals(findCheckingAllCachedEntities(entityCache, processInstanceMatcher, processInstance.getId()), indexedExecutionIds);
+                return null;
+            }
+        });
+
+        runtimeService.deleteProcessInstance(processInstance.getId(), "test");
+    }
+
+    /**
+     * Like the data managers do: the index only narrows down the candidates, which are then checked by the matcher.
+     */
+    protected <T extends CachedEntityMatcherAdapter<ExecutionEntity> & IndexedCachedEntityMatcher<ExecutionEntity>> Set<String> findUsingIndex(EntityCache entityCache,
+            T matcher, String parameter) {
+
+        Set<String> ids = new HashSet<>();
+        Collection<CachedEntity> cachedEntities = entityCache.findInCacheAsCachedObjects(ExecutionEntityImpl.class, matcher.getIndex(), matcher.getIndexKey(parameter));
+        if (cachedEntities != null) {
+            for (CachedEntity cachedEntity : cachedEntities) {
+                ExecutionEntity execution = (ExecutionEntity) cachedEntity.getEntity();
+                if (matcher.isRetained(execution, parameter)) {
+                    ids.add(execution.getId());
+                }
+            }
+        }
+        return ids;
+    }
+
+    protected Set<String> findCheckingAllCachedEntities(EntityCache entityCache, CachedEntityMatcherAdapter<ExecutionEntity> matcher, String parameter) {
+        Set<String> ids = new HashSet<>();
+        for (ExecutionEntity execution : entityCache.findInCache(ExecutionEntityImpl.class)) {
+            if (matcher.isRetained(execution, parameter)) {
+                ids.add(execution.getId());
+            }
+        }
+        return ids;
+    }
+
+    protected ProcessInstance startProcessInstance(int nrOfSubProcesses) {
+        return runtimeService.startProcessInstanceByKey("entityCacheIndex", Collections.<String, Object> singletonMap("nrOfSubProcesses", nrOfSubProcesses));
+    }
+
+    protected static class RollbackException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+    }
+
+}
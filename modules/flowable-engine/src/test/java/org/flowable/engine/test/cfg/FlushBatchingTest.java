@@ -0,0 +1,170 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.test.cfg;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.flowable.engine.common.api.FlowableOptimisticLockingException;
+import org.flowable.engine.common.impl.db.DbSqlSessionFactory;
+import org.flowable.engine.common.impl.interceptor.Command;
+import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.engine.impl.cmd.CompleteTaskCmd;
+import org.flowable.engine.impl.cmd.DeleteProcessInstanceCmd;
+import org.flowable.engine.impl.persistence.entity.ExecutionEntityImpl;
+import org.flowable.engine.impl.test.ResourceFlowableTestCase;
+import org.flowable.engine.impl.util.CommandContextUtil;
+import org.flowable.engine.runtime.ProcessInstance;
+import org.flowable.engine.test.Deployment;
+import org.flowable.engine.test.profiler.CommandStats;
+import org.flowable.engine.test.profiler.FlowableProfiler;
+import org.flowable.engine.test.profiler.ProfileSession;
+import org.flowable.task.service.Task;
+import org.flowable.task.service.impl.persistence.entity.TaskEntity;
+import org.flowable.task.service.impl.persistence.entity.TaskEntityImpl;
+
+/**
+ * Tests the JDBC batched flush of updates and deletes, and compares the number of statements with the regular flush.
+ */
+public class FlushBatchingTest extends ResourceFlowableTestCase {
+
+    public FlushBatchingTest() {
+        super("org/flowable/engine/test/cfg/FlushBatchingTest.flowable.cfg.xml");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FlowableProfiler.getInstance().reset();
+        super.tearDown();
+    }
+
+    @Deployment(resources = "org/flowable/engine/test/cfg/FlushBatchingTest.multiInstanceUserTask.bpmn20.xml")
+    public void testCompleteTasksWithBatchedFlush() {
+        ProcessInstance processInstance = startProcessInstance(20);
+
+        List<Task> tasks = taskService.createTaskQuery().processInstanceId(processInstance.getId()).list();
+        assertEquals(20, tasks.size());
+
+        FlowableProfiler.getInstance().startProfileSession("Complete tasks");
+        for (Task task : tasks) {
+            taskService.complete(task.getId());
+        }
+        CommandStats stats = stopProfiling(CompleteTaskCmd.class);
+
+        assertEquals(0, runtimeService.createExecutionQuery().processInstanceId(processInstance.getId()).count());
+        assertEquals(1, historyService.createHistoricProcessInstanceQuery().processInstanceId(processInstance.getId()).finished().count());
+        assertEquals(20, historyService.createHistoricTaskInstanceQuery().processInstanceId(processInstance.getId()).finished().count());
+
+        // The last task ends all executions of the process instance at once
+        assertEquals(Long.valueOf(1), stats.getDbDeletes().get(ExecutionEntityImpl.class.getName() + "-batch-with-22"));
+        assertFalse(stats.getDbDeletes().containsKey(ExecutionEntityImpl.class.getName()));
+    }
+
+    @Deployment(resources = "org/flowable/engine/test/cfg/FlushBatchingTest.multiInstanceUserTask.bpmn20.xml")
+    public void testDeleteExecutionTreeWithBatchedFlush() {
+        ProcessInstance processInstance = startProcessInstance(50);
+
+        CommandStats stats = deleteProcessInstanceAndProfile(processInstance.getId());
+        assertEquals(0, runtimeService.createExecutionQuery().count());
+        assertEquals(0, taskService.createTaskQuery().count());
+
+        // One batch per entity type instead of one statement per entity
+        assertEquals(Long.valueOf(1), stats.getDbDeletes().get(TaskEntityImpl.class.getName() + "-batch-with-50"));
+        assertEquals(Long.valueOf(1), stats.getDbDeletes().get(ExecutionEntityImpl.class.getName() + "-batch-with-52"));
+        assertFalse(stats.getDbDeletes().containsKey(TaskEntityImpl.class.getName()));
+        assertFalse(stats.getDbDeletes().containsKey(ExecutionEntityImpl.class.getName()));
+    }
+
+    @Deployment(resources = "org/flowable/engine/test/cfg/FlushBatchingTest.multiInstanceUserTask.bpmn20.xml")
+    public void testOptimisticLockingWithBatchedFlush() {
+        ProcessInstance processInstance = startProcessInstance(2);
+        final List<Task> tasks = taskService.createTaskQuery().processInstanceId(processInstance.getId()).list();
+
+        try {
+            managementService.executeCommand(new Command<Void>() {
+
+                @Override
+                public Void execute(CommandContext commandContext) {
+                    TaskEntity firstTask = CommandContextUtil.getTaskService(commandContext).getTask(tasks.get(0).getId());
+                    firstTask.setName("changed");
+
+                    // Simulates a concurrent update by another transaction
+                    TaskEntity secondTask = CommandContextUtil.getTaskService(commandContext).getTask(tasks.get(1).getId());
+                    secondTask.setName("changed");
+                    secondTask.setRevision(secondTask.getRevision() + 1);
+                    return null;
+                }
+            });
+            fail("FlowableOptimisticLockingException expected");
+        } catch (FlowableOptimisticLockingException e) {
+            // expected
+        }
+
+        for (Task task : taskService.createTaskQuery().processInstanceId(processInstance.getId()).list()) {
+            assertEquals("Multi instance task", task.getName());
+        }
+        runtimeService.deleteProcessInstance(processInstance.getId(), "test");
+    }
+
+    @Deployment(resources = "org/flowable/engine/test/cfg/FlushBatchingTest.multiInstanceUserTask.bpmn20.xml")
+    public void testCompareWithRegularFlush() {
+        CommandStats batchedStats = deleteProcessInstanceAndProfile(startProcessInstance(100).getId());
+
+        DbSqlSessionFactory dbSqlSessionFactory = processEngineConfiguration.getDbSqlSessionFactory();
+        dbSqlSessionFactory.setFlushBatchingEnabled(false);
+        CommandStats regularStats;
+        try {
+            regularStats = deleteProcessInstanceAndProfile(startProcessInstance(100).getId());
+        } finally {
+            dbSqlSessionFactory.setFlushBatchingEnabled(true);
+        }
+
+        assertEquals(Long.valueOf(100), regularStats.getDbDeletes().get(TaskEntityImpl.class.getName()));
+        assertEquals(Long.valueOf(102), regularStats.getDbDeletes().get(ExecutionEntityImpl.class.getName()));
+
+        // One batch for each type of entity that is deleted one by one with the regular flush
+        assertEquals(regularStats.getDbDeletes().size(), countStatements(batchedStats.getDbDeletes()));
+        assertTrue(countStatements(regularStats.getDbDeletes()) > 200);
+        assertEquals(0, runtimeService.createExecutionQuery().count());
+    }
+
+    protected CommandStats deleteProcessInstanceAndProfile(String processInstanceId) {
+        FlowableProfiler.getInstance().startProfileSession("Delete process instance");
+        runtimeService.deleteProcessInstance(processInstanceId, "test");
+        return stopProfiling(DeleteProcessInstanceCmd.class);
+    }
+
+    protected CommandStats stopProfiling(Class<?> commandClass) {
+        FlowableProfiler profiler = FlowableProfiler.getInstance();
+        profiler.stopCurrentProfileSession();
+        List<ProfileSession> profileSessions = profiler.getProfileSessions();
+        return profileSessions.get(profileSessions.size() - 1).calculateSummaryStatistics().get(commandClass.getName());
+    }
+
+    /**
+     * Every key is either a single statement or a batch, executed the given number of times.
+     */
+    protected long countStatements(Map<String, Long> dbOperations) {
+        long count = 0;
+        for (Long nrOfExecutions : dbOperations.values()) {
+            count += nrOfExecutions;
+        }
+        return count;
+    }
+
+    protected ProcessInstance startProcessInstance(int nrOfTasks) {
+        return runtimeService.startProcessInstanceByKey("multiInstanceUserTask", Collections.<String, Object> singletonMap("nrOfTasks", nrOfTasks));
+    }
+
+}
@@ -0,0 +1,205 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.test.cfg;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.flowable.engine.ProcessEngine;
+import org.flowable.engine.common.impl.db.IdBlock;
+import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.flowable.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.flowable.engine.impl.db.DbIdGenerator;
+import org.flowable.engine.impl.db.PrefetchingDbIdGenerator;
+import org.flowable.engine.runtime.ProcessInstance;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests the {@link PrefetchingDbIdGenerator} and compares it with the {@link DbIdGenerator}.
+ */
+public class PrefetchingDbIdGeneratorTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrefetchingDbIdGeneratorTest.class);
+
+    protected ProcessEngineConfigurationImpl processEngineConfiguration;
+    protected ProcessEngine processEngine;
+
+    @Before
+    public void setupProcessEngine() {
+        processEngineConfiguration = (ProcessEngineConfigurationImpl) new StandaloneInMemProcessEngineConfiguration();
+        processEngineConfiguration.setJdbcUrl("jdbc:h2:mem:prefetchingDbIdGeneratorTest");
+        processEngineConfiguration.setIdBlockPrefetchEnabled(true);
+        processEngineConfiguration.setIdBlockSize(10);
+        processEngine = processEngineConfiguration.buildProcessEngine();
+    }
+
+    @After
+    public void shutdownProcessEngine() {
+        if (processEngine != null) {
+            processEngine.close();
+        }
+    }
+
+    @Test
+    public void testProcessEngineUsesPrefetchingIdGenerator() {
+        Assert.assertTrue(processEngineConfiguration.getIdGenerator() instanceof PrefetchingDbIdGenerator);
+
+        processEngine.getRepositoryService().createDeployment()
+                .addClasspathResource("org/flowable/engine/test/cfg/FlushBatchingTest.multiInstanceUserTask.bpmn20.xml")
+                .deploy();
+        ProcessInstance processInstance = processEngine.getRuntimeService().startProcessInstanceByKey("multiInstanceUserTask",
+                Collections.<String, Object> singletonMap("nrOfTasks", 50));
+        Assert.assertEquals(50, processEngine.getTaskService().createTaskQuery().processInstanceId(processInstance.getId()).count());
+    }
+
+    @Test
+    public void testUniqueIdsFromConcurrentThreads() throws Exception {
+        PrefetchingDbIdGenerator idGenerator = (PrefetchingDbIdGenerator) processEngineConfiguration.getIdGenerator();
+        List<Set<String>> idsPerThread = generateIds(idGenerator, 8, 5000);
+
+        Set<String> allIds = new HashSet<>();
+        long maxId = 0;
+        for (Set<String> ids : idsPerThread) {
+            Assert.assertEquals(5000, ids.size());
+            allIds.addAll(ids);
+            for (String id : ids) {
+                maxId = Math.max(maxId, Long.parseLong(id));
+            }
+        }
+        Assert.assertEquals(40000, allIds.size());
+
+        // All handed out ids are reserved in the database
+        long nextDbId = Long.parseLong(processEngine.getManagementService().getProperties().get("next.dbid"));
+        Assert.assertTrue(nextDbId > maxId);
+    }
+
+    @Test
+    public void testBlockSizeAdaptsToConsumption() {
+        final AtomicInteger fetchedBlocks = new AtomicInteger();
+        PrefetchingDbIdGenerator idGenerator = new PrefetchingDbIdGenerator() {
+
+            @Override
+            protected IdBlock fetchBlock(int blockSize) {
+                fetchedBlocks.incrementAndGet();
+                return super.fetchBlock(blockSize);
+            }
+        };
+        initIdGenerator(idGenerator);
+
+        for (int i = 0; i < 20000; i++) {
+            idGenerator.getNextId();
+        }
+
+        // With fixed blocks of 10 ids, 2000 blocks would be needed
+        Assert.assertTrue("Fetched " + fetchedBlocks.get() + " blocks", fetchedBlocks.get() < 200);
+    }
+
+    @Test
+    public void testPrefetchExecutorShutDownWhenEngineClosed() {
+        PrefetchingDbIdGenerator idGenerator = (PrefetchingDbIdGenerator) processEngineConfiguration.getIdGenerator();
+        for (int i = 0; i < 100; i++) {
+            idGenerator.getNextId();
+        }
+        ExecutorService prefetchExecutor = (ExecutorService) idGenerator.getPrefetchExecutor();
+        Assert.assertNotNull(prefetchExecutor);
+
+        processEngine.close();
+        processEngine = null;
+        Assert.assertTrue(prefetchExecutor.isShutdown());
+        Assert.assertNull(idGenerator.getPrefetchExecutor());
+    }
+
+    @Test
+    public void testProvidedPrefetchExecutorNotShutDown() {
+        ExecutorService prefetchExecutor = Executors.newSingleThreadExecutor();
+        try {
+            PrefetchingDbIdGenerator idGenerator = new PrefetchingDbIdGenerator();
+            initIdGenerator(idGenerator);
+            idGenerator.setPrefetchExecutor(prefetchExecutor);
+            for (int i = 0; i < 100; i++) {
+                idGenerator.getNextId();
+            }
+
+            idGenerator.shutdown();
+            Assert.assertFalse(prefetchExecutor.isShutdown());
+            Assert.assertSame(prefetchExecutor, idGenerator.getPrefetchExecutor());
+        } finally {
+            prefetchExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void testCompareWithDbIdGenerator() throws Exception {
+        DbIdGenerator dbIdGenerator = new DbIdGenerator();
+        initIdGenerator(dbIdGenerator);
+        PrefetchingDbIdGenerator prefetchingDbIdGenerator = new PrefetchingDbIdGenerator();
+        initIdGenerator(prefetchingDbIdGenerator);
+
+        long start = System.currentTimeMillis();
+        generateIds(dbIdGenerator, 8, 5000);
+        long dbIdGeneratorDuration = System.currentTimeMillis() - start;
+
+        start = System.currentTimeMillis();
+        generateIds(prefetchingDbIdGenerator, 8, 5000);
+        long prefetchingDbIdGeneratorDuration = System.currentTimeMillis() - start;
+
+        LOGGER.info("Generating 40000 ids with 8 threads and an initial block size of 10 took {} ms with the DbIdGenerator and {} ms with the PrefetchingDbIdGenerator",
+                dbIdGeneratorDuration, prefetchingDbIdGeneratorDuration);
+    }
+
+    protected void initIdGenerator(DbIdGenerator idGenerator) {
+        idGenerator.setIdBlockSize(10);
+        idGenerator.setCommandExecutor(processEngineConfiguration.getCommandExecutor());
+        idGenerator.setCommandConfig(processEngineConfiguration.getDefaultCommandConfig().transactionRequiresNew());
+    }
+
+    protected List<Set<String>> generateIds(final DbIdGenerator idGenerator, int nrOfThreads, final int nrOfIdsPerThread) throws InterruptedException {
+        final List<Set<String>> idsPerThread = Collections.synchronizedList(new ArrayList<Set<String>>());
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < nrOfThreads; i++) {
+            threads.add(new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    Set<String> ids = new HashSet<>();
+                    for (int j = 0; j < nrOfIdsPerThread; j++) {
+                        ids.add(idGenerator.getNextId());
+                    }
+                    idsPerThread.add(ids);
+                }
+            }));
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(nrOfThreads, idsPerThread.size());
+        return idsPerThread;
+    }
+
+}
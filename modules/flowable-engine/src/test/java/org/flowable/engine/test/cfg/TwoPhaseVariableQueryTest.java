@@ -0,0 +1,204 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.test.cfg;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.flowable.engine.ProcessEngine;
+import org.flowable.engine.history.HistoricProcessInstance;
+import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.flowable.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.flowable.engine.runtime.ProcessInstance;
+import org.flowable.task.service.Task;
+import org.flowable.task.service.history.HistoricTaskInstance;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Queries tasks and process instances including their variables and identity links, with these being fetched in a query
+ * after the page of tasks or process instances instead of being joined.
+ */
+public class TwoPhaseVariableQueryTest {
+
+    protected static final int PROCESS_INSTANCE_COUNT = 5;
+    protected static final int PROCESS_VARIABLE_COUNT = 20;
+
+    protected ProcessEngine processEngine;
+
+    @Before
+    public void setupProcessEngine() {
+        ProcessEngineConfigurationImpl processEngineConfiguration = (ProcessEngineConfigurationImpl) new StandaloneInMemProcessEngineConfiguration();
+        processEngineConfiguration.setJdbcUrl("jdbc:h2:mem:twoPhaseVariableQueryTest");
+        processEngineConfiguration.setEnableTwoPhaseVariableQueries(true);
+        processEngine = processEngineConfiguration.buildProcessEngine();
+
+        processEngine.getRepositoryService().createDeployment()
+                .addClasspathResource("org/flowable/engine/test/api/oneTaskProcess.bpmn20.xml")
+                .deploy();
+
+        for (int i = 0; i < PROCESS_INSTANCE_COUNT; i++) {
+            Map<String, Object> variables = new HashMap<>();
+            for (int j = 0; j < PROCESS_VARIABLE_COUNT; j++) {
+                variables.put("var" + j, i * 100 + j);
+            }
+            ProcessInstance processInstance = processEngine.getRuntimeService().startProcessInstanceByKey("oneTaskProcess", "key" + i, variables);
+            processEngine.getRuntimeService().setVariable(processInstance.getId(), "var0", "updated" + i);
+
+            Task task = processEngine.getTaskService().createTaskQuery().processInstanceId(processInstance.getId()).singleResult();
+            processEngine.getTaskService().setVariableLocal(task.getId(), "local0", "local" + i);
+            processEngine.getTaskService().setVariableLocal(task.getId(), "local1", i);
+            processEngine.getTaskService().addCandidateUser(task.getId(), "kermit");
+        }
+    }
+
+    @After
+    public void shutdownProcessEngine() {
+        processEngine.close();
+    }
+
+    @Test
+    public void testTaskQueryPage() {
+        List<Task> tasks = processEngine.getTaskService().createTaskQuery()
+                .includeProcessVariables()
+                .includeTaskLocalVariables()
+                .includeIdentityLinks()
+                .orderByProcessInstanceId().asc()
+                .listPage(1, 3);
+        Assert.assertEquals(3, tasks.size());
+
+        for (Task task : tasks) {
+            Map<String, Object> processVariables = task.getProcessVariables();
+            Assert.assertEquals(PROCESS_VARIABLE_COUNT, processVariables.size());
+            Assert.assertEquals(processEngine.getRuntimeService().getVariables(task.getProcessInstanceId()), processVariables);
+
+            Map<String, Object> taskLocalVariables = task.getTaskLocalVariables();
+            Assert.assertEquals(2, taskLocalVariables.size());
+            Assert.assertEquals(processEngine.getTaskService().getVariablesLocal(task.getId()), taskLocalVariables);
+
+            Assert.assertEquals(1, task.getIdentityLinks().size());
+            Assert.assertEquals("kermit", task.getIdentityLinks().get(0).getUserId());
+        }
+    }
+
+    @Test
+    public void testTaskQueryLimitVariableNames() {
+        List<Task> tasks = processEngine.getTaskService().createTaskQuery()
+                .includeProcessVariables()
+                .includeTaskLocalVariables()
+                .limitTaskVariableNames(Arrays.asList("var0", "var5", "local1"))
+                .list();
+        Assert.assertEquals(PROCESS_INSTANCE_COUNT, tasks.size());
+
+        for (Task task : tasks) {
+            Assert.assertEquals(2, task.getProcessVariables().size());
+            Assert.assertTrue(task.getProcessVariables().containsKey("var5"));
+            Assert.assertEquals(1, task.getTaskLocalVariables().size());
+            Assert.assertTrue(task.getTaskLocalVariables().containsKey("local1"));
+        }
+    }
+
+    @Test
+    public void testTaskQueryWithoutVariables() {
+        List<Task> tasks = processEngine.getTaskService().createTaskQuery()
+                .includeProcessVariables()
+                .processInstanceBusinessKey("unknown")
+                .list();
+        Assert.assertTrue(tasks.isEmpty());
+
+        Task task = processEngine.getTaskService().newTask();
+        processEngine.getTaskService().saveTask(task);
+        try {
+            task = processEngine.getTaskService().createTaskQuery().taskId(task.getId()).includeProcessVariables().includeIdentityLinks().singleResult();
+            Assert.assertTrue(task.getProcessVariables().isEmpty());
+            Assert.assertTrue(task.getIdentityLinks().isEmpty());
+        } finally {
+            processEngine.getTaskService().deleteTask(task.getId(), true);
+        }
+    }
+
+    @Test
+    public void testHistoricTaskInstanceQueryPage() {
+        List<HistoricTaskInstance> historicTaskInstances = processEngine.getHistoryService().createHistoricTaskInstanceQuery()
+                .includeProcessVariables()
+                .includeTaskLocalVariables()
+                .orderByProcessInstanceId().asc()
+                .listPage(3, 5);
+        Assert.assertEquals(2, historicTaskInstances.size());
+
+        for (HistoricTaskInstance historicTaskInstance : historicTaskInstances) {
+            Map<String, Object> processVariables = historicTaskInstance.getProcessVariables();
+            Assert.assertEquals(PROCESS_VARIABLE_COUNT, processVariables.size());
+            Assert.assertEquals(processEngine.getRuntimeService().getVariables(historicTaskInstance.getProcessInstanceId()), processVariables);
+            Assert.assertEquals(2, historicTaskInstance.getTaskLocalVariables().size());
+        }
+
+        historicTaskInstances = processEngine.getHistoryService().createHistoricTaskInstanceQuery()
+                .includeProcessVariables()
+                .limitTaskVariableNames(Arrays.asList("var0"))
+                .list();
+        Assert.assertEquals(PROCESS_INSTANCE_COUNT, historicTaskInstances.size());
+        for (HistoricTaskInstance historicTaskInstance : historicTaskInstances) {
+            Assert.assertEquals(1, historicTaskInstance.getProcessVariables().size());
+            Assert.assertTrue(((String) historicTaskInstance.getProcessVariables().get("var0")).startsWith("updated"));
+        }
+    }
+
+    @Test
+    public void testProcessInstanceQueryPage() {
+        List<ProcessInstance> processInstances = processEngine.getRuntimeService().createProcessInstanceQuery()
+                .includeProcessVariables()
+                .orderByProcessInstanceId().asc()
+                .listPage(0, 2);
+        Assert.assertEquals(2, processInstances.size());
+        for (ProcessInstance processInstance : processInstances) {
+            Assert.assertEquals(processEngine.getRuntimeService().getVariables(processInstance.getId()), processInstance.getProcessVariables());
+        }
+
+        processInstances = processEngine.getRuntimeService().createProcessInstanceQuery()
+                .includeProcessVariables()
+                .limitProcessInstanceVariableNames(Arrays.asList("var1", "var2"))
+                .list();
+        Assert.assertEquals(PROCESS_INSTANCE_COUNT, processInstances.size());
+        for (ProcessInstance processInstance : processInstances) {
+            Assert.assertEquals(2, processInstance.getProcessVariables().size());
+        }
+    }
+
+    @Test
+    public void testHistoricProcessInstanceQueryPage() {
+        List<HistoricProcessInstance> historicProcessInstances = processEngine.getHistoryService().createHistoricProcessInstanceQuery()
+                .includeProcessVariables()
+                .orderByProcessInstanceBusinessKey().desc()
+                .listPage(1, 2);
+        Assert.assertEquals(2, historicProcessInstances.size());
+        Assert.assertEquals("key3", historicProcessInstances.get(0).getBusinessKey());
+        for (HistoricProcessInstance historicProcessInstance : historicProcessInstances) {
+            Assert.assertEquals(processEngine.getRuntimeService().getVariables(historicProcessInstance.getId()), historicProcessInstance.getProcessVariables());
+        }
+
+        historicProcessInstances = processEngine.getHistoryService().createHistoricProcessInstanceQuery()
+                .includeProcessVariables()
+                .limitProcessInstanceVariableNames(Arrays.asList("var0"))
+                .list();
+        Assert.assertEquals(PROCESS_INSTANCE_COUNT, historicProcessInstances.size());
+        for (HistoricProcessInstance historicProcessInstance : historicProcessInstances) {
+            Assert.assertEquals(1, historicProcessInstance.getProcessVariables().size());
+        }
+    }
+
+}
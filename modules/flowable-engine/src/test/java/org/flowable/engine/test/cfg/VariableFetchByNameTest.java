@@ -0,0 +1,167 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.test.cfg;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.flowable.engine.common.impl.interceptor.Command;
+import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.engine.common.impl.interceptor.EngineConfigurationConstants;
+import org.flowable.engine.impl.cmd.StartProcessInstanceCmd;
+import org.flowable.engine.impl.persistence.entity.ExecutionEntity;
+import org.flowable.engine.impl.persistence.entity.ExecutionEntityImpl;
+import org.flowable.engine.impl.test.ResourceFlowableTestCase;
+import org.flowable.engine.impl.util.CommandContextUtil;
+import org.flowable.engine.runtime.ProcessInstance;
+import org.flowable.engine.test.Deployment;
+import org.flowable.engine.test.profiler.CommandStats;
+import org.flowable.engine.test.profiler.FlowableProfiler;
+import org.flowable.engine.test.profiler.ProfileSession;
+import org.flowable.task.service.Task;
+import org.flowable.variable.service.VariableServiceConfiguration;
+
+/**
+ * Gets variables of executions in a sub process with the variables being fetched by name instead of all at once.
+ */
+public class VariableFetchByNameTest extends ResourceFlowableTestCase {
+
+    public VariableFetchByNameTest() {
+        super("org/flowable/engine/test/cfg/VariableFetchByNameTest.flowable.cfg.xml");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FlowableProfiler.getInstance().reset();
+        super.tearDown();
+    }
+
+    @Deployment(resources = "org/flowable/engine/test/cfg/VariableFetchByNameTest.subProcess.bpmn20.xml")
+    public void testPrefetchedVariablesUsedByActivity() {
+        FlowableProfiler.getInstance().startProfileSession("Start process instance");
+        ProcessInstance processInstance = startProcessInstance();
+        CommandStats stats = stopProfiling(StartProcessInstanceCmd.class.getName());
+
+        // The variables of a new process instance are already known, so neither the prefetch nor the activity needs a query
+        assertFalse(stats.getDbSelects().containsKey("selectVariableInstancesByExecutionIdsAndNames"));
+        assertFalse(stats.getDbSelects().containsKey("selectVariablesByExecutionId"));
+
+        assertEquals(3L, runtimeService.getVariable(processInstance.getId(), "sum"));
+        runtimeService.deleteProcessInstance(processInstance.getId(), "test");
+    }
+
+    @Deployment(resources = "org/flowable/engine/test/cfg/VariableFetchByNameTest.subProcess.bpmn20.xml")
+    public void testGetVariableOfParentExecution() {
+        ProcessInstance processInstance = startProcessInstance();
+        final Task task = taskService.createTaskQuery().processInstanceId(processInstance.getId()).singleResult();
+
+        CommandStats stats = executeAndProfile(new Command<Void>() {
+
+            @Override
+            public Void execute(CommandContext commandContext) {
+                ExecutionEntity execution = CommandContextUtil.getExecutionEntityManager(commandContext).findById(task.getExecutionId());
+                assertEquals(1L, execution.getVariable("a"));
+                assertEquals(2L, execution.getVariable("b"));
+                assertNull(execution.getVariable("unknown"));
+                assertNull(execution.getVariableLocal("a"));
+
+                // Only the requested variables are fetched
+                ExecutionEntityImpl processInstanceExecution = (ExecutionEntityImpl) execution.getProcessInstance();
+                assertTrue(processInstanceExecution.getUsedVariablesCache().containsKey("a"));
+                assertFalse(processInstanceExecution.getUsedVariablesCache().containsKey("c"));
+                return null;
+            }
+        });
+
+        // One query for each name, covering the three executions of the hierarchy. Getting a local variable that was fetched before doesn't need a query.
+        assertEquals(Long.valueOf(3), stats.getDbSelects().get("selectVariableInstancesByExecutionIdsAndNames"));
+        assertFalse(stats.getDbSelects().containsKey("selectVariablesByExecutionId"));
+
+        managementService.executeCommand(new Command<Void>() {
+
+            @Override
+            public Void execute(CommandContext commandContext) {
+                ExecutionEntity execution = CommandContextUtil.getExecutionEntityManager(commandContext).findById(task.getExecutionId());
+                execution.setVariable("unknown", "created");
+                assertEquals("created", execution.getVariable("unknown"));
+                return null;
+            }
+        });
+
+        assertEquals("created", runtimeService.getVariable(processInstance.getId(), "unknown"));
+        assertEquals(3L, runtimeService.getVariable(task.getExecutionId(), "c"));
+        runtimeService.deleteProcessInstance(processInstance.getId(), "test");
+    }
+
+    @Deployment(resources = "org/flowable/engine/test/cfg/VariableFetchByNameTest.subProcess.bpmn20.xml")
+    public void testCompareWithFetchingAllVariables() {
+        ProcessInstance processInstance = startProcessInstance();
+        final Task task = taskService.createTaskQuery().processInstanceId(processInstance.getId()).singleResult();
+
+        Command<Void> command = new Command<Void>() {
+
+            @Override
+            public Void execute(CommandContext commandContext) {
+                ExecutionEntity execution = CommandContextUtil.getExecutionEntityManager(commandContext).findById(task.getExecutionId());
+                assertEquals(1L, execution.getVariable("a"));
+                assertEquals(2L, execution.getVariable("b"));
+                return null;
+            }
+        };
+
+        CommandStats fetchByNameStats = executeAndProfile(command);
+
+        VariableServiceConfiguration variableServiceConfiguration = (VariableServiceConfiguration) processEngineConfiguration.getServiceConfigurations()
+                .get(EngineConfigurationConstants.KEY_VARIABLE_SERVICE_CONFIG);
+        variableServiceConfiguration.setFetchVariablesByName(false);
+        CommandStats fetchAllStats;
+        try {
+            fetchAllStats = executeAndProfile(command);
+        } finally {
+            variableServiceConfiguration.setFetchVariablesByName(true);
+        }
+
+        // All variables of the three executions of the hierarchy are fetched, one query per execution
+        assertEquals(Long.valueOf(3), fetchAllStats.getDbSelects().get("selectVariablesByExecutionId"));
+        assertFalse(fetchAllStats.getDbSelects().containsKey("selectVariableInstancesByExecutionIdsAndNames"));
+
+        // Only the two variables are fetched, one query per name
+        assertEquals(Long.valueOf(2), fetchByNameStats.getDbSelects().get("selectVariableInstancesByExecutionIdsAndNames"));
+        assertFalse(fetchByNameStats.getDbSelects().containsKey("selectVariablesByExecutionId"));
+
+        runtimeService.deleteProcessInstance(processInstance.getId(), "test");
+    }
+
+    protected CommandStats executeAndProfile(Command<Void> command) {
+        FlowableProfiler.getInstance().startProfileSession("Get variables");
+        managementService.executeCommand(command);
+        return stopProfiling(command.getClass().getName());
+    }
+
+    protected CommandStats stopProfiling(String commandClassName) {
+        FlowableProfiler profiler = FlowableProfiler.getInstance();
+        profiler.stopCurrentProfileSession();
+        List<ProfileSession> profileSessions = profiler.getProfileSessions();
+        return profileSessions.get(profileSessions.size() - 1).calculateSummaryStatistics().get(commandClassName);
+    }
+
+    protected ProcessInstance startProcessInstance() {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("a", 1L);
+        variables.put("b", 2L);
+        variables.put("c", 3L);
+        return runtimeService.startProcessInstanceByKey("variableFetchByName", variables);
+    }
+
+}
@@ -17,12 +17,16 @@ import java.util.List;
 
 import org.flowable.engine.common.api.FlowableIllegalArgumentException;
 import org.flowable.engine.common.impl.history.HistoryLevel;
+import org.flowable.engine.common.impl.interceptor.Command;
+import org.flowable.engine.common.impl.interceptor.CommandContext;
 import org.flowable.engine.common.impl.util.CollectionUtil;
 import org.flowable.engine.history.HistoricActivityInstance;
 import org.flowable.engine.history.HistoricActivityInstanceQuery;
 import org.flowable.engine.history.HistoricProcessInstance;
+import org.flowable.engine.impl.persistence.entity.ExecutionEntity;
 import org.flowable.engine.impl.test.HistoryTestHelper;
 import org.flowable.engine.impl.test.PluggableFlowableTestCase;
+import org.flowable.engine.impl.util.CommandContextUtil;
 import org.flowable.engine.runtime.Execution;
 import org.flowable.engine.runtime.ProcessInstance;
 import org.flowable.engine.test.Deployment;
@@ -364,6 +368,54 @@ public class HistoricActivityInstanceTest extends PluggableFlowableTestCase {
         assertNotNull(historicActivityInstance.get(1).getEndTime());
     }
 
+    @Deployment(resources = "org/flowable/engine/test/history/oneTaskProcess.bpmn20.xml")
+    public void testActivityInstanceIdOnExecution() {
+        if (!HistoryTestHelper.isHistoryLevelAtLeast(HistoryLevel.ACTIVITY, processEngineConfiguration) || processEngineConfiguration.isAsyncHistoryEnabled()) {
+            return;
+        }
+
+        ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+        final Execution execution = runtimeService.createExecutionQuery().onlyChildExecutions().processInstanceId(processInstance.getId()).singleResult();
+
+        HistoricActivityInstance taskActivityInstance = historyService.createHistoricActivityInstanceQuery().activityId("theTask").singleResult();
+        assertEquals(taskActivityInstance.getId(), ((ExecutionEntity) execution).getActivityInstanceId());
+
+        org.flowable.task.service.Task task = taskService.createTaskQuery().processInstanceId(processInstance.getId()).singleResult();
+        taskService.complete(task.getId());
+
+        taskActivityInstance = historyService.createHistoricActivityInstanceQuery().activityId("theTask").singleResult();
+        assertNotNull(taskActivityInstance.getEndTime());
+        assertEquals(1, historyService.createHistoricActivityInstanceQuery().activityId("theEnd").finished().count());
+    }
+
+    @Deployment(resources = "org/flowable/engine/test/history/oneTaskProcess.bpmn20.xml")
+    public void testActivityInstanceIdNotSetOnExecution() {
+        if (!HistoryTestHelper.isHistoryLevelAtLeast(HistoryLevel.ACTIVITY, processEngineConfiguration) || processEngineConfiguration.isAsyncHistoryEnabled()) {
+            return;
+        }
+
+        ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+        final Execution execution = runtimeService.createExecutionQuery().onlyChildExecutions().processInstanceId(processInstance.getId()).singleResult();
+
+        // Executions started before the activity instance id was kept on the execution don't have it
+        managementService.executeCommand(new Command<Void>() {
+
+            @Override
+            public Void execute(CommandContext commandContext) {
+                ExecutionEntity executionEntity = CommandContextUtil.getExecutionEntityManager(commandContext).findById(execution.getId());
+                executionEntity.setActivityInstanceId(null);
+                return null;
+            }
+
+        });
+
+        org.flowable.task.service.Task task = taskService.createTaskQuery().processInstanceId(processInstance.getId()).singleResult();
+        taskService.complete(task.getId());
+
+        HistoricActivityInstance taskActivityInstance = historyService.createHistoricActivityInstanceQuery().activityId("theTask").singleResult();
+        assertNotNull(taskActivityInstance.getEndTime());
+    }
+
     @Deployment
     public void testLoop() {
         ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("historic-activity-loops", CollectionUtil.singletonMap("input", 0));
@@ -0,0 +1,208 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.test.jobexecutor;
+
+import java.util.Date;
+import java.util.concurrent.Callable;
+
+import org.flowable.engine.ProcessEngine;
+import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.flowable.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.flowable.engine.impl.test.JobTestHelper;
+import org.flowable.job.service.impl.asyncexecutor.AbstractAsyncExecutor;
+import org.flowable.job.service.impl.asyncexecutor.TimerJobWheel;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for the async executor when the due timer jobs are acquired with a {@link TimerJobWheel}.
+ */
+public class AsyncExecutorTimerJobWheelTest {
+
+    @Test
+    public void testTimerJobAcquiredFromWheel() {
+        ProcessEngine processEngine = null;
+
+        try {
+            processEngine = createProcessEngine(true, 50);
+            setClockToCurrentTime(processEngine);
+            deploy(processEngine, "AsyncExecutorTest.testRegularAsyncExecution.bpmn20.xml");
+
+            // The new timer job is added to the wheel when the transaction is committed
+            processEngine.getRuntimeService().startProcessInstanceByKey("asyncExecutor");
+            Assert.assertEquals(1, getTimerJobWheel(processEngine).size());
+
+            // Move clock 3 minutes. Nothing should happen
+            addSecondsToCurrentTime(processEngine, 180L);
+            Thread.sleep(500L);
+            Assert.assertEquals(1, processEngine.getTaskService().createTaskQuery().taskName("The Task").count());
+            Assert.assertEquals(1, processEngine.getManagementService().createTimerJobQuery().count());
+
+            // Move clock 2 minutes and 1 second. Triggers the timer
+            addSecondsToCurrentTime(processEngine, 121L);
+            waitForAllJobsBeingExecuted(processEngine, 10000L);
+
+            Assert.assertEquals(0, processEngine.getTaskService().createTaskQuery().taskName("The Task").count());
+            Assert.assertEquals(1, processEngine.getTaskService().createTaskQuery().taskName("Task after timer").count());
+            Assert.assertEquals(0, processEngine.getManagementService().createTimerJobQuery().count());
+            Assert.assertEquals(0, getTimerJobWheel(processEngine).size());
+
+        } catch (InterruptedException e) {
+            Assert.fail();
+
+        } finally {
+            cleanup(processEngine);
+        }
+    }
+
+    @Test
+    public void testTimerJobsOfOtherEngineLoadedInWheel() {
+        ProcessEngine firstProcessEngine = null;
+        ProcessEngine secondProcessEngine = null;
+
+        try {
+            // The timer job is created by an engine without async executor, so it is only found by loading the wheel from the database
+            firstProcessEngine = createProcessEngine(false, 50);
+            Date now = setClockToCurrentTime(firstProcessEngine);
+            deploy(firstProcessEngine, "AsyncExecutorTest.testRegularAsyncExecution.bpmn20.xml");
+            firstProcessEngine.getRuntimeService().startProcessInstanceByKey("asyncExecutor");
+
+            secondProcessEngine = createProcessEngine(true, 50);
+            secondProcessEngine.getProcessEngineConfiguration().getClock().setCurrentTime(now);
+            addSecondsToCurrentTime(secondProcessEngine, 301L);
+            waitForAllJobsBeingExecuted(secondProcessEngine, 10000L);
+
+            Assert.assertEquals(0, firstProcessEngine.getTaskService().createTaskQuery().taskName("The Task").count());
+            Assert.assertEquals(1, firstProcessEngine.getTaskService().createTaskQuery().taskName("Task after timer").count());
+            Assert.assertEquals(0, firstProcessEngine.getManagementService().createTimerJobQuery().count());
+
+        } finally {
+            cleanup(secondProcessEngine);
+            cleanup(firstProcessEngine);
+        }
+    }
+
+    @Test
+    public void testWheelReloadedAfterAcquireWaitTime() {
+        ProcessEngine firstProcessEngine = null;
+        ProcessEngine secondProcessEngine = null;
+
+        try {
+            // The wheel of the second engine is loaded before the timer job is created, and isn't reloaded before the timer is due
+            // when the reload interval would be half of the window
+            secondProcessEngine = createProcessEngine(true, 50, 20 * 60 * 1000);
+            Date now = setClockToCurrentTime(secondProcessEngine);
+            Thread.sleep(500L);
+
+            firstProcessEngine = createProcessEngine(false, 50);
+            firstProcessEngine.getProcessEngineConfiguration().getClock().setCurrentTime(now);
+            deploy(firstProcessEngine, "AsyncExecutorTest.testRegularAsyncExecution.bpmn20.xml");
+            firstProcessEngine.getRuntimeService().startProcessInstanceByKey("asyncExecutor");
+
+            addSecondsToCurrentTime(secondProcessEngine, 301L);
+            waitForAllJobsBeingExecuted(secondProcessEngine, 10000L);
+
+            Assert.assertEquals(1, firstProcessEngine.getTaskService().createTaskQuery().taskName("Task after timer").count());
+            Assert.assertEquals(0, firstProcessEngine.getManagementService().createTimerJobQuery().count());
+
+        } catch (InterruptedException e) {
+            Assert.fail();
+
+        } finally {
+            cleanup(secondProcessEngine);
+            cleanup(firstProcessEngine);
+        }
+    }
+
+    @Test
+    public void testNewTimerJobWakesUpAcquisition() {
+        ProcessEngine processEngine = null;
+
+        try {
+            // Without the wheel, the timer job would only be acquired after a minute
+            processEngine = createProcessEngine(false, 60000);
+            processEngine.getProcessEngineConfiguration().getClock().reset();
+            deploy(processEngine, "AsyncExecutorTimerJobWheelTest.testNewTimerJobWakesUpAcquisition.bpmn20.xml");
+
+            // Give the acquisition thread the time to load the empty wheel and start waiting
+            processEngine.getProcessEngineConfiguration().getAsyncExecutor().start();
+            Thread.sleep(500L);
+
+            final ProcessEngine engine = processEngine;
+            engine.getRuntimeService().startProcessInstanceByKey("shortTimer");
+            JobTestHelper.waitForJobExecutorOnCondition(engine.getProcessEngineConfiguration(), 10000L, 200L, new Callable<Boolean>() {
+
+                @Override
+                public Boolean call() throws Exception {
+                    return engine.getTaskService().createTaskQuery().taskName("Task after timer").count() == 1;
+                }
+            });
+
+        } catch (InterruptedException e) {
+            Assert.fail();
+
+        } finally {
+            cleanup(processEngine);
+        }
+    }
+
+    private ProcessEngine createProcessEngine(boolean enableAsyncExecutor, int timerJobAcquireWaitTime) {
+        return createProcessEngine(enableAsyncExecutor, timerJobAcquireWaitTime, 5 * 60 * 1000);
+    }
+
+    private ProcessEngine createProcessEngine(boolean enableAsyncExecutor, int timerJobAcquireWaitTime, int timerJobWheelWindow) {
+        ProcessEngineConfigurationImpl processEngineConfiguration = new StandaloneInMemProcessEngineConfiguration();
+        processEngineConfiguration.setJdbcUrl("jdbc:h2:mem:activiti-AsyncExecutorTimerJobWheelTest;DB_CLOSE_DELAY=1000");
+        processEngineConfiguration.setDatabaseSchemaUpdate("true");
+        processEngineConfiguration.setAsyncExecutorActivate(enableAsyncExecutor);
+        processEngineConfiguration.setAsyncExecutorDefaultAsyncJobAcquireWaitTime(50);
+        processEngineConfiguration.setAsyncExecutorDefaultTimerJobAcquireWaitTime(timerJobAcquireWaitTime);
+        processEngineConfiguration.setAsyncExecutorTimerJobWheelEnabled(true);
+        processEngineConfiguration.setAsyncExecutorTimerJobWheelWindow(timerJobWheelWindow);
+        return processEngineConfiguration.buildProcessEngine();
+    }
+
+    private TimerJobWheel getTimerJobWheel(ProcessEngine processEngine) {
+        return ((AbstractAsyncExecutor) processEngine.getProcessEngineConfiguration().getAsyncExecutor()).getTimerJobWheel();
+    }
+
+    private Date setClockToCurrentTime(ProcessEngine processEngine) {
+        Date date = new Date();
+        processEngine.getProcessEngineConfiguration().getClock().setCurrentTime(date);
+        return date;
+    }
+
+    private void addSecondsToCurrentTime(ProcessEngine processEngine, long nrOfSeconds) {
+        Date currentTime = processEngine.getProcessEngineConfiguration().getClock().getCurrentTime();
+        processEngine.getProcessEngineConfiguration().getClock().setCurrentTime(new Date(currentTime.getTime() + (nrOfSeconds * 1000L)));
+    }
+
+    private void cleanup(ProcessEngine processEngine) {
+        if (processEngine != null) {
+            for (org.flowable.engine.repository.Deployment deployment : processEngine.getRepositoryService().createDeploymentQuery().list()) {
+                processEngine.getRepositoryService().deleteDeployment(deployment.getId(), true);
+            }
+            processEngine.getProcessEngineConfiguration().getClock().reset();
+            processEngine.close();
+        }
+    }
+
+    private String deploy(ProcessEngine processEngine, String resource) {
+        return processEngine.getRepositoryService().createDeployment().addClasspathResource("org/flowable/engine/test/jobexecutor/" + resource).deploy().getId();
+    }
+
+    private void waitForAllJobsBeingExecuted(ProcessEngine processEngine, long maxWaitTime) {
+        JobTestHelper.waitForJobExecutorToProcessAllJobsAndExecutableTimerJobs(processEngine.getProcessEngineConfiguration(), processEngine.getManagementService(), maxWaitTime, 200L, false);
+    }
+
+}
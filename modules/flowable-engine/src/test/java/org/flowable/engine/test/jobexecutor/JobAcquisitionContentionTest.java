@@ -0,0 +1,199 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.test.jobexecutor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.flowable.engine.ProcessEngine;
+import org.flowable.engine.common.api.FlowableOptimisticLockingException;
+import org.flowable.engine.common.impl.interceptor.Command;
+import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.flowable.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.flowable.engine.impl.util.CommandContextUtil;
+import org.flowable.job.service.impl.asyncexecutor.AcquiredJobEntities;
+import org.flowable.job.service.impl.asyncexecutor.DefaultAsyncJobExecutor;
+import org.flowable.job.service.impl.cmd.AcquireJobsCmd;
+import org.flowable.job.service.impl.persistence.entity.JobEntity;
+import org.flowable.job.service.impl.persistence.entity.JobEntityImpl;
+import org.flowable.job.service.impl.persistence.entity.JobInfoEntity;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Simulates several nodes acquiring the same async jobs concurrently, to measure the acquisition throughput and the acquisitions
+ * that are wasted because another node acquired the same jobs first.
+ * <p>
+ * The tests run on H2, which doesn't support 'skip locked', so the acquisition falls back to the regular select even when the skip locked
+ * acquisition is enabled. The dialect choice for other databases is covered by {@link #testSkipLockedAcquisitionOnlyUsedWhenSupported()}.
+ */
+public class JobAcquisitionContentionTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JobAcquisitionContentionTest.class);
+
+    protected static final int NR_OF_JOBS = 1000;
+
+    @Test
+    public void testJobsAreAcquiredOnceWithSkipLockedAcquisition() throws Exception {
+        ProcessEngine processEngine = buildProcessEngine("skipLockedJobAcquisitionTest", true);
+        try {
+            createJobs(processEngine, 100);
+            AcquisitionResult result = acquireJobs(processEngine, 4);
+            Assert.assertEquals(100, result.acquiredJobs.get());
+            Assert.assertEquals(100, result.acquiredJobIds.size());
+            Assert.assertEquals(0, processEngine.getManagementService().createJobQuery().unlocked().count());
+        } finally {
+            processEngine.close();
+        }
+    }
+
+    @Test
+    public void testSkipLockedAcquisitionOnlyUsedWhenSupported() {
+        ProcessEngine processEngine = buildProcessEngine("skipLockedJobAcquisitionSupportTest", true);
+        try {
+            ProcessEngineConfigurationImpl processEngineConfiguration = (ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration();
+
+            // H2 has no 'skip locked', so the regular acquisition is used
+            Assert.assertTrue(processEngineConfiguration.isAsyncExecutorSkipLockedAcquisitionEnabled());
+            Assert.assertFalse(processEngineConfiguration.getAsyncExecutor().getJobServiceConfiguration().isAsyncExecutorSkipLockedAcquisitionEnabled());
+
+            Assert.assertFalse(processEngineConfiguration.isSkipLockedAcquisitionSupported("h2", "1.3.176 (2014-04-05)", 1, 3));
+            Assert.assertFalse(processEngineConfiguration.isSkipLockedAcquisitionSupported("postgres", "9.4.1", 9, 4));
+            Assert.assertTrue(processEngineConfiguration.isSkipLockedAcquisitionSupported("postgres", "9.5.0", 9, 5));
+            Assert.assertTrue(processEngineConfiguration.isSkipLockedAcquisitionSupported("postgres", "10.1", 10, 1));
+            Assert.assertFalse(processEngineConfiguration.isSkipLockedAcquisitionSupported("mysql", "5.7.21", 5, 7));
+            Assert.assertTrue(processEngineConfiguration.isSkipLockedAcquisitionSupported("mysql", "8.0.11", 8, 0));
+            Assert.assertFalse(processEngineConfiguration.isSkipLockedAcquisitionSupported("mysql", "5.5.5-10.3.8-MariaDB", 5, 5));
+            Assert.assertFalse(processEngineConfiguration.isSkipLockedAcquisitionSupported("mysql", "10.5.4-MariaDB", 10, 5));
+            Assert.assertTrue(processEngineConfiguration.isSkipLockedAcquisitionSupported("mysql", "5.5.5-10.6.4-MariaDB", 5, 5));
+            Assert.assertTrue(processEngineConfiguration.isSkipLockedAcquisitionSupported("mysql", "11.0.2-MariaDB", 11, 0));
+            Assert.assertTrue(processEngineConfiguration.isSkipLockedAcquisitionSupported("oracle", "Oracle Database 12c", 12, 1));
+            Assert.assertTrue(processEngineConfiguration.isSkipLockedAcquisitionSupported("mssql", "13.00.4001", 13, 0));
+            Assert.assertFalse(processEngineConfiguration.isSkipLockedAcquisitionSupported("db2", "SQL10050", 10, 5));
+        } finally {
+            processEngine.close();
+        }
+    }
+
+    @Test
+    public void testAcquisitionWithIncreasingNumberOfNodes() throws Exception {
+        for (boolean skipLockedAcquisitionEnabled : new boolean[] { false, true }) {
+            for (int nrOfNodes : new int[] { 1, 2, 4, 8 }) {
+                ProcessEngine processEngine = buildProcessEngine("jobAcquisitionContentionTest" + nrOfNodes + skipLockedAcquisitionEnabled, skipLockedAcquisitionEnabled);
+                try {
+                    createJobs(processEngine, NR_OF_JOBS);
+
+                    long start = System.currentTimeMillis();
+                    AcquisitionResult result = acquireJobs(processEngine, nrOfNodes);
+                    long duration = Math.max(1L, System.currentTimeMillis() - start);
+
+                    Assert.assertEquals(NR_OF_JOBS, result.acquiredJobs.get());
+                    Assert.assertEquals(NR_OF_JOBS, result.acquiredJobIds.size());
+                    LOGGER.info("Acquiring {} jobs with {} nodes (skip locked acquisition {}, database {}) took {} ms: {} jobs/sec, {} of {} acquisitions wasted",
+                            NR_OF_JOBS, nrOfNodes,
+                            ((ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration()).getAsyncExecutor().getJobServiceConfiguration().isAsyncExecutorSkipLockedAcquisitionEnabled() ? "used" : "not used",
+                            ((ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration()).getDatabaseType(),
+                            duration, NR_OF_JOBS * 1000L / duration, result.wastedAcquisitions.get(), result.acquisitions.get());
+                } finally {
+                    processEngine.close();
+                }
+            }
+        }
+    }
+
+    protected AcquisitionResult acquireJobs(final ProcessEngine processEngine, int nrOfNodes) throws InterruptedException {
+        final ProcessEngineConfigurationImpl processEngineConfiguration = (ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration();
+        final AcquisitionResult result = new AcquisitionResult();
+
+        List<Thread> nodes = new ArrayList<>();
+        for (int i = 0; i < nrOfNodes; i++) {
+            // Every node has its own executor, only used for its lock owner and acquisition settings
+            final DefaultAsyncJobExecutor asyncExecutor = new DefaultAsyncJobExecutor();
+            asyncExecutor.setJobServiceConfiguration(processEngineConfiguration.getAsyncExecutor().getJobServiceConfiguration());
+            asyncExecutor.setLockOwner("node-" + i);
+            asyncExecutor.setMaxAsyncJobsDuePerAcquisition(10);
+
+            nodes.add(new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    while (true) {
+                        result.acquisitions.incrementAndGet();
+                        try {
+                            AcquiredJobEntities acquiredJobs = processEngineConfiguration.getCommandExecutor().execute(new AcquireJobsCmd(asyncExecutor));
+                            if (acquiredJobs.size() == 0) {
+                                return;
+                            }
+                            for (JobInfoEntity job : acquiredJobs.getJobs()) {
+                                result.acquiredJobIds.add(job.getId());
+                            }
+                            result.acquiredJobs.addAndGet(acquiredJobs.size());
+                        } catch (FlowableOptimisticLockingException e) {
+                            result.wastedAcquisitions.incrementAndGet();
+                        }
+                    }
+                }
+            }));
+        }
+
+        for (Thread node : nodes) {
+            node.start();
+        }
+        for (Thread node : nodes) {
+            node.join();
+        }
+        return result;
+    }
+
+    protected void createJobs(ProcessEngine processEngine, final int nrOfJobs) {
+        processEngine.getManagementService().executeCommand(new Command<Void>() {
+
+            @Override
+            public Void execute(CommandContext commandContext) {
+                for (int i = 0; i < nrOfJobs; i++) {
+                    JobEntity job = new JobEntityImpl();
+                    job.setJobType(JobEntity.JOB_TYPE_MESSAGE);
+                    job.setJobHandlerType("tweet");
+                    job.setJobHandlerConfiguration("job " + i);
+                    job.setRetries(3);
+                    CommandContextUtil.getJobService(commandContext).scheduleAsyncJob(job);
+                }
+                return null;
+            }
+        });
+    }
+
+    protected ProcessEngine buildProcessEngine(String databaseName, boolean skipLockedAcquisitionEnabled) {
+        ProcessEngineConfigurationImpl processEngineConfiguration = (ProcessEngineConfigurationImpl) new StandaloneInMemProcessEngineConfiguration();
+        processEngineConfiguration.setJdbcUrl("jdbc:h2:mem:" + databaseName);
+        processEngineConfiguration.setAsyncExecutorSkipLockedAcquisitionEnabled(skipLockedAcquisitionEnabled);
+        return processEngineConfiguration.buildProcessEngine();
+    }
+
+    protected static class AcquisitionResult {
+
+        protected final Set<String> acquiredJobIds = Collections.synchronizedSet(new HashSet<String>());
+        protected final AtomicInteger acquiredJobs = new AtomicInteger();
+        protected final AtomicInteger acquisitions = new AtomicInteger();
+        protected final AtomicInteger wastedAcquisitions = new AtomicInteger();
+
+    }
+
+}
@@ -0,0 +1,134 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.engine.test.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.flowable.job.service.impl.asyncexecutor.TimerJobWheel;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link TimerJobWheel}.
+ */
+public class TimerJobWheelTest {
+
+    @Test
+    public void testTimerJobsAreDueAtTheirDueDate() {
+        TimerJobWheel timerJobWheel = new TimerJobWheel(100, 60000, 10000);
+        assertTrue(timerJobWheel.add("job1", 10250));
+        assertTrue(timerJobWheel.add("job2", 10450));
+        assertTrue(timerJobWheel.add("job3", 9000));
+        assertEquals(3, timerJobWheel.size());
+
+        // Timer jobs that are already due are returned right away
+        assertEquals(Collections.singletonList("job3"), timerJobWheel.advance(10000));
+        assertEquals(Collections.emptyList(), timerJobWheel.advance(10200));
+        assertEquals(Collections.singletonList("job1"), timerJobWheel.advance(10300));
+        assertEquals(Collections.emptyList(), timerJobWheel.advance(10449));
+        assertEquals(Collections.singletonList("job2"), timerJobWheel.advance(10500));
+        assertEquals(0, timerJobWheel.size());
+    }
+
+    @Test
+    public void testTimerJobsOfHigherLevels() {
+        long now = 1000000;
+        TimerJobWheel timerJobWheel = new TimerJobWheel(100, 300000, now);
+
+        List<String> expectedJobIds = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            String jobId = "job" + i;
+            timerJobWheel.add(jobId, now + i * 5000);
+            expectedJobIds.add(jobId);
+        }
+
+        List<String> dueJobIds = new ArrayList<>();
+        for (long time = now; time <= now + 300000; time += 1000) {
+            List<String> jobIds = timerJobWheel.advance(time);
+            for (String jobId : jobIds) {
+                // Never returned before the due date
+                assertTrue(Integer.parseInt(jobId.substring(3)) * 5000 <= time - now);
+            }
+            dueJobIds.addAll(jobIds);
+        }
+        assertEquals(expectedJobIds, dueJobIds);
+        assertEquals(Long.MAX_VALUE, timerJobWheel.getNextAdvanceTime());
+    }
+
+    @Test
+    public void testNextAdvanceTime() {
+        TimerJobWheel timerJobWheel = new TimerJobWheel(100, 60000, 0);
+        assertEquals(Long.MAX_VALUE, timerJobWheel.getNextAdvanceTime());
+
+        timerJobWheel.add("job1", 450);
+        assertEquals(500, timerJobWheel.getNextAdvanceTime());
+
+        // Timer jobs of a higher level are moved at the next rotation of the lowest level
+        timerJobWheel.remove("job1");
+        timerJobWheel.add("job2", 20000);
+        assertEquals(6400, timerJobWheel.getNextAdvanceTime());
+        assertEquals(Collections.emptyList(), timerJobWheel.advance(6400));
+        assertEquals(12800, timerJobWheel.getNextAdvanceTime());
+        assertEquals(Collections.emptyList(), timerJobWheel.advance(12800));
+        assertEquals(19200, timerJobWheel.getNextAdvanceTime());
+        assertEquals(Collections.emptyList(), timerJobWheel.advance(19200));
+        assertEquals(20000, timerJobWheel.getNextAdvanceTime());
+        assertEquals(Collections.singletonList("job2"), timerJobWheel.advance(20000));
+    }
+
+    @Test
+    public void testChangeAndRemoveTimerJobs() {
+        TimerJobWheel timerJobWheel = new TimerJobWheel(100, 60000, 0);
+        timerJobWheel.add("job1", 1000);
+        timerJobWheel.add("job2", 2000);
+        timerJobWheel.add("job1", 3000);
+        timerJobWheel.remove("job2");
+        assertEquals(1, timerJobWheel.size());
+
+        assertEquals(Collections.emptyList(), timerJobWheel.advance(2000));
+        assertEquals(Collections.singletonList("job1"), timerJobWheel.advance(3000));
+    }
+
+    @Test
+    public void testTimerJobAfterWindow() {
+        TimerJobWheel timerJobWheel = new TimerJobWheel(100, 6000, 0);
+        assertTrue(timerJobWheel.add("job1", 6000));
+        assertFalse(timerJobWheel.add("job2", 24 * 60 * 60 * 1000L));
+        assertEquals(1, timerJobWheel.size());
+    }
+
+    @Test
+    public void testClockChanges() {
+        TimerJobWheel timerJobWheel = new TimerJobWheel(100, 300000, 100000);
+        timerJobWheel.add("job1", 150000);
+        timerJobWheel.add("job2", 200000);
+        timerJobWheel.add("job3", 350000);
+
+        // Moved back
+        assertEquals(Collections.emptyList(), timerJobWheel.advance(50000));
+        assertEquals(3, timerJobWheel.size());
+
+        // Moved forward over several rotations at once
+        List<String> dueJobIds = timerJobWheel.advance(250000);
+        Collections.sort(dueJobIds);
+        assertEquals(Arrays.asList("job1", "job2"), dueJobIds);
+        assertEquals(Collections.singletonList("job3"), timerJobWheel.advance(350000));
+    }
+
+}
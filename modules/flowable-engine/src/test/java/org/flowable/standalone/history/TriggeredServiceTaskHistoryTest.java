@@ -0,0 +1,103 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.standalone.history;
+
+import java.util.List;
+
+import org.flowable.engine.ProcessEngine;
+import org.flowable.engine.ProcessEngines;
+import org.flowable.engine.history.HistoricActivityInstance;
+import org.flowable.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.flowable.engine.impl.test.AbstractTestCase;
+import org.flowable.engine.impl.test.HistoryTestHelper;
+import org.flowable.engine.repository.Deployment;
+import org.flowable.engine.runtime.Execution;
+import org.flowable.job.service.HistoryJob;
+
+/**
+ * Tests the history of a service task that waits until its execution is triggered, with the default and with the async history manager.
+ */
+public class TriggeredServiceTaskHistoryTest extends AbstractTestCase {
+
+    protected ProcessEngine processEngine;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        // Make sure no other process engine is using the database
+        ProcessEngines.destroy();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (processEngine != null) {
+            for (Deployment deployment : processEngine.getRepositoryService().createDeploymentQuery().list()) {
+                processEngine.getRepositoryService().deleteDeployment(deployment.getId(), true);
+            }
+            for (HistoryJob historyJob : processEngine.getManagementService().createHistoryJobQuery().list()) {
+                processEngine.getManagementService().deleteHistoryJob(historyJob.getId());
+            }
+            processEngine.close();
+        }
+
+        super.tearDown();
+    }
+
+    public void testDefaultHistoryManager() {
+        createProcessEngine(false);
+        String processInstanceId = startAndTriggerProcessInstance();
+        assertServiceTaskHistory(processInstanceId);
+    }
+
+    public void testAsyncHistoryManager() {
+        createProcessEngine(true);
+        String processInstanceId = startAndTriggerProcessInstance();
+        HistoryTestHelper.waitForJobExecutorToProcessAllHistoryJobs(processEngine.getProcessEngineConfiguration(), processEngine.getManagementService(), 10000L, 100L);
+        assertServiceTaskHistory(processInstanceId);
+    }
+
+    protected void createProcessEngine(boolean asyncHistoryEnabled) {
+        processEngine = new StandaloneInMemProcessEngineConfiguration()
+                .setAsyncHistoryEnabled(asyncHistoryEnabled)
+                .setAsyncHistoryExecutorActivate(false)
+                .setJdbcUrl("jdbc:h2:mem:flowable-triggered-service-task-history-test;DB_CLOSE_DELAY=1000")
+                .buildProcessEngine();
+
+        processEngine.getRepositoryService().createDeployment()
+                .addClasspathResource("org/flowable/standalone/history/TriggeredServiceTaskHistoryTest.bpmn20.xml")
+                .deploy();
+    }
+
+    protected String startAndTriggerProcessInstance() {
+        String processInstanceId = processEngine.getRuntimeService().startProcessInstanceByKey("triggeredServiceTask").getId();
+
+        // The service task is triggered in another transaction than the one in which it started
+        Execution execution = processEngine.getRuntimeService().createExecutionQuery().processInstanceId(processInstanceId).activityId("service").singleResult();
+        processEngine.getRuntimeService().trigger(execution.getId());
+        assertEquals(1, processEngine.getTaskService().createTaskQuery().processInstanceId(processInstanceId).count());
+
+        return processInstanceId;
+    }
+
+    protected void assertServiceTaskHistory(String processInstanceId) {
+        List<HistoricActivityInstance> historicActivityInstances = processEngine.getHistoryService().createHistoricActivityInstanceQuery()
+                .processInstanceId(processInstanceId).activityId("service").list();
+        assertEquals(1, historicActivityInstances.size());
+        assertNotNull(historicActivityInstances.get(0).getEndTime());
+
+        assertEquals(0, processEngine.getHistoryService().createHistoricActivityInstanceQuery()
+                .processInstanceId(processInstanceId).activityId("service").unfinished().count());
+    }
+
+}
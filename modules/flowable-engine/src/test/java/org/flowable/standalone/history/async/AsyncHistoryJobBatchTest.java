@@ -0,0 +1,163 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.standalone.history.async;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.flowable.engine.ProcessEngine;
+import org.flowable.engine.ProcessEngineConfiguration;
+import org.flowable.engine.ProcessEngines;
+import org.flowable.engine.history.HistoricProcessInstance;
+import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.flowable.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.flowable.engine.impl.test.AbstractTestCase;
+import org.flowable.engine.impl.test.HistoryTestHelper;
+import org.flowable.engine.repository.Deployment;
+import org.flowable.job.service.HistoryJob;
+import org.flowable.job.service.JobServiceConfiguration;
+import org.flowable.job.service.impl.asyncexecutor.ExecuteAsyncHistoryJobBatchRunnable;
+import org.flowable.job.service.impl.asyncexecutor.UnacquireAsyncHistoryJobExceptionHandler;
+import org.flowable.job.service.impl.cmd.ExecuteAsyncHistoryJobBatchCmd;
+import org.flowable.job.service.impl.persistence.entity.HistoryJobEntity;
+
+/**
+ * Tests the async history executor applying history jobs in batches.
+ */
+public class AsyncHistoryJobBatchTest extends AbstractTestCase {
+
+    protected ProcessEngine processEngine;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        // Make sure no other process engine is using the database
+        ProcessEngines.destroy();
+
+        processEngine = new StandaloneInMemProcessEngineConfiguration()
+                .setAsyncHistoryEnabled(true)
+                .setAsyncHistoryExecutorBatchSize(25)
+                .setAsyncExecutorDefaultAsyncJobAcquireWaitTime(100)
+                .setEngineName("async-history-job-batch-test")
+                .setDatabaseSchemaUpdate(ProcessEngineConfiguration.DB_SCHEMA_UPDATE_TRUE)
+                .setJdbcUrl("jdbc:h2:mem:flowable-async-history-job-batch-test;DB_CLOSE_DELAY=1000")
+                .setAsyncExecutorActivate(false)
+                .setAsyncHistoryExecutorActivate(false)
+                .buildProcessEngine();
+
+        processEngine.getRepositoryService().createDeployment().addClasspathResource("org/flowable/engine/test/history/oneTaskProcess.bpmn20.xml").deploy();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        for (Deployment deployment : processEngine.getRepositoryService().createDeploymentQuery().list()) {
+            processEngine.getRepositoryService().deleteDeployment(deployment.getId(), true);
+        }
+        for (HistoryJob historyJob : processEngine.getManagementService().createHistoryJobQuery().list()) {
+            processEngine.getManagementService().deleteHistoryJob(historyJob.getId());
+        }
+        processEngine.close();
+
+        super.tearDown();
+    }
+
+    public void testJobsAppliedInOneBatch() {
+        List<String> processInstanceIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String processInstanceId = processEngine.getRuntimeService().startProcessInstanceByKey("oneTaskProcess").getId();
+            processInstanceIds.add(processInstanceId);
+        }
+        for (String processInstanceId : processInstanceIds) {
+            completeTask(processInstanceId);
+        }
+
+        List<HistoryJobEntity> jobs = getHistoryJobs();
+        assertTrue(jobs.size() > 5);
+        processEngine.getManagementService().executeCommand(new ExecuteAsyncHistoryJobBatchCmd(jobs));
+
+        assertEquals(0, processEngine.getManagementService().createHistoryJobQuery().count());
+        for (String processInstanceId : processInstanceIds) {
+            assertProcessInstanceHistory(processInstanceId);
+        }
+    }
+
+    public void testAsyncHistoryExecutorWithBatches() {
+        List<String> processInstanceIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            String processInstanceId = processEngine.getRuntimeService().startProcessInstanceByKey("oneTaskProcess").getId();
+            completeTask(processInstanceId);
+            processInstanceIds.add(processInstanceId);
+        }
+
+        HistoryTestHelper.waitForJobExecutorToProcessAllHistoryJobs(processEngine.getProcessEngineConfiguration(), processEngine.getManagementService(), 10000L, 100L);
+
+        for (String processInstanceId : processInstanceIds) {
+            assertProcessInstanceHistory(processInstanceId);
+        }
+    }
+
+    public void testBatchFallsBackToSingleJobs() {
+        String processInstanceId = processEngine.getRuntimeService().startProcessInstanceByKey("oneTaskProcess").getId();
+        Set<String> startJobIds = new HashSet<>();
+        for (HistoryJobEntity job : getHistoryJobs()) {
+            startJobIds.add(job.getId());
+        }
+        completeTask(processInstanceId);
+
+        // The history of completing the task can't be applied before the history of starting the process instance
+        List<HistoryJobEntity> completeJobs = new ArrayList<>();
+        for (HistoryJobEntity job : getHistoryJobs()) {
+            if (!startJobIds.contains(job.getId())) {
+                completeJobs.add(job);
+            }
+        }
+        assertFalse(completeJobs.isEmpty());
+
+        JobServiceConfiguration jobServiceConfiguration = getConfiguration().getAsyncHistoryExecutor().getJobServiceConfiguration();
+        new ExecuteAsyncHistoryJobBatchRunnable(completeJobs, jobServiceConfiguration, jobServiceConfiguration.getHistoryJobEntityManager(),
+                new UnacquireAsyncHistoryJobExceptionHandler()).run();
+
+        // The jobs that couldn't be applied are unacquired and are applied after the history of starting the process instance
+        assertTrue(processEngine.getManagementService().createHistoryJobQuery().count() > startJobIds.size());
+        HistoryTestHelper.waitForJobExecutorToProcessAllHistoryJobs(processEngine.getProcessEngineConfiguration(), processEngine.getManagementService(), 10000L, 100L);
+        assertProcessInstanceHistory(processInstanceId);
+    }
+
+    protected void completeTask(String processInstanceId) {
+        processEngine.getTaskService().complete(processEngine.getTaskService().createTaskQuery().processInstanceId(processInstanceId).singleResult().getId());
+    }
+
+    protected List<HistoryJobEntity> getHistoryJobs() {
+        List<HistoryJobEntity> jobs = new ArrayList<>();
+        for (HistoryJob historyJob : processEngine.getManagementService().createHistoryJobQuery().list()) {
+            jobs.add((HistoryJobEntity) historyJob);
+        }
+        return jobs;
+    }
+
+    protected void assertProcessInstanceHistory(String processInstanceId) {
+        HistoricProcessInstance historicProcessInstance = processEngine.getHistoryService().createHistoricProcessInstanceQuery()
+                .processInstanceId(processInstanceId).singleResult();
+        assertNotNull(historicProcessInstance.getEndTime());
+        assertEquals(3, processEngine.getHistoryService().createHistoricActivityInstanceQuery().processInstanceId(processInstanceId).finished().count());
+        assertEquals(1, processEngine.getHistoryService().createHistoricTaskInstanceQuery().processInstanceId(processInstanceId).finished().count());
+    }
+
+    protected ProcessEngineConfigurationImpl getConfiguration() {
+        return (ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration();
+    }
+
+}
@@ -0,0 +1,395 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.standalone.history.async;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.flowable.engine.ProcessEngine;
+import org.flowable.engine.ProcessEngineConfiguration;
+import org.flowable.engine.ProcessEngines;
+import org.flowable.engine.common.api.FlowableException;
+import org.flowable.engine.common.api.FlowableIllegalArgumentException;
+import org.flowable.engine.history.HistoricProcessInstance;
+import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.flowable.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.flowable.engine.impl.history.async.sink.AsyncHistorySink;
+import org.flowable.engine.impl.history.async.sink.AsyncHistorySinkApplier;
+import org.flowable.engine.impl.history.async.sink.AsyncHistorySinkListener;
+import org.flowable.engine.impl.history.async.sink.AsyncHistorySinkRecord;
+import org.flowable.engine.impl.history.async.sink.InMemoryAsyncHistorySink;
+import org.flowable.engine.impl.history.async.sink.SegmentFileAsyncHistorySink;
+import org.flowable.engine.impl.test.AbstractTestCase;
+import org.flowable.engine.impl.test.HistoryTestHelper;
+import org.flowable.engine.repository.Deployment;
+import org.flowable.job.service.HistoryJob;
+
+/**
+ * Tests async history that is appended to an {@link AsyncHistorySink} instead of being stored in history jobs.
+ */
+public class AsyncHistorySinkTest extends AbstractTestCase {
+
+    protected ProcessEngine processEngine;
+    protected File sinkDirectory;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        // Make sure no other process engine is using the database
+        ProcessEngines.destroy();
+
+        sinkDirectory = File.createTempFile("flowable-async-history-sink", "");
+        sinkDirectory.delete();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (processEngine != null) {
+            for (Deployment deployment : processEngine.getRepositoryService().createDeploymentQuery().list()) {
+                processEngine.getRepositoryService().deleteDeployment(deployment.getId(), true);
+            }
+            for (HistoryJob historyJob : processEngine.getManagementService().createHistoryJobQuery().list()) {
+                processEngine.getManagementService().deleteHistoryJob(historyJob.getId());
+            }
+            getConfiguration().getClock().reset();
+            processEngine.close();
+            getConfiguration().getAsyncHistorySink().close();
+        }
+
+        File[] files = sinkDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        sinkDirectory.delete();
+
+        super.tearDown();
+    }
+
+    // Every test uses a sink with its own name, as the applied position of the sink is kept in the database
+    protected void createProcessEngine(AsyncHistorySink asyncHistorySink, boolean applierActivate) {
+        createProcessEngine(asyncHistorySink, applierActivate, false);
+    }
+
+    protected void createProcessEngine(AsyncHistorySink asyncHistorySink, boolean applierActivate, boolean historyJobFallback) {
+        processEngine = new StandaloneInMemProcessEngineConfiguration()
+                .setAsyncHistoryEnabled(true)
+                .setAsyncHistorySink(asyncHistorySink)
+                .setAsyncHistorySinkHistoryJobFallback(historyJobFallback)
+                .setAsyncHistorySinkApplierActivate(applierActivate)
+                .setAsyncHistorySinkApplierIdleWaitTime(100L)
+                .setEngineName("async-history-sink-test")
+                .setDatabaseSchemaUpdate(ProcessEngineConfiguration.DB_SCHEMA_UPDATE_TRUE)
+                .setJdbcUrl("jdbc:h2:mem:flowable-async-history-sink-test;DB_CLOSE_DELAY=1000;MVCC=TRUE")
+                .setAsyncExecutorActivate(false)
+                .setAsyncHistoryExecutorActivate(false)
+                .buildProcessEngine();
+
+        // recovered history jobs are acquired on the next acquisition cycle, which shouldn't take longer than the test waits
+        getConfiguration().getAsyncHistoryExecutor().setDefaultAsyncJobAcquireWaitTimeInMillis(100);
+        getConfiguration().getAsyncHistoryExecutor().setResetExpiredJobsInterval(100);
+
+        processEngine.getRepositoryService().createDeployment().addClasspathResource("org/flowable/engine/test/history/oneTaskProcess.bpmn20.xml").deploy();
+    }
+
+    public void testHistoryAppliedFromSink() {
+        InMemoryAsyncHistorySink asyncHistorySink = new InMemoryAsyncHistorySink(getName());
+        createProcessEngine(asyncHistorySink, false);
+
+        String processInstanceId = runOneTaskProcess();
+        // Only the commit markers of the transactions are kept in the database until the history is applied from the sink
+        assertEquals(0, processEngine.getManagementService().createHistoryJobQuery().count());
+        assertEquals(2, countCommitMarkers());
+        assertEquals(2, asyncHistorySink.size());
+        assertEquals(0, processEngine.getHistoryService().createHistoricProcessInstanceQuery().processInstanceId(processInstanceId).count());
+
+        getConfiguration().getAsyncHistorySinkApplier().applyAllRecords();
+
+        assertProcessInstanceHistory(processInstanceId);
+        assertEquals(0, asyncHistorySink.size());
+        assertEquals(0, countCommitMarkers());
+    }
+
+    public void testTransactionFailsWhenNotAppended() {
+        final AtomicBoolean sinkAvailable = new AtomicBoolean();
+        InMemoryAsyncHistorySink asyncHistorySink = new InMemoryAsyncHistorySink(getName()) {
+
+            @Override
+            public synchronized void append(byte[] data) {
+                if (!sinkAvailable.get()) {
+                    throw new FlowableException("Sink not available");
+                }
+                super.append(data);
+            }
+        };
+        createProcessEngine(asyncHistorySink, false);
+
+        try {
+            processEngine.getRuntimeService().startProcessInstanceByKey("oneTaskProcess");
+            fail("Expected an exception when the history can't be appended to the sink");
+        } catch (FlowableException e) {
+            assertEquals("Sink not available", e.getMessage());
+        }
+
+        assertEquals(0, processEngine.getRuntimeService().createProcessInstanceQuery().count());
+        assertEquals(0, countCommitMarkers());
+        // The history of the clean up is appended again
+        sinkAvailable.set(true);
+    }
+
+    public void testRolledBackRecordSkipped() {
+        InMemoryAsyncHistorySink asyncHistorySink = new InMemoryAsyncHistorySink(getName());
+        createProcessEngine(asyncHistorySink, false);
+
+        // A record of which the transaction didn't commit (yet)
+        asyncHistorySink.append(("{\"" + AsyncHistorySinkListener.RECORD_COMMIT_MARKER + "\":\"" + AsyncHistorySinkListener.COMMIT_MARKER_PREFIX + "rolledBack\","
+                + "\"" + AsyncHistorySinkListener.RECORD_CREATE_TIME + "\":" + getConfiguration().getClock().getCurrentTime().getTime() + ","
+                + "\"" + AsyncHistorySinkListener.RECORD_HISTORY_DATA + "\":[]}").getBytes(StandardCharsets.UTF_8));
+        String processInstanceId = runOneTaskProcess();
+
+        // The records after it wait for its transaction to commit
+        assertEquals(0, getConfiguration().getAsyncHistorySinkApplier().applyRecords());
+        assertEquals(3, asyncHistorySink.size());
+
+        // Until its transaction is known to have rolled back
+        getConfiguration().getClock().setCurrentTime(new Date(System.currentTimeMillis() + getConfiguration().getAsyncHistorySinkRecoveryTime() + 1000L));
+        assertEquals(3, getConfiguration().getAsyncHistorySinkApplier().applyRecords());
+        assertProcessInstanceHistory(processInstanceId);
+        assertEquals(0, asyncHistorySink.size());
+        assertEquals(0, countCommitMarkers());
+    }
+
+    public void testHistoryJobFallbackAppliedFromSink() {
+        InMemoryAsyncHistorySink asyncHistorySink = new InMemoryAsyncHistorySink(getName());
+        createProcessEngine(asyncHistorySink, false, true);
+
+        String processInstanceId = runOneTaskProcess();
+        // The history data is kept in locked history jobs until it is applied from the sink
+        assertEquals(2, processEngine.getManagementService().createHistoryJobQuery().count());
+        assertEquals(2, processEngine.getManagementService().createHistoryJobQuery().locked().count());
+        assertEquals(2, asyncHistorySink.size());
+        assertEquals(0, processEngine.getHistoryService().createHistoricProcessInstanceQuery().processInstanceId(processInstanceId).count());
+
+        getConfiguration().getAsyncHistorySinkApplier().applyAllRecords();
+
+        assertProcessInstanceHistory(processInstanceId);
+        assertEquals(0, asyncHistorySink.size());
+        assertEquals(0, processEngine.getManagementService().createHistoryJobQuery().count());
+        assertEquals(0, countCommitMarkers());
+    }
+
+    public void testHistoryJobFallbackRecovered() {
+        // A sink that fails, as when the JVM stops between the commit and the append
+        InMemoryAsyncHistorySink asyncHistorySink = new InMemoryAsyncHistorySink(getName()) {
+
+            @Override
+            public synchronized void append(byte[] data) {
+                throw new FlowableException("Sink not available");
+            }
+        };
+        createProcessEngine(asyncHistorySink, false, true);
+
+        String processInstanceId = runOneTaskProcess();
+        assertEquals(2, processEngine.getManagementService().createHistoryJobQuery().count());
+        assertEquals(0, getConfiguration().getAsyncHistorySinkApplier().applyRecords());
+
+        // When the lock for the sink expires, the async history executor applies the history jobs
+        getConfiguration().getClock().setCurrentTime(new Date(System.currentTimeMillis() + getConfiguration().getAsyncHistorySinkRecoveryTime() + 1000L));
+        HistoryTestHelper.waitForJobExecutorToProcessAllHistoryJobs(getConfiguration(), processEngine.getManagementService(), 10000L, 100L);
+
+        assertProcessInstanceHistory(processInstanceId);
+    }
+
+    public void testRecordOfRecoveredJobSkipped() {
+        InMemoryAsyncHistorySink asyncHistorySink = new InMemoryAsyncHistorySink(getName());
+        createProcessEngine(asyncHistorySink, false, true);
+
+        String processInstanceId = runOneTaskProcess();
+        getConfiguration().getClock().setCurrentTime(new Date(System.currentTimeMillis() + getConfiguration().getAsyncHistorySinkRecoveryTime() + 1000L));
+        HistoryTestHelper.waitForJobExecutorToProcessAllHistoryJobs(getConfiguration(), processEngine.getManagementService(), 10000L, 100L);
+
+        // The records are still in the sink, but their history was applied by the async history executor already
+        assertEquals(2, getConfiguration().getAsyncHistorySinkApplier().applyRecords());
+        assertProcessInstanceHistory(processInstanceId);
+        assertEquals(0, asyncHistorySink.size());
+    }
+
+    public void testSinkNameTooLong() {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i <= AsyncHistorySinkApplier.MAX_SINK_NAME_LENGTH; i++) {
+            name.append('a');
+        }
+
+        try {
+            createProcessEngine(new InMemoryAsyncHistorySink(name.toString()), false);
+            fail("Expected an exception for a sink name of " + name.length() + " characters");
+        } catch (FlowableIllegalArgumentException e) {
+            assertTrue(e.getMessage().contains(String.valueOf(AsyncHistorySinkApplier.MAX_SINK_NAME_LENGTH)));
+        }
+    }
+
+    public void testRecordsReadAgainAreNotApplied() {
+        // A sink that never discards records, as happens when an acknowledgement is lost
+        InMemoryAsyncHistorySink asyncHistorySink = new InMemoryAsyncHistorySink(getName()) {
+
+            @Override
+            public synchronized void acknowledge(long position) {
+            }
+        };
+        createProcessEngine(asyncHistorySink, false);
+
+        String processInstanceId = runOneTaskProcess();
+        AsyncHistorySinkApplier asyncHistorySinkApplier = getConfiguration().getAsyncHistorySinkApplier();
+        assertEquals(2, asyncHistorySinkApplier.applyRecords());
+        assertEquals(0, asyncHistorySinkApplier.applyRecords());
+
+        assertProcessInstanceHistory(processInstanceId);
+        assertEquals(2, asyncHistorySink.size());
+    }
+
+    public void testSegmentFileSink() {
+        SegmentFileAsyncHistorySink asyncHistorySink = new SegmentFileAsyncHistorySink(getName(), sinkDirectory);
+        asyncHistorySink.setMaxSegmentSize(1024L);
+        createProcessEngine(asyncHistorySink, false);
+
+        String[] processInstanceIds = new String[5];
+        for (int i = 0; i < processInstanceIds.length; i++) {
+            processInstanceIds[i] = runOneTaskProcess();
+        }
+        assertTrue(sinkDirectory.listFiles().length > 1);
+
+        getConfiguration().getAsyncHistorySinkApplier().applyAllRecords();
+
+        for (String processInstanceId : processInstanceIds) {
+            assertProcessInstanceHistory(processInstanceId);
+        }
+        assertEquals(1, sinkDirectory.listFiles().length);
+    }
+
+    public void testBackgroundApplier() throws Exception {
+        createProcessEngine(new InMemoryAsyncHistorySink(getName()), true);
+
+        String processInstanceId = runOneTaskProcess();
+
+        long endTime = System.currentTimeMillis() + 10000L;
+        while (processEngine.getHistoryService().createHistoricProcessInstanceQuery().processInstanceId(processInstanceId).finished().count() == 0) {
+            if (System.currentTimeMillis() > endTime) {
+                fail("Async history was not applied in time");
+            }
+            Thread.sleep(50L);
+        }
+        assertProcessInstanceHistory(processInstanceId);
+    }
+
+    public void testSegmentFileSinkRecovery() throws Exception {
+        SegmentFileAsyncHistorySink asyncHistorySink = new SegmentFileAsyncHistorySink(getName(), sinkDirectory);
+        asyncHistorySink.setMaxSegmentSize(32L);
+        for (int i = 0; i < 5; i++) {
+            asyncHistorySink.append(("record " + i).getBytes(StandardCharsets.UTF_8));
+        }
+        asyncHistorySink.close();
+
+        // A record that was only partially written
+        File[] segmentFiles = sinkDirectory.listFiles();
+        File lastSegmentFile = segmentFiles[0];
+        for (File segmentFile : segmentFiles) {
+            if (segmentFile.getName().compareTo(lastSegmentFile.getName()) > 0) {
+                lastSegmentFile = segmentFile;
+            }
+        }
+        try (FileOutputStream outputStream = new FileOutputStream(lastSegmentFile, true)) {
+            outputStream.write(new byte[] { 0, 0, 0, 100, 1, 2, 3 });
+        }
+
+        asyncHistorySink = new SegmentFileAsyncHistorySink(getName(), sinkDirectory);
+        asyncHistorySink.append("record 5".getBytes(StandardCharsets.UTF_8));
+
+        List<AsyncHistorySinkRecord> records = asyncHistorySink.read(0L, 10);
+        assertEquals(6, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals("record " + i, new String(records.get(i).getData(), StandardCharsets.UTF_8));
+        }
+
+        asyncHistorySink.acknowledge(records.get(3).getPosition());
+        records = asyncHistorySink.read(0L, 10);
+        assertEquals("record 2", new String(records.get(0).getData(), StandardCharsets.UTF_8));
+        asyncHistorySink.close();
+    }
+
+    public void testSegmentFileSinkCorruptRecord() throws Exception {
+        SegmentFileAsyncHistorySink asyncHistorySink = new SegmentFileAsyncHistorySink(getName(), sinkDirectory);
+        asyncHistorySink.append("record 0".getBytes(StandardCharsets.UTF_8));
+        asyncHistorySink.append("record 1".getBytes(StandardCharsets.UTF_8));
+
+        // Every record has a header of 8 bytes and 8 bytes of data
+        File segmentFile = sinkDirectory.listFiles()[0];
+        try (RandomAccessFile file = new RandomAccessFile(segmentFile, "rw")) {
+            file.seek(8);
+            file.write('R');
+            file.seek(16);
+            file.writeInt(Integer.MAX_VALUE);
+        }
+
+        try {
+            asyncHistorySink.read(0L, 10);
+            fail("Expected an exception for an invalid checksum");
+        } catch (FlowableException e) {
+            assertTrue(e.getMessage().contains("checksum"));
+        }
+
+        try {
+            asyncHistorySink.read(16L, 10);
+            fail("Expected an exception for an invalid length");
+        } catch (FlowableException e) {
+            assertTrue(e.getMessage().contains("length"));
+        }
+        asyncHistorySink.close();
+    }
+
+    protected String runOneTaskProcess() {
+        String processInstanceId = processEngine.getRuntimeService().startProcessInstanceByKey("oneTaskProcess").getId();
+        processEngine.getTaskService().complete(processEngine.getTaskService().createTaskQuery().processInstanceId(processInstanceId).singleResult().getId());
+        return processInstanceId;
+    }
+
+    protected void assertProcessInstanceHistory(String processInstanceId) {
+        HistoricProcessInstance historicProcessInstance = processEngine.getHistoryService().createHistoricProcessInstanceQuery()
+                .processInstanceId(processInstanceId).singleResult();
+        assertNotNull(historicProcessInstance.getEndTime());
+        assertEquals(3, processEngine.getHistoryService().createHistoricActivityInstanceQuery().processInstanceId(processInstanceId).finished().count());
+        assertEquals(1, processEngine.getHistoryService().createHistoricTaskInstanceQuery().processInstanceId(processInstanceId).finished().count());
+    }
+
+    protected long countCommitMarkers() {
+        long count = 0;
+        for (Map.Entry<String, String> property : processEngine.getManagementService().getProperties().entrySet()) {
+            if (property.getKey().startsWith(AsyncHistorySinkListener.COMMIT_MARKER_PREFIX) && getName().equals(property.getValue())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    protected ProcessEngineConfigurationImpl getConfiguration() {
+        return (ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration();
+    }
+
+}
@@ -14,6 +14,7 @@ package org.flowable.http;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -21,11 +22,21 @@ import java.util.Set;
 import org.apache.commons.lang3.StringUtils;
 import org.flowable.bpmn.model.MapExceptionEntry;
 import org.flowable.engine.common.api.FlowableException;
+import org.flowable.engine.common.impl.interceptor.Command;
+import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.engine.common.impl.interceptor.CommandExecutor;
 import org.flowable.engine.delegate.DelegateExecution;
 import org.flowable.variable.service.delegate.Expression;
 import org.flowable.engine.impl.bpmn.behavior.AbstractBpmnActivityBehavior;
 import org.flowable.engine.impl.bpmn.helper.ErrorPropagation;
+import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.flowable.engine.impl.jobexecutor.AsyncTriggerJobHandler;
 import org.flowable.engine.impl.persistence.entity.ExecutionEntity;
+import org.flowable.engine.impl.util.CommandContextUtil;
+import org.flowable.job.service.JobService;
+import org.flowable.job.service.TimerJobService;
+import org.flowable.job.service.impl.persistence.entity.JobEntity;
+import org.flowable.job.service.impl.persistence.entity.TimerJobEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,6 +59,12 @@ public abstract class HttpActivityBehavior extends AbstractBpmnActivityBehavior
     public static final String HTTP_TASK_REQUEST_HEADERS_INVALID = "requestHeaders are invalid";
     public static final String HTTP_TASK_REQUEST_FIELD_INVALID = "request fields are invalid";
 
+    // Local variables that hold the pending async request and its outcome until the execution is triggered
+    public static final String ASYNC_REQUEST_ID_VARIABLE_NAME = "_httpAsyncRequestId";
+    public static final String ASYNC_REQUEST_ATTEMPTS_VARIABLE_NAME = "_httpAsyncRequestAttempts";
+    public static final String ASYNC_RESPONSE_VARIABLE_NAME = "_httpAsyncResponse";
+    public static final String ASYNC_ERROR_MESSAGE_VARIABLE_NAME = "_httpAsyncErrorMessage";
+
     // HttpRequest method (GET,POST,PUT etc)
     protected Expression requestMethod;
     // HttpRequest URL (http://flowable.org)
@@ -60,6 +77,8 @@ public abstract class HttpActivityBehavior extends AbstractBpmnActivityBehavior
     protected Expression requestTimeout;
     // HttpRequest retry disable HTTP redirects (Optional)
     protected Expression disallowRedirects;
+    // Flag to send the request outside of the engine transaction and continue when the response arrives. default is false (Optional)
+    protected Expression asyncRequest;
     // Comma separated list of HTTP body status codes to fail, for example 400,5XX (Optional)
     protected Expression failStatusCodes;
     // Comma separated list of HTTP body status codes to handle, for example 404,3XX (Optional)
@@ -80,6 +99,103 @@ public abstract class HttpActivityBehavior extends AbstractBpmnActivityBehavior
     @Override
     public void execute(DelegateExecution execution) {
 
+        HttpRequest request = createRequest(execution);
+
+        // Save request fields
+        if (request.isSaveRequest()) {
+            execution.setVariable(request.getPrefix() + ".requestMethod", request.getMethod());
+            execution.setVariable(request.getPrefix() + ".requestUrl", request.getUrl());
+            execution.setVariable(request.getPrefix() + ".requestHeaders", request.getHeaders());
+            execution.setVariable(request.getPrefix() + ".requestBody", request.getBody());
+            execution.setVariable(request.getPrefix() + ".requestTimeout", request.getTimeout());
+            execution.setVariable(request.getPrefix() + ".disallowRedirects", request.isNoRedirects());
+            execution.setVariable(request.getPrefix() + ".failStatusCodes", getStringFromField(failStatusCodes, execution));
+            execution.setVariable(request.getPrefix() + ".handleStatusCodes", getStringFromField(handleStatusCodes, execution));
+            execution.setVariable(request.getPrefix() + ".ignoreException", request.isIgnoreErrors());
+            execution.setVariable(request.getPrefix() + ".saveRequestVariables", request.isSaveRequest());
+            execution.setVariable(request.getPrefix() + ".saveResponseParameters", request.isSaveResponse());
+        }
+
+        try {
+            if (request.isAsync()) {
+                // The execution waits in this activity until the response arrives and triggers it
+                startAsyncRequest(execution, request);
+                return;
+            }
+
+            HttpResponse response = perform(execution, request);
+            if (!handleResponse(execution, request, response)) {
+                return;
+            }
+
+        } catch (Exception e) {
+            if (!handleException(execution, request, e)) {
+                return;
+            }
+        }
+
+        leave(execution);
+    }
+
+    /**
+     * Called by the job that is created when the response of an async request has arrived, or by the timeout job of the request
+     * when it didn't arrive in time.
+     */
+    @Override
+    public void trigger(DelegateExecution execution, String signalName, Object signalData) {
+        String pendingRequestId = (String) execution.getVariableLocal(ASYNC_REQUEST_ID_VARIABLE_NAME);
+        String requestId = (String) execution.getTransientVariableLocal(AsyncTriggerJobHandler.CONFIGURATION_VARIABLE_NAME);
+        if (requestId == null) {
+            // Triggered by the user
+            if (pendingRequestId != null) {
+                deleteAsyncRequestTimeoutJob(execution, pendingRequestId);
+                removeAsyncRequestVariables(execution);
+            }
+            super.trigger(execution, signalName, signalData);
+            return;
+        }
+
+        if (!requestId.equals(pendingRequestId)) {
+            LOGGER.debug("Async http request {} of execution {} is no longer pending, ignoring its trigger", requestId, execution.getId());
+            return;
+        }
+
+        HttpRequest request = createRequest(execution);
+        HttpResponse response = (HttpResponse) execution.getVariableLocal(ASYNC_RESPONSE_VARIABLE_NAME);
+        String errorMessage = (String) execution.getVariableLocal(ASYNC_ERROR_MESSAGE_VARIABLE_NAME);
+        if (response == null && errorMessage == null) {
+            // The timeout job fired, for example because the node that sent the request went down
+            int attempts = (Integer) execution.getVariableLocal(ASYNC_REQUEST_ATTEMPTS_VARIABLE_NAME);
+            if (attempts <= CommandContextUtil.getProcessEngineConfiguration().getHttpClientConfig().getAsyncRequestRetryLimit()) {
+                LOGGER.info("Async http request {} of execution {} did not complete in time, sending it again", requestId, execution.getId());
+                startAsyncRequest(execution, request);
+                return;
+            }
+            errorMessage = "Async http request did not complete in time after " + attempts + " attempts";
+        }
+
+        removeAsyncRequestVariables(execution);
+
+        try {
+            if (errorMessage != null) {
+                throw new FlowableException(errorMessage);
+            }
+
+            handleAsyncResponse(execution, request, response);
+            if (!handleResponse(execution, request, response)) {
+                return;
+            }
+
+        } catch (Exception e) {
+            if (!handleException(execution, request, e)) {
+                return;
+            }
+        }
+
+        leave(execution);
+    }
+
+    protected HttpRequest createRequest(DelegateExecution execution) {
         HttpRequest request = new HttpRequest();
 
         try {
@@ -89,6 +205,7 @@ public abstract class HttpActivityBehavior extends AbstractBpmnActivityBehavior
             request.setBody(getStringFromField(requestBody, execution));
             request.setTimeout(getIntFromField(requestTimeout, execution));
             request.setNoRedirects(getBooleanFromField(disallowRedirects, execution));
+            request.setAsync(getBooleanFromField(asyncRequest, execution));
             request.setIgnoreErrors(getBooleanFromField(ignoreException, execution));
             request.setSaveRequest(getBooleanFromField(saveRequestVariables, execution));
             request.setSaveResponse(getBooleanFromField(saveResponseParameters, execution));
@@ -110,21 +227,6 @@ public abstract class HttpActivityBehavior extends AbstractBpmnActivityBehavior
                 request.setPrefix(execution.getCurrentFlowElement().getId());
             }
 
-            // Save request fields
-            if (request.isSaveRequest()) {
-                execution.setVariable(request.getPrefix() + ".requestMethod", request.getMethod());
-                execution.setVariable(request.getPrefix() + ".requestUrl", request.getUrl());
-                execution.setVariable(request.getPrefix() + ".requestHeaders", request.getHeaders());
-                execution.setVariable(request.getPrefix() + ".requestBody", request.getBody());
-                execution.setVariable(request.getPrefix() + ".requestTimeout", request.getTimeout());
-                execution.setVariable(request.getPrefix() + ".disallowRedirects", request.isNoRedirects());
-                execution.setVariable(request.getPrefix() + ".failStatusCodes", failCodes);
-                execution.setVariable(request.getPrefix() + ".handleStatusCodes", handleCodes);
-                execution.setVariable(request.getPrefix() + ".ignoreException", request.isIgnoreErrors());
-                execution.setVariable(request.getPrefix() + ".saveRequestVariables", request.isSaveRequest());
-                execution.setVariable(request.getPrefix() + ".saveResponseParameters", request.isSaveResponse());
-            }
-
         } catch (Exception e) {
             if (e instanceof FlowableException) {
                 throw (FlowableException) e;
@@ -133,77 +235,90 @@ public abstract class HttpActivityBehavior extends AbstractBpmnActivityBehavior
             }
         }
 
-        try {
-            HttpResponse response = perform(execution, request);
-            // Save response fields
-            if (response != null) {
-                // Save response body only by default
-                if (request.isSaveResponse()) {
-                    execution.setVariable(request.getPrefix() + ".responseProtocol", response.getProtocol());
-                    execution.setVariable(request.getPrefix() + ".responseStatusCode", response.getStatusCode());
-                    execution.setVariable(request.getPrefix() + ".responseReason", response.getReason());
-                    execution.setVariable(request.getPrefix() + ".responseHeaders", response.getHeaders());
-                }
-                
-                if (!response.isBodyResponseHandled()) {
-                    String responseVariableValue = getStringFromField(responseVariableName, execution);
-                    if (StringUtils.isNotEmpty(responseVariableValue)) {
-                        execution.setVariable(responseVariableValue, response.getBody());
-                    } else {
-                        execution.setVariable(request.getPrefix() + ".responseBody", response.getBody());
-                    }
+        return request;
+    }
+
+    /**
+     * Saves the response fields and handles the status codes of the response.
+     *
+     * @return whether the execution should leave the activity
+     */
+    protected boolean handleResponse(DelegateExecution execution, HttpRequest request, HttpResponse response) {
+        // Save response fields
+        if (response != null) {
+            // Save response body only by default
+            if (request.isSaveResponse()) {
+                execution.setVariable(request.getPrefix() + ".responseProtocol", response.getProtocol());
+                execution.setVariable(request.getPrefix() + ".responseStatusCode", response.getStatusCode());
+                execution.setVariable(request.getPrefix() + ".responseReason", response.getReason());
+                execution.setVariable(request.getPrefix() + ".responseHeaders", response.getHeaders());
+            }
+            
+            if (!response.isBodyResponseHandled()) {
+                String responseVariableValue = getStringFromField(responseVariableName, execution);
+                if (StringUtils.isNotEmpty(responseVariableValue)) {
+                    execution.setVariable(responseVariableValue, response.getBody());
+                } else {
+                    execution.setVariable(request.getPrefix() + ".responseBody", response.getBody());
                 }
+            }
+
+            // Handle http status codes
+            if ((request.isNoRedirects() && response.getStatusCode() >= 300) || response.getStatusCode() >= 400) {
 
-                // Handle http status codes
-                if ((request.isNoRedirects() && response.getStatusCode() >= 300) || response.getStatusCode() >= 400) {
-
-                    String code = Integer.toString(response.statusCode);
-
-                    Set<String> handleCodes = request.getHandleCodes();
-                    if (handleCodes != null && !handleCodes.isEmpty()) {
-                        if (handleCodes.contains(code)
-                                || (code.startsWith("5") && handleCodes.contains("5XX"))
-                                || (code.startsWith("4") && handleCodes.contains("4XX"))
-                                || (code.startsWith("3") && handleCodes.contains("3XX"))) {
-                            
-                            ErrorPropagation.propagateError("HTTP" + code, execution);
-                            return;
-                        }
+                String code = Integer.toString(response.statusCode);
+
+                Set<String> handleCodes = request.getHandleCodes();
+                if (handleCodes != null && !handleCodes.isEmpty()) {
+                    if (handleCodes.contains(code)
+                            || (code.startsWith("5") && handleCodes.contains("5XX"))
+                            || (code.startsWith("4") && handleCodes.contains("4XX"))
+                            || (code.startsWith("3") && handleCodes.contains("3XX"))) {
+                        
+                        ErrorPropagation.propagateError("HTTP" + code, execution);
+                        return false;
                     }
+                }
 
-                    Set<String> failCodes = request.getFailCodes();
-                    if (failCodes != null && !failCodes.isEmpty()) {
-                        if (failCodes.contains(code)
-                                || (code.startsWith("5") && failCodes.contains("5XX"))
-                                || (code.startsWith("4") && failCodes.contains("4XX"))
-                                || (code.startsWith("3") && failCodes.contains("3XX"))) {
-                            
-                            throw new FlowableException("HTTP" + code);
-                        }
+                Set<String> failCodes = request.getFailCodes();
+                if (failCodes != null && !failCodes.isEmpty()) {
+                    if (failCodes.contains(code)
+                            || (code.startsWith("5") && failCodes.contains("5XX"))
+                            || (code.startsWith("4") && failCodes.contains("4XX"))
+                            || (code.startsWith("3") && failCodes.contains("3XX"))) {
+                        
+                        throw new FlowableException("HTTP" + code);
                     }
                 }
             }
+        }
+
+        return true;
+    }
+
+    /**
+     * Ignores or maps an exception that occurred while processing the request, or rethrows it.
+     *
+     * @return whether the execution should leave the activity
+     */
+    protected boolean handleException(DelegateExecution execution, HttpRequest request, Exception e) {
+        if (request.isIgnoreErrors()) {
+            LOGGER.info("Error ignored while processing http task in execution {}", execution.getId(), e);
+            execution.setVariable(request.getPrefix() + ".errorMessage", e.getMessage());
+            return true;
             
-        } catch (Exception e) {
-            if (request.isIgnoreErrors()) {
-                LOGGER.info("Error ignored while processing http task in execution {}", execution.getId(), e);
-                execution.setVariable(request.getPrefix() + ".errorMessage", e.getMessage());
+        } else {
+            if (ErrorPropagation.mapException(e, (ExecutionEntity) execution, mapExceptions)) {
+                return false;
                 
             } else {
-                if (ErrorPropagation.mapException(e, (ExecutionEntity) execution, mapExceptions)) {
-                    return;
-                    
+                if (e instanceof FlowableException) {
+                    throw (FlowableException) e;
                 } else {
-                    if (e instanceof FlowableException) {
-                        throw (FlowableException) e;
-                    } else {
-                        throw new FlowableException("Error occurred while processing http task in execution " + execution.getId(), e);
-                    }
+                    throw new FlowableException("Error occurred while processing http task in execution " + execution.getId(), e);
                 }
             }
         }
-
-        leave(execution);
     }
 
     /**
@@ -214,6 +329,123 @@ public abstract class HttpActivityBehavior extends AbstractBpmnActivityBehavior
      * @return
      */
     protected abstract HttpResponse perform(final DelegateExecution execution, final HttpRequest request);
+
+    /**
+     * Stores the id of the request on the execution and schedules a timer job that triggers the execution when the response doesn't
+     * arrive in time, in the current transaction. When the node that sends the request goes down, another node sends it again when
+     * the timer job fires.
+     */
+    protected void startAsyncRequest(DelegateExecution execution, HttpRequest request) {
+        ProcessEngineConfigurationImpl processEngineConfiguration = CommandContextUtil.getProcessEngineConfiguration();
+        String requestId = processEngineConfiguration.getIdGenerator().getNextId();
+        Integer attempts = (Integer) execution.getVariableLocal(ASYNC_REQUEST_ATTEMPTS_VARIABLE_NAME);
+        execution.setVariableLocal(ASYNC_REQUEST_ID_VARIABLE_NAME, requestId);
+        execution.setVariableLocal(ASYNC_REQUEST_ATTEMPTS_VARIABLE_NAME, attempts != null ? attempts + 1 : 1);
+
+        TimerJobService timerJobService = CommandContextUtil.getTimerJobService();
+        TimerJobEntity timeoutJob = timerJobService.createTimerJob();
+        timeoutJob.setJobType(JobEntity.JOB_TYPE_TIMER);
+        timeoutJob.setRevision(1);
+        timeoutJob.setJobHandlerType(AsyncTriggerJobHandler.TYPE);
+        timeoutJob.setJobHandlerConfiguration(requestId);
+        timeoutJob.setExclusive(true);
+        timeoutJob.setRetries(processEngineConfiguration.getAsyncExecutorNumberOfRetries());
+        timeoutJob.setDuedate(new Date(processEngineConfiguration.getClock().getCurrentTime().getTime()
+                + processEngineConfiguration.getHttpClientConfig().getAsyncRequestTimeout()));
+        timeoutJob.setExecutionId(execution.getId());
+        timeoutJob.setProcessInstanceId(execution.getProcessInstanceId());
+        timeoutJob.setProcessDefinitionId(execution.getProcessDefinitionId());
+
+        // Inherit tenant id (if applicable)
+        if (execution.getTenantId() != null) {
+            timeoutJob.setTenantId(execution.getTenantId());
+        }
+
+        timerJobService.scheduleTimerJob(timeoutJob);
+
+        performAsync(execution, request, requestId);
+    }
+
+    /**
+     * Sends the request without waiting for the response, which should be passed to {@link #completeAsyncRequest} with the given request id
+     * when it arrives. Should be overridden by subclasses that support async requests.
+     *
+     * @param execution
+     * @param request
+     * @param requestId
+     */
+    protected void performAsync(final DelegateExecution execution, final HttpRequest request, final String requestId) {
+        throw new FlowableException(getClass().getName() + " does not support async requests");
+    }
+
+    /**
+     * Called in the transaction that continues the execution, before the response fields are saved. Can be overridden by subclasses,
+     * for example to invoke a response handler.
+     */
+    protected void handleAsyncResponse(DelegateExecution execution, HttpRequest request, HttpResponse response) {
+    }
+
+    /**
+     * Stores the response of an async request, or the message of the exception that occurred while performing it, on the execution
+     * and replaces the timeout job of the request by a job that triggers the execution. Does nothing when the request is no longer pending,
+     * for example because it was sent again after a timeout or the execution has left the activity in the mean time.
+     */
+    protected void completeAsyncRequest(CommandExecutor commandExecutor, final String executionId, final String requestId,
+            final HttpResponse response, final String errorMessage) {
+
+        commandExecutor.execute(new Command<Void>() {
+
+            @Override
+            public Void execute(CommandContext commandContext) {
+                ExecutionEntity execution = CommandContextUtil.getExecutionEntityManager(commandContext).findById(executionId);
+                if (execution == null || execution.isEnded() || !requestId.equals(execution.getVariableLocal(ASYNC_REQUEST_ID_VARIABLE_NAME))) {
+                    LOGGER.debug("Async http request {} of execution {} is no longer pending, ignoring its response", requestId, executionId);
+                    return null;
+                }
+
+                if (response != null) {
+                    execution.setVariableLocal(ASYNC_RESPONSE_VARIABLE_NAME, response);
+                } else {
+                    execution.setVariableLocal(ASYNC_ERROR_MESSAGE_VARIABLE_NAME, errorMessage != null ? errorMessage : "HTTP request failed");
+                }
+
+                JobService jobService = CommandContextUtil.getJobService(commandContext);
+                JobEntity job = jobService.createJob();
+                job.setExecutionId(execution.getId());
+                job.setProcessInstanceId(execution.getProcessInstanceId());
+                job.setProcessDefinitionId(execution.getProcessDefinitionId());
+
+                // Inherit tenant id (if applicable)
+                if (execution.getTenantId() != null) {
+                    job.setTenantId(execution.getTenantId());
+                }
+
+                jobService.createAsyncJob(job, true);
+                job.setJobHandlerType(AsyncTriggerJobHandler.TYPE);
+                job.setJobHandlerConfiguration(requestId);
+                jobService.scheduleAsyncJob(job);
+
+                deleteAsyncRequestTimeoutJob(execution, requestId);
+                return null;
+            }
+        });
+    }
+
+    protected void deleteAsyncRequestTimeoutJob(DelegateExecution execution, String requestId) {
+        TimerJobService timerJobService = CommandContextUtil.getTimerJobService();
+        for (TimerJobEntity timerJob : timerJobService.findTimerJobsByExecutionId(execution.getId())) {
+            if (AsyncTriggerJobHandler.TYPE.equals(timerJob.getJobHandlerType()) && requestId.equals(timerJob.getJobHandlerConfiguration())) {
+                timerJobService.deleteTimerJob(timerJob);
+            }
+        }
+    }
+
+    protected void removeAsyncRequestVariables(DelegateExecution execution) {
+        execution.removeVariableLocal(ASYNC_REQUEST_ID_VARIABLE_NAME);
+        execution.removeVariableLocal(ASYNC_REQUEST_ATTEMPTS_VARIABLE_NAME);
+        execution.removeVariableLocal(ASYNC_RESPONSE_VARIABLE_NAME);
+        execution.removeVariableLocal(ASYNC_ERROR_MESSAGE_VARIABLE_NAME);
+    }
     
     protected int getIntFromField(Expression expression, DelegateExecution execution) {
         if (expression != null) {
@@ -322,6 +554,14 @@ public abstract class HttpActivityBehavior extends AbstractBpmnActivityBehavior
         this.disallowRedirects = disallowRedirects;
     }
 
+    public Expression getAsyncRequest() {
+        return asyncRequest;
+    }
+
+    public void setAsyncRequest(Expression asyncRequest) {
+        this.asyncRequest = asyncRequest;
+    }
+
     public Expression getFailStatusCodes() {
         return failStatusCodes;
     }
@@ -25,6 +25,7 @@ public class HttpRequest {
     protected String body;
     protected int timeout;
     protected boolean noRedirects;
+    protected boolean async;
     protected Set<String> failCodes;
     protected Set<String> handleCodes;
     protected boolean ignoreErrors;
@@ -80,6 +81,14 @@ public class HttpRequest {
         this.noRedirects = noRedirects;
     }
 
+    public boolean isAsync() {
+        return async;
+    }
+
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
     public Set<String> getFailCodes() {
         return failCodes;
     }
@@ -20,11 +20,17 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLSession;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.http.Header;
 import org.apache.http.HttpMessage;
 import org.apache.http.client.ClientProtocolException;
@@ -52,6 +58,12 @@ import org.flowable.bpmn.model.ImplementationType;
 import org.flowable.bpmn.model.ServiceTask;
 import org.flowable.engine.cfg.HttpClientConfig;
 import org.flowable.engine.common.api.FlowableException;
+import org.flowable.engine.common.impl.cfg.TransactionContext;
+import org.flowable.engine.common.impl.cfg.TransactionListener;
+import org.flowable.engine.common.impl.cfg.TransactionState;
+import org.flowable.engine.common.impl.context.Context;
+import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.engine.common.impl.interceptor.CommandExecutor;
 import org.flowable.engine.delegate.DelegateExecution;
 import org.flowable.variable.service.delegate.Expression;
 import org.flowable.engine.impl.bpmn.parser.FieldDeclaration;
@@ -82,6 +94,8 @@ public class HttpActivityBehaviorImpl extends HttpActivityBehavior {
 
     protected final Timer timer = new Timer(true);
     protected final CloseableHttpClient client;
+    // Created when the first async request is performed
+    protected ExecutorService asyncRequestExecutor;
 
     public HttpActivityBehaviorImpl() {  
         HttpClientConfig config = CommandContextUtil.getProcessEngineConfiguration().getHttpClientConfig();
@@ -124,6 +138,9 @@ public class HttpActivityBehaviorImpl extends HttpActivityBehavior {
                     try {
                         client.close();
                         LOGGER.info("HTTP client is closed");
+                        if (asyncRequestExecutor != null) {
+                            asyncRequestExecutor.shutdownNow();
+                        }
                     } catch (Throwable e) {
                         LOGGER.error("Could not close http client", e);
                     }
@@ -134,10 +151,78 @@ public class HttpActivityBehaviorImpl extends HttpActivityBehavior {
 
     @Override
     public HttpResponse perform(final DelegateExecution execution, final HttpRequest requestInfo) {
+        HttpRequestBase request = createHttpRequest(execution, requestInfo);
+        HttpResponse responseInfo = executeHttpRequest(request, requestInfo);
+        invokeHttpResponseHandler(execution, responseInfo);
+        return responseInfo;
+    }
 
-        HttpRequestBase request = null;
-        CloseableHttpResponse response = null;
-        
+    /**
+     * Creates the request in the engine transaction and executes it on the async request executor once the transaction has committed,
+     * so neither the transaction nor the thread that executes it wait for the response.
+     */
+    @Override
+    protected void performAsync(final DelegateExecution execution, final HttpRequest requestInfo, final String requestId) {
+        final HttpRequestBase request = createHttpRequest(execution, requestInfo);
+
+        final CommandExecutor commandExecutor = CommandContextUtil.getProcessEngineConfiguration().getCommandExecutor();
+        final String executionId = execution.getId();
+
+        TransactionContext transactionContext = Context.getTransactionContext();
+        if (transactionContext != null) {
+            transactionContext.addTransactionListener(TransactionState.COMMITTED, new TransactionListener() {
+
+                @Override
+                public void execute(CommandContext commandContext) {
+                    submitAsyncRequest(commandExecutor, executionId, requestId, request, requestInfo);
+                }
+            });
+
+        } else {
+            submitAsyncRequest(commandExecutor, executionId, requestId, request, requestInfo);
+        }
+    }
+
+    @Override
+    protected void handleAsyncResponse(DelegateExecution execution, HttpRequest request, HttpResponse response) {
+        invokeHttpResponseHandler(execution, response);
+    }
+
+    /**
+     * Executes the request on the async request executor. When the executor is saturated, the request is rejected and sent again
+     * when its timeout job fires.
+     */
+    protected void submitAsyncRequest(final CommandExecutor commandExecutor, final String executionId, final String requestId,
+            final HttpRequestBase request, final HttpRequest requestInfo) {
+
+        try {
+            getAsyncRequestExecutor().execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    HttpResponse responseInfo = null;
+                    String errorMessage = null;
+                    try {
+                        responseInfo = executeHttpRequest(request, requestInfo);
+                    } catch (Exception e) {
+                        LOGGER.debug("Async http request of execution {} failed", executionId, e);
+                        errorMessage = e.getMessage();
+                    }
+
+                    try {
+                        completeAsyncRequest(commandExecutor, executionId, requestId, responseInfo, errorMessage);
+                    } catch (Exception e) {
+                        LOGGER.error("Could not continue execution {} with the response of the async http request, it is sent again when it times out", executionId, e);
+                    }
+                }
+            });
+
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Async http request {} of execution {} was rejected, it is sent again when it times out", requestId, executionId);
+        }
+    }
+
+    protected HttpRequestBase createHttpRequest(final DelegateExecution execution, final HttpRequest requestInfo) {
         ProcessEngineConfigurationImpl processEngineConfiguration = CommandContextUtil.getProcessEngineConfiguration();
         
         try {
@@ -150,6 +235,7 @@ public class HttpActivityBehaviorImpl extends HttpActivityBehavior {
         }
         
         try {
+            HttpRequestBase request = null;
             URIBuilder uri = new URIBuilder(requestInfo.getUrl());
             switch (requestInfo.getMethod()) {
                 case "GET": {
@@ -182,8 +268,20 @@ public class HttpActivityBehaviorImpl extends HttpActivityBehavior {
                 setHeaders(request, requestInfo.getHeaders());
             }
 
-            setConfig(request, requestInfo, CommandContextUtil.getProcessEngineConfiguration().getHttpClientConfig());
+            setConfig(request, requestInfo, processEngineConfiguration.getHttpClientConfig());
+            return request;
 
+        } catch (final IOException e) {
+            throw new FlowableException("IO exception occurred", e);
+        } catch (final URISyntaxException e) {
+            throw new FlowableException("Invalid URL exception occurred", e);
+        }
+    }
+
+    protected HttpResponse executeHttpRequest(final HttpRequestBase request, final HttpRequest requestInfo) {
+        CloseableHttpResponse response = null;
+
+        try {
             if (requestInfo.getTimeout() > 0) {
                 timer.schedule(new TimeoutTask(request), requestInfo.getTimeout());
             }
@@ -205,15 +303,6 @@ public class HttpActivityBehaviorImpl extends HttpActivityBehavior {
             if (response.getEntity() != null) {
                 responseInfo.setBody(EntityUtils.toString(response.getEntity()));
             }
-            
-            try {
-                if (httpServiceTask.getHttpResponseHandler() != null) {
-                    HttpResponseHandler httpResponseHandler = createHttpResponseHandler(httpServiceTask.getHttpResponseHandler(), processEngineConfiguration);
-                    httpResponseHandler.handleHttpResponse(execution, responseInfo);
-                }
-            } catch (Exception e) {
-                throw new FlowableException("Exception while invoking HttpResponseHandler: " + e.getMessage(), e);
-            }
 
             return responseInfo;
 
@@ -221,10 +310,6 @@ public class HttpActivityBehaviorImpl extends HttpActivityBehavior {
             throw new FlowableException("HTTP exception occurred", e);
         } catch (final IOException e) {
             throw new FlowableException("IO exception occurred", e);
-        } catch (final URISyntaxException e) {
-            throw new FlowableException("Invalid URL exception occurred", e);
-        } catch (final FlowableException e) {
-            throw e;
         } finally {
             if (response != null) {
                 try {
@@ -235,7 +320,34 @@ public class HttpActivityBehaviorImpl extends HttpActivityBehavior {
             }
         }
     }
-    
+
+    protected void invokeHttpResponseHandler(final DelegateExecution execution, final HttpResponse responseInfo) {
+        try {
+            if (httpServiceTask.getHttpResponseHandler() != null) {
+                ProcessEngineConfigurationImpl processEngineConfiguration = CommandContextUtil.getProcessEngineConfiguration();
+                HttpResponseHandler httpResponseHandler = createHttpResponseHandler(httpServiceTask.getHttpResponseHandler(), processEngineConfiguration);
+                httpResponseHandler.handleHttpResponse(execution, responseInfo);
+            }
+        } catch (Exception e) {
+            throw new FlowableException("Exception while invoking HttpResponseHandler: " + e.getMessage(), e);
+        }
+    }
+
+    protected synchronized ExecutorService getAsyncRequestExecutor() {
+        if (asyncRequestExecutor == null) {
+            HttpClientConfig config = CommandContextUtil.getProcessEngineConfiguration().getHttpClientConfig();
+            BasicThreadFactory threadFactory = new BasicThreadFactory.Builder()
+                    .namingPattern("flowable-http-async-request-%d")
+                    .daemon(true)
+                    .build();
+            ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(config.getAsyncRequestThreadPoolSize(), config.getAsyncRequestThreadPoolSize(),
+                    60L, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(config.getAsyncRequestQueueSize()), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+            threadPoolExecutor.allowCoreThreadTimeOut(true);
+            asyncRequestExecutor = threadPoolExecutor;
+        }
+        return asyncRequestExecutor;
+    }
+
     protected void setConfig(final HttpRequestBase base, final HttpRequest requestInfo, final HttpClientConfig config) {
         base.setConfig(RequestConfig.custom()
                 .setRedirectsEnabled(!requestInfo.isNoRedirects())
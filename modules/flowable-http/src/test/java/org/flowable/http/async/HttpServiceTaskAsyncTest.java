@@ -15,9 +15,12 @@ package org.flowable.http.async;
 import java.util.List;
 
 import org.flowable.job.service.Job;
+import org.flowable.engine.impl.jobexecutor.AsyncTriggerJobHandler;
 import org.flowable.engine.runtime.ProcessInstance;
 import org.flowable.engine.test.Deployment;
+import org.flowable.http.HttpActivityBehavior;
 import org.flowable.http.HttpServiceTaskTestCase;
+import org.flowable.task.service.Task;
 
 /**
  * @author Harsha Teja Kanna
@@ -47,4 +50,112 @@ public class HttpServiceTaskAsyncTest extends HttpServiceTaskTestCase {
         assertEquals(0, managementService.createJobQuery().count());
     }
 
+    @Deployment
+    public void testAsyncRequest() throws Exception {
+        String procId = runtimeService.startProcessInstanceByKey("testAsyncRequest").getId();
+
+        // The server delays the response, the process instance waits in the http task until it arrives
+        assertEquals(1, runtimeService.createExecutionQuery().processInstanceId(procId).activityId("httpGet").count());
+        assertEquals(0, managementService.createJobQuery().count());
+        assertEquals(1, managementService.createTimerJobQuery().processInstanceId(procId).count());
+
+        managementService.executeJob(waitForAsyncTriggerJob(procId).getId());
+        assertEquals(0, managementService.createTimerJobQuery().processInstanceId(procId).count());
+
+        Task task = taskService.createTaskQuery().processInstanceId(procId).singleResult();
+        assertEquals("afterHttpGet", task.getTaskDefinitionKey());
+        assertEquals(200, runtimeService.getVariable(procId, "httpGet.responseStatusCode"));
+        assertTrue(((String) runtimeService.getVariable(procId, "httpResponse")).contains("\"delay\":2000"));
+        assertFalse(runtimeService.hasVariable(procId, HttpActivityBehavior.ASYNC_RESPONSE_VARIABLE_NAME));
+
+        taskService.complete(task.getId());
+        assertProcessEnded(procId);
+    }
+
+    @Deployment
+    public void testAsyncRequestIgnoreException() throws Exception {
+        String procId = runtimeService.startProcessInstanceByKey("testAsyncRequestIgnoreException").getId();
+
+        managementService.executeJob(waitForAsyncTriggerJob(procId).getId());
+
+        Task task = taskService.createTaskQuery().processInstanceId(procId).singleResult();
+        assertEquals("afterHttpGet", task.getTaskDefinitionKey());
+        assertNotNull(runtimeService.getVariable(procId, "httpGet.errorMessage"));
+        assertFalse(runtimeService.hasVariable(procId, HttpActivityBehavior.ASYNC_ERROR_MESSAGE_VARIABLE_NAME));
+
+        taskService.complete(task.getId());
+        assertProcessEnded(procId);
+    }
+
+    @Deployment(resources = "org/flowable/http/async/HttpServiceTaskAsyncTest.testAsyncRequest.bpmn20.xml")
+    public void testAsyncRequestSentAgainAfterTimeout() throws Exception {
+        String procId = runtimeService.startProcessInstanceByKey("testAsyncRequest").getId();
+        String executionId = runtimeService.createExecutionQuery().processInstanceId(procId).activityId("httpGet").singleResult().getId();
+        String firstRequestId = (String) runtimeService.getVariableLocal(executionId, HttpActivityBehavior.ASYNC_REQUEST_ID_VARIABLE_NAME);
+
+        // The timeout job fires before the response arrives, as happens when the node that sent the request goes down
+        fireAsyncRequestTimeoutJob(procId);
+
+        String secondRequestId = (String) runtimeService.getVariableLocal(executionId, HttpActivityBehavior.ASYNC_REQUEST_ID_VARIABLE_NAME);
+        assertFalse(firstRequestId.equals(secondRequestId));
+        assertEquals(2, runtimeService.getVariableLocal(executionId, HttpActivityBehavior.ASYNC_REQUEST_ATTEMPTS_VARIABLE_NAME));
+        assertEquals(1, runtimeService.createExecutionQuery().processInstanceId(procId).activityId("httpGet").count());
+
+        // The response of the first request is ignored, only the one of the request that is sent again triggers the execution
+        Job job = waitForAsyncTriggerJob(procId);
+        assertEquals(secondRequestId, job.getJobHandlerConfiguration());
+        managementService.executeJob(job.getId());
+
+        Task task = taskService.createTaskQuery().processInstanceId(procId).singleResult();
+        assertEquals("afterHttpGet", task.getTaskDefinitionKey());
+        assertEquals(200, runtimeService.getVariable(procId, "httpGet.responseStatusCode"));
+        assertFalse(runtimeService.hasVariable(procId, HttpActivityBehavior.ASYNC_REQUEST_ID_VARIABLE_NAME));
+        assertEquals(0, managementService.createTimerJobQuery().processInstanceId(procId).count());
+
+        taskService.complete(task.getId());
+        assertProcessEnded(procId);
+    }
+
+    @Deployment
+    public void testAsyncRequestTimeout() {
+        String procId = runtimeService.startProcessInstanceByKey("testAsyncRequestTimeout").getId();
+
+        int retryLimit = processEngineConfiguration.getHttpClientConfig().getAsyncRequestRetryLimit();
+        for (int i = 0; i < retryLimit; i++) {
+            fireAsyncRequestTimeoutJob(procId);
+            assertEquals(1, runtimeService.createExecutionQuery().processInstanceId(procId).activityId("httpGet").count());
+        }
+
+        // The request isn't sent again after the retry limit is reached, the timeout is handled as an exception of the request
+        fireAsyncRequestTimeoutJob(procId);
+
+        Task task = taskService.createTaskQuery().processInstanceId(procId).singleResult();
+        assertEquals("afterHttpGet", task.getTaskDefinitionKey());
+        assertTrue(((String) runtimeService.getVariable(procId, "httpGet.errorMessage")).contains("did not complete in time"));
+        assertEquals(0, managementService.createTimerJobQuery().processInstanceId(procId).count());
+
+        taskService.complete(task.getId());
+        assertProcessEnded(procId);
+    }
+
+    protected void fireAsyncRequestTimeoutJob(String processInstanceId) {
+        Job timerJob = managementService.createTimerJobQuery().processInstanceId(processInstanceId).singleResult();
+        assertEquals(AsyncTriggerJobHandler.TYPE, timerJob.getJobHandlerType());
+        Job job = managementService.moveTimerToExecutableJob(timerJob.getId());
+        managementService.executeJob(job.getId());
+    }
+
+    protected Job waitForAsyncTriggerJob(String processInstanceId) throws InterruptedException {
+        long endTime = System.currentTimeMillis() + 10000L;
+        Job job = managementService.createJobQuery().processInstanceId(processInstanceId).singleResult();
+        while (job == null) {
+            if (System.currentTimeMillis() > endTime) {
+                fail("The response of the async http request did not arrive in time");
+            }
+            Thread.sleep(100L);
+            job = managementService.createJobQuery().processInstanceId(processInstanceId).singleResult();
+        }
+        return job;
+    }
+
 }
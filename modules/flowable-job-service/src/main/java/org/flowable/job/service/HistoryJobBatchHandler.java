@@ -0,0 +1,32 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.job.service;
+
+import java.util.List;
+
+import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.job.service.impl.persistence.entity.HistoryJobEntity;
+
+/**
+ * A {@link HistoryJobHandler} that can execute a batch of history jobs of its type in one transaction,
+ * for example to fetch the data that is needed by all the jobs with a few queries instead of with queries per job.
+ */
+public interface HistoryJobBatchHandler extends HistoryJobHandler {
+
+    /**
+     * Executes the given jobs, in the order of the list. When an exception is thrown, the transaction is rolled back
+     * and the jobs are executed again one by one.
+     */
+    void executeBatch(List<HistoryJobEntity> jobs, CommandContext commandContext);
+
+}
@@ -109,6 +109,7 @@ public class JobServiceConfiguration extends AbstractServiceConfiguration {
     
     protected int asyncExecutorNumberOfRetries;
     protected int asyncExecutorResetExpiredJobsMaxTimeout;
+    protected boolean asyncExecutorSkipLockedAcquisitionEnabled;
     
     protected ObjectMapper objectMapper;
 
@@ -452,6 +453,15 @@ public class JobServiceConfiguration extends AbstractServiceConfiguration {
         return this;
     }
 
+    public boolean isAsyncExecutorSkipLockedAcquisitionEnabled() {
+        return asyncExecutorSkipLockedAcquisitionEnabled;
+    }
+
+    public JobServiceConfiguration setAsyncExecutorSkipLockedAcquisitionEnabled(boolean asyncExecutorSkipLockedAcquisitionEnabled) {
+        this.asyncExecutorSkipLockedAcquisitionEnabled = asyncExecutorSkipLockedAcquisitionEnabled;
+        return this;
+    }
+
     @Override
     public ObjectMapper getObjectMapper() {
         return objectMapper;
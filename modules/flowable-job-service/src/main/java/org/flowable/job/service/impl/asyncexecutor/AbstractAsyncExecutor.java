@@ -12,6 +12,7 @@
  */
 package org.flowable.job.service.impl.asyncexecutor;
 
+import java.util.Date;
 import java.util.LinkedList;
 import java.util.UUID;
 
@@ -63,6 +64,14 @@ public abstract class AbstractAsyncExecutor implements AsyncExecutor {
     protected int resetExpiredJobsInterval = 60 * 1000;
     protected int resetExpiredJobsPageSize = 3;
 
+    // Timer jobs that are due soon are kept in memory and acquired at their due date, instead of polling for due timer jobs
+    protected boolean timerJobWheelEnabled;
+    protected int timerJobWheelWindowInMillis = 5 * 60 * 1000;
+    protected int timerJobWheelTickInMillis = 100;
+    protected int timerJobWheelLoadSize = 10000;
+    protected int timerJobWheelReloadIntervalInMillis = -1; // by default the timer job acquire wait time
+    protected TimerJobWheel timerJobWheel;
+
     // Job queue used when async executor is not yet started and jobs are already added.
     // This is mainly used for testing purpose.
     protected LinkedList<JobInfo> temporaryJobQueue = new LinkedList<>();
@@ -127,7 +136,12 @@ public abstract class AbstractAsyncExecutor implements AsyncExecutor {
 
     protected void initializeRunnables() {
         if (timerRunnableNeeded && timerJobRunnable == null) {
-            timerJobRunnable = new AcquireTimerJobsRunnable(this, jobServiceConfiguration.getJobManager());
+            if (timerJobWheelEnabled) {
+                timerJobWheel = new TimerJobWheel(timerJobWheelTickInMillis, timerJobWheelWindowInMillis, jobServiceConfiguration.getClock().getCurrentTime().getTime());
+                timerJobRunnable = new AcquireTimerJobsRunnable(this, jobServiceConfiguration.getJobManager(), timerJobWheel, timerJobWheelLoadSize, timerJobWheelReloadIntervalInMillis);
+            } else {
+                timerJobRunnable = new AcquireTimerJobsRunnable(this, jobServiceConfiguration.getJobManager());
+            }
         }
 
         JobInfoEntityManager<? extends JobInfoEntity> jobEntityManagerToUse = jobEntityManager != null
@@ -179,10 +193,23 @@ public abstract class AbstractAsyncExecutor implements AsyncExecutor {
         }
 
         timerJobRunnable = null;
+        timerJobWheel = null;
         asyncJobsDueRunnable = null;
         resetExpiredJobsRunnable = null;
     }
 
+    /**
+     * Adds a timer job that was created on this node to the timer wheel, so it is acquired at its due date
+     * without waiting for the next load of the timer wheel from the database.
+     */
+    public void timerJobAdded(String jobId, Date dueDate) {
+        TimerJobWheel timerJobWheel = this.timerJobWheel;
+        AcquireTimerJobsRunnable timerJobRunnable = this.timerJobRunnable;
+        if (timerJobWheel != null && timerJobWheel.add(jobId, dueDate.getTime()) && timerJobRunnable != null) {
+            timerJobRunnable.wakeUp(dueDate.getTime());
+        }
+    }
+
     protected abstract void shutdownAdditionalComponents();
 
     /* getters and setters */
@@ -357,6 +384,50 @@ public abstract class AbstractAsyncExecutor implements AsyncExecutor {
         this.resetExpiredJobsPageSize = resetExpiredJobsPageSize;
     }
 
+    public boolean isTimerJobWheelEnabled() {
+        return timerJobWheelEnabled;
+    }
+
+    public void setTimerJobWheelEnabled(boolean timerJobWheelEnabled) {
+        this.timerJobWheelEnabled = timerJobWheelEnabled;
+    }
+
+    public int getTimerJobWheelWindowInMillis() {
+        return timerJobWheelWindowInMillis;
+    }
+
+    public void setTimerJobWheelWindowInMillis(int timerJobWheelWindowInMillis) {
+        this.timerJobWheelWindowInMillis = timerJobWheelWindowInMillis;
+    }
+
+    public int getTimerJobWheelTickInMillis() {
+        return timerJobWheelTickInMillis;
+    }
+
+    public void setTimerJobWheelTickInMillis(int timerJobWheelTickInMillis) {
+        this.timerJobWheelTickInMillis = timerJobWheelTickInMillis;
+    }
+
+    public int getTimerJobWheelLoadSize() {
+        return timerJobWheelLoadSize;
+    }
+
+    public void setTimerJobWheelLoadSize(int timerJobWheelLoadSize) {
+        this.timerJobWheelLoadSize = timerJobWheelLoadSize;
+    }
+
+    public int getTimerJobWheelReloadIntervalInMillis() {
+        return timerJobWheelReloadIntervalInMillis;
+    }
+
+    public void setTimerJobWheelReloadIntervalInMillis(int timerJobWheelReloadIntervalInMillis) {
+        this.timerJobWheelReloadIntervalInMillis = timerJobWheelReloadIntervalInMillis;
+    }
+
+    public TimerJobWheel getTimerJobWheel() {
+        return timerJobWheel;
+    }
+
     public ExecuteAsyncRunnableFactory getExecuteAsyncRunnableFactory() {
         return executeAsyncRunnableFactory;
     }
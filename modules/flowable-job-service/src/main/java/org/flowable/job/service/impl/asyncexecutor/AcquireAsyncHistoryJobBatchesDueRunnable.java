@@ -0,0 +1,62 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.job.service.impl.asyncexecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flowable.job.service.impl.persistence.entity.HistoryJobEntity;
+import org.flowable.job.service.impl.persistence.entity.JobInfoEntity;
+import org.flowable.job.service.impl.persistence.entity.JobInfoEntityManager;
+
+/**
+ * Acquires history jobs like {@link AcquireAsyncJobsDueRunnable}, but offers the acquired jobs to the executor
+ * in batches that are executed in one transaction.
+ */
+public class AcquireAsyncHistoryJobBatchesDueRunnable extends AcquireAsyncJobsDueRunnable {
+
+    protected final DefaultAsyncHistoryJobExecutor asyncHistoryExecutor;
+
+    public AcquireAsyncHistoryJobBatchesDueRunnable(String name, DefaultAsyncHistoryJobExecutor asyncHistoryExecutor,
+            JobInfoEntityManager<? extends JobInfoEntity> jobEntityManager) {
+        super(name, asyncHistoryExecutor, jobEntityManager);
+        this.asyncHistoryExecutor = asyncHistoryExecutor;
+    }
+
+    @Override
+    protected List<JobInfoEntity> offerJobs(AcquiredJobEntities acquiredJobs) {
+        int batchSize = asyncHistoryExecutor.getHistoryJobBatchSize();
+        List<JobInfoEntity> rejected = new ArrayList<>();
+        List<HistoryJobEntity> batch = new ArrayList<>(batchSize);
+        for (JobInfoEntity job : acquiredJobs.getJobs()) {
+            batch.add((HistoryJobEntity) job);
+            if (batch.size() >= batchSize) {
+                offerBatch(batch, rejected);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            offerBatch(batch, rejected);
+        }
+        return rejected;
+    }
+
+    protected void offerBatch(List<HistoryJobEntity> batch, List<JobInfoEntity> rejected) {
+        boolean batchSuccessFullyOffered = asyncHistoryExecutor.executeAsyncHistoryJobBatch(batch);
+        if (!batchSuccessFullyOffered) {
+            rejected.addAll(batch);
+        }
+    }
+
+}
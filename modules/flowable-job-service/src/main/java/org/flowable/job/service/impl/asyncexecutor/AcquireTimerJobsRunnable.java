@@ -12,14 +12,19 @@
  */
 package org.flowable.job.service.impl.asyncexecutor;
 
+import java.util.Date;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.flowable.engine.common.api.FlowableOptimisticLockingException;
+import org.flowable.engine.common.impl.Page;
 import org.flowable.engine.common.impl.interceptor.Command;
 import org.flowable.engine.common.impl.interceptor.CommandContext;
 import org.flowable.engine.common.impl.interceptor.CommandExecutor;
+import org.flowable.job.service.impl.cmd.AcquireTimerJobsByIdsCmd;
 import org.flowable.job.service.impl.cmd.AcquireTimerJobsCmd;
 import org.flowable.job.service.impl.persistence.entity.TimerJobEntity;
+import org.flowable.job.service.impl.util.CommandContextUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,9 +45,31 @@ public class AcquireTimerJobsRunnable implements Runnable {
 
     protected long millisToWait;
 
+    // When a timer job wheel is used, only the timer jobs that are due soon are loaded from the database,
+    // and these are acquired when the wheel returns them as due
+    protected final TimerJobWheel timerJobWheel;
+    protected final int timerJobWheelLoadSize;
+    protected final long timerJobWheelReloadIntervalInMillis;
+    protected long nextTimerJobWheelLoadTime = Long.MIN_VALUE;
+    protected long lastTimerJobWheelLoadTime;
+    protected volatile long wakeUpTime = Long.MAX_VALUE;
+    protected boolean wakeUpRequested;
+
     public AcquireTimerJobsRunnable(AsyncExecutor asyncExecutor, JobManager jobManager) {
+        this(asyncExecutor, jobManager, null, 0, 0L);
+    }
+
+    /**
+     * @param timerJobWheelReloadIntervalInMillis the time after which the timer job wheel is loaded again from the database,
+     *            or 0 or less to use the timer job acquire wait time of the async executor
+     */
+    public AcquireTimerJobsRunnable(AsyncExecutor asyncExecutor, JobManager jobManager, TimerJobWheel timerJobWheel, int timerJobWheelLoadSize,
+            long timerJobWheelReloadIntervalInMillis) {
         this.asyncExecutor = asyncExecutor;
         this.jobManager = jobManager;
+        this.timerJobWheel = timerJobWheel;
+        this.timerJobWheelLoadSize = timerJobWheelLoadSize;
+        this.timerJobWheelReloadIntervalInMillis = timerJobWheelReloadIntervalInMillis;
     }
 
     @Override
@@ -55,24 +82,19 @@ public class AcquireTimerJobsRunnable implements Runnable {
         while (!isInterrupted) {
 
             try {
-                final AcquiredTimerJobEntities acquiredJobs = commandExecutor.execute(new AcquireTimerJobsCmd(asyncExecutor));
+                if (timerJobWheel != null) {
+                    acquireTimerJobsFromWheel(commandExecutor);
 
-                commandExecutor.execute(new Command<Void>() {
+                } else {
+                    final AcquiredTimerJobEntities acquiredJobs = commandExecutor.execute(new AcquireTimerJobsCmd(asyncExecutor));
+                    moveTimerJobsToExecutableJobs(commandExecutor, acquiredJobs);
 
-                    @Override
-                    public Void execute(CommandContext commandContext) {
-                        for (TimerJobEntity job : acquiredJobs.getJobs()) {
-                            jobManager.moveTimerJobToExecutableJob(job);
-                        }
-                        return null;
+                    // if all jobs were executed
+                    millisToWait = asyncExecutor.getDefaultTimerJobAcquireWaitTimeInMillis();
+                    int jobsAcquired = acquiredJobs.size();
+                    if (jobsAcquired >= asyncExecutor.getMaxTimerJobsPerAcquisition()) {
+                        millisToWait = 0;
                     }
-                });
-
-                // if all jobs were executed
-                millisToWait = asyncExecutor.getDefaultTimerJobAcquireWaitTimeInMillis();
-                int jobsAcquired = acquiredJobs.size();
-                if (jobsAcquired >= asyncExecutor.getMaxTimerJobsPerAcquisition()) {
-                    millisToWait = 0;
                 }
 
             } catch (FlowableOptimisticLockingException optimisticLockingException) {
@@ -94,10 +116,11 @@ public class AcquireTimerJobsRunnable implements Runnable {
                         LOGGER.debug("timer job acquisition thread sleeping for {} millis", millisToWait);
                     }
                     synchronized (MONITOR) {
-                        if (!isInterrupted) {
+                        if (!isInterrupted && !wakeUpRequested) {
                             isWaiting.set(true);
                             MONITOR.wait(millisToWait);
                         }
+                        wakeUpRequested = false;
                     }
 
                     if (LOGGER.isDebugEnabled()) {
@@ -116,6 +139,104 @@ public class AcquireTimerJobsRunnable implements Runnable {
         LOGGER.info("stopped async job due acquisition");
     }
 
+    protected void moveTimerJobsToExecutableJobs(CommandExecutor commandExecutor, final AcquiredTimerJobEntities acquiredJobs) {
+        commandExecutor.execute(new Command<Void>() {
+
+            @Override
+            public Void execute(CommandContext commandContext) {
+                for (TimerJobEntity job : acquiredJobs.getJobs()) {
+                    jobManager.moveTimerJobToExecutableJob(job);
+                }
+                return null;
+            }
+        });
+    }
+
+    protected void acquireTimerJobsFromWheel(CommandExecutor commandExecutor) {
+        long now = asyncExecutor.getJobServiceConfiguration().getClock().getCurrentTime().getTime();
+        if (now >= nextTimerJobWheelLoadTime || now < lastTimerJobWheelLoadTime) {
+            loadTimerJobWheel(commandExecutor, now);
+        }
+
+        List<String> dueJobIds = timerJobWheel.advance(now);
+        int jobsPerAcquisition = Math.max(1, asyncExecutor.getMaxTimerJobsPerAcquisition());
+        for (int i = 0; i < dueJobIds.size(); i += jobsPerAcquisition) {
+            List<String> jobIds = dueJobIds.subList(i, Math.min(i + jobsPerAcquisition, dueJobIds.size()));
+            try {
+                AcquiredTimerJobEntities acquiredJobs = commandExecutor.execute(new AcquireTimerJobsByIdsCmd(asyncExecutor, jobIds, timerJobWheel));
+                moveTimerJobsToExecutableJobs(commandExecutor, acquiredJobs);
+
+            } catch (FlowableOptimisticLockingException optimisticLockingException) {
+                // Another node acquired one of the timer jobs, the others are acquired at the next tick
+                LOGGER.debug("Optimistic locking exception during acquisition of the due timer jobs of the timer job wheel: {}", optimisticLockingException.getMessage());
+                addToTimerJobWheel(jobIds, now);
+
+            } catch (RuntimeException e) {
+                // The due timer jobs are no longer in the wheel, so they are added again to retry after the acquire wait time
+                // instead of only being found again when the wheel is reloaded
+                LOGGER.error("exception during acquisition of the due timer jobs of the timer job wheel: {}", e.getMessage(), e);
+                addToTimerJobWheel(jobIds, now + asyncExecutor.getDefaultTimerJobAcquireWaitTimeInMillis());
+            }
+        }
+
+        // The clock is checked at least every timer job acquire wait time, as it can be changed
+        long nextTime = Math.min(timerJobWheel.getNextAdvanceTime(), nextTimerJobWheelLoadTime);
+        millisToWait = Math.max(0L, Math.min(nextTime - now, asyncExecutor.getDefaultTimerJobAcquireWaitTimeInMillis()));
+        wakeUpTime = now + millisToWait;
+    }
+
+    protected void addToTimerJobWheel(List<String> jobIds, long dueTime) {
+        for (String jobId : jobIds) {
+            timerJobWheel.add(jobId, dueTime);
+        }
+    }
+
+    protected void loadTimerJobWheel(CommandExecutor commandExecutor, long now) {
+        final Date dueDate = new Date(now + timerJobWheel.getWindowInMillis());
+        List<TimerJobEntity> timerJobs = commandExecutor.execute(new Command<List<TimerJobEntity>>() {
+
+            @Override
+            public List<TimerJobEntity> execute(CommandContext commandContext) {
+                return CommandContextUtil.getTimerJobEntityManager(commandContext).findTimerJobsDueBefore(dueDate, new Page(0, timerJobWheelLoadSize));
+            }
+        });
+
+        for (TimerJobEntity timerJob : timerJobs) {
+            timerJobWheel.add(timerJob.getId(), timerJob.getDuedate().getTime());
+        }
+
+        // Loaded again after the reload interval, to add the timer jobs that were created on other nodes.
+        // When not all timer jobs of the window could be loaded, it is loaded again when the last loaded timer job is due.
+        lastTimerJobWheelLoadTime = now;
+        nextTimerJobWheelLoadTime = now + getTimerJobWheelReloadIntervalInMillis();
+        if (!timerJobs.isEmpty() && timerJobs.size() >= timerJobWheelLoadSize) {
+            nextTimerJobWheelLoadTime = Math.min(nextTimerJobWheelLoadTime, timerJobs.get(timerJobs.size() - 1).getDuedate().getTime());
+        }
+
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("loaded {} timer jobs due before {} in the timer job wheel", timerJobs.size(), dueDate);
+        }
+    }
+
+    protected long getTimerJobWheelReloadIntervalInMillis() {
+        if (timerJobWheelReloadIntervalInMillis > 0) {
+            return timerJobWheelReloadIntervalInMillis;
+        }
+        return asyncExecutor.getDefaultTimerJobAcquireWaitTimeInMillis();
+    }
+
+    /**
+     * Wakes up the acquisition thread when it is waiting until after the given time, as a timer job was added to the timer job wheel that is due earlier.
+     */
+    public void wakeUp(long dueTime) {
+        synchronized (MONITOR) {
+            if (dueTime < wakeUpTime) {
+                wakeUpRequested = true;
+                MONITOR.notifyAll();
+            }
+        }
+    }
+
     public void stop() {
         synchronized (MONITOR) {
             isInterrupted = true;
@@ -12,7 +12,22 @@
  */
 package org.flowable.job.service.impl.asyncexecutor;
 
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.flowable.engine.common.impl.context.Context;
+import org.flowable.engine.common.impl.interceptor.Command;
+import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.job.service.impl.persistence.entity.HistoryJobEntity;
+import org.flowable.job.service.impl.util.CommandContextUtil;
+
 public class DefaultAsyncHistoryJobExecutor extends DefaultAsyncJobExecutor {
+
+    /**
+     * The maximum number of acquired history jobs that are executed together in one transaction.
+     * Default is 1, meaning every history job is executed in its own transaction.
+     */
+    protected int historyJobBatchSize = 1;
     
     public DefaultAsyncHistoryJobExecutor() {
         setTimerRunnableNeeded(false);
@@ -28,4 +43,65 @@ public class DefaultAsyncHistoryJobExecutor extends DefaultAsyncJobExecutor {
         }
     }
 
+    @Override
+    protected void initializeRunnables() {
+        if (!isMessageQueueMode && asyncJobsDueRunnable == null && historyJobBatchSize > 1) {
+            String acquireJobsRunnableName = acquireRunnableThreadName != null ? acquireRunnableThreadName : "flowable-acquire-history-jobs";
+            asyncJobsDueRunnable = new AcquireAsyncHistoryJobBatchesDueRunnable(acquireJobsRunnableName, this, jobEntityManager);
+        }
+        super.initializeRunnables();
+    }
+
+    /**
+     * Executes the given acquired history jobs together in one transaction. Returns false when the batch was rejected
+     * because the queue of the thread pool is full, in which case the jobs are unacquired.
+     */
+    public boolean executeAsyncHistoryJobBatch(final List<HistoryJobEntity> jobs) {
+        if (jobs.size() == 1) {
+            return executeAsyncJob(jobs.get(0));
+        }
+
+        if (!isActive) {
+            temporaryJobQueue.addAll(jobs);
+            return true;
+        }
+
+        try {
+            executorService.execute(new ExecuteAsyncHistoryJobBatchRunnable(jobs, jobServiceConfiguration, jobEntityManager, asyncRunnableExecutionExceptionHandler));
+            return true;
+
+        } catch (RejectedExecutionException e) {
+            // See executeAsyncJob(JobInfo, Runnable): the jobs are unlocked, so they can be acquired again later
+            CommandContext commandContext = Context.getCommandContext();
+            if (commandContext != null) {
+                unacquireJobs(commandContext, jobs);
+
+            } else {
+                jobServiceConfiguration.getCommandExecutor().execute(new Command<Void>() {
+                    @Override
+                    public Void execute(CommandContext commandContext) {
+                        unacquireJobs(commandContext, jobs);
+                        return null;
+                    }
+                });
+            }
+
+            return false;
+        }
+    }
+
+    protected void unacquireJobs(CommandContext commandContext, List<HistoryJobEntity> jobs) {
+        for (HistoryJobEntity job : jobs) {
+            CommandContextUtil.getJobManager(commandContext).unacquire(job);
+        }
+    }
+
+    public int getHistoryJobBatchSize() {
+        return historyJobBatchSize;
+    }
+
+    public void setHistoryJobBatchSize(int historyJobBatchSize) {
+        this.historyJobBatchSize = historyJobBatchSize;
+    }
+
 }
@@ -16,7 +16,6 @@ import java.util.Collection;
 
 import org.flowable.engine.common.impl.interceptor.Command;
 import org.flowable.engine.common.impl.interceptor.CommandContext;
-import org.flowable.job.service.Job;
 import org.flowable.job.service.impl.persistence.entity.JobInfoEntity;
 import org.flowable.job.service.impl.persistence.entity.JobInfoEntityManager;
 import org.flowable.job.service.impl.util.CommandContextUtil;
@@ -37,7 +36,11 @@ public class ResetExpiredJobsCmd implements Command<Void> {
     @Override
     public Void execute(CommandContext commandContext) {
         for (String jobId : jobIds) {
-            Job job = CommandContextUtil.getJobEntityManager(commandContext).findById(jobId);
+            // Looked up with the given entity manager, as the expired jobs can be history jobs
+            JobInfoEntity job = jobEntityManager.findById(jobId);
+            if (job == null) {
+                continue;
+            }
             CommandContextUtil.getJobManager(commandContext).unacquire(job);
             jobEntityManager.resetExpiredJob(jobId);
         }
@@ -0,0 +1,36 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.job.service.impl.asyncexecutor;
+
+import org.flowable.engine.common.impl.cfg.TransactionListener;
+import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.job.service.impl.persistence.entity.TimerJobEntity;
+
+/**
+ * Adds a new timer job to the timer job wheel of the async executor once the transaction that created it is committed.
+ */
+public class TimerJobAddedTransactionListener implements TransactionListener {
+
+    protected TimerJobEntity job;
+    protected AbstractAsyncExecutor asyncExecutor;
+
+    public TimerJobAddedTransactionListener(TimerJobEntity job, AbstractAsyncExecutor asyncExecutor) {
+        this.job = job;
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    @Override
+    public void execute(CommandContext commandContext) {
+        asyncExecutor.timerJobAdded(job.getId(), job.getDuedate());
+    }
+}
@@ -0,0 +1,235 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.job.service.impl.asyncexecutor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A hierarchical timing wheel with the timer jobs that are due within a limited window, used by the {@link AcquireTimerJobsRunnable}
+ * to acquire timer jobs at their due date instead of polling the database for due timer jobs.
+ *
+ * The lowest level has a bucket per tick, every bucket of a higher level covers a full rotation of the level below it.
+ * A timer job is kept in the lowest level that can hold its due date, and moves down a level when its bucket is reached,
+ * so adding and expiring a timer job doesn't depend on the number of timer jobs in the wheel.
+ *
+ * The wheel only keeps the job ids and due dates. The database stays the source of truth: a timer job that is returned as due
+ * can have been deleted, rescheduled or acquired by another node in the meantime.
+ */
+public class TimerJobWheel {
+
+    protected static final int WHEEL_BITS = 6;
+    protected static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    protected static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    protected static final int MAX_LEVELS = 8;
+
+    protected final long tickInMillis;
+    protected final long windowInMillis;
+    protected final int levels;
+    protected final List<List<Set<Entry>>> buckets;
+    protected final Map<String, Entry> entries = new HashMap<>();
+    protected final Set<Entry> dueEntries = new LinkedHashSet<>();
+    protected long currentTick;
+
+    public TimerJobWheel(long tickInMillis, long windowInMillis, long currentTime) {
+        this.tickInMillis = tickInMillis;
+        this.windowInMillis = windowInMillis;
+
+        int levels = 1;
+        while (levels < MAX_LEVELS && (tickInMillis << (levels * WHEEL_BITS)) < windowInMillis) {
+            levels++;
+        }
+        this.levels = levels;
+
+        this.buckets = new ArrayList<>(levels);
+        for (int level = 0; level < levels; level++) {
+            List<Set<Entry>> levelBuckets = new ArrayList<>(WHEEL_SIZE);
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                levelBuckets.add(new LinkedHashSet<Entry>());
+            }
+            buckets.add(levelBuckets);
+        }
+
+        this.currentTick = currentTime / tickInMillis;
+    }
+
+    /**
+     * Adds the timer job with the given due date, or changes its due date when it is already in the wheel.
+     *
+     * @return false when the due date is after the window of the wheel, in which case the timer job is not added
+     */
+    public synchronized boolean add(String jobId, long dueTime) {
+        remove(jobId);
+
+        Entry entry = new Entry(jobId, dueTime);
+        if (!schedule(entry)) {
+            return false;
+        }
+        entries.put(jobId, entry);
+        return true;
+    }
+
+    public synchronized void remove(String jobId) {
+        Entry entry = entries.remove(jobId);
+        if (entry != null) {
+            if (entry.level >= 0) {
+                buckets.get(entry.level).get(entry.slot).remove(entry);
+            } else {
+                dueEntries.remove(entry);
+            }
+        }
+    }
+
+    /**
+     * Moves the wheel to the given time and returns the ids of the timer jobs that are due at that time, which are removed from the wheel.
+     */
+    public synchronized List<String> advance(long currentTime) {
+        long tick = currentTime / tickInMillis;
+        if (tick < currentTick || tick - currentTick > WHEEL_SIZE) {
+            // The clock was changed, or the wheel wasn't moved for more than a rotation of the lowest level,
+            // so all timer jobs are placed again instead of going over every tick
+            currentTick = tick;
+            List<Entry> allEntries = new ArrayList<>(entries.values());
+            for (List<Set<Entry>> levelBuckets : buckets) {
+                for (Set<Entry> bucket : levelBuckets) {
+                    bucket.clear();
+                }
+            }
+            dueEntries.clear();
+            entries.clear();
+            for (Entry entry : allEntries) {
+                if (schedule(entry)) {
+                    entries.put(entry.jobId, entry);
+                }
+            }
+
+        } else {
+            while (currentTick < tick) {
+                currentTick++;
+
+                // Higher levels first, as their timer jobs can move to a bucket of a lower level that is reached at the same tick
+                for (int level = levels - 1; level > 0; level--) {
+                    int shift = level * WHEEL_BITS;
+                    if ((currentTick & ((1L << shift) - 1)) == 0) {
+                        cascade(level, (int) ((currentTick >>> shift) & WHEEL_MASK));
+                    }
+                }
+                cascade(0, (int) (currentTick & WHEEL_MASK));
+            }
+        }
+
+        List<String> dueJobIds = new ArrayList<>(dueEntries.size());
+        for (Entry entry : dueEntries) {
+            entries.remove(entry.jobId);
+            dueJobIds.add(entry.jobId);
+        }
+        dueEntries.clear();
+        return dueJobIds;
+    }
+
+    /**
+     * Returns the time at which the wheel needs to be moved to return the next due timer jobs,
+     * or {@link Long#MAX_VALUE} when the wheel is empty.
+     */
+    public synchronized long getNextAdvanceTime() {
+        if (!dueEntries.isEmpty()) {
+            return currentTick * tickInMillis;
+        }
+        if (entries.isEmpty()) {
+            return Long.MAX_VALUE;
+        }
+
+        // The timer jobs of the higher levels move down at the next rotation of the lowest level
+        long nextTick = ((currentTick >>> WHEEL_BITS) + 1) << WHEEL_BITS;
+        for (long tick = currentTick + 1; tick < nextTick; tick++) {
+            if (!buckets.get(0).get((int) (tick & WHEEL_MASK)).isEmpty()) {
+                nextTick = tick;
+                break;
+            }
+        }
+        return nextTick * tickInMillis;
+    }
+
+    /**
+     * The timer jobs that are due within this time from now are kept in the wheel.
+     */
+    public long getWindowInMillis() {
+        return windowInMillis;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        for (List<Set<Entry>> levelBuckets : buckets) {
+            for (Set<Entry> bucket : levelBuckets) {
+                bucket.clear();
+            }
+        }
+        dueEntries.clear();
+        entries.clear();
+    }
+
+    protected void cascade(int level, int slot) {
+        Set<Entry> bucket = buckets.get(level).get(slot);
+        if (bucket.isEmpty()) {
+            return;
+        }
+
+        List<Entry> bucketEntries = new ArrayList<>(bucket);
+        bucket.clear();
+        for (Entry entry : bucketEntries) {
+            schedule(entry);
+        }
+    }
+
+    protected boolean schedule(Entry entry) {
+        // Rounded up, so a timer job is never returned before its due date
+        long dueTick = (entry.dueTime + tickInMillis - 1) / tickInMillis;
+        if (dueTick <= currentTick) {
+            entry.level = -1;
+            dueEntries.add(entry);
+            return true;
+        }
+
+        for (int level = 0; level < levels; level++) {
+            int shift = level * WHEEL_BITS;
+            if ((dueTick >>> shift) - (currentTick >>> shift) < WHEEL_SIZE) {
+                entry.level = level;
+                entry.slot = (int) ((dueTick >>> shift) & WHEEL_MASK);
+                buckets.get(level).get(entry.slot).add(entry);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected static class Entry {
+
+        protected final String jobId;
+        protected final long dueTime;
+        protected int level;
+        protected int slot;
+
+        public Entry(String jobId, long dueTime) {
+            this.jobId = jobId;
+            this.dueTime = dueTime;
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.job.service.impl.cmd;
+
+import java.util.Collection;
+import java.util.Date;
+
+import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.job.service.impl.asyncexecutor.AcquiredTimerJobEntities;
+import org.flowable.job.service.impl.asyncexecutor.AsyncExecutor;
+import org.flowable.job.service.impl.asyncexecutor.TimerJobWheel;
+import org.flowable.job.service.impl.persistence.entity.TimerJobEntity;
+import org.flowable.job.service.impl.util.CommandContextUtil;
+
+/**
+ * Acquires the timer jobs that the {@link TimerJobWheel} returned as due. The timer jobs are checked against the database,
+ * so timer jobs that were deleted or acquired in the meantime are skipped, and timer jobs with a later due date are put back in the wheel.
+ */
+public class AcquireTimerJobsByIdsCmd extends AcquireTimerJobsCmd {
+
+    protected final AsyncExecutor asyncExecutor;
+    protected final Collection<String> jobIds;
+    protected final TimerJobWheel timerJobWheel;
+
+    public AcquireTimerJobsByIdsCmd(AsyncExecutor asyncExecutor, Collection<String> jobIds, TimerJobWheel timerJobWheel) {
+        super(asyncExecutor);
+        this.asyncExecutor = asyncExecutor;
+        this.jobIds = jobIds;
+        this.timerJobWheel = timerJobWheel;
+    }
+
+    @Override
+    public AcquiredTimerJobEntities execute(CommandContext commandContext) {
+        AcquiredTimerJobEntities acquiredJobs = new AcquiredTimerJobEntities();
+        if (jobIds.isEmpty()) {
+            return acquiredJobs;
+        }
+
+        Date now = CommandContextUtil.getJobServiceConfiguration(commandContext).getClock().getCurrentTime();
+
+        // Timer jobs that were deleted in the meantime are simply not returned
+        for (TimerJobEntity job : CommandContextUtil.getTimerJobEntityManager(commandContext).findJobsByIds(jobIds)) {
+            if (job.getLockOwner() != null || job.getDuedate() == null) {
+                continue;
+            }
+
+            if (job.getDuedate().after(now)) {
+                timerJobWheel.add(job.getId(), job.getDuedate().getTime());
+                continue;
+            }
+
+            lockJob(commandContext, job, asyncExecutor.getTimerLockTimeInMillis());
+            acquiredJobs.addJob(job);
+        }
+
+        return acquiredJobs;
+    }
+
+}
@@ -0,0 +1,98 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.job.service.impl.cmd;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.flowable.engine.common.api.FlowableException;
+import org.flowable.engine.common.api.delegate.event.FlowableEngineEventType;
+import org.flowable.engine.common.impl.interceptor.Command;
+import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.job.service.HistoryJobBatchHandler;
+import org.flowable.job.service.HistoryJobHandler;
+import org.flowable.job.service.JobServiceConfiguration;
+import org.flowable.job.service.event.impl.FlowableJobEventBuilder;
+import org.flowable.job.service.impl.persistence.entity.HistoryJobEntity;
+import org.flowable.job.service.impl.persistence.entity.HistoryJobEntityManager;
+import org.flowable.job.service.impl.util.CommandContextUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes a batch of acquired history jobs in one transaction. The jobs of a handler type that implements
+ * {@link HistoryJobBatchHandler} are handed over to that handler together, the other jobs are executed one by one.
+ */
+public class ExecuteAsyncHistoryJobBatchCmd implements Command<Void> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecuteAsyncHistoryJobBatchCmd.class);
+
+    protected List<HistoryJobEntity> jobs;
+
+    public ExecuteAsyncHistoryJobBatchCmd(List<HistoryJobEntity> jobs) {
+        this.jobs = jobs;
+    }
+
+    @Override
+    public Void execute(CommandContext commandContext) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Executing batch of {} history jobs", jobs.size());
+        }
+
+        Map<String, List<HistoryJobEntity>> jobsByHandlerType = new LinkedHashMap<>();
+        for (HistoryJobEntity job : jobs) {
+            List<HistoryJobEntity> handlerTypeJobs = jobsByHandlerType.get(job.getJobHandlerType());
+            if (handlerTypeJobs == null) {
+                handlerTypeJobs = new ArrayList<>();
+                jobsByHandlerType.put(job.getJobHandlerType(), handlerTypeJobs);
+            }
+            handlerTypeJobs.add(job);
+        }
+
+        JobServiceConfiguration jobServiceConfiguration = CommandContextUtil.getJobServiceConfiguration(commandContext);
+        for (String handlerType : jobsByHandlerType.keySet()) {
+            HistoryJobHandler jobHandler = jobServiceConfiguration.getHistoryJobHandlers().get(handlerType);
+            if (jobHandler == null) {
+                throw new FlowableException("No history job handler found for type " + handlerType);
+            }
+
+            List<HistoryJobEntity> handlerTypeJobs = jobsByHandlerType.get(handlerType);
+            if (jobHandler instanceof HistoryJobBatchHandler) {
+                ((HistoryJobBatchHandler) jobHandler).executeBatch(handlerTypeJobs, commandContext);
+            } else {
+                for (HistoryJobEntity job : handlerTypeJobs) {
+                    jobHandler.execute(job, job.getJobHandlerConfiguration(), commandContext);
+                }
+            }
+        }
+
+        // The revision of the acquired jobs is checked when deleting them, so a job that was reset
+        // or unacquired in the meantime makes the whole batch fail
+        HistoryJobEntityManager historyJobEntityManager = jobServiceConfiguration.getHistoryJobEntityManager();
+        for (HistoryJobEntity job : jobs) {
+            historyJobEntityManager.delete(job);
+        }
+
+        if (CommandContextUtil.getEventDispatcher().isEnabled()) {
+            for (HistoryJobEntity job : jobs) {
+                CommandContextUtil.getEventDispatcher().dispatchEvent(
+                        FlowableJobEventBuilder.createEntityEvent(FlowableEngineEventType.JOB_EXECUTION_SUCCESS, job));
+            }
+        }
+
+        return null;
+    }
+
+}
@@ -12,6 +12,8 @@
  */
 package org.flowable.job.service.impl.persistence.entity;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 
 import org.flowable.engine.common.impl.Page;
@@ -40,6 +42,16 @@ public interface TimerJobEntityManager extends EntityManager<TimerJobEntity> {
      */
     List<TimerJobEntity> findTimerJobsToExecute(Page page);
 
+    /**
+     * Returns the {@link TimerJobEntity} instances that are not locked and are due before the given date, ordered by due date.
+     */
+    List<TimerJobEntity> findTimerJobsDueBefore(Date dueDate, Page page);
+
+    /**
+     * Returns the {@link TimerJobEntity} instances with the given ids, fetched with a single query.
+     */
+    List<TimerJobEntity> findJobsByIds(Collection<String> jobIds);
+
     /**
      * Returns the {@link TimerJobEntity} for a given process definition.
      * <p>
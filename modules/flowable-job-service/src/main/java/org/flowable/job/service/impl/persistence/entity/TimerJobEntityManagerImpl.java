@@ -14,16 +14,22 @@
 package org.flowable.job.service.impl.persistence.entity;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
 import org.flowable.engine.common.api.delegate.event.FlowableEngineEventType;
 import org.flowable.engine.common.impl.Page;
 import org.flowable.engine.common.impl.calendar.BusinessCalendar;
+import org.flowable.engine.common.impl.cfg.TransactionState;
+import org.flowable.engine.common.impl.context.Context;
 import org.flowable.job.service.Job;
 import org.flowable.job.service.JobServiceConfiguration;
 import org.flowable.job.service.event.impl.FlowableJobEventBuilder;
 import org.flowable.job.service.impl.TimerJobQueryImpl;
+import org.flowable.job.service.impl.asyncexecutor.AbstractAsyncExecutor;
+import org.flowable.job.service.impl.asyncexecutor.AsyncExecutor;
+import org.flowable.job.service.impl.asyncexecutor.TimerJobAddedTransactionListener;
 import org.flowable.job.service.impl.persistence.entity.data.TimerJobDataManager;
 import org.flowable.variable.service.delegate.VariableScope;
 import org.slf4j.Logger;
@@ -65,6 +71,16 @@ public class TimerJobEntityManagerImpl extends AbstractEntityManager<TimerJobEnt
         return jobDataManager.findTimerJobsToExecute(page);
     }
 
+    @Override
+    public List<TimerJobEntity> findTimerJobsDueBefore(Date dueDate, Page page) {
+        return jobDataManager.findTimerJobsDueBefore(dueDate, page);
+    }
+
+    @Override
+    public List<TimerJobEntity> findJobsByIds(Collection<String> jobIds) {
+        return jobDataManager.findJobsByIds(jobIds);
+    }
+
     @Override
     public List<TimerJobEntity> findJobsByTypeAndProcessDefinitionId(String jobHandlerType, String processDefinitionId) {
         return jobDataManager.findJobsByTypeAndProcessDefinitionId(jobHandlerType, processDefinitionId);
@@ -128,9 +144,21 @@ public class TimerJobEntityManagerImpl extends AbstractEntityManager<TimerJobEnt
         
         jobEntity.setCreateTime(getJobServiceConfiguration().getClock().getCurrentTime());
         super.insert(jobEntity, fireCreateEvent);
+        addToTimerJobWheel(jobEntity);
         return true;
     }
 
+    protected void addToTimerJobWheel(TimerJobEntity jobEntity) {
+        AsyncExecutor asyncExecutor = getJobServiceConfiguration().getAsyncExecutor();
+        if (jobEntity.getDuedate() != null && asyncExecutor instanceof AbstractAsyncExecutor
+                && ((AbstractAsyncExecutor) asyncExecutor).getTimerJobWheel() != null && Context.getTransactionContext() != null) {
+
+            // Timer jobs that are not added here are loaded at the next load of the timer job wheel
+            TimerJobAddedTransactionListener timerJobAddedTransactionListener = new TimerJobAddedTransactionListener(jobEntity, (AbstractAsyncExecutor) asyncExecutor);
+            Context.getTransactionContext().addTransactionListener(TransactionState.COMMITTED, timerJobAddedTransactionListener);
+        }
+    }
+
     @Override
     public void delete(TimerJobEntity jobEntity) {
         super.delete(jobEntity);
@@ -49,6 +49,9 @@ public class MybatisJobDataManager extends AbstractDataManager<JobEntity> implem
     @Override
     @SuppressWarnings("unchecked")
     public List<JobEntity> findJobsToExecute(Page page) {
+        if (CommandContextUtil.getJobServiceConfiguration().isAsyncExecutorSkipLockedAcquisitionEnabled()) {
+            return getDbSqlSession().selectList("selectJobsToExecuteSkipLocked", null, page);
+        }
         return getDbSqlSession().selectList("selectJobsToExecute", null, page);
     }
 
@@ -12,6 +12,7 @@
  */
 package org.flowable.job.service.impl.persistence.entity.data.impl;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -20,6 +21,7 @@ import java.util.Map;
 import org.flowable.engine.common.impl.Page;
 import org.flowable.engine.common.impl.db.AbstractDataManager;
 import org.flowable.engine.common.impl.db.CachedEntityMatcher;
+import org.flowable.engine.common.impl.db.ListQueryParameterObject;
 import org.flowable.job.service.Job;
 import org.flowable.job.service.impl.TimerJobQueryImpl;
 import org.flowable.job.service.impl.persistence.entity.TimerJobEntity;
@@ -62,9 +64,26 @@ public class MybatisTimerJobDataManager extends AbstractDataManager<TimerJobEnti
     @SuppressWarnings("unchecked")
     public List<TimerJobEntity> findTimerJobsToExecute(Page page) {
         Date now = CommandContextUtil.getJobServiceConfiguration().getClock().getCurrentTime();
+        if (CommandContextUtil.getJobServiceConfiguration().isAsyncExecutorSkipLockedAcquisitionEnabled()) {
+            return getDbSqlSession().selectList("selectTimerJobsToExecuteSkipLocked", now, page);
+        }
         return getDbSqlSession().selectList("selectTimerJobsToExecute", now, page);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<TimerJobEntity> findTimerJobsDueBefore(Date dueDate, Page page) {
+        ListQueryParameterObject parameterObject = new ListQueryParameterObject(dueDate, page.getFirstResult(), page.getMaxResults());
+        parameterObject.setOrderByColumns("RES.DUEDATE_ asc");
+        return getDbSqlSession().selectList("selectTimerJobsDueBefore", parameterObject);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<TimerJobEntity> findJobsByIds(Collection<String> jobIds) {
+        return getDbSqlSession().selectList("selectTimerJobsByIds", jobIds);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public List<TimerJobEntity> findJobsByTypeAndProcessDefinitionId(String jobHandlerType, String processDefinitionId) {
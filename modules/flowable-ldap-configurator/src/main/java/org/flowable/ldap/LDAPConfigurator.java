@@ -12,8 +12,15 @@
  */
 package org.flowable.ldap;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.flowable.engine.cfg.ProcessEngineConfigurator;
 import org.flowable.engine.common.api.FlowableException;
+import org.flowable.engine.common.api.delegate.event.FlowableEngineEventType;
+import org.flowable.engine.common.api.delegate.event.FlowableEvent;
+import org.flowable.engine.common.api.delegate.event.FlowableEventListener;
 import org.flowable.engine.impl.cfg.IdmEngineConfigurator;
 import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.flowable.engine.impl.util.EngineServiceUtil;
@@ -32,6 +39,12 @@ public class LDAPConfigurator extends IdmEngineConfigurator {
 
     protected LDAPConfiguration ldapConfiguration;
 
+    /**
+     * The executor service for the group cache refresh created by this configurator (and not provided through the {@link LDAPConfiguration}),
+     * which is shut down when the process engine is closed.
+     */
+    protected ExecutorService createdGroupCacheRefreshExecutorService;
+
     @Override
     public void beforeInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
         // Nothing to do
@@ -54,6 +67,15 @@ public class LDAPConfigurator extends IdmEngineConfigurator {
             if (ldapConfiguration.getGroupCacheListener() != null) {
                 ldapGroupCache.setLdapCacheListener(ldapConfiguration.getGroupCacheListener());
             }
+
+            if (ldapConfiguration.getGroupCacheRefreshAheadTime() > 0) {
+                ldapGroupCache.setRefreshAheadTime(ldapConfiguration.getGroupCacheRefreshAheadTime());
+                ldapGroupCache.setRefreshExecutorService(getGroupCacheRefreshExecutorService());
+
+                if (createdGroupCacheRefreshExecutorService != null) {
+                    processEngineConfiguration.getEventDispatcher().addEventListener(createGroupCacheRefreshShutdownListener(), FlowableEngineEventType.ENGINE_CLOSED);
+                }
+            }
         }
         
         super.configure(processEngineConfiguration);
@@ -62,6 +84,33 @@ public class LDAPConfigurator extends IdmEngineConfigurator {
                 .setIdmIdentityService(new LDAPIdentityServiceImpl(ldapConfiguration, ldapGroupCache));
     }
 
+    protected ExecutorService getGroupCacheRefreshExecutorService() {
+        if (ldapConfiguration.getGroupCacheRefreshExecutorService() != null) {
+            return ldapConfiguration.getGroupCacheRefreshExecutorService();
+        }
+        createdGroupCacheRefreshExecutorService = Executors.newSingleThreadExecutor(new BasicThreadFactory.Builder()
+                .namingPattern("flowable-ldap-group-cache-refresh-thread-%d")
+                .daemon(true)
+                .build());
+        return createdGroupCacheRefreshExecutorService;
+    }
+
+    protected FlowableEventListener createGroupCacheRefreshShutdownListener() {
+        return new FlowableEventListener() {
+
+            @Override
+            public void onEvent(FlowableEvent event) {
+                createdGroupCacheRefreshExecutorService.shutdown();
+            }
+
+            @Override
+            public boolean isFailOnException() {
+                return false;
+            }
+
+        };
+    }
+
     // Getters and Setters //////////////////////////////////////////////////
 
     public LDAPConfiguration getLdapConfiguration() {
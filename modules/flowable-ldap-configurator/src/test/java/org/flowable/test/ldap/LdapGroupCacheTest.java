@@ -12,18 +12,32 @@
  */
 package org.flowable.test.ldap;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.flowable.engine.impl.util.EngineServiceUtil;
 import org.flowable.engine.test.Deployment;
+import org.flowable.idm.api.Group;
+import org.flowable.idm.engine.impl.persistence.entity.GroupEntityImpl;
 import org.flowable.ldap.LDAPGroupCache;
-import org.flowable.ldap.LDAPGroupCache.LDAPGroupCacheListener;
+import org.flowable.ldap.LDAPGroupCache.LDAPGroupCacheRefreshListener;
+import org.flowable.ldap.LDAPGroupCache.LDAPGroupLoader;
 import org.flowable.ldap.LDAPIdentityServiceImpl;
 import org.springframework.test.context.ContextConfiguration;
 
 @ContextConfiguration("classpath:flowable-context-ldap-group-cache.xml")
 public class LdapGroupCacheTest extends LDAPTestCase {
 
+    protected LDAPGroupCache ldapGroupCache;
     protected TestLDAPGroupCacheListener cacheListener;
 
     @Override
@@ -31,7 +45,7 @@ public class LdapGroupCacheTest extends LDAPTestCase {
         super.setUp();
 
         // Set test cache listener
-        LDAPGroupCache ldapGroupCache = ((LDAPIdentityServiceImpl) 
+        ldapGroupCache = ((LDAPIdentityServiceImpl) 
                         EngineServiceUtil.getIdmIdentityService(processEngineConfiguration)).getLdapGroupCache();
         ldapGroupCache.clear();
 
@@ -93,13 +107,101 @@ public class LdapGroupCacheTest extends LDAPTestCase {
         assertEquals("fozzie", cacheListener.getLastCacheMiss());
     }
 
+    public void testLdapGroupCacheRefreshAhead() throws Exception {
+        ExecutorService refreshExecutorService = Executors.newSingleThreadExecutor();
+        ldapGroupCache.setRefreshAheadTime(10 * 60 * 1000);
+        ldapGroupCache.setRefreshExecutorService(refreshExecutorService);
+
+        try {
+            Date now = new Date();
+            processEngineConfiguration.getClock().setCurrentTime(now);
+            assertEquals(0, taskService.createTaskQuery().taskCandidateUser("kermit").count());
+            assertEquals("kermit", cacheListener.getLastCacheMiss());
+
+            // After 25 minutes the groups are about to expire (configured to 30 mins):
+            // the cached groups are used and fetched again in the background
+            processEngineConfiguration.getClock().setCurrentTime(new Date(now.getTime() + (25 * 60 * 1000)));
+            assertEquals(0, taskService.createTaskQuery().taskCandidateUser("kermit").count());
+            assertEquals("kermit", cacheListener.getLastCacheHit());
+
+            refreshExecutorService.shutdown();
+            assertTrue(refreshExecutorService.awaitTermination(10, TimeUnit.SECONDS));
+            assertEquals("kermit", cacheListener.getLastCacheRefresh());
+
+            // The refreshed groups are cached for another 30 minutes
+            cacheListener.setLastCacheHit(null);
+            processEngineConfiguration.getClock().setCurrentTime(new Date(now.getTime() + (40 * 60 * 1000)));
+            assertEquals(0, taskService.createTaskQuery().taskCandidateUser("kermit").count());
+            assertEquals("kermit", cacheListener.getLastCacheHit());
+            assertNull(cacheListener.getLastCacheExpiration());
+
+        } finally {
+            ldapGroupCache.setRefreshAheadTime(-1L);
+            ldapGroupCache.setRefreshExecutorService(null);
+            refreshExecutorService.shutdownNow();
+            processEngineConfiguration.getClock().reset();
+        }
+    }
+
+    public void testConcurrentLookupsShareOneLdapSearch() throws Exception {
+        final AtomicInteger nrOfLoads = new AtomicInteger();
+        final CountDownLatch loadStarted = new CountDownLatch(1);
+        final CountDownLatch finishLoad = new CountDownLatch(1);
+        final LDAPGroupLoader groupLoader = new LDAPGroupLoader() {
+
+            @Override
+            public List<Group> loadGroups(String userId) {
+                nrOfLoads.incrementAndGet();
+                loadStarted.countDown();
+                try {
+                    finishLoad.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                GroupEntityImpl group = new GroupEntityImpl();
+                group.setId("sales");
+                return Collections.<Group> singletonList(group);
+            }
+
+        };
+
+        ExecutorService executorService = Executors.newFixedThreadPool(5);
+        try {
+            Callable<List<Group>> lookup = new Callable<List<Group>>() {
+
+                @Override
+                public List<Group> call() throws Exception {
+                    return ldapGroupCache.get("gonzo", groupLoader);
+                }
+
+            };
+
+            List<Future<List<Group>>> lookups = new ArrayList<>();
+            lookups.add(executorService.submit(lookup));
+            assertTrue(loadStarted.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < 4; i++) {
+                lookups.add(executorService.submit(lookup));
+            }
+            finishLoad.countDown();
+
+            for (Future<List<Group>> groups : lookups) {
+                assertEquals("sales", groups.get(10, TimeUnit.SECONDS).get(0).getId());
+            }
+            assertEquals(1, nrOfLoads.get());
+
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
     // Test cache listener
-    static class TestLDAPGroupCacheListener implements LDAPGroupCacheListener {
+    static class TestLDAPGroupCacheListener implements LDAPGroupCacheRefreshListener {
 
         protected String lastCacheMiss;
         protected String lastCacheHit;
         protected String lastCacheEviction;
         protected String lastCacheExpiration;
+        protected String lastCacheRefresh;
 
         @Override
         public void cacheMiss(String userId) {
@@ -121,6 +223,11 @@ public class LdapGroupCacheTest extends LDAPTestCase {
             this.lastCacheEviction = userId;
         }
 
+        @Override
+        public void cacheRefresh(String userId) {
+            this.lastCacheRefresh = userId;
+        }
+
         public String getLastCacheMiss() {
             return lastCacheMiss;
         }
@@ -153,6 +260,14 @@ public class LdapGroupCacheTest extends LDAPTestCase {
             this.lastCacheEviction = lastCacheEviction;
         }
 
+        public String getLastCacheRefresh() {
+            return lastCacheRefresh;
+        }
+
+        public void setLastCacheRefresh(String lastCacheRefresh) {
+            this.lastCacheRefresh = lastCacheRefresh;
+        }
+
     }
 
 }
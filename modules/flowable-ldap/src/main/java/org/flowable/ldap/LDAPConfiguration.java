@@ -15,6 +15,7 @@ package org.flowable.ldap;
 import java.text.MessageFormat;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 import javax.naming.directory.InitialDirContext;
 import javax.naming.spi.InitialContextFactory;
@@ -75,6 +76,8 @@ public class LDAPConfiguration {
     // Group caching
     protected int groupCacheSize = -1;
     protected long groupCacheExpirationTime = 3600000L; // default: one hour
+    protected long groupCacheRefreshAheadTime = -1L;
+    protected ExecutorService groupCacheRefreshExecutorService;
 
     // Cache listener (experimental)
     protected LDAPGroupCacheListener groupCacheListener;
@@ -425,6 +428,33 @@ public class LDAPConfiguration {
         this.groupCacheExpirationTime = groupCacheExpirationTime;
     }
 
+    public long getGroupCacheRefreshAheadTime() {
+        return groupCacheRefreshAheadTime;
+    }
+
+    /**
+     * Sets the time in milliseconds before the expiration of cached groups from which the groups are fetched again from the LDAP system in the background.
+     * While this happens, the cached groups are still used. ie. when the expiration time is 30 mins and the refresh ahead time is 5 mins, a fetch of the groups
+     * for a user between 00:25 and 00:30 returns the cached groups and triggers a background fetch, which puts the groups for another 30 mins in the cache.
+     * <p>
+     * By default set to -1, so the groups are only fetched again when they have expired.
+     */
+    public void setGroupCacheRefreshAheadTime(long groupCacheRefreshAheadTime) {
+        this.groupCacheRefreshAheadTime = groupCacheRefreshAheadTime;
+    }
+
+    public ExecutorService getGroupCacheRefreshExecutorService() {
+        return groupCacheRefreshExecutorService;
+    }
+
+    /**
+     * Sets the executor service used to fetch the groups of a user in the background (see {@link #setGroupCacheRefreshAheadTime(long)}).
+     * When not set, a single daemon thread is used.
+     */
+    public void setGroupCacheRefreshExecutorService(ExecutorService groupCacheRefreshExecutorService) {
+        this.groupCacheRefreshExecutorService = groupCacheRefreshExecutorService;
+    }
+
     public LDAPGroupCacheListener getGroupCacheListener() {
         return groupCacheListener;
     }
@@ -16,9 +16,19 @@ import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.flowable.engine.common.api.FlowableException;
 import org.flowable.engine.common.runtime.ClockReader;
 import org.flowable.idm.api.Group;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Simple cache for groups a user belongs to, which avoid hitting the LDAP system too much. Groups are fetched internally by the engine for example when doing queries, eg when fetching tasks for a
@@ -26,20 +36,34 @@ import org.flowable.idm.api.Group;
  * 
  * Cached entries have an expiration time. For example when set to one hour, changes to the ldap system around the groups of a user will be visible after that hour.
  * 
- * Experimental: can have a listener for cache events, and instance of {@link LDAPGroupCacheListener}.
+ * The cache is safe for concurrent use: the entries are kept in an access ordered map guarded by the lock of this cache.
+ * When the cache is full, the least recently used entry is evicted. Concurrent lookups of the groups of the same user
+ * share one LDAP search. When a refresh ahead time and a refresh executor service are set, an entry that is about to expire is reloaded in the background,
+ * and the cached groups are returned until that reload is done.
+ * 
+ * Experimental: can have a listener for cache events, and instance of {@link LDAPGroupCacheListener}, or of {@link LDAPGroupCacheRefreshListener}
+ * to also be notified of background reloads.
  * 
  * @author Joram Barrez
  */
 public class LDAPGroupCache {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(LDAPGroupCache.class);
+
     private final ClockReader clockReader;
     protected Map<String, LDAPGroupCacheEntry> groupCache;
+    protected ConcurrentMap<String, FutureTask<List<Group>>> loadsInProgress = new ConcurrentHashMap<>();
+    protected int cacheSize;
     protected long expirationTime;
+    protected long refreshAheadTime;
+    protected ExecutorService refreshExecutorService;
 
     protected LDAPGroupCacheListener ldapCacheListener;
 
     public LDAPGroupCache(final int cacheSize, final long expirationTime, final ClockReader clockReader) {
         this.clockReader = clockReader;
+        this.cacheSize = cacheSize;
+        this.expirationTime = expirationTime;
 
         // From
         // http://stackoverflow.com/questions/224868/easy-simple-to-use-lru-cache-in-java
@@ -49,7 +73,7 @@ public class LDAPGroupCache {
 
             @Override
             protected boolean removeEldestEntry(Map.Entry<String, LDAPGroupCacheEntry> eldest) {
-                boolean removeEldest = size() > cacheSize;
+                boolean removeEldest = size() > LDAPGroupCache.this.cacheSize;
 
                 if (removeEldest && ldapCacheListener != null) {
                     ldapCacheListener.cacheEviction(eldest.getKey());
@@ -59,33 +83,45 @@ public class LDAPGroupCache {
             }
 
         };
-        this.expirationTime = expirationTime;
     }
 
-    public void add(String userId, List<Group> groups) {
+    public synchronized void add(String userId, List<Group> groups) {
         this.groupCache.put(userId, new LDAPGroupCacheEntry(clockReader.getCurrentTime(), groups));
     }
 
     public List<Group> get(String userId) {
-        LDAPGroupCacheEntry cacheEntry = groupCache.get(userId);
+        LDAPGroupCacheEntry cacheEntry = getCacheEntry(userId);
         if (cacheEntry != null) {
-            if ((clockReader.getCurrentTime().getTime() - cacheEntry.getTimestamp().getTime()) < expirationTime) {
-
-                if (ldapCacheListener != null) {
-                    ldapCacheListener.cacheHit(userId);
-                }
-
-                return cacheEntry.getGroups();
-
+            if (!isExpired(cacheEntry)) {
+                return hit(userId, cacheEntry);
             } else {
+                expire(userId, cacheEntry);
+            }
+        }
 
-                this.groupCache.remove(userId);
+        if (ldapCacheListener != null) {
+            ldapCacheListener.cacheMiss(userId);
+        }
 
-                if (ldapCacheListener != null) {
-                    ldapCacheListener.cacheExpired(userId);
-                    ldapCacheListener.cacheEviction(userId);
-                }
+        return null;
+    }
 
+    /**
+     * Returns the groups of the given user, loading them with the given group loader when they are not cached.
+     *
+     * When the cached groups are about to expire, they are returned and reloaded in the background (if a refresh executor service is set).
+     * Expired groups are still returned while such a background reload is in progress.
+     */
+    public List<Group> get(String userId, LDAPGroupLoader groupLoader) {
+        LDAPGroupCacheEntry cacheEntry = getCacheEntry(userId);
+        if (cacheEntry != null) {
+            if (!isExpired(cacheEntry) || loadsInProgress.containsKey(userId)) {
+                if (isRefreshDue(cacheEntry)) {
+                    refresh(userId, groupLoader);
+                }
+                return hit(userId, cacheEntry);
+            } else {
+                expire(userId, cacheEntry);
             }
         }
 
@@ -93,13 +129,129 @@ public class LDAPGroupCache {
             ldapCacheListener.cacheMiss(userId);
         }
 
-        return null;
+        FutureTask<List<Group>> loadTask = createLoadTask(userId, groupLoader);
+        FutureTask<List<Group>> loadInProgress = loadsInProgress.putIfAbsent(userId, loadTask);
+        if (loadInProgress == null) {
+            loadInProgress = loadTask;
+            runLoadTask(userId, loadTask);
+        }
+        return getLoadedGroups(loadInProgress);
     }
 
-    public void clear() {
+    public synchronized void clear() {
         groupCache.clear();
     }
 
+    /**
+     * Looking up an entry moves it to the end of the access ordered map, so this needs the lock too.
+     */
+    protected synchronized LDAPGroupCacheEntry getCacheEntry(String userId) {
+        return groupCache.get(userId);
+    }
+
+    protected boolean isExpired(LDAPGroupCacheEntry cacheEntry) {
+        return getAge(cacheEntry) >= expirationTime;
+    }
+
+    protected boolean isRefreshDue(LDAPGroupCacheEntry cacheEntry) {
+        return refreshAheadTime > 0 && refreshExecutorService != null && getAge(cacheEntry) >= expirationTime - refreshAheadTime;
+    }
+
+    protected long getAge(LDAPGroupCacheEntry cacheEntry) {
+        return clockReader.getCurrentTime().getTime() - cacheEntry.getTimestamp().getTime();
+    }
+
+    protected List<Group> hit(String userId, LDAPGroupCacheEntry cacheEntry) {
+        if (ldapCacheListener != null) {
+            ldapCacheListener.cacheHit(userId);
+        }
+
+        return cacheEntry.getGroups();
+    }
+
+    protected void expire(String userId, LDAPGroupCacheEntry cacheEntry) {
+        boolean removed;
+        synchronized (this) {
+            removed = groupCache.remove(userId, cacheEntry);
+        }
+
+        if (removed && ldapCacheListener != null) {
+            ldapCacheListener.cacheExpired(userId);
+            ldapCacheListener.cacheEviction(userId);
+        }
+    }
+
+    protected void refresh(final String userId, LDAPGroupLoader groupLoader) {
+        final FutureTask<List<Group>> refreshTask = createLoadTask(userId, groupLoader);
+        if (loadsInProgress.putIfAbsent(userId, refreshTask) != null) {
+            return; // already being loaded
+        }
+
+        try {
+            refreshExecutorService.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    runLoadTask(userId, refreshTask);
+                    try {
+                        refreshTask.get();
+                        if (ldapCacheListener instanceof LDAPGroupCacheRefreshListener) {
+                            ((LDAPGroupCacheRefreshListener) ldapCacheListener).cacheRefresh(userId);
+                        }
+
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+
+                    } catch (ExecutionException e) {
+                        LOGGER.warn("Could not refresh the cached groups of user {}, the cached groups are kept until they expire", userId, e.getCause());
+                    }
+                }
+
+            });
+
+        } catch (RejectedExecutionException e) {
+            loadsInProgress.remove(userId, refreshTask);
+            LOGGER.debug("Refresh of the cached groups of user {} was rejected", userId, e);
+        }
+    }
+
+    protected FutureTask<List<Group>> createLoadTask(final String userId, final LDAPGroupLoader groupLoader) {
+        return new FutureTask<>(new Callable<List<Group>>() {
+
+            @Override
+            public List<Group> call() throws Exception {
+                List<Group> groups = groupLoader.loadGroups(userId);
+                add(userId, groups);
+                return groups;
+            }
+
+        });
+    }
+
+    protected void runLoadTask(String userId, FutureTask<List<Group>> loadTask) {
+        try {
+            loadTask.run();
+        } finally {
+            loadsInProgress.remove(userId, loadTask);
+        }
+    }
+
+    protected List<Group> getLoadedGroups(FutureTask<List<Group>> loadTask) {
+        try {
+            return loadTask.get();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlowableException("Interrupted while waiting for the groups to be fetched from LDAP", e);
+
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new FlowableException("Could not fetch the groups from LDAP", e.getCause());
+        }
+    }
+
     public Map<String, LDAPGroupCacheEntry> getGroupCache() {
         return groupCache;
     }
@@ -108,6 +260,14 @@ public class LDAPGroupCache {
         this.groupCache = groupCache;
     }
 
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
     public long getExpirationTime() {
         return expirationTime;
     }
@@ -116,6 +276,22 @@ public class LDAPGroupCache {
         this.expirationTime = expirationTime;
     }
 
+    public long getRefreshAheadTime() {
+        return refreshAheadTime;
+    }
+
+    public void setRefreshAheadTime(long refreshAheadTime) {
+        this.refreshAheadTime = refreshAheadTime;
+    }
+
+    public ExecutorService getRefreshExecutorService() {
+        return refreshExecutorService;
+    }
+
+    public void setRefreshExecutorService(ExecutorService refreshExecutorService) {
+        this.refreshExecutorService = refreshExecutorService;
+    }
+
     public LDAPGroupCacheListener getLdapCacheListener() {
         return ldapCacheListener;
     }
@@ -158,6 +334,15 @@ public class LDAPGroupCache {
 
     }
 
+    /**
+     * Fetches the groups of a user from the LDAP system when they are not cached, or when they need to be refreshed.
+     */
+    public static interface LDAPGroupLoader {
+
+        List<Group> loadGroups(String userId);
+
+    }
+
     // Cache listeners. Currently not yet exposed (only programmatically for the
     // moment)
 
@@ -175,4 +360,13 @@ public class LDAPGroupCache {
 
     }
 
+    /**
+     * A {@link LDAPGroupCacheListener} that is also notified when the groups of a user were reloaded in the background.
+     */
+    public static interface LDAPGroupCacheRefreshListener extends LDAPGroupCacheListener {
+
+        void cacheRefresh(String userId);
+
+    }
+
 }
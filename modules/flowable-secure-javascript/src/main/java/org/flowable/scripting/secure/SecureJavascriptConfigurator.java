@@ -14,16 +14,23 @@ package org.flowable.scripting.secure;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.flowable.engine.cfg.AbstractProcessEngineConfigurator;
+import org.flowable.engine.common.api.delegate.event.FlowableEngineEventType;
+import org.flowable.engine.common.api.delegate.event.FlowableEventListener;
 import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.flowable.engine.impl.scripting.CompiledScriptCache;
 import org.flowable.engine.parse.BpmnParseHandler;
 import org.flowable.scripting.secure.behavior.SecureJavascriptTaskParseHandler;
+import org.flowable.scripting.secure.impl.SecureScriptCacheEvictionListener;
 import org.flowable.scripting.secure.impl.SecureScriptClassShutter;
 import org.flowable.scripting.secure.impl.SecureScriptContextFactory;
 import org.mozilla.javascript.ContextFactory;
+import org.mozilla.javascript.Script;
 
 /**
  * @author Joram Barrez
@@ -89,6 +96,22 @@ public class SecureJavascriptConfigurator extends AbstractProcessEngineConfigura
      */
     protected int scriptOptimizationLevel = -1;
 
+    /**
+     * When true, every script is compiled once and the compiled script is reused for all executions of the script in the same process definition.
+     * The compiled scripts of a process definition are removed when it is deleted.
+     *
+     * By default disabled.
+     */
+    protected boolean enableScriptCache;
+
+    /**
+     * The maximum number of compiled scripts that are kept. When reached, the least recently used script is removed.
+     */
+    protected int scriptCacheLimit = 1000;
+
+    /* The compiled scripts of the process engine this configurator is added to */
+    protected CompiledScriptCache<Script> scriptCache;
+
     @Override
     public void beforeInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
 
@@ -103,7 +126,29 @@ public class SecureJavascriptConfigurator extends AbstractProcessEngineConfigura
             customDefaultBpmnParseHandlers = new ArrayList<>();
             processEngineConfiguration.setCustomDefaultBpmnParseHandlers(customDefaultBpmnParseHandlers);
         }
-        customDefaultBpmnParseHandlers.add(new SecureJavascriptTaskParseHandler());
+
+        if (isEnableScriptCache()) {
+            initScriptCache(processEngineConfiguration);
+        }
+        customDefaultBpmnParseHandlers.add(new SecureJavascriptTaskParseHandler(scriptCache));
+    }
+
+    protected void initScriptCache(ProcessEngineConfigurationImpl processEngineConfiguration) {
+        if (scriptCache == null) {
+            scriptCache = new CompiledScriptCache<>(getScriptCacheLimit());
+        }
+
+        Map<String, List<FlowableEventListener>> typedEventListeners = processEngineConfiguration.getTypedEventListeners();
+        if (typedEventListeners == null) {
+            typedEventListeners = new HashMap<>();
+            processEngineConfiguration.setTypedEventListeners(typedEventListeners);
+        }
+        List<FlowableEventListener> entityDeletedListeners = typedEventListeners.get(FlowableEngineEventType.ENTITY_DELETED.name());
+        if (entityDeletedListeners == null) {
+            entityDeletedListeners = new ArrayList<>();
+            typedEventListeners.put(FlowableEngineEventType.ENTITY_DELETED.name(), entityDeletedListeners);
+        }
+        entityDeletedListeners.add(new SecureScriptCacheEvictionListener(scriptCache));
     }
 
     protected synchronized void initSecureScriptContextFactory() {
@@ -211,6 +256,33 @@ public class SecureJavascriptConfigurator extends AbstractProcessEngineConfigura
         return this;
     }
 
+    public boolean isEnableScriptCache() {
+        return enableScriptCache;
+    }
+
+    public SecureJavascriptConfigurator setEnableScriptCache(boolean enableScriptCache) {
+        this.enableScriptCache = enableScriptCache;
+        return this;
+    }
+
+    public int getScriptCacheLimit() {
+        return scriptCacheLimit;
+    }
+
+    public SecureJavascriptConfigurator setScriptCacheLimit(int scriptCacheLimit) {
+        this.scriptCacheLimit = scriptCacheLimit;
+        return this;
+    }
+
+    public CompiledScriptCache<Script> getScriptCache() {
+        return scriptCache;
+    }
+
+    public SecureJavascriptConfigurator setScriptCache(CompiledScriptCache<Script> scriptCache) {
+        this.scriptCache = scriptCache;
+        return this;
+    }
+
     public SecureScriptContextFactory getSecureScriptContextFactory() {
         return secureScriptContextFactory;
     }
@@ -18,23 +18,33 @@ import org.flowable.engine.delegate.BpmnError;
 import org.flowable.engine.delegate.DelegateExecution;
 import org.flowable.engine.impl.bpmn.behavior.ScriptTaskActivityBehavior;
 import org.flowable.engine.impl.bpmn.helper.ErrorPropagation;
+import org.flowable.engine.impl.scripting.CompiledScriptCache;
 import org.flowable.scripting.secure.impl.SecureJavascriptUtil;
+import org.mozilla.javascript.Script;
 
 /**
  * @author Joram Barrez
  */
 public class SecureJavascriptTaskActivityBehavior extends ScriptTaskActivityBehavior {
 
+    protected CompiledScriptCache<Script> scriptCache;
+
     public SecureJavascriptTaskActivityBehavior(String scriptTaskId, String script,
             String language, String resultVariable, boolean storeScriptVariables) {
+        this(scriptTaskId, script, language, resultVariable, storeScriptVariables, null);
+    }
+
+    public SecureJavascriptTaskActivityBehavior(String scriptTaskId, String script,
+            String language, String resultVariable, boolean storeScriptVariables, CompiledScriptCache<Script> scriptCache) {
         super(scriptTaskId, script, language, resultVariable, storeScriptVariables);
+        this.scriptCache = scriptCache;
     }
 
     @Override
     public void execute(DelegateExecution execution) {
         boolean noErrors = true;
         try {
-            Object result = SecureJavascriptUtil.evaluateScript(execution, script);
+            Object result = SecureJavascriptUtil.evaluateScript(execution, script, scriptCache);
 
             if (resultVariable != null) {
                 execution.setVariable(resultVariable, result);
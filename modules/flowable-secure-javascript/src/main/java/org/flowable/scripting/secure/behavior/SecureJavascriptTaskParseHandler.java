@@ -16,6 +16,8 @@ import org.apache.commons.lang3.StringUtils;
 import org.flowable.bpmn.model.ScriptTask;
 import org.flowable.engine.impl.bpmn.parser.BpmnParse;
 import org.flowable.engine.impl.bpmn.parser.handler.ScriptTaskParseHandler;
+import org.flowable.engine.impl.scripting.CompiledScriptCache;
+import org.mozilla.javascript.Script;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,6 +30,15 @@ public class SecureJavascriptTaskParseHandler extends ScriptTaskParseHandler {
 
     public static final String LANGUAGE_JAVASCRIPT = "javascript";
 
+    protected CompiledScriptCache<Script> scriptCache;
+
+    public SecureJavascriptTaskParseHandler() {
+    }
+
+    public SecureJavascriptTaskParseHandler(CompiledScriptCache<Script> scriptCache) {
+        this.scriptCache = scriptCache;
+    }
+
     @Override
     protected void executeParse(BpmnParse bpmnParse, ScriptTask scriptTask) {
         String language = scriptTask.getScriptFormat();
@@ -44,7 +55,7 @@ public class SecureJavascriptTaskParseHandler extends ScriptTaskParseHandler {
         }
 
         scriptTask.setBehavior(new SecureJavascriptTaskActivityBehavior(scriptTask.getId(),
-                scriptTask.getScript(), language, scriptTask.getResultVariable(), scriptTask.isAutoStoreVariables()));
+                scriptTask.getScript(), language, scriptTask.getResultVariable(), scriptTask.isAutoStoreVariables(), scriptCache));
     }
 
 }
@@ -12,26 +12,117 @@
  */
 package org.flowable.scripting.secure.impl;
 
+import org.flowable.engine.cfg.ProcessEngineConfigurator;
+import org.flowable.engine.delegate.DelegateExecution;
+import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.flowable.engine.impl.scripting.CompiledScriptCache;
+import org.flowable.engine.impl.util.CommandContextUtil;
+import org.flowable.scripting.secure.SecureJavascriptConfigurator;
+import org.flowable.task.service.delegate.DelegateTask;
 import org.flowable.variable.service.delegate.VariableScope;
+import org.mozilla.javascript.ClassCache;
 import org.mozilla.javascript.Context;
-import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.NativeJavaTopPackage;
+import org.mozilla.javascript.NativeObject;
+import org.mozilla.javascript.Script;
+import org.mozilla.javascript.ScriptableObject;
 
 /**
+ * Executes secure scripts, compiling each script once when a {@link CompiledScriptCache} is passed.
+ *
+ * The standard objects are created once in a sealed scope that is shared by all scripts. Every execution gets its own top level scope,
+ * with its own Java packages and class cache, so the class shutter is applied to every execution as before.
+ *
  * @author Joram Barrez
  */
 public class SecureJavascriptUtil {
 
+    protected static final String LANGUAGE = "javascript";
+
+    protected static volatile ScriptableObject sharedScope;
+
     public static Object evaluateScript(VariableScope variableScope, String script) {
+        return evaluateScript(variableScope, script, null);
+    }
+
+    /**
+     * @param scriptCache the compiled scripts of the process engine executing the script, or null to compile the script for this execution only
+     */
+    public static Object evaluateScript(VariableScope variableScope, String script, CompiledScriptCache<Script> scriptCache) {
         Context context = Context.enter();
         try {
-            Scriptable scope = context.initStandardObjects();
-            SecureScriptScope secureScriptScope = new SecureScriptScope(variableScope);
-            scope.setPrototype(secureScriptScope);
-
-            return context.evaluateString(scope, script, "<script>", 0, null);
+            Script compiledScript = getCompiledScript(context, variableScope, script, scriptCache);
+            return compiledScript.exec(context, createScope(context, variableScope));
         } finally {
             Context.exit();
         }
     }
 
+    protected static Script getCompiledScript(Context context, VariableScope variableScope, String script, CompiledScriptCache<Script> compiledScriptCache) {
+        if (compiledScriptCache == null) {
+            return context.compileString(script, "<script>", 0, null);
+        }
+
+        String processDefinitionId = getProcessDefinitionId(variableScope);
+        Script compiledScript = compiledScriptCache.get(processDefinitionId, LANGUAGE, script);
+        if (compiledScript == null) {
+            compiledScript = context.compileString(script, "<script>", 0, null);
+            compiledScriptCache.add(processDefinitionId, LANGUAGE, script, compiledScript);
+        }
+        return compiledScript;
+    }
+
+    protected static ScriptableObject createScope(Context context, VariableScope variableScope) {
+        SecureScriptScope secureScriptScope = new SecureScriptScope(variableScope);
+        secureScriptScope.setPrototype(getSharedScope(context));
+
+        ScriptableObject scope = new NativeObject();
+        scope.setPrototype(secureScriptScope);
+
+        // Java classes are looked up and cached per execution, so a class that is no longer white listed can't be used anymore
+        new ClassCache().associate(scope);
+        NativeJavaTopPackage.init(context, scope, false);
+
+        return scope;
+    }
+
+    protected static ScriptableObject getSharedScope(Context context) {
+        ScriptableObject scope = sharedScope;
+        if (scope == null) {
+            synchronized (SecureJavascriptUtil.class) {
+                scope = sharedScope;
+                if (scope == null) {
+                    scope = context.initStandardObjects(null, true);
+                    scope.sealObject();
+                    sharedScope = scope;
+                }
+            }
+        }
+        return scope;
+    }
+
+    protected static String getProcessDefinitionId(VariableScope variableScope) {
+        if (variableScope instanceof DelegateExecution) {
+            return ((DelegateExecution) variableScope).getProcessDefinitionId();
+        } else if (variableScope instanceof DelegateTask) {
+            return ((DelegateTask) variableScope).getProcessDefinitionId();
+        }
+        return null;
+    }
+
+    /**
+     * @return the compiled script cache of the {@link SecureJavascriptConfigurator} of the current process engine, or null when it has none
+     */
+    public static CompiledScriptCache<Script> getScriptCache() {
+        ProcessEngineConfigurationImpl processEngineConfiguration = CommandContextUtil.getProcessEngineConfiguration();
+        if (processEngineConfiguration != null && processEngineConfiguration.getAllConfigurators() != null) {
+            for (ProcessEngineConfigurator configurator : processEngineConfiguration.getAllConfigurators()) {
+                if (configurator instanceof SecureJavascriptConfigurator) {
+                    return ((SecureJavascriptConfigurator) configurator).getScriptCache();
+                }
+            }
+        }
+        return null;
+    }
+
 }
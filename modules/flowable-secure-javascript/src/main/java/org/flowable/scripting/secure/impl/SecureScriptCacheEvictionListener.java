@@ -0,0 +1,48 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.scripting.secure.impl;
+
+import org.flowable.engine.common.api.delegate.event.FlowableEngineEventType;
+import org.flowable.engine.common.api.delegate.event.FlowableEntityEvent;
+import org.flowable.engine.common.api.delegate.event.FlowableEvent;
+import org.flowable.engine.common.api.delegate.event.FlowableEventListener;
+import org.flowable.engine.impl.scripting.CompiledScriptCache;
+import org.flowable.engine.repository.ProcessDefinition;
+
+/**
+ * Removes the compiled secure scripts of a process definition from the {@link CompiledScriptCache} when the process definition is deleted.
+ */
+public class SecureScriptCacheEvictionListener implements FlowableEventListener {
+
+    protected CompiledScriptCache<?> compiledScriptCache;
+
+    public SecureScriptCacheEvictionListener(CompiledScriptCache<?> compiledScriptCache) {
+        this.compiledScriptCache = compiledScriptCache;
+    }
+
+    @Override
+    public void onEvent(FlowableEvent event) {
+        if (event.getType() == FlowableEngineEventType.ENTITY_DELETED && event instanceof FlowableEntityEvent) {
+            Object entity = ((FlowableEntityEvent) event).getEntity();
+            if (entity instanceof ProcessDefinition) {
+                compiledScriptCache.removeProcessDefinition(((ProcessDefinition) entity).getId());
+            }
+        }
+    }
+
+    @Override
+    public boolean isFailOnException() {
+        return false;
+    }
+
+}
@@ -16,6 +16,7 @@ import org.flowable.engine.delegate.DelegateExecution;
 import org.flowable.task.service.delegate.DelegateTask;
 import org.flowable.variable.service.delegate.VariableScope;
 import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ScriptableObject;
 
 /**
  * @author Joram Barrez
@@ -26,6 +27,7 @@ public class SecureScriptScope implements Scriptable {
     private static final String KEYWORD_TASK = "task";
 
     protected VariableScope variableScope;
+    protected Scriptable prototype;
 
     public SecureScriptScope(VariableScope variableScope) {
         super();
@@ -39,6 +41,14 @@ public class SecureScriptScope implements Scriptable {
 
     @Override
     public Object get(String s, Scriptable scriptable) {
+        // The standard objects of the prototype take precedence over the variables
+        if (prototype != null) {
+            Object value = ScriptableObject.getProperty(prototype, s);
+            if (value != Scriptable.NOT_FOUND) {
+                return value;
+            }
+        }
+
         if (KEYWORD_EXECUTION.equals(s) && variableScope instanceof DelegateExecution) {
             return variableScope;
         } else if (KEYWORD_TASK.equals(s) && variableScope instanceof DelegateTask) {
@@ -82,11 +92,12 @@ public class SecureScriptScope implements Scriptable {
 
     @Override
     public Scriptable getPrototype() {
-        return null;
+        return prototype;
     }
 
     @Override
     public void setPrototype(Scriptable scriptable) {
+        this.prototype = scriptable;
     }
 
     @Override
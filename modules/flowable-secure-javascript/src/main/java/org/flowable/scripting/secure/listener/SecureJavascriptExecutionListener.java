@@ -26,7 +26,7 @@ public class SecureJavascriptExecutionListener extends ScriptExecutionListener {
     public void notify(DelegateExecution execution) {
         validateParameters();
         if (SecureJavascriptTaskParseHandler.LANGUAGE_JAVASCRIPT.equalsIgnoreCase(language.getValue(execution).toString())) {
-            Object result = SecureJavascriptUtil.evaluateScript(execution, script.getExpressionText());
+            Object result = SecureJavascriptUtil.evaluateScript(execution, script.getExpressionText(), SecureJavascriptUtil.getScriptCache());
 
             if (resultVariable != null) {
                 execution.setVariable(resultVariable.getExpressionText(), result);
@@ -31,6 +31,7 @@ import org.junit.Before;
  */
 public abstract class SecureScriptingBaseTest {
 
+    protected SecureJavascriptConfigurator configurator;
     protected ProcessEngine processEngine;
     protected RuntimeService runtimeService;
     protected RepositoryService repositoryService;
@@ -39,10 +40,11 @@ public abstract class SecureScriptingBaseTest {
     @Before
     public void initProcessEngine() {
 
-        SecureJavascriptConfigurator configurator = new SecureJavascriptConfigurator()
+        this.configurator = new SecureJavascriptConfigurator()
                 .setWhiteListedClasses(new HashSet<>(Collections.singletonList("java.util.ArrayList")))
                 .setMaxStackDepth(10).setMaxScriptExecutionTime(3000L)
-                .setMaxMemoryUsed(3145728L);
+                .setMaxMemoryUsed(3145728L)
+                .setEnableScriptCache(true);
 
         this.processEngine = new StandaloneInMemProcessEngineConfiguration()
                 .addConfigurator(configurator)
@@ -67,6 +69,7 @@ public abstract class SecureScriptingBaseTest {
 
         this.processEngine.close();
         this.processEngine = null;
+        this.configurator = null;
     }
 
     protected void deployProcessDefinition(String classpathResource) {
@@ -16,10 +16,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.flowable.engine.impl.scripting.CompiledScriptCache;
+import org.flowable.engine.repository.Deployment;
 import org.flowable.engine.runtime.ProcessInstance;
 import org.flowable.task.service.Task;
 import org.junit.Assert;
 import org.junit.Test;
+import org.mozilla.javascript.Script;
 
 /**
  * @author Joram Barrez
@@ -102,6 +105,33 @@ public class SecureScriptingTest extends SecureScriptingBaseTest {
         Assert.assertEquals(1, tasks.size());
     }
 
+    @Test
+    public void testCompiledScriptCache() {
+        deployProcessDefinition("test-secure-script-use-variableScope-and-vars.bpmn20.xml");
+
+        addWhiteListedClass("java.lang.Integer");
+        addWhiteListedClass("org.flowable.engine.impl.persistence.entity.ExecutionEntityImpl");
+
+        CompiledScriptCache<Script> scriptCache = configurator.getScriptCache();
+        Assert.assertNotNull(scriptCache);
+        long hitCount = scriptCache.getHitCount();
+
+        for (int i = 0; i < 3; i++) {
+            Map<String, Object> vars = new HashMap<>();
+            vars.put("a", i);
+            vars.put("b", 10);
+            ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("useExecutionAndVars", vars);
+            Assert.assertEquals(i + 10, ((Number) runtimeService.getVariable(processInstance.getId(), "c")).intValue());
+        }
+        Assert.assertEquals(1, scriptCache.size());
+        Assert.assertEquals(hitCount + 2, scriptCache.getHitCount());
+
+        for (Deployment deployment : repositoryService.createDeploymentQuery().list()) {
+            repositoryService.deleteDeployment(deployment.getId(), true);
+        }
+        Assert.assertEquals(0, scriptCache.size());
+    }
+
     @Test
     public void testExecutionListener() {
         deployProcessDefinition("test-secure-script-execution-listener.bpmn20.xml");
@@ -13,6 +13,7 @@
 package org.flowable.task.service;
 
 import java.util.List;
+import java.util.Set;
 
 import org.flowable.task.service.history.HistoricTaskInstance;
 import org.flowable.task.service.impl.HistoricTaskInstanceQueryImpl;
@@ -32,6 +33,8 @@ public interface HistoricTaskService {
     
     List<HistoricTaskInstanceEntity> findHistoricTasksByProcessInstanceId(String processInstanceId);
     
+    List<HistoricTaskInstanceEntity> findHistoricTasksByIds(Set<String> taskIds);
+    
     List<HistoricTaskInstance> findHistoricTaskInstancesByQueryCriteria(HistoricTaskInstanceQueryImpl historicTaskInstanceQuery);
     
     HistoricTaskInstanceEntity createHistoricTask();
@@ -13,6 +13,7 @@
 package org.flowable.task.service;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -523,6 +524,11 @@ public interface TaskInfoQuery<T extends TaskInfoQuery<?, ?>, V extends TaskInfo
      */
     T limitTaskVariables(Integer taskVariablesLimit);
 
+    /**
+     * Only include the task local and process variables with the given names in the task query result
+     */
+    T limitTaskVariableNames(Collection<String> variableNames);
+
     /**
      * Include identity links in the task query result
      */
@@ -62,6 +62,7 @@ public class TaskServiceConfiguration extends AbstractServiceConfiguration {
     
     protected boolean enableTaskRelationshipCounts;
     protected boolean enableLocalization;
+    protected boolean enableTwoPhaseVariableQueries;
     
     protected int taskQueryLimit;
     protected int historicTaskQueryLimit;
@@ -206,6 +207,15 @@ public class TaskServiceConfiguration extends AbstractServiceConfiguration {
         return this;
     }
 
+    public boolean isEnableTwoPhaseVariableQueries() {
+        return enableTwoPhaseVariableQueries;
+    }
+
+    public TaskServiceConfiguration setEnableTwoPhaseVariableQueries(boolean enableTwoPhaseVariableQueries) {
+        this.enableTwoPhaseVariableQueries = enableTwoPhaseVariableQueries;
+        return this;
+    }
+
     public int getTaskQueryLimit() {
         return taskQueryLimit;
     }
@@ -14,6 +14,7 @@
 package org.flowable.task.service.impl;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -105,6 +106,7 @@ public class HistoricTaskInstanceQueryImpl extends AbstractVariableQueryImpl<His
     protected boolean includeTaskLocalVariables;
     protected boolean includeProcessVariables;
     protected Integer taskVariablesLimit;
+    protected Collection<String> taskVariableNames;
     protected boolean includeIdentityLinks;
     protected List<HistoricTaskInstanceQueryImpl> orQueryObjects = new ArrayList<>();
     protected HistoricTaskInstanceQueryImpl currentOrQueryObject;
@@ -1175,6 +1177,12 @@ public class HistoricTaskInstanceQueryImpl extends AbstractVariableQueryImpl<His
         return this;
     }
 
+    @Override
+    public HistoricTaskInstanceQuery limitTaskVariableNames(Collection<String> variableNames) {
+        this.taskVariableNames = variableNames;
+        return this;
+    }
+
     @Override
     public HistoricTaskInstanceQuery includeIdentityLinks() {
         this.includeIdentityLinks = true;
@@ -1185,6 +1193,10 @@ public class HistoricTaskInstanceQueryImpl extends AbstractVariableQueryImpl<His
         return taskVariablesLimit;
     }
 
+    public Collection<String> getTaskVariableNames() {
+        return taskVariableNames;
+    }
+
     @Override
     public HistoricTaskInstanceQuery or() {
         if (inOrStatement) {
@@ -1338,12 +1350,20 @@ public class HistoricTaskInstanceQueryImpl extends AbstractVariableQueryImpl<His
         super.checkQueryOk();
         // In case historic query variables are included, an additional order-by
         // clause should be added
-        // to ensure the last value of a variable is used
-        if (includeProcessVariables || includeTaskLocalVariables) {
+        // to ensure the last value of a variable is used.
+        // When the variables are fetched in a separate query, that query is ordered instead.
+        TaskServiceConfiguration taskServiceConfiguration = CommandContextUtil.getTaskServiceConfiguration();
+        boolean twoPhaseVariableQueries = taskServiceConfiguration != null && taskServiceConfiguration.isEnableTwoPhaseVariableQueries();
+        if ((includeProcessVariables || includeTaskLocalVariables) && !twoPhaseVariableQueries) {
             this.orderBy(HistoricTaskInstanceQueryProperty.INCLUDED_VARIABLE_TIME).asc();
         }
     }
 
+    @Override
+    protected boolean isSeekPaginationSupported() {
+        return true;
+    }
+
     public String getMssqlOrDB2OrderBy() {
         String specialOrderBy = super.getOrderByColumns();
         if (specialOrderBy != null && specialOrderBy.length() > 0) {
@@ -13,6 +13,7 @@
 package org.flowable.task.service.impl;
 
 import java.util.List;
+import java.util.Set;
 
 import org.flowable.task.service.HistoricTaskService;
 import org.flowable.task.service.TaskServiceConfiguration;
@@ -49,6 +50,11 @@ public class HistoricTaskServiceImpl extends ServiceImpl implements HistoricTask
         return getHistoricTaskInstanceEntityManager().findHistoricTasksByProcessInstanceId(processInstanceId);
     }
 
+    @Override
+    public List<HistoricTaskInstanceEntity> findHistoricTasksByIds(Set<String> taskIds) {
+        return getHistoricTaskInstanceEntityManager().findHistoricTasksByIds(taskIds);
+    }
+
     @Override
     public List<HistoricTaskInstance> findHistoricTaskInstancesByQueryCriteria(HistoricTaskInstanceQueryImpl historicTaskInstanceQuery) {
         return getHistoricTaskInstanceEntityManager().findHistoricTaskInstancesByQueryCriteria(historicTaskInstanceQuery);
@@ -13,6 +13,7 @@
 package org.flowable.task.service.impl;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -103,6 +104,7 @@ public class TaskQueryImpl extends AbstractVariableQueryImpl<TaskQuery, Task> im
     protected boolean includeTaskLocalVariables;
     protected boolean includeProcessVariables;
     protected Integer taskVariablesLimit;
+    protected Collection<String> taskVariableNames;
     protected boolean includeIdentityLinks;
     protected String userIdForCandidateAndAssignee;
     protected boolean bothCandidateAndAssigned;
@@ -1205,6 +1207,12 @@ public class TaskQueryImpl extends AbstractVariableQueryImpl<TaskQuery, Task> im
         return this;
     }
 
+    @Override
+    public TaskQuery limitTaskVariableNames(Collection<String> variableNames) {
+        this.taskVariableNames = variableNames;
+        return this;
+    }
+
     @Override
     public TaskQuery includeIdentityLinks() {
         this.includeIdentityLinks = true;
@@ -1214,6 +1222,10 @@ public class TaskQueryImpl extends AbstractVariableQueryImpl<TaskQuery, Task> im
         return taskVariablesLimit;
     }
 
+    public Collection<String> getTaskVariableNames() {
+        return taskVariableNames;
+    }
+
     public List<String> getCandidateGroups() {
         if (candidateGroup != null) {
             List<String> candidateGroupList = new ArrayList<>(1);
@@ -1377,6 +1389,11 @@ public class TaskQueryImpl extends AbstractVariableQueryImpl<TaskQuery, Task> im
         return specialOrderBy;
     }
 
+    @Override
+    protected boolean isSeekPaginationSupported() {
+        return true;
+    }
+
     // results ////////////////////////////////////////////////////////////////
 
     @Override
@@ -1689,6 +1706,12 @@ public class TaskQueryImpl extends AbstractVariableQueryImpl<TaskQuery, Task> im
         return super.listPage(firstResult, maxResults);
     }
 
+    @Override
+    public List<Task> listPageAfter(String continuationToken, int maxResults) {
+        cachedCandidateGroups = null;
+        return super.listPageAfter(continuationToken, maxResults);
+    }
+
     @Override
     public long count() {
         cachedCandidateGroups = null;
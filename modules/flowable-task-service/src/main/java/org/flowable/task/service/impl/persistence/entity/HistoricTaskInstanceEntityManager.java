@@ -14,6 +14,7 @@ package org.flowable.task.service.impl.persistence.entity;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.flowable.engine.common.impl.persistence.entity.EntityManager;
 import org.flowable.task.service.history.HistoricTaskInstance;
@@ -30,6 +31,8 @@ public interface HistoricTaskInstanceEntityManager extends EntityManager<Histori
     
     List<HistoricTaskInstanceEntity> findHistoricTasksByProcessInstanceId(String processInstanceId);
 
+    List<HistoricTaskInstanceEntity> findHistoricTasksByIds(Set<String> taskIds);
+
     long findHistoricTaskInstanceCountByQueryCriteria(HistoricTaskInstanceQueryImpl historicTaskInstanceQuery);
 
     List<HistoricTaskInstance> findHistoricTaskInstancesByQueryCriteria(HistoricTaskInstanceQueryImpl historicTaskInstanceQuery);
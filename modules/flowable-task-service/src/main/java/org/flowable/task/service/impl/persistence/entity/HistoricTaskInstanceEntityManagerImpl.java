@@ -16,6 +16,7 @@ package org.flowable.task.service.impl.persistence.entity;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.flowable.engine.common.impl.persistence.entity.data.DataManager;
 import org.flowable.task.service.TaskServiceConfiguration;
@@ -56,6 +57,11 @@ public class HistoricTaskInstanceEntityManagerImpl extends AbstractEntityManager
         return historicTaskInstanceDataManager.findHistoricTasksByProcessInstanceId(processInstanceId);
     }
 
+    @Override
+    public List<HistoricTaskInstanceEntity> findHistoricTasksByIds(Set<String> taskIds) {
+        return historicTaskInstanceDataManager.findHistoricTasksByIds(taskIds);
+    }
+
     @Override
     public long findHistoricTaskInstanceCountByQueryCriteria(HistoricTaskInstanceQueryImpl historicTaskInstanceQuery) {
         if (taskServiceConfiguration.isHistoryEnabled()) {
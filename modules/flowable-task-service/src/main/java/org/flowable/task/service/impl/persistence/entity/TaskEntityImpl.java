@@ -27,6 +27,7 @@ import org.flowable.engine.common.api.FlowableException;
 import org.flowable.engine.common.impl.context.Context;
 import org.flowable.engine.common.impl.db.SuspensionState;
 import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.engine.common.impl.persistence.entity.DirtyTrackingEntity;
 import org.flowable.identitylink.service.IdentityLink;
 import org.flowable.identitylink.service.IdentityLinkType;
 import org.flowable.identitylink.service.impl.persistence.entity.IdentityLinkEntity;
@@ -45,7 +46,7 @@ import org.flowable.variable.service.impl.persistence.entity.VariableScopeImpl;
  * @author Falko Menge
  * @author Tijs Rademakers
  */
-public class TaskEntityImpl extends VariableScopeImpl implements TaskEntity, CountingTaskEntity, Serializable {
+public class TaskEntityImpl extends VariableScopeImpl implements TaskEntity, CountingTaskEntity, DirtyTrackingEntity, Serializable {
 
     public static final String DELETE_REASON_COMPLETED = "completed";
     public static final String DELETE_REASON_DELETED = "deleted";
@@ -155,9 +156,29 @@ public class TaskEntityImpl extends VariableScopeImpl implements TaskEntity, Cou
 
     @Override
     public void forceUpdate() {
+        trackChange("forcedUpdate", this.forcedUpdate, true);
         this.forcedUpdate = true;
     }
 
+    @Override
+    public void setDirty(boolean isDirty) {
+        super.setDirty(isDirty);
+
+        // With dirty tracking, no copy of the persistent state is made when loading the task.
+        // The history managers however need the original assignee and owner to detect changes.
+        if (!isDirty && isDirtyTrackingEnabled()) {
+            Map<String, Object> originalPersistentState = new HashMap<>(4);
+            originalPersistentState.put("assignee", this.assignee);
+            originalPersistentState.put("owner", this.owner);
+            setOriginalPersistentState(originalPersistentState);
+        }
+    }
+
+    protected boolean isDirtyTrackingEnabled() {
+        CommandContext commandContext = Context.getCommandContext();
+        return commandContext != null && CommandContextUtil.getDbSqlSession(commandContext).getDbSqlSessionFactory().isDirtyTrackingEnabled();
+    }
+
     // variables //////////////////////////////////////////////////////////////////
 
     @Override
@@ -224,43 +245,51 @@ public class TaskEntityImpl extends VariableScopeImpl implements TaskEntity, Cou
 
     @Override
     public void setName(String taskName) {
+        trackChange("name", this.name, taskName);
         this.name = taskName;
     }
 
     @Override
     public void setDescription(String description) {
+        trackChange("description", this.description, description);
         this.description = description;
     }
 
     @Override
     public void setAssignee(String assignee) {
         this.originalAssignee = this.assignee;
+        trackChange("assignee", this.assignee, assignee);
         this.assignee = assignee;
         assigneeUpdatedCount++;
     }
 
     @Override
     public void setOwner(String owner) {
+        trackChange("owner", this.owner, owner);
         this.owner = owner;
     }
 
     @Override
     public void setDueDate(Date dueDate) {
+        trackChange("dueDate", this.dueDate, dueDate);
         this.dueDate = dueDate;
     }
 
     @Override
     public void setPriority(int priority) {
+        trackChange("priority", this.priority, priority);
         this.priority = priority;
     }
 
     @Override
     public void setCategory(String category) {
+        trackChange("category", this.category, category);
         this.category = category;
     }
 
     @Override
     public void setParentTaskId(String parentTaskId) {
+        trackChange("parentTaskId", this.parentTaskId, parentTaskId);
         this.parentTaskId = parentTaskId;
     }
 
@@ -271,6 +300,7 @@ public class TaskEntityImpl extends VariableScopeImpl implements TaskEntity, Cou
 
     @Override
     public void setFormKey(String formKey) {
+        trackChange("formKey", this.formKey, formKey);
         this.formKey = formKey;
     }
 
@@ -357,6 +387,7 @@ public class TaskEntityImpl extends VariableScopeImpl implements TaskEntity, Cou
 
     @Override
     public void setCreateTime(Date createTime) {
+        trackChange("createTime", this.createTime, createTime);
         this.createTime = createTime;
     }
 
@@ -377,6 +408,7 @@ public class TaskEntityImpl extends VariableScopeImpl implements TaskEntity, Cou
 
     @Override
     public void setProcessDefinitionId(String processDefinitionId) {
+        trackChange("processDefinitionId", this.processDefinitionId, processDefinitionId);
         this.processDefinitionId = processDefinitionId;
     }
 
@@ -416,6 +448,7 @@ public class TaskEntityImpl extends VariableScopeImpl implements TaskEntity, Cou
 
     @Override
     public void setExecutionId(String executionId) {
+        trackChange("executionId", this.executionId, executionId);
         this.executionId = executionId;
     }
 
@@ -436,6 +469,7 @@ public class TaskEntityImpl extends VariableScopeImpl implements TaskEntity, Cou
 
     @Override
     public void setDelegationState(DelegationState delegationState) {
+        trackChange("delegationStateString", getDelegationStateString(), delegationState != null ? delegationState.toString() : null);
         this.delegationState = delegationState;
     }
 
@@ -444,7 +478,7 @@ public class TaskEntityImpl extends VariableScopeImpl implements TaskEntity, Cou
     }
 
     public void setDelegationStateString(String delegationStateString) {
-        this.delegationState = (delegationStateString != null ? DelegationState.valueOf(DelegationState.class, delegationStateString) : null);
+        setDelegationState(delegationStateString != null ? DelegationState.valueOf(DelegationState.class, delegationStateString) : null);
     }
 
     @Override
@@ -485,6 +519,7 @@ public class TaskEntityImpl extends VariableScopeImpl implements TaskEntity, Cou
 
     @Override
     public void setSuspensionState(int suspensionState) {
+        trackChange("suspensionState", this.suspensionState, suspensionState);
         this.suspensionState = suspensionState;
     }
 
@@ -563,6 +598,7 @@ public class TaskEntityImpl extends VariableScopeImpl implements TaskEntity, Cou
 
     @Override
     public void setClaimTime(Date claimTime) {
+        trackChange("claimTime", this.claimTime, claimTime);
         this.claimTime = claimTime;
     }
 
@@ -578,11 +614,13 @@ public class TaskEntityImpl extends VariableScopeImpl implements TaskEntity, Cou
 
     @Override
     public void setCountEnabled(boolean isCountEnabled) {
+        trackChange("isCountEnabled", this.isCountEnabled, isCountEnabled);
         this.isCountEnabled = isCountEnabled;
     }
 
     @Override
     public void setVariableCount(int variableCount) {
+        trackChange("variableCount", this.variableCount, variableCount);
         this.variableCount = variableCount;
     }
 
@@ -593,6 +631,7 @@ public class TaskEntityImpl extends VariableScopeImpl implements TaskEntity, Cou
 
     @Override
     public void setIdentityLinkCount(int identityLinkCount) {
+        trackChange("identityLinkCount", this.identityLinkCount, identityLinkCount);
         this.identityLinkCount = identityLinkCount;
     }
 
@@ -12,11 +12,17 @@
  */
 package org.flowable.task.service.impl.persistence.entity.data.impl;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.flowable.engine.common.impl.db.AbstractDataManager;
+import org.flowable.engine.common.impl.util.CollectionUtil;
+import org.flowable.identitylink.service.impl.persistence.entity.HistoricIdentityLinkEntity;
 import org.flowable.task.service.history.HistoricTaskInstance;
 import org.flowable.task.service.impl.HistoricTaskInstanceQueryImpl;
 import org.flowable.task.service.impl.persistence.entity.HistoricTaskInstanceEntity;
@@ -24,6 +30,7 @@ import org.flowable.task.service.impl.persistence.entity.HistoricTaskInstanceEnt
 import org.flowable.task.service.impl.persistence.entity.TaskEntity;
 import org.flowable.task.service.impl.persistence.entity.data.HistoricTaskInstanceDataManager;
 import org.flowable.task.service.impl.util.CommandContextUtil;
+import org.flowable.variable.service.impl.persistence.entity.HistoricVariableInstanceEntity;
 
 /**
  * @author Joram Barrez
@@ -57,6 +64,12 @@ public class MybatisHistoricTaskInstanceDataManager extends AbstractDataManager<
         return getDbSqlSession().selectList("selectHistoricTaskInstancesByProcessInstanceId", processInstanceId);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<HistoricTaskInstanceEntity> findHistoricTasksByIds(Set<String> taskIds) {
+        return getDbSqlSession().selectList("selectHistoricTaskInstancesByIds", taskIds);
+    }
+
     @Override
     public long findHistoricTaskInstanceCountByQueryCriteria(HistoricTaskInstanceQueryImpl historicTaskInstanceQuery) {
         return (Long) getDbSqlSession().selectOne("selectHistoricTaskInstanceCountByQueryCriteria", historicTaskInstanceQuery);
@@ -71,6 +84,10 @@ public class MybatisHistoricTaskInstanceDataManager extends AbstractDataManager<
     @Override
     @SuppressWarnings("unchecked")
     public List<HistoricTaskInstance> findHistoricTaskInstancesAndRelatedEntitiesByQueryCriteria(HistoricTaskInstanceQueryImpl historicTaskInstanceQuery) {
+        if (CommandContextUtil.getTaskServiceConfiguration().isEnableTwoPhaseVariableQueries()) {
+            return findHistoricTaskInstancesAndRelatedEntitiesInTwoPhases(historicTaskInstanceQuery);
+        }
+
         // paging doesn't work for combining task instances and variables
         // due to an outer join, so doing it in-memory
 
@@ -87,6 +104,10 @@ public class MybatisHistoricTaskInstanceDataManager extends AbstractDataManager<
 
         List<HistoricTaskInstance> instanceList = getDbSqlSession().selectListWithRawParameterNoCacheCheck("selectHistoricTaskInstancesWithRelatedEntitiesByQueryCriteria", historicTaskInstanceQuery);
 
+        // The paging of the query is used again to create the continuation token of the page
+        historicTaskInstanceQuery.setFirstResult(firstResult);
+        historicTaskInstanceQuery.setMaxResults(maxResults);
+
         if (instanceList != null && !instanceList.isEmpty()) {
             if (firstResult > 0) {
                 if (firstResult <= instanceList.size()) {
@@ -104,6 +125,76 @@ public class MybatisHistoricTaskInstanceDataManager extends AbstractDataManager<
         return instanceList;
     }
 
+    /**
+     * Fetches the requested page of historic tasks without joining the related entities, so the database can do the paging,
+     * and then fetches the variables and identity links of the tasks of that page with one query per entity type.
+     */
+    @SuppressWarnings("unchecked")
+    protected List<HistoricTaskInstance> findHistoricTaskInstancesAndRelatedEntitiesInTwoPhases(HistoricTaskInstanceQueryImpl historicTaskInstanceQuery) {
+        List<HistoricTaskInstance> historicTaskInstances = getDbSqlSession().selectListWithRawParameterNoCacheCheck(
+                "selectHistoricTaskInstancesByQueryCriteria", historicTaskInstanceQuery);
+        if (historicTaskInstances.isEmpty()) {
+            return historicTaskInstances;
+        }
+
+        Map<String, HistoricTaskInstanceEntityImpl> tasksById = new LinkedHashMap<>();
+        Map<String, List<HistoricTaskInstanceEntityImpl>> tasksByProcessInstanceId = new HashMap<>();
+        for (HistoricTaskInstance historicTaskInstance : historicTaskInstances) {
+            HistoricTaskInstanceEntityImpl taskEntity = (HistoricTaskInstanceEntityImpl) historicTaskInstance;
+            tasksById.put(taskEntity.getId(), taskEntity);
+            if (taskEntity.getProcessInstanceId() != null) {
+                List<HistoricTaskInstanceEntityImpl> processInstanceTasks = tasksByProcessInstanceId.get(taskEntity.getProcessInstanceId());
+                if (processInstanceTasks == null) {
+                    processInstanceTasks = new ArrayList<>();
+                    tasksByProcessInstanceId.put(taskEntity.getProcessInstanceId(), processInstanceTasks);
+                }
+                processInstanceTasks.add(taskEntity);
+            }
+            if (historicTaskInstanceQuery.isIncludeIdentityLinks()) {
+                // An empty list, so tasks without identity links don't fetch them again
+                taskEntity.setQueryIdentityLinks(new ArrayList<HistoricIdentityLinkEntity>());
+            }
+        }
+
+        // The variables are ordered by their last update time, so the last value of a variable is used
+        if (historicTaskInstanceQuery.isIncludeTaskLocalVariables()) {
+            for (List<String> taskIds : CollectionUtil.partition(tasksById.keySet(), MAX_IN_CLAUSE_VALUES)) {
+                Map<String, Object> params = new HashMap<>();
+                params.put("taskIds", taskIds);
+                params.put("names", historicTaskInstanceQuery.getTaskVariableNames());
+                List<HistoricVariableInstanceEntity> variables = getDbSqlSession().selectListNoCacheCheck("selectHistoricVariableInstancesByTaskIdsAndNames", params);
+                for (HistoricVariableInstanceEntity variable : variables) {
+                    tasksById.get(variable.getTaskId()).getQueryVariables().add(variable);
+                }
+            }
+        }
+
+        if (historicTaskInstanceQuery.isIncludeProcessVariables() && !tasksByProcessInstanceId.isEmpty()) {
+            for (List<String> processInstanceIds : CollectionUtil.partition(tasksByProcessInstanceId.keySet(), MAX_IN_CLAUSE_VALUES)) {
+                Map<String, Object> params = new HashMap<>();
+                params.put("processInstanceIds", processInstanceIds);
+                params.put("names", historicTaskInstanceQuery.getTaskVariableNames());
+                List<HistoricVariableInstanceEntity> variables = getDbSqlSession().selectListNoCacheCheck("selectHistoricVariableInstancesByProcessInstanceIdsAndNames", params);
+                for (HistoricVariableInstanceEntity variable : variables) {
+                    for (HistoricTaskInstanceEntityImpl taskEntity : tasksByProcessInstanceId.get(variable.getExecutionId())) {
+                        taskEntity.getQueryVariables().add(variable);
+                    }
+                }
+            }
+        }
+
+        if (historicTaskInstanceQuery.isIncludeIdentityLinks()) {
+            for (List<String> taskIds : CollectionUtil.partition(tasksById.keySet(), MAX_IN_CLAUSE_VALUES)) {
+                List<HistoricIdentityLinkEntity> identityLinks = getDbSqlSession().selectListNoCacheCheck("selectHistoricIdentityLinksByTaskIds", taskIds);
+                for (HistoricIdentityLinkEntity identityLink : identityLinks) {
+                    tasksById.get(identityLink.getTaskId()).getQueryIdentityLinks().add(identityLink);
+                }
+            }
+        }
+
+        return historicTaskInstances;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public List<HistoricTaskInstance> findHistoricTaskInstancesByNativeQuery(Map<String, Object> parameterMap) {
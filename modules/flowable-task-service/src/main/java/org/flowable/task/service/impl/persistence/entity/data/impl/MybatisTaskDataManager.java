@@ -12,13 +12,17 @@
  */
 package org.flowable.task.service.impl.persistence.entity.data.impl;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.flowable.engine.common.impl.db.AbstractDataManager;
 import org.flowable.engine.common.impl.db.CachedEntityMatcher;
+import org.flowable.engine.common.impl.util.CollectionUtil;
+import org.flowable.identitylink.service.impl.persistence.entity.IdentityLinkEntity;
 import org.flowable.task.service.Task;
 import org.flowable.task.service.impl.TaskQueryImpl;
 import org.flowable.task.service.impl.persistence.entity.TaskEntity;
@@ -26,6 +30,7 @@ import org.flowable.task.service.impl.persistence.entity.TaskEntityImpl;
 import org.flowable.task.service.impl.persistence.entity.data.TaskDataManager;
 import org.flowable.task.service.impl.persistence.entity.data.impl.cachematcher.TasksByExecutionIdMatcher;
 import org.flowable.task.service.impl.util.CommandContextUtil;
+import org.flowable.variable.service.impl.persistence.entity.VariableInstanceEntity;
 
 /**
  * @author Joram Barrez
@@ -65,6 +70,10 @@ public class MybatisTaskDataManager extends AbstractDataManager<TaskEntity> impl
     @Override
     @SuppressWarnings("unchecked")
     public List<Task> findTasksWithRelatedEntitiesByQueryCriteria(TaskQueryImpl taskQuery) {
+        if (CommandContextUtil.getTaskServiceConfiguration().isEnableTwoPhaseVariableQueries()) {
+            return findTasksAndRelatedEntitiesInTwoPhases(taskQuery);
+        }
+
         final String query = "selectTasksWithRelatedEntitiesByQueryCriteria";
         // paging doesn't work for combining task instances and variables due to
         // an outer join, so doing it in-memory
@@ -82,6 +91,10 @@ public class MybatisTaskDataManager extends AbstractDataManager<TaskEntity> impl
 
         List<Task> instanceList = getDbSqlSession().selectListWithRawParameterNoCacheCheck(query, taskQuery);
 
+        // The paging of the query is used again to create the continuation token of the page
+        taskQuery.setFirstResult(firstResult);
+        taskQuery.setMaxResults(maxResults);
+
         if (instanceList != null && !instanceList.isEmpty()) {
             if (firstResult > 0) {
                 if (firstResult <= instanceList.size()) {
@@ -98,6 +111,74 @@ public class MybatisTaskDataManager extends AbstractDataManager<TaskEntity> impl
         return Collections.EMPTY_LIST;
     }
 
+    /**
+     * Fetches the requested page of tasks without joining the related entities, so the database can do the paging,
+     * and then fetches the variables and identity links of the tasks of that page with one query per entity type.
+     */
+    @SuppressWarnings("unchecked")
+    protected List<Task> findTasksAndRelatedEntitiesInTwoPhases(TaskQueryImpl taskQuery) {
+        List<Task> tasks = getDbSqlSession().selectListWithRawParameterNoCacheCheck("selectTaskByQueryCriteria", taskQuery);
+        if (tasks.isEmpty()) {
+            return tasks;
+        }
+
+        Map<String, TaskEntityImpl> tasksById = new LinkedHashMap<>();
+        Map<String, List<TaskEntityImpl>> tasksByProcessInstanceId = new HashMap<>();
+        for (Task task : tasks) {
+            TaskEntityImpl taskEntity = (TaskEntityImpl) task;
+            tasksById.put(taskEntity.getId(), taskEntity);
+            if (taskEntity.getProcessInstanceId() != null) {
+                List<TaskEntityImpl> processInstanceTasks = tasksByProcessInstanceId.get(taskEntity.getProcessInstanceId());
+                if (processInstanceTasks == null) {
+                    processInstanceTasks = new ArrayList<>();
+                    tasksByProcessInstanceId.put(taskEntity.getProcessInstanceId(), processInstanceTasks);
+                }
+                processInstanceTasks.add(taskEntity);
+            }
+            if (taskQuery.isIncludeIdentityLinks()) {
+                // An empty list, so tasks without identity links don't fetch them again
+                taskEntity.setQueryIdentityLinks(new ArrayList<IdentityLinkEntity>());
+            }
+        }
+
+        if (taskQuery.isIncludeTaskLocalVariables()) {
+            for (List<String> taskIds : CollectionUtil.partition(tasksById.keySet(), MAX_IN_CLAUSE_VALUES)) {
+                Map<String, Object> params = new HashMap<>();
+                params.put("taskIds", taskIds);
+                params.put("names", taskQuery.getTaskVariableNames());
+                List<VariableInstanceEntity> variables = getDbSqlSession().selectListNoCacheCheck("selectVariableInstancesByTaskIdsAndNames", params);
+                for (VariableInstanceEntity variable : variables) {
+                    tasksById.get(variable.getTaskId()).getQueryVariables().add(variable);
+                }
+            }
+        }
+
+        if (taskQuery.isIncludeProcessVariables() && !tasksByProcessInstanceId.isEmpty()) {
+            for (List<String> processInstanceIds : CollectionUtil.partition(tasksByProcessInstanceId.keySet(), MAX_IN_CLAUSE_VALUES)) {
+                Map<String, Object> params = new HashMap<>();
+                params.put("executionIds", processInstanceIds);
+                params.put("names", taskQuery.getTaskVariableNames());
+                List<VariableInstanceEntity> variables = getDbSqlSession().selectListNoCacheCheck("selectVariableInstancesByExecutionIdsAndNames", params);
+                for (VariableInstanceEntity variable : variables) {
+                    for (TaskEntityImpl taskEntity : tasksByProcessInstanceId.get(variable.getExecutionId())) {
+                        taskEntity.getQueryVariables().add(variable);
+                    }
+                }
+            }
+        }
+
+        if (taskQuery.isIncludeIdentityLinks()) {
+            for (List<String> taskIds : CollectionUtil.partition(tasksById.keySet(), MAX_IN_CLAUSE_VALUES)) {
+                List<IdentityLinkEntity> identityLinks = getDbSqlSession().selectListNoCacheCheck("selectIdentityLinksByTaskIds", taskIds);
+                for (IdentityLinkEntity identityLink : identityLinks) {
+                    tasksById.get(identityLink.getTaskId()).getQueryIdentityLinks().add(identityLink);
+                }
+            }
+        }
+
+        return tasks;
+    }
+
     @Override
     public long findTaskCountByQueryCriteria(TaskQueryImpl taskQuery) {
         return (Long) getDbSqlSession().selectOne("selectTaskCountByQueryCriteria", taskQuery);
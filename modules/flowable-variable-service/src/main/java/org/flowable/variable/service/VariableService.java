@@ -45,6 +45,8 @@ public interface VariableService {
     
     List<VariableInstanceEntity> findVariableInstancesByExecutionAndNames(String executionId, Collection<String> taskNames);
     
+    List<VariableInstanceEntity> findVariableInstancesByExecutionIdsAndNames(Collection<String> executionIds, Collection<String> names);
+    
     VariableInstanceEntity createVariableInstance(String name, VariableType type, Object value);
     
     void insertVariableInstance(VariableInstanceEntity variable);
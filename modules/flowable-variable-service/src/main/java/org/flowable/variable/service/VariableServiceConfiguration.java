@@ -12,6 +12,8 @@
  */
 package org.flowable.variable.service;
 
+import java.io.File;
+
 import org.flowable.engine.common.AbstractServiceConfiguration;
 import org.flowable.variable.service.history.HistoryVariableInterface;
 import org.flowable.variable.service.impl.HistoricVariableServiceImpl;
@@ -77,6 +79,19 @@ public class VariableServiceConfiguration extends AbstractServiceConfiguration {
      */
     protected boolean serializableVariableTypeTrackDeserializedObjects = true;
 
+    /**
+     * When true, getting a variable of a scope of which the variables aren't fetched yet only fetches the variable with that name, for the scope and all its parent scopes
+     * in one query, instead of fetching all the variables of the scope and of every parent scope that is visited.
+     * 
+     * By default false, as fetching all variables is more performant when many different variables are used in the same transaction.
+     */
+    protected boolean fetchVariablesByName;
+
+    /**
+     * The directory in which the contents of stream variables are copied to temporary files. When null, the default temporary-file directory is used.
+     */
+    protected File temporaryBytesFileDirectory;
+
     // init
     // /////////////////////////////////////////////////////////////////////
 
@@ -225,4 +240,22 @@ public class VariableServiceConfiguration extends AbstractServiceConfiguration {
     public void setSerializableVariableTypeTrackDeserializedObjects(boolean serializableVariableTypeTrackDeserializedObjects) {
         this.serializableVariableTypeTrackDeserializedObjects = serializableVariableTypeTrackDeserializedObjects;
     }
+
+    public boolean isFetchVariablesByName() {
+        return fetchVariablesByName;
+    }
+
+    public VariableServiceConfiguration setFetchVariablesByName(boolean fetchVariablesByName) {
+        this.fetchVariablesByName = fetchVariablesByName;
+        return this;
+    }
+
+    public File getTemporaryBytesFileDirectory() {
+        return temporaryBytesFileDirectory;
+    }
+
+    public VariableServiceConfiguration setTemporaryBytesFileDirectory(File temporaryBytesFileDirectory) {
+        this.temporaryBytesFileDirectory = temporaryBytesFileDirectory;
+        return this;
+    }
 }
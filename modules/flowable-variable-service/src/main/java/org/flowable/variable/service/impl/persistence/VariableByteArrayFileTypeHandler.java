@@ -0,0 +1,52 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.variable.service.impl.persistence;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.flowable.variable.service.impl.persistence.entity.TemporaryBytesFile;
+
+/**
+ * MyBatis TypeHandler that writes the contents of a {@link TemporaryBytesFile} to a byte array column as a binary stream.
+ * 
+ * Only used for parameters: the contents are read back with the {@link VariableByteArrayStreamTypeHandler}.
+ */
+public class VariableByteArrayFileTypeHandler extends BaseTypeHandler<TemporaryBytesFile> {
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, TemporaryBytesFile parameter, JdbcType jdbcType) throws SQLException {
+        // The stream is closed when the file is released, as the driver might only read it when the statement is executed
+        ps.setBinaryStream(i, parameter.openOwnedStream(), parameter.length());
+    }
+
+    @Override
+    public TemporaryBytesFile getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        throw new UnsupportedOperationException("Byte arrays are read with the " + VariableByteArrayStreamTypeHandler.class.getSimpleName());
+    }
+
+    @Override
+    public TemporaryBytesFile getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        throw new UnsupportedOperationException("Byte arrays are read with the " + VariableByteArrayStreamTypeHandler.class.getSimpleName());
+    }
+
+    @Override
+    public TemporaryBytesFile getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        throw new UnsupportedOperationException("Byte arrays are read with the " + VariableByteArrayStreamTypeHandler.class.getSimpleName());
+    }
+
+}
@@ -0,0 +1,156 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.variable.service.impl.persistence.entity;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flowable.engine.common.api.FlowableException;
+import org.flowable.engine.common.impl.util.IoUtil;
+
+/**
+ * Contents of a byte array that are copied to a temporary file, so they can be read any number of times without being kept in memory.
+ *
+ * The file is created with {@link Files#createTempFile}, so on POSIX file systems only its owner can read it.
+ *
+ * The creator holds a reference until it calls {@link #release()}, which it does when its command context is closed. The file is deleted right away then:
+ * streams opened with {@link #openStream()} can still be read on file systems that allow deleting open files. Otherwise the file is deleted when the last
+ * of those streams is closed, or when the JVM exits if a stream is never closed.
+ */
+public class TemporaryBytesFile {
+
+    protected static final int BUFFER_SIZE = 8192;
+
+    protected final File file;
+    protected final List<InputStream> ownedStreams = new ArrayList<>();
+    protected int references = 1;
+    protected boolean released;
+
+    protected TemporaryBytesFile(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Copies the remaining contents of the given stream to a new temporary file in the given directory, or in the default temporary-file directory
+     * when the directory is null. The stream isn't closed.
+     */
+    public static TemporaryBytesFile copyOf(InputStream inputStream, File directory) {
+        File file = null;
+        try {
+            if (directory != null) {
+                file = Files.createTempFile(directory.toPath(), "flowable-bytes-", ".tmp").toFile();
+            } else {
+                file = Files.createTempFile("flowable-bytes-", ".tmp").toFile();
+            }
+            try (OutputStream outputStream = new FileOutputStream(file)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    outputStream.write(buffer, 0, read);
+                }
+            }
+            return new TemporaryBytesFile(file);
+
+        } catch (IOException e) {
+            if (file != null) {
+                file.delete();
+            }
+            throw new FlowableException("Could not copy the bytes to a temporary file", e);
+        }
+    }
+
+    public long length() {
+        return file.length();
+    }
+
+    /**
+     * Opens a new stream over the contents. The stream should be closed, otherwise the file might only be deleted when the JVM exits.
+     */
+    public synchronized InputStream openStream() {
+        if (released) {
+            throw new FlowableException("The temporary file " + file + " was already released");
+        }
+
+        InputStream inputStream;
+        try {
+            inputStream = new FileInputStream(file) {
+
+                protected boolean closed;
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        if (!closed) {
+                            closed = true;
+                            releaseReference();
+                        }
+                    }
+                }
+            };
+        } catch (IOException e) {
+            throw new FlowableException("Could not open the temporary file " + file, e);
+        }
+        references++;
+        return inputStream;
+    }
+
+    /**
+     * Opens a new stream over the contents, which is closed when the creator releases the file.
+     * Used for streams of which the reader doesn't close them, like the ones bound to a JDBC statement.
+     */
+    public synchronized InputStream openOwnedStream() {
+        InputStream inputStream = openStream();
+        ownedStreams.add(inputStream);
+        return inputStream;
+    }
+
+    /**
+     * Releases the reference of the creator, closes the owned streams and deletes the file. Other streams can still be read until they are closed.
+     */
+    public synchronized void release() {
+        if (!released) {
+            released = true;
+            for (InputStream ownedStream : ownedStreams) {
+                IoUtil.closeSilently(ownedStream);
+            }
+            ownedStreams.clear();
+            releaseReference();
+
+            if (references > 0 && !file.delete()) {
+                // A stream is still open and the file system doesn't allow deleting it yet
+                file.deleteOnExit();
+            }
+        }
+    }
+
+    protected synchronized void releaseReference() {
+        if (--references == 0) {
+            file.delete();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TemporaryBytesFile[" + file + "]";
+    }
+
+}
@@ -12,6 +12,8 @@
  */
 package org.flowable.variable.service.impl.persistence.entity;
 
+import java.io.InputStream;
+
 import org.flowable.engine.common.impl.db.HasRevision;
 import org.flowable.engine.common.impl.persistence.entity.Entity;
 
@@ -34,4 +36,25 @@ public interface VariableByteArrayEntity extends Entity, HasRevision {
 
     void setBytes(byte[] bytes);
 
+    /**
+     * The stream from which the bytes are read when this byte array was selected as a stream.
+     */
+    InputStream getBytesStream();
+
+    /**
+     * Only intended to be used when this byte array is selected as a stream.
+     */
+    void setBytesStream(InputStream bytesStream);
+
+    /**
+     * The temporary file from which the bytes are written when this byte array is flushed.
+     */
+    TemporaryBytesFile getBytesFile();
+
+    /**
+     * Sets the temporary file from which the bytes are written when this byte array is flushed, without reading them into memory.
+     * The file must not be released until the transaction is flushed.
+     */
+    void setBytesFile(TemporaryBytesFile bytesFile);
+
 }
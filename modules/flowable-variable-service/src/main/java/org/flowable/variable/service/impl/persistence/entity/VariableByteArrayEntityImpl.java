@@ -12,6 +12,7 @@
  */
 package org.flowable.variable.service.impl.persistence.entity;
 
+import java.io.InputStream;
 import java.io.Serializable;
 import java.util.Arrays;
 
@@ -29,6 +30,8 @@ public class VariableByteArrayEntityImpl extends AbstractEntity implements Varia
 
     protected String name;
     protected byte[] bytes;
+    protected transient InputStream bytesStream;
+    protected transient TemporaryBytesFile bytesFile;
     protected String deploymentId;
 
     public VariableByteArrayEntityImpl() {
@@ -42,7 +45,7 @@ public class VariableByteArrayEntityImpl extends AbstractEntity implements Varia
 
     @Override
     public Object getPersistentState() {
-        return new PersistentState(name, bytes);
+        return new PersistentState(name, bytes, bytesFile);
     }
 
     // getters and setters ////////////////////////////////////////////////////////
@@ -70,6 +73,28 @@ public class VariableByteArrayEntityImpl extends AbstractEntity implements Varia
     @Override
     public void setBytes(byte[] bytes) {
         this.bytes = bytes;
+        this.bytesFile = null;
+    }
+
+    @Override
+    public InputStream getBytesStream() {
+        return bytesStream;
+    }
+
+    @Override
+    public void setBytesStream(InputStream bytesStream) {
+        this.bytesStream = bytesStream;
+    }
+
+    @Override
+    public TemporaryBytesFile getBytesFile() {
+        return bytesFile;
+    }
+
+    @Override
+    public void setBytesFile(TemporaryBytesFile bytesFile) {
+        this.bytesFile = bytesFile;
+        this.bytes = null;
     }
 
     @Override
@@ -83,17 +108,19 @@ public class VariableByteArrayEntityImpl extends AbstractEntity implements Varia
 
         private final String name;
         private final byte[] bytes;
+        private final TemporaryBytesFile bytesFile;
 
-        public PersistentState(String name, byte[] bytes) {
+        public PersistentState(String name, byte[] bytes, TemporaryBytesFile bytesFile) {
             this.name = name;
             this.bytes = bytes;
+            this.bytesFile = bytesFile;
         }
 
         @Override
         public boolean equals(Object obj) {
             if (obj instanceof PersistentState) {
                 PersistentState other = (PersistentState) obj;
-                return StringUtils.equals(this.name, other.name) && Arrays.equals(this.bytes, other.bytes);
+                return StringUtils.equals(this.name, other.name) && Arrays.equals(this.bytes, other.bytes) && this.bytesFile == other.bytesFile;
             }
             return false;
         }
@@ -12,6 +12,7 @@
  */
 package org.flowable.variable.service.impl.persistence.entity;
 
+import java.io.InputStream;
 import java.util.List;
 
 import org.flowable.engine.common.impl.persistence.entity.EntityManager;
@@ -32,4 +33,17 @@ public interface VariableByteArrayEntityManager extends EntityManager<VariableBy
      */
     void deleteByteArrayById(String byteArrayEntityId);
 
+    /**
+     * Returns the {@link VariableByteArrayEntity} with the given id, without selecting its bytes. Intended to be used when the bytes are overwritten,
+     * as the returned entity is cached and its bytes are null until they are set.
+     */
+    VariableByteArrayEntity findByIdWithoutBytes(String byteArrayEntityId);
+
+    /**
+     * Opens a stream that reads the bytes of the {@link VariableByteArrayEntity} with the given id from the database, without loading them in memory.
+     * The stream must be closed by the caller. When it is still open when the current command ends, the unread bytes are copied to a temporary file,
+     * which is deleted when the stream is closed. Returns null when there are no bytes.
+     */
+    InputStream openBytesStream(String byteArrayEntityId);
+
 }
\ No newline at end of file
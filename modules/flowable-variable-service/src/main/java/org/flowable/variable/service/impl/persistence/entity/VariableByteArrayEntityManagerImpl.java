@@ -13,6 +13,7 @@
 
 package org.flowable.variable.service.impl.persistence.entity;
 
+import java.io.InputStream;
 import java.util.List;
 
 import org.flowable.engine.common.impl.persistence.entity.data.DataManager;
@@ -47,6 +48,16 @@ public class VariableByteArrayEntityManagerImpl extends AbstractEntityManager<Va
         byteArrayDataManager.deleteByteArrayNoRevisionCheck(byteArrayEntityId);
     }
 
+    @Override
+    public VariableByteArrayEntity findByIdWithoutBytes(String byteArrayEntityId) {
+        return byteArrayDataManager.findByIdWithoutBytes(byteArrayEntityId);
+    }
+
+    @Override
+    public InputStream openBytesStream(String byteArrayEntityId) {
+        return byteArrayDataManager.openBytesStream(byteArrayEntityId);
+    }
+
     public VariableByteArrayDataManager getByteArrayDataManager() {
         return byteArrayDataManager;
     }
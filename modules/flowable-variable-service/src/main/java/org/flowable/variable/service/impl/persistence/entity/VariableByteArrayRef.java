@@ -12,8 +12,12 @@
  */
 package org.flowable.variable.service.impl.persistence.entity;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.io.Serializable;
 
+import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.engine.common.impl.interceptor.CommandContextCloseListener;
 import org.flowable.variable.service.impl.util.CommandContextUtil;
 
 /**
@@ -53,11 +57,78 @@ public class VariableByteArrayRef implements Serializable {
         return (entity != null ? entity.getBytes() : null);
     }
 
+    /**
+     * Returns a stream of the bytes, which must be closed by the caller. When the bytes aren't loaded yet, they are streamed from the database
+     * instead of being loaded in memory. When the bytes were set as a stream in the current transaction, a new stream over their temporary copy is returned.
+     */
+    public InputStream getInputStream() {
+        if (entity != null) {
+            if (entity.getBytesFile() != null) {
+                return entity.getBytesFile().openStream();
+            }
+            return (entity.getBytes() != null ? new ByteArrayInputStream(entity.getBytes()) : null);
+        }
+        if (id != null) {
+            return CommandContextUtil.getByteArrayEntityManager().openBytesStream(id);
+        }
+        return null;
+    }
+
     public void setValue(String name, byte[] bytes) {
         this.name = name;
         setBytes(bytes);
     }
 
+    /**
+     * Sets the bytes to the contents of the given stream. The contents are copied to a temporary file right away, so the stream can be closed
+     * by the caller and the bytes can be read again before the transaction is flushed. The file is deleted when the command context is closed.
+     */
+    public void setValue(String name, InputStream bytesStream) {
+        this.name = name;
+        if (id == null) {
+            if (bytesStream != null) {
+                VariableByteArrayEntityManager byteArrayEntityManager = CommandContextUtil.getByteArrayEntityManager();
+                entity = byteArrayEntityManager.create();
+                entity.setName(name);
+                entity.setBytesFile(createBytesFile(bytesStream));
+                byteArrayEntityManager.insert(entity);
+                id = entity.getId();
+            }
+        } else if (bytesStream != null) {
+            ensureInitializedForUpdate();
+            entity.setBytesFile(createBytesFile(bytesStream));
+        } else {
+            setBytes(null);
+        }
+    }
+
+    private TemporaryBytesFile createBytesFile(InputStream bytesStream) {
+        final TemporaryBytesFile bytesFile = TemporaryBytesFile.copyOf(bytesStream, CommandContextUtil.getVariableServiceConfiguration().getTemporaryBytesFileDirectory());
+        CommandContextUtil.getCommandContext().addCloseListener(new CommandContextCloseListener() {
+
+            @Override
+            public void closing(CommandContext commandContext) {
+
+            }
+
+            @Override
+            public void afterSessionsFlush(CommandContext commandContext) {
+
+            }
+
+            @Override
+            public void closed(CommandContext commandContext) {
+                bytesFile.release();
+            }
+
+            @Override
+            public void closeFailure(CommandContext commandContext) {
+                bytesFile.release();
+            }
+        });
+        return bytesFile;
+    }
+
     private void setBytes(byte[] bytes) {
         if (id == null) {
             if (bytes != null) {
@@ -69,7 +140,12 @@ public class VariableByteArrayRef implements Serializable {
                 id = entity.getId();
             }
         } else {
-            ensureInitialized();
+            if (bytes != null) {
+                ensureInitializedForUpdate();
+            } else {
+                // Clearing the bytes is only seen as a change when the current bytes are known
+                ensureInitialized();
+            }
             entity.setBytes(bytes);
         }
     }
@@ -101,6 +177,14 @@ public class VariableByteArrayRef implements Serializable {
         }
     }
 
+    // The bytes are overwritten, so there's no need to load the current ones
+    private void ensureInitializedForUpdate() {
+        if (id != null && entity == null) {
+            entity = CommandContextUtil.getByteArrayEntityManager().findByIdWithoutBytes(id);
+            name = entity.getName();
+        }
+    }
+
     public boolean isDeleted() {
         return deleted;
     }
@@ -12,6 +12,8 @@
  */
 package org.flowable.variable.service.impl.persistence.entity;
 
+import java.io.InputStream;
+
 import org.flowable.variable.service.impl.types.VariableType;
 
 /**
@@ -33,6 +35,16 @@ public interface VariableInstanceEntity extends VariableInstance {
 
     VariableByteArrayRef getByteArrayRef();
 
+    /**
+     * Returns a new stream of the bytes of this variable, which doesn't load them in memory when they aren't loaded yet. The stream must be closed by the caller.
+     */
+    InputStream getBytesStream();
+
+    /**
+     * Sets the bytes of this variable to the contents of the given stream, which are copied to a temporary file until the transaction is flushed.
+     */
+    void setBytesStream(InputStream bytesStream);
+
     VariableType getType();
 
     void setType(VariableType type);
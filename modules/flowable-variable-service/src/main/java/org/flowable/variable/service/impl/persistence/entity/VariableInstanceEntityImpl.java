@@ -12,12 +12,15 @@
  */
 package org.flowable.variable.service.impl.persistence.entity;
 
+import java.io.InputStream;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 import org.flowable.engine.common.impl.persistence.entity.AbstractEntity;
+import org.flowable.engine.common.impl.persistence.entity.DirtyTrackingEntity;
+import org.flowable.variable.service.impl.types.InputStreamType;
 import org.flowable.variable.service.impl.types.ValueFields;
 import org.flowable.variable.service.impl.types.VariableType;
 
@@ -26,7 +29,7 @@ import org.flowable.variable.service.impl.types.VariableType;
  * @author Marcus Klimstra (CGI)
  * @author Joram Barrez
  */
-public class VariableInstanceEntityImpl extends AbstractEntity implements VariableInstanceEntity, ValueFields, Serializable {
+public class VariableInstanceEntityImpl extends AbstractEntity implements VariableInstanceEntity, ValueFields, DirtyTrackingEntity, Serializable {
 
     private static final long serialVersionUID = 1L;
 
@@ -76,11 +79,13 @@ public class VariableInstanceEntityImpl extends AbstractEntity implements Variab
 
     @Override
     public void forceUpdate() {
+        trackChange("forcedUpdate", forcedUpdate, true);
         forcedUpdate = true;
     }
     
     @Override
     public void setExecutionId(String executionId) {
+        trackChange("executionId", this.executionId, executionId);
         this.executionId = executionId;
     }
 
@@ -98,6 +103,10 @@ public class VariableInstanceEntityImpl extends AbstractEntity implements Variab
 
     @Override
     public byte[] getBytes() {
+        if (type instanceof InputStreamType) {
+            // The bytes of a stream variable are never loaded in memory, they can only be read as a stream
+            return null;
+        }
         ensureByteArrayRefInitialized();
         return byteArrayRef.getBytes();
     }
@@ -105,7 +114,28 @@ public class VariableInstanceEntityImpl extends AbstractEntity implements Variab
     @Override
     public void setBytes(byte[] bytes) {
         ensureByteArrayRefInitialized();
+        String byteArrayId = byteArrayRef.getId();
         byteArrayRef.setValue("var-" + name, bytes);
+        trackChange("byteArrayValueId", byteArrayId, byteArrayRef.getId());
+    }
+
+    @Override
+    public InputStream getBytesStream() {
+        return (byteArrayRef != null ? byteArrayRef.getInputStream() : null);
+    }
+
+    @Override
+    public void setBytesStream(InputStream bytesStream) {
+        ensureByteArrayRefInitialized();
+        String byteArrayId = byteArrayRef.getId();
+        if (bytesStream == null && byteArrayId != null) {
+            // Removing the byte array doesn't need its bytes to be loaded, as clearing them would
+            byteArrayRef.delete();
+            byteArrayRef = new VariableByteArrayRef();
+        } else {
+            byteArrayRef.setValue("var-" + name, bytesStream);
+        }
+        trackChange("byteArrayValueId", byteArrayId, byteArrayRef.getId());
     }
 
     @Override
@@ -140,6 +170,7 @@ public class VariableInstanceEntityImpl extends AbstractEntity implements Variab
 
     @Override
     public void setName(String name) {
+        trackChange("name", this.name, name);
         this.name = name;
     }
 
@@ -171,6 +202,7 @@ public class VariableInstanceEntityImpl extends AbstractEntity implements Variab
 
     @Override
     public void setType(VariableType type) {
+        trackChange("typeName", this.type != null ? this.type.getTypeName() : null, type != null ? type.getTypeName() : null);
         this.type = type;
     }
 
@@ -206,6 +238,7 @@ public class VariableInstanceEntityImpl extends AbstractEntity implements Variab
 
     @Override
     public void setLongValue(Long longValue) {
+        trackChange("longValue", this.longValue, longValue);
         this.longValue = longValue;
     }
 
@@ -216,6 +249,7 @@ public class VariableInstanceEntityImpl extends AbstractEntity implements Variab
 
     @Override
     public void setDoubleValue(Double doubleValue) {
+        trackChange("doubleValue", this.doubleValue, doubleValue);
         this.doubleValue = doubleValue;
     }
 
@@ -226,6 +260,7 @@ public class VariableInstanceEntityImpl extends AbstractEntity implements Variab
 
     @Override
     public void setTextValue(String textValue) {
+        trackChange("textValue", this.textValue, textValue);
         this.textValue = textValue;
     }
 
@@ -236,6 +271,7 @@ public class VariableInstanceEntityImpl extends AbstractEntity implements Variab
 
     @Override
     public void setTextValue2(String textValue2) {
+        trackChange("textValue2", this.textValue2, textValue2);
         this.textValue2 = textValue2;
     }
 
@@ -51,6 +51,9 @@ public abstract class VariableScopeImpl extends AbstractEntity implements Serial
     // The cache is used when fetching/setting specific variables
     protected Map<String, VariableInstanceEntity> usedVariablesCache = new HashMap<>();
 
+    // The names of the variables that were fetched by name and that don't exist on this scope
+    protected Set<String> missingVariablesCache;
+
     protected Map<String, VariableInstance> transientVariabes;
 
     protected ELContext cachedElContext;
@@ -279,6 +282,13 @@ public abstract class VariableScopeImpl extends AbstractEntity implements Serial
         }
 
         if (fetchAllVariables) {
+
+            if (variableInstances == null && isFetchVariablesByName()) {
+                // Fetch the variable for this scope and all parent scopes in one go, instead of fetching all their variables
+                prefetchVariables(Collections.singleton(variableName));
+                return getVariableInstance(variableName, false);
+            }
+
             ensureVariableInstancesInitialized();
             VariableInstanceEntity variableInstance = variableInstances.get(variableName);
             if (variableInstance != null) {
@@ -299,7 +309,7 @@ public abstract class VariableScopeImpl extends AbstractEntity implements Serial
                 return variableInstances.get(variableName);
             }
 
-            VariableInstanceEntity variable = getSpecificVariable(variableName);
+            VariableInstanceEntity variable = findSpecificVariable(variableName);
             if (variable != null) {
                 usedVariablesCache.put(variableName, variable);
                 return variable;
@@ -318,6 +328,111 @@ public abstract class VariableScopeImpl extends AbstractEntity implements Serial
 
     protected abstract VariableInstanceEntity getSpecificVariable(String variableName);
 
+    /**
+     * Returns the variable with the given name of this scope, without a query when the variable is known not to exist on this scope.
+     */
+    protected VariableInstanceEntity findSpecificVariable(String variableName) {
+        if (missingVariablesCache != null && missingVariablesCache.contains(variableName)) {
+            return null;
+        }
+        return getSpecificVariable(variableName);
+    }
+
+    /**
+     * Returns the id of the execution that owns the variables of this scope, if the variables of this scope are the variables of an execution
+     * that aren't bound to a task. The variables of such scopes are fetched together by {@link #prefetchVariables(Collection)}.
+     */
+    protected String getVariableScopeExecutionId() {
+        return null;
+    }
+
+    /**
+     * Fetches the variables with the given names of this scope and all its parent scopes, without fetching all the variables of these scopes.
+     * The variables of all execution scopes in the hierarchy are fetched in one query.
+     * 
+     * Afterwards, getting any of these variables doesn't need a query anymore, whether or not all variables are fetched.
+     */
+    public void prefetchVariables(Collection<String> variableNames) {
+        if (variableNames == null || variableNames.isEmpty()) {
+            return;
+        }
+
+        CommandContext commandContext = Context.getCommandContext();
+        if (commandContext == null) {
+            throw new FlowableException("lazy loading outside command context");
+        }
+
+        Map<String, VariableScopeImpl> executionScopes = null;
+        VariableScopeImpl variableScope = this;
+        while (variableScope != null) {
+            if (variableScope.variableInstances == null && !variableScope.isVariablesFetched(variableNames)) {
+                String executionId = variableScope.getVariableScopeExecutionId();
+                if (executionId != null) {
+                    if (executionScopes == null) {
+                        executionScopes = new HashMap<>();
+                    }
+                    executionScopes.put(executionId, variableScope);
+                } else {
+                    variableScope.cacheFetchedVariables(variableNames, variableScope.getSpecificVariables(variableNames));
+                }
+            }
+            variableScope = variableScope.getParentVariableScope();
+        }
+
+        if (executionScopes != null) {
+            List<VariableInstanceEntity> fetchedVariables = CommandContextUtil.getVariableInstanceEntityManager(commandContext)
+                    .findVariableInstancesByExecutionIdsAndNames(executionScopes.keySet(), variableNames);
+
+            Map<String, List<VariableInstanceEntity>> fetchedVariablesByExecutionId = new HashMap<>();
+            for (VariableInstanceEntity fetchedVariable : fetchedVariables) {
+                List<VariableInstanceEntity> executionVariables = fetchedVariablesByExecutionId.get(fetchedVariable.getExecutionId());
+                if (executionVariables == null) {
+                    executionVariables = new ArrayList<>();
+                    fetchedVariablesByExecutionId.put(fetchedVariable.getExecutionId(), executionVariables);
+                }
+                executionVariables.add(fetchedVariable);
+            }
+
+            for (Map.Entry<String, VariableScopeImpl> executionScope : executionScopes.entrySet()) {
+                List<VariableInstanceEntity> executionVariables = fetchedVariablesByExecutionId.get(executionScope.getKey());
+                executionScope.getValue().cacheFetchedVariables(variableNames,
+                        executionVariables != null ? executionVariables : Collections.<VariableInstanceEntity>emptyList());
+            }
+        }
+    }
+
+    protected boolean isVariablesFetched(Collection<String> variableNames) {
+        for (String variableName : variableNames) {
+            if (!usedVariablesCache.containsKey(variableName) && (missingVariablesCache == null || !missingVariablesCache.contains(variableName))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected void cacheFetchedVariables(Collection<String> variableNames, List<VariableInstanceEntity> fetchedVariables) {
+        for (VariableInstanceEntity fetchedVariable : fetchedVariables) {
+            // A variable that is already in the cache could have been changed in this transaction
+            if (!usedVariablesCache.containsKey(fetchedVariable.getName())) {
+                usedVariablesCache.put(fetchedVariable.getName(), fetchedVariable);
+            }
+        }
+
+        for (String variableName : variableNames) {
+            if (!usedVariablesCache.containsKey(variableName)) {
+                if (missingVariablesCache == null) {
+                    missingVariablesCache = new HashSet<>();
+                }
+                missingVariablesCache.add(variableName);
+            }
+        }
+    }
+
+    protected boolean isFetchVariablesByName() {
+        VariableServiceConfiguration variableServiceConfiguration = CommandContextUtil.getVariableServiceConfiguration();
+        return variableServiceConfiguration != null && variableServiceConfiguration.isFetchVariablesByName();
+    }
+
     @Override
     public Object getVariableLocal(String variableName) {
         return getVariableLocal(variableName, true);
@@ -351,6 +466,10 @@ public abstract class VariableScopeImpl extends AbstractEntity implements Serial
 
         if (fetchAllVariables) {
 
+            if (variableInstances == null && isFetchVariablesByName()) {
+                return getVariableInstanceLocal(variableName, false);
+            }
+
             ensureVariableInstancesInitialized();
 
             VariableInstanceEntity variableInstance = variableInstances.get(variableName);
@@ -368,7 +487,7 @@ public abstract class VariableScopeImpl extends AbstractEntity implements Serial
                 }
             }
 
-            VariableInstanceEntity variable = getSpecificVariable(variableName);
+            VariableInstanceEntity variable = findSpecificVariable(variableName);
             if (variable != null) {
                 usedVariablesCache.put(variableName, variable);
                 return variable;
@@ -695,7 +814,7 @@ public abstract class VariableScopeImpl extends AbstractEntity implements Serial
 
                 // Not in local cache, check if defined on this scope
                 // Create it if it doesn't exist yet
-                VariableInstanceEntity variable = getSpecificVariable(variableName);
+                VariableInstanceEntity variable = findSpecificVariable(variableName);
                 if (variable != null) {
                     updateVariableInstance(variable, value);
                     usedVariablesCache.put(variableName, variable);
@@ -762,7 +881,7 @@ public abstract class VariableScopeImpl extends AbstractEntity implements Serial
                 updateVariableInstance(variableInstances.get(variableName), value);
             } else {
 
-                VariableInstanceEntity variable = getSpecificVariable(variableName);
+                VariableInstanceEntity variable = findSpecificVariable(variableName);
                 if (variable != null) {
                     updateVariableInstance(variable, value);
                 } else {
@@ -876,6 +995,9 @@ public abstract class VariableScopeImpl extends AbstractEntity implements Serial
         if (variableInstances != null) {
             variableInstances.put(variableName, variableInstance);
         }
+        if (missingVariablesCache != null) {
+            missingVariablesCache.remove(variableName);
+        }
         
         VariableServiceConfiguration variableServiceConfiguration = CommandContextUtil.getVariableServiceConfiguration();
         if ("task".equals(variableScopeType())) {
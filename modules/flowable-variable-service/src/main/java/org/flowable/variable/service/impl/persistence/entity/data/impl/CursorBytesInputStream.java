@@ -0,0 +1,148 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.variable.service.impl.persistence.entity.data.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.flowable.engine.common.api.FlowableException;
+import org.flowable.engine.common.impl.interceptor.CommandContext;
+import org.flowable.engine.common.impl.interceptor.CommandContextCloseListener;
+import org.flowable.engine.common.impl.util.IoUtil;
+import org.flowable.variable.service.VariableServiceConfiguration;
+import org.flowable.variable.service.impl.persistence.entity.TemporaryBytesFile;
+import org.flowable.variable.service.impl.util.CommandContextUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stream over the bytes of a byte array that are read through a database cursor.
+ *
+ * The cursor can only stay open as long as the {@link CommandContext} that opened it. When the stream isn't closed by the time the command context
+ * is closing, the bytes that weren't read yet are copied to a {@link TemporaryBytesFile}, which is read from then on. That way the stream can still be
+ * read after the command returned, for example when it's the value returned by RuntimeService#getVariable. The caller should always close the stream:
+ * on file systems that don't allow deleting open files, the temporary file is only deleted when the JVM exits otherwise.
+ */
+public class CursorBytesInputStream extends InputStream implements CommandContextCloseListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CursorBytesInputStream.class);
+
+    protected Cursor<?> cursor;
+    protected InputStream delegate;
+    protected boolean closed;
+
+    public CursorBytesInputStream(Cursor<?> cursor, InputStream cursorStream) {
+        this.cursor = cursor;
+        this.delegate = cursorStream;
+    }
+
+    @Override
+    public synchronized int read() throws IOException {
+        return getDelegate().read();
+    }
+
+    @Override
+    public synchronized int read(byte[] b, int off, int len) throws IOException {
+        return getDelegate().read(b, off, len);
+    }
+
+    @Override
+    public synchronized long skip(long n) throws IOException {
+        return getDelegate().skip(n);
+    }
+
+    @Override
+    public synchronized int available() throws IOException {
+        return getDelegate().available();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            try {
+                if (delegate != null) {
+                    delegate.close();
+                }
+            } finally {
+                delegate = null;
+                closeCursor();
+            }
+        }
+    }
+
+    protected InputStream getDelegate() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (delegate == null) {
+            throw new IOException("The bytes could not be copied when the command that opened the stream ended");
+        }
+        return delegate;
+    }
+
+    @Override
+    public synchronized void closing(CommandContext commandContext) {
+        if (!closed && cursor != null) {
+            InputStream cursorStream = delegate;
+            delegate = null;
+            try {
+                VariableServiceConfiguration variableServiceConfiguration = CommandContextUtil.getVariableServiceConfiguration(commandContext);
+                TemporaryBytesFile bytesFile = TemporaryBytesFile.copyOf(cursorStream,
+                        variableServiceConfiguration != null ? variableServiceConfiguration.getTemporaryBytesFileDirectory() : null);
+                delegate = bytesFile.openStream();
+                // the stream holds the only reference to the file from now on
+                bytesFile.release();
+            } catch (FlowableException e) {
+                // reading the stream fails from now on, which shouldn't roll back the command
+                LOGGER.warn("Could not copy the bytes of an unclosed stream before its cursor is closed", e);
+            } finally {
+                IoUtil.closeSilently(cursorStream);
+                closeCursor();
+            }
+        }
+    }
+
+    @Override
+    public void afterSessionsFlush(CommandContext commandContext) {
+
+    }
+
+    @Override
+    public void closed(CommandContext commandContext) {
+
+    }
+
+    @Override
+    public synchronized void closeFailure(CommandContext commandContext) {
+        // The session closes the cursor anyway
+        if (cursor != null) {
+            IoUtil.closeSilently(delegate);
+            delegate = null;
+            closeCursor();
+        }
+    }
+
+    protected void closeCursor() {
+        if (cursor != null) {
+            try {
+                cursor.close();
+            } catch (IOException e) {
+                // the cursor is closed with the session anyway
+            }
+            cursor = null;
+        }
+    }
+
+}
@@ -12,8 +12,13 @@
  */
 package org.flowable.variable.service.impl.persistence.entity.data.impl;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
 import java.util.List;
 
+import org.apache.ibatis.cursor.Cursor;
+import org.flowable.engine.common.api.FlowableException;
 import org.flowable.engine.common.impl.db.AbstractDataManager;
 import org.flowable.variable.service.impl.persistence.entity.VariableByteArrayEntity;
 import org.flowable.variable.service.impl.persistence.entity.VariableByteArrayEntityImpl;
@@ -45,4 +50,45 @@ public class MybatisVariableByteArrayDataManager extends AbstractDataManager<Var
         getDbSqlSession().delete("deleteVariableByteArrayNoRevisionCheck", byteArrayEntityId, VariableByteArrayEntityImpl.class);
     }
 
+    @Override
+    public VariableByteArrayEntity findByIdWithoutBytes(String byteArrayEntityId) {
+        VariableByteArrayEntity cachedEntity = getEntityCache().findInCache(getManagedEntityClass(), byteArrayEntityId);
+        if (cachedEntity != null) {
+            return cachedEntity;
+        }
+        return (VariableByteArrayEntity) getDbSqlSession().selectOne("selectVariableByteArrayWithoutBytes", byteArrayEntityId);
+    }
+
+    @Override
+    public InputStream openBytesStream(String byteArrayEntityId) {
+        // The cursor keeps the result set open while the bytes are streamed
+        Cursor<VariableByteArrayEntity> cursor = getDbSqlSession().selectCursor("selectVariableByteArrayBytesStream", byteArrayEntityId);
+        InputStream bytesStream = null;
+        try {
+            Iterator<VariableByteArrayEntity> iterator = cursor.iterator();
+            if (iterator.hasNext()) {
+                bytesStream = iterator.next().getBytesStream();
+            }
+        } finally {
+            if (bytesStream == null) {
+                closeCursor(cursor);
+            }
+        }
+        if (bytesStream == null) {
+            return null;
+        }
+
+        CursorBytesInputStream cursorBytesStream = new CursorBytesInputStream(cursor, bytesStream);
+        getCommandContext().addCloseListener(cursorBytesStream);
+        return cursorBytesStream;
+    }
+
+    protected void closeCursor(Cursor<?> cursor) {
+        try {
+            cursor.close();
+        } catch (IOException e) {
+            throw new FlowableException("Could not close the byte array cursor", e);
+        }
+    }
+
 }
@@ -84,6 +84,15 @@ public class MybatisVariableInstanceDataManager extends AbstractDataManager<Vari
         return getDbSqlSession().selectList("selectVariableInstancesByExecutionAndNames", params);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<VariableInstanceEntity> findVariableInstancesByExecutionIdsAndNames(Collection<String> executionIds, Collection<String> names) {
+        Map<String, Object> params = new HashMap<>(2);
+        params.put("executionIds", executionIds);
+        params.put("names", names);
+        return getDbSqlSession().selectList("selectVariableInstancesByExecutionIdsAndNames", params);
+    }
+
     @Override
     public VariableInstanceEntity findVariableInstanceByTaskAndName(String taskId, String variableName) {
         Map<String, String> params = new HashMap<>(2);
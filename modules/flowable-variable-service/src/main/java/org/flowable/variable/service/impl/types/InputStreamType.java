@@ -0,0 +1,70 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flowable.variable.service.impl.types;
+
+import java.io.InputStream;
+
+import org.flowable.engine.common.api.FlowableIllegalArgumentException;
+import org.flowable.variable.service.impl.persistence.entity.VariableInstanceEntity;
+
+/**
+ * Variable type for large binary contents, that are streamed to and from the database instead of being loaded in memory.
+ * 
+ * Setting an {@link InputStream} as value reads it to the end and copies its contents to a temporary file, which is written to the database when the
+ * transaction is flushed. The stream isn't closed. Until then, getting the value returns a new stream over the temporary file.
+ * 
+ * Getting a stored value returns a stream that reads the contents from the database. When the stream is still open when the command ends, for
+ * example when it's returned by RuntimeService#getVariable, the unread contents are copied to a temporary file first. Streams must always be closed
+ * by the caller, so the temporary files are deleted.
+ * 
+ * The contents are never available as a byte array, so they aren't copied to the history either.
+ */
+public class InputStreamType implements VariableType {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String TYPE_NAME = "stream";
+
+    @Override
+    public String getTypeName() {
+        return TYPE_NAME;
+    }
+
+    @Override
+    public boolean isCachable() {
+        // a stream can only be read once
+        return false;
+    }
+
+    @Override
+    public Object getValue(ValueFields valueFields) {
+        if (valueFields instanceof VariableInstanceEntity) {
+            return ((VariableInstanceEntity) valueFields).getBytesStream();
+        }
+        return null;
+    }
+
+    @Override
+    public void setValue(Object value, ValueFields valueFields) {
+        if (!(valueFields instanceof VariableInstanceEntity)) {
+            throw new FlowableIllegalArgumentException("Stream variable '" + valueFields.getName() + "' can only be stored as a variable instance");
+        }
+        ((VariableInstanceEntity) valueFields).setBytesStream((InputStream) value);
+    }
+
+    @Override
+    public boolean isAbleToStore(Object value) {
+        return value instanceof InputStream;
+    }
+
+}